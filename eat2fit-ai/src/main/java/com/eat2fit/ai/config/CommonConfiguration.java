@@ -2,6 +2,8 @@ package com.eat2fit.ai.config;
 
 
 import com.eat2fit.ai.constants.SystemConstants;
+import com.eat2fit.common.config.ContextPropagationConfig;
+import com.eat2fit.common.config.MvcConfig;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
 import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
@@ -14,9 +16,14 @@ import org.springframework.ai.vectorstore.SimpleVectorStore;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Primary;
 
+/**
+ * AI服务不扫描 com.eat2fit.common，这里单独引入用户信息拦截器和上下文传递配置
+ */
 @Configuration
+@Import({MvcConfig.class, ContextPropagationConfig.class})
 public class CommonConfiguration {
 
     @Bean
@@ -3,6 +3,7 @@ package com.eat2fit.ai.controller;
 
 import com.eat2fit.ai.constants.SystemConstants;
 import com.eat2fit.ai.repository.ChatHistoryRepository;
+import com.eat2fit.common.context.ReactorUserContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.messages.SystemMessage;
@@ -49,7 +50,8 @@ public class ChatController {
                 .user(prompt)
                 .advisors(a -> a.param(CHAT_MEMORY_CONVERSATION_ID_KEY, chatId))
                 .stream()
-                .content();
+                .content()
+                .contextWrite(ReactorUserContext.capture());
     }
 
 
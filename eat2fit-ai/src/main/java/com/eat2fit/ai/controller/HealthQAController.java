@@ -3,6 +3,7 @@ package com.eat2fit.ai.controller;
 import com.eat2fit.ai.constants.SystemConstants;
 import com.eat2fit.ai.repository.ChatHistoryRepository;
 import com.eat2fit.ai.vo.HealthQARequest;
+import com.eat2fit.common.context.ReactorUserContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.messages.SystemMessage;
@@ -44,7 +45,8 @@ public class HealthQAController {
                 .user(request.getPrompt())
                 .advisors(a -> a.param(CHAT_MEMORY_CONVERSATION_ID_KEY, request.getChatId()))
                 .stream()
-                .content();
+                .content()
+                .contextWrite(ReactorUserContext.capture());
     }
 
 } 
\ No newline at end of file
@@ -3,33 +3,37 @@ package com.eat2fit.ai.repository;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class InMemoryChatHistoryRepository implements ChatHistoryRepository {
 
-    private final Map<String,List<String>> chatHistory = new HashMap<>();
+    /**
+     * 会话ID按类型分组，保持写入顺序；多个请求线程会同时写入，按类型加锁
+     */
+    private final Map<String, Set<String>> chatHistory = new ConcurrentHashMap<>();
 
 
     @Override
     public void save(String type, String chatId) {
-        if(!chatHistory.containsKey(type)){
-            chatHistory.put(type, new ArrayList<>());
+        Set<String> chatIds = chatHistory.computeIfAbsent(type, k -> new LinkedHashSet<>());
+        synchronized (chatIds) {
+            chatIds.add(chatId);
         }
-        List<String> chatIds = chatHistory.get(type);
-//        List<String> chatIds = chatHistory.computeIfAbsent(type, k -> new ArrayList<>());
-        if(chatIds.contains(chatId)){
-            return;
-        }
-        chatIds.add(chatId);
     }
 
     @Override
     public List<String> getChatIds(String type) {
-        List<String> chatIds = chatHistory.get(type);
-        return chatIds == null ? new ArrayList<>() : chatIds;
-//        return chatHistory.getOrDefault(type,List.of());
+        Set<String> chatIds = chatHistory.get(type);
+        if (chatIds == null) {
+            return new ArrayList<>();
+        }
+        synchronized (chatIds) {
+            return new ArrayList<>(chatIds);
+        }
     }
 }
@@ -0,0 +1,53 @@
+package com.eat2fit.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.StringJoiner;
+
+/**
+ * JMH基准统一入口
+ * <p>
+ * 运行：mvn -pl eat2fit-bench -am compile exec:java
+ * -Dexec.mainClass=com.eat2fit.bench.JmhRunner -Dexec.args="BeanCopy"
+ * <p>
+ * 参数为要运行的基准类名正则，不传则运行全部。结果写入 bench.output（默认 target/jmh-result.json），
+ * 格式由 bench.format 指定（json、csv，默认json），便于跨版本对比。
+ */
+public class JmhRunner {
+
+    public static void main(String[] args) throws Exception {
+        exposeClasspath();
+
+        OptionsBuilder builder = new OptionsBuilder();
+        for (String include : args) {
+            builder.include(include);
+        }
+        Options options = builder
+                .resultFormat(ResultFormatType.valueOf(System.getProperty("bench.format", "json").toUpperCase()))
+                .result(System.getProperty("bench.output", "target/jmh-result.json"))
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * exec:java在Maven自己的类加载器里运行，java.class.path只有Maven的启动jar，
+     * JMH fork出的子进程会找不到基准类，这里把当前类加载器的路径补回系统属性
+     */
+    private static void exposeClasspath() {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (!(loader instanceof URLClassLoader urlLoader)) {
+            return;
+        }
+        StringJoiner classpath = new StringJoiner(File.pathSeparator);
+        for (URL url : urlLoader.getURLs()) {
+            classpath.add(new File(url.getFile()).getPath());
+        }
+        System.setProperty("java.class.path", classpath.toString());
+    }
+}
@@ -0,0 +1,44 @@
+package com.eat2fit.bench.ai;
+
+import com.eat2fit.ai.repository.InMemoryChatHistoryRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InMemoryChatHistoryRepository.save 在多线程并发写入下的吞吐
+ * <p>
+ * 8个线程同时写入三种业务类型，会话ID从固定的ID池里随机取，既有新增也有重复写入，
+ * 与多个用户同时发起对话的情况一致。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(8)
+public class ChatHistoryBenchmark {
+
+    private static final String[] TYPES = {"chat", "service", "pdf"};
+
+    private static final int CHAT_ID_POOL = 10_000;
+
+    private final InMemoryChatHistoryRepository repository = new InMemoryChatHistoryRepository();
+
+    @Benchmark
+    public void save() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        repository.save(TYPES[random.nextInt(TYPES.length)], "chat-" + random.nextInt(CHAT_ID_POOL));
+    }
+}
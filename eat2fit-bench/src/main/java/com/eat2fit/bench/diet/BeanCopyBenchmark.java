@@ -0,0 +1,174 @@
+package com.eat2fit.bench.diet;
+
+import com.eat2fit.diet.converter.FoodConverter;
+import com.eat2fit.diet.converter.RecipeConverter;
+import com.eat2fit.diet.entity.Food;
+import com.eat2fit.diet.entity.Recipe;
+import com.eat2fit.diet.vo.FoodVO;
+import com.eat2fit.diet.vo.RecipeDetailVO;
+import com.eat2fit.diet.vo.RecipeVO;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.beans.BeanUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 实体转VO的单条记录开销：反射的BeanUtils.copyProperties 对比 MapStruct生成的转换器
+ * <p>
+ * 每次调用转换一整页（{@link #PAGE_SIZE}条），通过 OperationsPerInvocation 折算成单条记录的耗时，
+ * 和分页接口的实际用法一致。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BeanCopyBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private final RecipeConverter recipeConverter = Mappers.getMapper(RecipeConverter.class);
+
+    private final FoodConverter foodConverter = Mappers.getMapper(FoodConverter.class);
+
+    private List<Recipe> recipes;
+
+    private List<Food> foods;
+
+    @Setup
+    public void setUp() {
+        recipes = new ArrayList<>(PAGE_SIZE);
+        foods = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            recipes.add(recipe(i));
+            foods.add(food(i));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public void recipeBeanUtils(Blackhole bh) {
+        for (Recipe recipe : recipes) {
+            RecipeVO vo = new RecipeVO();
+            BeanUtils.copyProperties(recipe, vo);
+            bh.consume(vo);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public void recipeConverter(Blackhole bh) {
+        for (Recipe recipe : recipes) {
+            bh.consume(recipeConverter.toVO(recipe));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public void recipeDetailBeanUtils(Blackhole bh) {
+        for (Recipe recipe : recipes) {
+            RecipeDetailVO vo = new RecipeDetailVO();
+            BeanUtils.copyProperties(recipe, vo);
+            bh.consume(vo);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public void recipeDetailConverter(Blackhole bh) {
+        for (Recipe recipe : recipes) {
+            bh.consume(recipeConverter.toDetailVO(recipe));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public void foodBeanUtils(Blackhole bh) {
+        for (Food food : foods) {
+            FoodVO vo = new FoodVO();
+            BeanUtils.copyProperties(food, vo);
+            bh.consume(vo);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public void foodConverter(Blackhole bh) {
+        bh.consume(foodConverter.toVOList(foods));
+    }
+
+    /**
+     * 难度、目标文本描述（原 RecipeController.setDifficultyAndGoalText），覆盖全部取值和未知值
+     */
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public void recipeTexts(Blackhole bh) {
+        for (Recipe recipe : recipes) {
+            bh.consume(recipeConverter.difficultyText(recipe.getDifficulty()));
+            bh.consume(recipeConverter.fitnessGoalText(recipe.getFitnessGoal()));
+        }
+    }
+
+    static Recipe recipe(int i) {
+        Recipe recipe = new Recipe();
+        recipe.setId((long) i);
+        recipe.setTitle("鸡胸肉藜麦沙拉" + i);
+        recipe.setDescription("高蛋白低脂的减脂午餐");
+        recipe.setCoverImg("https://eat2fit.oss-cn-hangzhou.aliyuncs.com/recipe/" + i + ".jpg");
+        recipe.setPrepTime(10);
+        recipe.setCookTime(15);
+        recipe.setServings(1);
+        recipe.setCalories(420);
+        recipe.setProtein(new BigDecimal("38.5"));
+        recipe.setFat(new BigDecimal("9.2"));
+        recipe.setCarbs(new BigDecimal("41.0"));
+        recipe.setMealType("午餐");
+        recipe.setTags("减脂,高蛋白,快手");
+        recipe.setFitnessGoal(i % 5 + 1);
+        recipe.setDifficulty(i % 4 + 1);
+        recipe.setSteps("[{\"step\":1,\"content\":\"鸡胸肉煎熟切块\"},{\"step\":2,\"content\":\"藜麦煮熟拌匀\"}]");
+        recipe.setAuthorId(1L);
+        recipe.setAuthorName("eat2fit");
+        recipe.setViewCount(1024L);
+        recipe.setLikeCount(128L);
+        recipe.setStatus(1);
+        recipe.setCreateTime(LocalDateTime.now());
+        recipe.setUpdateTime(LocalDateTime.now());
+        return recipe;
+    }
+
+    static Food food(int i) {
+        Food food = new Food();
+        food.setId((long) i);
+        food.setName("西兰花" + i);
+        food.setCategory("蔬菜");
+        food.setCalories(34);
+        food.setProtein(new BigDecimal("2.8"));
+        food.setFat(new BigDecimal("0.4"));
+        food.setCarbs(new BigDecimal("6.6"));
+        food.setFiber(new BigDecimal("2.6"));
+        food.setImageUrl("https://eat2fit.oss-cn-hangzhou.aliyuncs.com/food/" + i + ".jpg");
+        food.setUnit("100g");
+        food.setStatus(1);
+        food.setCreateTime(LocalDateTime.now());
+        food.setUpdateTime(LocalDateTime.now());
+        return food;
+    }
+}
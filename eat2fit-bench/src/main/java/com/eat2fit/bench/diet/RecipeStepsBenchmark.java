@@ -0,0 +1,77 @@
+package com.eat2fit.bench.diet;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 食谱烹饪步骤（Recipe.steps，JSON字符串）的解析开销
+ * <p>
+ * readValue 为 RecipeController 现在的写法，每次调用新建 TypeReference；
+ * objectReader 为预先按目标类型构建好的 ObjectReader。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RecipeStepsBenchmark {
+
+    private static final TypeReference<List<Map<String, Object>>> STEPS_TYPE = new TypeReference<>() {
+    };
+
+    /**
+     * 步骤数量
+     */
+    @Param({"4", "12"})
+    private int steps;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ObjectReader stepsReader;
+
+    private String json;
+
+    @Setup
+    public void setUp() throws Exception {
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (int i = 1; i <= steps; i++) {
+            Map<String, Object> step = new LinkedHashMap<>();
+            step.put("step", i);
+            step.put("content", "第" + i + "步：鸡胸肉切块，加入黑胡椒和少许盐腌制十分钟，锅中少油煎至两面金黄");
+            step.put("image", "https://eat2fit.oss-cn-hangzhou.aliyuncs.com/recipe/step/" + i + ".jpg");
+            step.put("duration", 5);
+            list.add(step);
+        }
+        json = objectMapper.writeValueAsString(list);
+        stepsReader = objectMapper.readerFor(STEPS_TYPE);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> readValue() throws Exception {
+        return objectMapper.readValue(json, new TypeReference<List<Map<String, Object>>>() {});
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> objectReader() throws Exception {
+        return stepsReader.readValue(json);
+    }
+}
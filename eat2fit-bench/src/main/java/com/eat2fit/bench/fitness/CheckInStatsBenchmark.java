@@ -0,0 +1,64 @@
+package com.eat2fit.bench.fitness;
+
+import com.eat2fit.fitness.entity.WorkoutCheckIn;
+import com.eat2fit.fitness.service.impl.CheckInStatsCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 打卡统计计算（/fitness/checkin/stats）的内存计算开销
+ * <p>
+ * 模拟一个用户连续打卡 {@code streak} 天、更早的记录隔天打卡，总记录数为 {@code records}。
+ * 数据库侧现在只有一次查询，这里测的是拿到记录之后的计算部分。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CheckInStatsBenchmark {
+
+    private static final int STREAK = 21;
+
+    @Param({"30", "365", "1000"})
+    private int records;
+
+    private final LocalDate today = LocalDate.of(2025, 6, 18);
+
+    private List<WorkoutCheckIn> checkIns;
+
+    @Setup
+    public void setUp() {
+        checkIns = new ArrayList<>(records);
+        LocalDate date = today;
+        for (int i = 0; i < records; i++) {
+            WorkoutCheckIn checkIn = new WorkoutCheckIn();
+            checkIn.setCheckInDate(date);
+            checkIn.setDuration(30 + i % 30);
+            checkIn.setCalorieConsumption(200 + i % 150);
+            checkIns.add(checkIn);
+            date = date.minusDays(i < STREAK ? 1 : 2);
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> calculate() {
+        return CheckInStatsCalculator.calculate(checkIns, today);
+    }
+}
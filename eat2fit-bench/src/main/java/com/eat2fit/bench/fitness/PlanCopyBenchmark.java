@@ -0,0 +1,152 @@
+package com.eat2fit.bench.fitness;
+
+import com.eat2fit.fitness.converter.CourseConverter;
+import com.eat2fit.fitness.converter.PlanConverter;
+import com.eat2fit.fitness.entity.WorkoutCourse;
+import com.eat2fit.fitness.entity.WorkoutPlan;
+import com.eat2fit.fitness.vo.CourseVO;
+import com.eat2fit.fitness.vo.PlanVO;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.beans.BeanUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 健身服务实体转VO的单条记录开销，与 diet 下的 BeanCopyBenchmark 对应
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PlanCopyBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private final PlanConverter planConverter = Mappers.getMapper(PlanConverter.class);
+
+    private final CourseConverter courseConverter = Mappers.getMapper(CourseConverter.class);
+
+    private List<WorkoutPlan> plans;
+
+    private List<WorkoutCourse> courses;
+
+    @Setup
+    public void setUp() {
+        plans = new ArrayList<>(PAGE_SIZE);
+        courses = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            plans.add(plan(i));
+            courses.add(course(i));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public void planBeanUtils(Blackhole bh) {
+        for (WorkoutPlan plan : plans) {
+            PlanVO vo = new PlanVO();
+            BeanUtils.copyProperties(plan, vo);
+            bh.consume(vo);
+        }
+    }
+
+    /**
+     * 转换器同时填充难度、目标文本
+     */
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public void planConverter(Blackhole bh) {
+        for (WorkoutPlan plan : plans) {
+            bh.consume(planConverter.toVO(plan));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public void courseBeanUtils(Blackhole bh) {
+        for (WorkoutCourse course : courses) {
+            CourseVO vo = new CourseVO();
+            BeanUtils.copyProperties(course, vo);
+            bh.consume(vo);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public void courseConverter(Blackhole bh) {
+        for (WorkoutCourse course : courses) {
+            bh.consume(courseConverter.toVO(course));
+        }
+    }
+
+    /**
+     * 难度、目标文本描述（原各控制器的 setDifficultyAndGoalText）
+     */
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public void planTexts(Blackhole bh) {
+        for (WorkoutPlan plan : plans) {
+            bh.consume(planConverter.difficultyText(plan.getDifficulty()));
+            bh.consume(planConverter.fitnessGoalText(plan.getFitnessGoal()));
+        }
+    }
+
+    static WorkoutPlan plan(int i) {
+        WorkoutPlan plan = new WorkoutPlan();
+        plan.setId((long) i);
+        plan.setName("四周减脂入门计划" + i);
+        plan.setDescription("每周三练，有氧结合核心训练");
+        plan.setFitnessGoal(i % 5 + 1);
+        plan.setDifficulty(i % 4 + 1);
+        plan.setBodyFocus("全身,核心");
+        plan.setDurationWeeks(4);
+        plan.setSessionsPerWeek(3);
+        plan.setCoverImg("https://eat2fit.oss-cn-hangzhou.aliyuncs.com/plan/" + i + ".jpg");
+        plan.setEquipmentNeeded("瑜伽垫,哑铃");
+        plan.setIsAiGenerated(0);
+        plan.setIsTemplate(1);
+        plan.setStatus(1);
+        plan.setCreateTime(LocalDateTime.now());
+        plan.setUpdateTime(LocalDateTime.now());
+        return plan;
+    }
+
+    static WorkoutCourse course(int i) {
+        WorkoutCourse course = new WorkoutCourse();
+        course.setId((long) i);
+        course.setTitle("15分钟HIIT燃脂" + i);
+        course.setDescription("无器械高强度间歇训练");
+        course.setCoverImg("https://eat2fit.oss-cn-hangzhou.aliyuncs.com/course/" + i + ".jpg");
+        course.setVideoUrl("https://eat2fit.oss-cn-hangzhou.aliyuncs.com/video/" + i + ".mp4");
+        course.setDuration(15);
+        course.setDifficulty(i % 4 + 1);
+        course.setFitnessGoal(i % 5 + 1);
+        course.setBodyParts("全身");
+        course.setCalories(180);
+        course.setInstructor("eat2fit");
+        course.setEquipment("无");
+        course.setViewCount(2048L);
+        course.setLikeCount(256L);
+        course.setStatus(1);
+        course.setCreateTime(LocalDateTime.now());
+        course.setUpdateTime(LocalDateTime.now());
+        return course;
+    }
+}
@@ -0,0 +1,271 @@
+package com.eat2fit.bench.fitness;
+
+import com.eat2fit.common.storage.LocalFileStreamer;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.apache.catalina.Context;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 课程视频分段下载的吞吐压测，模拟大量播放器同时拖动进度条
+ * <p>
+ * 本地起一个嵌入式 Tomcat 提供一个 {@code fileMb} 大小的文件，{@code concurrency} 个连接闭环发压，
+ * 每个请求随机选一个位置请求 {@code rangeKb} 大小的 Range：
+ * <ul>
+ *     <li>sendfile：{@link LocalFileStreamer}，连接器开启 sendfile，由 Tomcat 零拷贝发送</li>
+ *     <li>transfer-to：{@link LocalFileStreamer}，连接器关闭 sendfile，在请求线程用 FileChannel.transferTo 写出</li>
+ *     <li>stream-copy：对照组，RandomAccessFile 定位后用 8KB 缓冲区读写，即改造前常见的实现</li>
+ * </ul>
+ * 文件在第一次读取后进入页缓存，结果反映的是发送路径本身的开销，而不是磁盘。
+ * <p>
+ * 运行：mvn -pl eat2fit-bench -am compile exec:java
+ * -Dexec.mainClass=com.eat2fit.bench.fitness.VideoRangeBenchmark
+ * <p>
+ * 可选参数（系统属性）：bench.concurrency（逗号分隔，默认 16,64,256）、bench.fileMb、bench.rangeKb、
+ * bench.seconds、bench.output。结果每个场景一行JSON，输出到标准输出，指定 bench.output 时追加写入该文件。
+ */
+public class VideoRangeBenchmark {
+
+    private static final String CONCURRENCY = System.getProperty("bench.concurrency", "16,64,256");
+
+    private static final int FILE_MB = Integer.getInteger("bench.fileMb", 256);
+
+    private static final int RANGE_KB = Integer.getInteger("bench.rangeKb", 1024);
+
+    private static final int SECONDS = Integer.getInteger("bench.seconds", 10);
+
+    private static final int WARMUP_SECONDS = 2;
+
+    private static final String[] SCENARIOS = {"sendfile", "transfer-to", "stream-copy"};
+
+    public static void main(String[] args) throws Exception {
+        Path file = createFile();
+        try {
+            for (String scenario : SCENARIOS) {
+                verify(scenario, file);
+            }
+            for (String value : CONCURRENCY.split(",")) {
+                int concurrency = Integer.parseInt(value.trim());
+                for (String scenario : SCENARIOS) {
+                    emit(run(scenario, concurrency, file));
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        System.exit(0);
+    }
+
+    private static String run(String scenario, int concurrency, Path file) throws Exception {
+        Tomcat tomcat = startTomcat(scenario, file);
+        int port = tomcat.getConnector().getLocalPort();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newFixedThreadPool(8))
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        URI uri = URI.create("http://127.0.0.1:" + port + "/video");
+        long fileSize = Files.size(file);
+        long rangeBytes = RANGE_KB * 1024L;
+
+        ConcurrentHistogram histogram = new ConcurrentHistogram(TimeUnit.SECONDS.toNanos(60), 3);
+        AtomicLong failed = new AtomicLong();
+        AtomicLong bytes = new AtomicLong();
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+        long deadline = measureFrom + TimeUnit.SECONDS.toNanos(SECONDS);
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            seek(client, uri, fileSize, rangeBytes, measureFrom, deadline, histogram, failed, bytes, done);
+        }
+        done.await(SECONDS + WARMUP_SECONDS + 60, TimeUnit.SECONDS);
+        tomcat.stop();
+        tomcat.destroy();
+
+        long completed = histogram.getTotalCount();
+        return String.format("{\"benchmark\":\"fitness.videoRange\",\"scenario\":\"%s\",\"concurrency\":%d,"
+                        + "\"rangeKb\":%d,\"seconds\":%d,\"completed\":%d,\"requestsPerSecond\":%.1f,\"mbPerSecond\":%.1f,"
+                        + "\"failed\":%d,\"p50Ms\":%.2f,\"p90Ms\":%.2f,\"p99Ms\":%.2f,\"maxMs\":%.2f}",
+                scenario, concurrency, RANGE_KB, SECONDS, completed, completed / (double) SECONDS,
+                bytes.get() / 1024.0 / 1024.0 / SECONDS, failed.get(),
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getMaxValue()));
+    }
+
+    /**
+     * 一个播放器：收到响应后立即拖到下一个随机位置，直到压测结束
+     */
+    private static void seek(HttpClient client, URI uri, long fileSize, long rangeBytes, long measureFrom, long deadline,
+                             ConcurrentHistogram histogram, AtomicLong failed, AtomicLong bytes, CountDownLatch done) {
+        long start = System.nanoTime();
+        if (start >= deadline) {
+            done.countDown();
+            return;
+        }
+        long offset = ThreadLocalRandom.current().nextLong(fileSize - rangeBytes);
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Range", "bytes=" + offset + "-" + (offset + rangeBytes - 1))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (start >= measureFrom) {
+                        if (error == null && response.statusCode() == HttpServletResponse.SC_PARTIAL_CONTENT) {
+                            histogram.recordValue(Math.min(System.nanoTime() - start, histogram.getHighestTrackableValue()));
+                            bytes.addAndGet(rangeBytes);
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    }
+                    seek(client, uri, fileSize, rangeBytes, measureFrom, deadline, histogram, failed, bytes, done);
+                });
+    }
+
+    /**
+     * 压测前检查每个场景返回的内容与文件一致，避免比较的是错误的响应
+     */
+    private static void verify(String scenario, Path file) throws Exception {
+        Tomcat tomcat = startTomcat(scenario, file);
+        try {
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            long offset = Files.size(file) / 3;
+            int length = 100_000;
+            HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(
+                            URI.create("http://127.0.0.1:" + tomcat.getConnector().getLocalPort() + "/video"))
+                    .header("Range", "bytes=" + offset + "-" + (offset + length - 1))
+                    .GET()
+                    .build(), HttpResponse.BodyHandlers.ofByteArray());
+            byte[] expected = new byte[length];
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r")) {
+                raf.seek(offset);
+                raf.readFully(expected);
+            }
+            if (response.statusCode() != HttpServletResponse.SC_PARTIAL_CONTENT
+                    || !Arrays.equals(expected, response.body())) {
+                throw new IllegalStateException(scenario + " 返回的内容与文件不一致，状态码: " + response.statusCode());
+            }
+        } finally {
+            tomcat.stop();
+            tomcat.destroy();
+        }
+    }
+
+    private static Tomcat startTomcat(String scenario, Path file) throws Exception {
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("bench-tomcat").toString());
+        Connector connector = new Connector("org.apache.coyote.http11.Http11NioProtocol");
+        connector.setPort(0);
+        connector.setProperty("maxConnections", "20000");
+        connector.setProperty("acceptCount", "10000");
+        connector.setProperty("useSendfile", String.valueOf("sendfile".equals(scenario)));
+        tomcat.setConnector(connector);
+
+        Context context = tomcat.addContext("", null);
+        HttpServlet servlet = "stream-copy".equals(scenario) ? new StreamCopyServlet(file) : new StreamerServlet(file);
+        Tomcat.addServlet(context, "video", servlet);
+        context.addServletMappingDecoded("/video", "video");
+        tomcat.start();
+        return tomcat;
+    }
+
+    private static Path createFile() throws IOException {
+        Path file = Files.createTempFile("bench-video-", ".mp4");
+        byte[] block = new byte[1024 * 1024];
+        Random random = new Random(42);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (int i = 0; i < FILE_MB; i++) {
+                random.nextBytes(block);
+                out.write(block);
+            }
+        }
+        return file;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static void emit(String json) throws IOException {
+        System.out.println(json);
+        String output = System.getProperty("bench.output");
+        if (output != null) {
+            Files.writeString(Path.of(output), json + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+
+    private static class StreamerServlet extends HttpServlet {
+
+        private final Path file;
+
+        StreamerServlet(Path file) {
+            this.file = file;
+        }
+
+        @Override
+        protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+            LocalFileStreamer.stream(req, resp, file, "video/mp4");
+        }
+    }
+
+    /**
+     * 对照组，只处理压测发出的 bytes=start-end 请求
+     */
+    private static class StreamCopyServlet extends HttpServlet {
+
+        private final Path file;
+
+        StreamCopyServlet(Path file) {
+            this.file = file;
+        }
+
+        @Override
+        protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+            String[] range = req.getHeader("Range").substring("bytes=".length()).split("-");
+            long start = Long.parseLong(range[0]);
+            long end = Long.parseLong(range[1]);
+            long size = Files.size(file);
+            resp.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            resp.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + size);
+            resp.setContentType("video/mp4");
+            resp.setContentLengthLong(end - start + 1);
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r")) {
+                raf.seek(start);
+                byte[] buffer = new byte[8192];
+                OutputStream out = resp.getOutputStream();
+                long remaining = end - start + 1;
+                while (remaining > 0) {
+                    int read = raf.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                    if (read < 0) {
+                        break;
+                    }
+                    out.write(buffer, 0, read);
+                    remaining -= read;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.eat2fit.bench.gateway;
+
+import com.eat2fit.gateway.auth.AccessLevel;
+import com.eat2fit.gateway.auth.AuthPolicyEngine;
+import com.eat2fit.gateway.cache.TokenCache;
+import com.eat2fit.gateway.config.AuthProperties;
+import com.eat2fit.gateway.utils.JwtTokenUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 网关鉴权热路径：JWT解析与路径规则匹配
+ * <p>
+ * parseToken 为每次请求都验签解析的开销，tokenCacheHit 为 TokenCache 命中时的开销；
+ * antPathScan 为原 AuthGlobalFilter.isExclude 逐条 AntPathMatcher 匹配的做法，
+ * policyEngine 为现在按路径段编译的前缀树。规则与网关 application.yml 中的 ef.auth 一致。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AuthBenchmark {
+
+    private static final String[][] RULES = {
+            {"/admin/**", null},
+            {"/fitness/courses", "POST,PUT"},
+            {"/fitness/courses/{id}", "DELETE"},
+            {"/fitness/courses/upload/**", null},
+            {"/fitness/plans", "POST"},
+            {"/fitness/plans/{id}", "PUT,DELETE"},
+            {"/fitness/plans/upload/**", null},
+            {"/diet/foods", "POST,PUT"},
+            {"/diet/foods/{id}", "DELETE"},
+            {"/diet/foods/upload/**", null},
+            {"/diet/recipes", "POST,PUT"},
+            {"/diet/recipes/{id}", "DELETE"},
+            {"/diet/recipes/{recipeId}/ingredients", "POST"},
+            {"/diet/recipes/{recipeId}/steps", "POST"},
+            {"/diet/recipes/upload/**", null}
+    };
+
+    /**
+     * 与 PATHS 的长度一致，OperationsPerInvocation 需要编译期常量
+     */
+    private static final int PATH_COUNT = 8;
+
+    private static final String[] PATHS = {
+            "/fitness/courses/page",
+            "/fitness/plans/12",
+            "/diet/recipes/35/steps",
+            "/diet/foods/list",
+            "/user/info",
+            "/admin/users/page",
+            "/ai/chat",
+            "/user/login"
+    };
+
+    private JwtTokenUtil jwtTokenUtil;
+
+    private TokenCache tokenCache;
+
+    private String token;
+
+    private AuthPolicyEngine policyEngine;
+
+    private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+
+    private List<String> patterns;
+
+    @Setup
+    public void setUp() {
+        AuthProperties authProperties = new AuthProperties();
+        authProperties.setExcludePaths(List.of("/user/login", "/user/register"));
+        List<AuthProperties.Rule> rules = new ArrayList<>();
+        for (String[] def : RULES) {
+            AuthProperties.Rule rule = new AuthProperties.Rule();
+            rule.setPattern(def[0]);
+            rule.setMethods(def[1] == null ? null : List.of(def[1].split(",")));
+            rule.setLevel(AccessLevel.ADMIN);
+            rules.add(rule);
+        }
+        authProperties.setRules(rules);
+        policyEngine = new AuthPolicyEngine(authProperties);
+
+        patterns = new ArrayList<>(authProperties.getExcludePaths());
+        for (String[] def : RULES) {
+            patterns.add(def[0]);
+        }
+
+        jwtTokenUtil = new JwtTokenUtil();
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("id", 10001L);
+        claims.put("username", "bench");
+        claims.put("role", 0);
+        token = "Bearer " + jwtTokenUtil.generateToken(claims);
+        tokenCache = new TokenCache(jwtTokenUtil, authProperties,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+        tokenCache.verify(token);
+    }
+
+    @Benchmark
+    public Long parseToken() {
+        return jwtTokenUtil.parseToken(token);
+    }
+
+    @Benchmark
+    public Object tokenCacheHit() {
+        return tokenCache.verify(token);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PATH_COUNT)
+    public void antPathScan(Blackhole bh) {
+        for (String path : PATHS) {
+            boolean matched = false;
+            for (String pattern : patterns) {
+                if (antPathMatcher.match(pattern, path)) {
+                    matched = true;
+                    break;
+                }
+            }
+            bh.consume(matched);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PATH_COUNT)
+    public void policyEngine(Blackhole bh) {
+        for (String path : PATHS) {
+            bh.consume(policyEngine.resolve(HttpMethod.GET, path));
+        }
+    }
+}
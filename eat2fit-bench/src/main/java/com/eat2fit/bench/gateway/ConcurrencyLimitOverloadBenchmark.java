@@ -0,0 +1,173 @@
+package com.eat2fit.bench.gateway;
+
+import com.eat2fit.gateway.concurrency.AdaptiveConcurrencyLimiter;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 过载场景下自适应并发限制的对比压测
+ * <p>
+ * 本地起一个桩服务：固定 {@code workers} 个工作线程，每个请求耗时 {@code serviceMillis}，
+ * 模拟连接池固定、数据库变慢的下游。按固定速率（超过桩服务容量）开环发压，
+ * 分别测试不限制和使用 AdaptiveConcurrencyLimiter 两种情况，输出成功请求的延迟分位数、吞吐和拒绝数。
+ * <p>
+ * 运行：mvn -pl eat2fit-bench -am compile exec:java
+ * -Dexec.mainClass=com.eat2fit.bench.gateway.ConcurrencyLimitOverloadBenchmark
+ * <p>
+ * 可选参数（系统属性）：bench.workers、bench.serviceMillis、bench.rps、bench.seconds、bench.output。
+ * 结果每个场景一行JSON，输出到标准输出，指定 bench.output 时追加写入该文件。
+ */
+public class ConcurrencyLimitOverloadBenchmark {
+
+    private static final int WORKERS = Integer.getInteger("bench.workers", 16);
+
+    private static final int SERVICE_MILLIS = Integer.getInteger("bench.serviceMillis", 10);
+
+    /**
+     * 默认发压速率为桩服务容量的1.5倍
+     */
+    private static final int RPS = Integer.getInteger("bench.rps", WORKERS * 1000 / SERVICE_MILLIS * 3 / 2);
+
+    private static final int SECONDS = Integer.getInteger("bench.seconds", 10);
+
+    private static final int WARMUP_SECONDS = 2;
+
+    public static void main(String[] args) throws Exception {
+        String baseline = run("unlimited", false);
+        emit(baseline);
+        String limited = run("adaptive-limit", true);
+        emit(limited);
+        System.exit(0);
+    }
+
+    private static String run(String scenario, boolean useLimiter) throws Exception {
+        HttpServer server = startStub();
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/stub";
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(8))
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).GET().build();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(WORKERS, 2, WORKERS * 8, 0.9, 2.0, WORKERS * 4);
+
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong shed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / RPS;
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        scheduler.scheduleAtFixedRate(() -> {
+            long start = System.nanoTime();
+            boolean measured = start >= measureFrom;
+            if (!useLimiter) {
+                send(client, request, start, measured, latencies, failed, null);
+                return;
+            }
+            limiter.acquire(Duration.ofMillis(50))
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .subscribe(permit -> {
+                        if (permit.isEmpty()) {
+                            if (measured) {
+                                shed.incrementAndGet();
+                            }
+                            return;
+                        }
+                        send(client, request, start, measured, latencies, failed, permit.get());
+                    });
+        }, 0, periodNanos, TimeUnit.NANOSECONDS);
+
+        TimeUnit.SECONDS.sleep(WARMUP_SECONDS + SECONDS);
+        scheduler.shutdownNow();
+        // 停止发压后仍在途的请求不计入结果
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdownNow();
+        Arrays.sort(sorted);
+
+        return String.format("{\"benchmark\":\"gateway.concurrencyLimit\",\"scenario\":\"%s\",\"offeredRps\":%d,"
+                        + "\"workers\":%d,\"serviceMillis\":%d,\"seconds\":%d,\"completed\":%d,\"throughput\":%.1f,"
+                        + "\"shed\":%d,\"failed\":%d,\"p50Ms\":%.2f,\"p90Ms\":%.2f,\"p99Ms\":%.2f,\"maxMs\":%.2f,\"finalLimit\":%d}",
+                scenario, RPS, WORKERS, SERVICE_MILLIS, SECONDS, sorted.length, sorted.length / (double) SECONDS,
+                shed.get(), failed.get(), percentile(sorted, 0.50), percentile(sorted, 0.90),
+                percentile(sorted, 0.99), percentile(sorted, 1.0), useLimiter ? limiter.getLimit() : -1);
+    }
+
+    private static void send(HttpClient client, HttpRequest request, long start, boolean measured,
+                             ConcurrentLinkedQueue<Long> latencies, AtomicLong failed,
+                             AdaptiveConcurrencyLimiter.Permit permit) {
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    boolean ok = error == null && response.statusCode() == 200;
+                    if (permit != null) {
+                        permit.release(!ok);
+                    }
+                    if (!measured) {
+                        return;
+                    }
+                    if (ok) {
+                        latencies.add(System.nanoTime() - start);
+                    } else {
+                        failed.incrementAndGet();
+                    }
+                });
+    }
+
+    private static HttpServer startStub() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        server.setExecutor(Executors.newFixedThreadPool(WORKERS));
+        byte[] body = "{\"code\":200,\"message\":\"操作成功\",\"data\":null,\"success\":true}".getBytes(StandardCharsets.UTF_8);
+        server.createContext("/stub", exchange -> {
+            try {
+                Thread.sleep(SERVICE_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static void emit(String json) throws IOException {
+        System.out.println(json);
+        String output = System.getProperty("bench.output");
+        if (output != null) {
+            Files.writeString(Path.of(output), json + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+}
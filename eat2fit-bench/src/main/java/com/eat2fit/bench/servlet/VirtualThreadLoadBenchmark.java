@@ -0,0 +1,216 @@
+package com.eat2fit.bench.servlet;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.apache.catalina.Context;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 平台线程池与虚拟线程处理请求的对比压测
+ * <p>
+ * 本地起一个嵌入式 Tomcat，请求处理阻塞 {@code serviceMillis}，模拟等待 MySQL 或 OSS 的服务。
+ * 每个场景分别在 {@code concurrency} 个并发连接下闭环发压（每个连接收到响应后立即发下一个请求）：
+ * <ul>
+ *     <li>platform：Tomcat 默认的 200 个平台线程，与 Spring Boot 的 server.tomcat.threads.max 默认值一致</li>
+ *     <li>virtual：每个请求一个虚拟线程</li>
+ *     <li>virtual-pinned：虚拟线程，但阻塞发生在 synchronized 块内，模拟旧版 JDBC 驱动导致的线程固定</li>
+ * </ul>
+ * 虚拟线程场景需要 JDK 21，低版本JDK输出 skipped。并发连接数较高时需要先调大文件句柄数（ulimit -n）。
+ * <p>
+ * 运行：mvn -pl eat2fit-bench -am compile exec:java
+ * -Dexec.mainClass=com.eat2fit.bench.servlet.VirtualThreadLoadBenchmark
+ * <p>
+ * 可选参数（系统属性）：bench.concurrency（逗号分隔，默认 1000,2000,5000,10000）、bench.serviceMillis、
+ * bench.seconds、bench.output。结果每个场景一行JSON，输出到标准输出，指定 bench.output 时追加写入该文件。
+ */
+public class VirtualThreadLoadBenchmark {
+
+    private static final String CONCURRENCY = System.getProperty("bench.concurrency", "1000,2000,5000,10000");
+
+    private static final int SERVICE_MILLIS = Integer.getInteger("bench.serviceMillis", 20);
+
+    private static final int SECONDS = Integer.getInteger("bench.seconds", 10);
+
+    private static final int WARMUP_SECONDS = 2;
+
+    private static final int PLATFORM_THREADS = 200;
+
+    private static final byte[] BODY = "{\"code\":200,\"message\":\"操作成功\",\"data\":null,\"success\":true}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    public static void main(String[] args) throws Exception {
+        for (String value : CONCURRENCY.split(",")) {
+            int concurrency = Integer.parseInt(value.trim());
+            emit(run("platform", concurrency));
+            emit(run("virtual", concurrency));
+            emit(run("virtual-pinned", concurrency));
+        }
+        System.exit(0);
+    }
+
+    private static String run(String scenario, int concurrency) throws Exception {
+        boolean virtual = scenario.startsWith("virtual");
+        ExecutorService virtualExecutor = null;
+        if (virtual) {
+            virtualExecutor = newVirtualThreadExecutor();
+            if (virtualExecutor == null) {
+                return String.format("{\"benchmark\":\"servlet.virtualThreads\",\"scenario\":\"%s\",\"concurrency\":%d,"
+                        + "\"skipped\":\"requires JDK 21, running on %d\"}", scenario, concurrency, Runtime.version().feature());
+            }
+        }
+        Tomcat tomcat = startTomcat(virtualExecutor, "virtual-pinned".equals(scenario));
+        int port = tomcat.getConnector().getLocalPort();
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(8))
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/stub"))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        ConcurrentHistogram histogram = new ConcurrentHistogram(TimeUnit.SECONDS.toNanos(60), 3);
+        AtomicLong failed = new AtomicLong();
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+        long deadline = measureFrom + TimeUnit.SECONDS.toNanos(SECONDS);
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            loop(client, request, measureFrom, deadline, histogram, failed, done);
+        }
+        done.await(SECONDS + WARMUP_SECONDS + 60, TimeUnit.SECONDS);
+        tomcat.stop();
+        tomcat.destroy();
+        if (virtualExecutor != null) {
+            virtualExecutor.shutdownNow();
+        }
+
+        long completed = histogram.getTotalCount();
+        return String.format("{\"benchmark\":\"servlet.virtualThreads\",\"scenario\":\"%s\",\"concurrency\":%d,"
+                        + "\"serviceMillis\":%d,\"seconds\":%d,\"completed\":%d,\"throughput\":%.1f,\"failed\":%d,"
+                        + "\"p50Ms\":%.2f,\"p90Ms\":%.2f,\"p99Ms\":%.2f,\"maxMs\":%.2f}",
+                scenario, concurrency, SERVICE_MILLIS, SECONDS, completed, completed / (double) SECONDS, failed.get(),
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getMaxValue()));
+    }
+
+    /**
+     * 一个并发连接：收到响应后立即发送下一个请求，直到压测结束
+     */
+    private static void loop(HttpClient client, HttpRequest request, long measureFrom, long deadline,
+                             ConcurrentHistogram histogram, AtomicLong failed, CountDownLatch done) {
+        long start = System.nanoTime();
+        if (start >= deadline) {
+            done.countDown();
+            return;
+        }
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (start >= measureFrom) {
+                        if (error == null && response.statusCode() == 200) {
+                            histogram.recordValue(Math.min(System.nanoTime() - start, histogram.getHighestTrackableValue()));
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    }
+                    loop(client, request, measureFrom, deadline, histogram, failed, done);
+                });
+    }
+
+    private static Tomcat startTomcat(ExecutorService virtualExecutor, boolean pinned) throws Exception {
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("bench-tomcat").toString());
+        Connector connector = new Connector("org.apache.coyote.http11.Http11NioProtocol");
+        connector.setPort(0);
+        // 连接数上限放开到压测的最大并发之上，只比较处理线程模型
+        connector.setProperty("maxConnections", "20000");
+        connector.setProperty("acceptCount", "10000");
+        if (virtualExecutor != null) {
+            connector.getProtocolHandler().setExecutor(virtualExecutor);
+        } else {
+            connector.setProperty("maxThreads", String.valueOf(PLATFORM_THREADS));
+        }
+        tomcat.setConnector(connector);
+
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "stub", new StubServlet(pinned));
+        context.addServletMappingDecoded("/stub", "stub");
+        tomcat.start();
+        return tomcat;
+    }
+
+    /**
+     * JDK 21 的 Executors.newVirtualThreadPerTaskExecutor()，项目按 JDK 17 编译，通过反射调用
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static void emit(String json) throws IOException {
+        System.out.println(json);
+        String output = System.getProperty("bench.output");
+        if (output != null) {
+            Files.writeString(Path.of(output), json + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+
+    private static class StubServlet extends HttpServlet {
+
+        private final boolean pinned;
+
+        StubServlet(boolean pinned) {
+            this.pinned = pinned;
+        }
+
+        @Override
+        protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+            if (pinned) {
+                // 每个请求单独的锁，没有竞争，只有阻塞时占住载体线程的效果
+                Object lock = new Object();
+                synchronized (lock) {
+                    block();
+                }
+            } else {
+                block();
+            }
+            resp.setContentType("application/json");
+            resp.setContentLength(BODY.length);
+            resp.getOutputStream().write(BODY);
+        }
+
+        private static void block() {
+            try {
+                Thread.sleep(SERVICE_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.eat2fit.common.cache;
+
+/**
+ * 缓存删除监听，用于把本实例的数据变更通知给其他实例
+ */
+public interface CacheEvictionListener {
+
+    /**
+     * 本实例删除了缓存
+     *
+     * @param cacheName 缓存名称
+     * @param key       业务key
+     * @param version   变更版本（毫秒时间戳）
+     */
+    void onEvict(String cacheName, String key, long version);
+}
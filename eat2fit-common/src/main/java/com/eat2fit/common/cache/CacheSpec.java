@@ -0,0 +1,32 @@
+package com.eat2fit.common.cache;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * 单个缓存的配置
+ */
+@Data
+public class CacheSpec {
+
+    /**
+     * 本地缓存过期时间，超过后必须同步回源
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+
+    /**
+     * 超过该时间后返回旧数据并在后台刷新，为空时不刷新
+     */
+    private Duration refreshAfter;
+
+    /**
+     * 二级缓存过期时间，为空时与 ttl 相同
+     */
+    private Duration l2Ttl;
+
+    /**
+     * 本地缓存最大条数
+     */
+    private long maximumSize = 10_000;
+}
@@ -0,0 +1,65 @@
+package com.eat2fit.common.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+
+/**
+ * 进程内的二级缓存，用于本地开发和测试时代替Redis，不在实例间共享
+ */
+public class InMemoryL2Cache implements L2Cache {
+
+    private final Cache<String, Value> cache;
+
+    public InMemoryL2Cache(long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Value>() {
+                    @Override
+                    public long expireAfterCreate(String key, Value value, long currentTime) {
+                        return value.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Value value, long currentTime, long currentDuration) {
+                        return value.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Value value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public String get(String key) {
+        Value value = cache.getIfPresent(key);
+        return value == null ? null : value.json;
+    }
+
+    @Override
+    public void put(String key, String value, Duration ttl) {
+        cache.put(key, new Value(value, ttl.toNanos()));
+    }
+
+    @Override
+    public void evict(String key) {
+        cache.invalidate(key);
+    }
+
+    private static class Value {
+
+        private final String json;
+
+        private final long ttlNanos;
+
+        Value(String json, long ttlNanos) {
+            this.json = json;
+            this.ttlNanos = ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.eat2fit.common.cache;
+
+import java.time.Duration;
+
+/**
+ * 二级缓存，多个实例共享，值为JSON字符串
+ * <p>
+ * 实现类不需要处理异常以外的业务逻辑，读写失败时抛出异常，由 {@link TwoLevelCache} 记录并降级为直接查库。
+ */
+public interface L2Cache {
+
+    /**
+     * 读取缓存
+     *
+     * @param key 缓存key
+     * @return JSON字符串，不存在时返回null
+     */
+    String get(String key);
+
+    /**
+     * 写入缓存
+     *
+     * @param key   缓存key
+     * @param value JSON字符串
+     * @param ttl   过期时间
+     */
+    void put(String key, String value, Duration ttl);
+
+    /**
+     * 删除缓存
+     *
+     * @param key 缓存key
+     */
+    void evict(String key);
+}
@@ -0,0 +1,32 @@
+package com.eat2fit.common.cache;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * 基于Redis的二级缓存，服务需要引入 spring-boot-starter-data-redis
+ */
+public class RedisL2Cache implements L2Cache {
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisL2Cache(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public String get(String key) {
+        return redisTemplate.opsForValue().get(key);
+    }
+
+    @Override
+    public void put(String key, String value, Duration ttl) {
+        redisTemplate.opsForValue().set(key, value, ttl);
+    }
+
+    @Override
+    public void evict(String key) {
+        redisTemplate.delete(key);
+    }
+}
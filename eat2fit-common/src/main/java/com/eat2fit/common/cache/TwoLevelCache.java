@@ -0,0 +1,460 @@
+package com.eat2fit.common.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 两级缓存：进程内 Caffeine（L1）+ 可选的共享缓存（L2）
+ * <p>
+ * 读：L1 -> L2 -> 数据源，逐级回填。同一个key同时只有一个线程回源，其他线程等待结果，防止缓存击穿；
+ * 数据源返回null时也缓存一小段时间，防止穿透。
+ * 配置了 refreshAfter 时，L1 中超过该时间的数据仍然直接返回，同时在后台线程回源刷新（stale-while-revalidate），
+ * 超过 ttl 后才必须同步回源。
+ * <p>
+ * 写：数据变更后调用 {@link #evict(Object)} 删除两级缓存，或用 {@link #put(Object, Object)} 直接写入。
+ * <p>
+ * L1 中保存的是对象本身，调用方不要修改返回的对象。
+ *
+ * @param <V> 缓存值类型
+ */
+@Slf4j
+public class TwoLevelCache<V> {
+
+    private static final Object NULL_VALUE = new Object();
+
+    private final String name;
+
+    private final String keyPrefix;
+
+    private final JavaType valueType;
+
+    private final Duration ttl;
+
+    private final Duration l2Ttl;
+
+    private final Duration nullTtl;
+
+    private final long refreshAfterNanos;
+
+    private final L2Cache l2Cache;
+
+    private final ObjectMapper objectMapper;
+
+    private final Executor refreshExecutor;
+
+    private final Cache<String, Entry> l1;
+
+    /**
+     * 各key最近一次失效的版本（毫秒时间戳），加载开始时间早于它的数据视为过期，
+     * 防止失效通知到达前已开始的加载把旧数据写回缓存
+     */
+    private final Cache<String, Long> invalidatedVersions;
+
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    private volatile CacheEvictionListener evictionListener;
+
+    private final LongAdder l1Hits = new LongAdder();
+
+    private final LongAdder l2Hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder staleHits = new LongAdder();
+
+    private final LongAdder loadFailures = new LongAdder();
+
+    private final LongAdder l2Failures = new LongAdder();
+
+    TwoLevelCache(String name, String keyPrefix, JavaType valueType, CacheSpec spec, Duration nullTtl,
+                  L2Cache l2Cache, ObjectMapper objectMapper, Executor refreshExecutor) {
+        this.name = name;
+        this.keyPrefix = keyPrefix;
+        this.valueType = valueType;
+        this.ttl = spec.getTtl();
+        this.l2Ttl = spec.getL2Ttl() == null ? spec.getTtl() : spec.getL2Ttl();
+        this.nullTtl = nullTtl;
+        this.refreshAfterNanos = spec.getRefreshAfter() == null ? Long.MAX_VALUE : spec.getRefreshAfter().toNanos();
+        this.l2Cache = l2Cache;
+        this.objectMapper = objectMapper;
+        this.refreshExecutor = refreshExecutor;
+        this.l1 = Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return entry.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return entry.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        // 超过 ttl 后在这之前加载的数据都已过期，版本号不需要再保留
+        this.invalidatedVersions = Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .expireAfterWrite(ttl.plus(l2Ttl))
+                .build();
+    }
+
+    /**
+     * 读取缓存，未命中时调用 loader 从数据源加载
+     *
+     * @param key    业务key，如ID
+     * @param loader 数据源查询，返回null表示不存在
+     * @return 缓存值，不存在时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(Object key, Supplier<V> loader) {
+        String cacheKey = keyPrefix + key;
+        Entry entry = l1.getIfPresent(cacheKey);
+        if (entry != null && isInvalidated(cacheKey, entry)) {
+            l1.asMap().remove(cacheKey, entry);
+            entry = null;
+        }
+        if (entry != null) {
+            l1Hits.increment();
+            if (System.nanoTime() - entry.loadedAt > refreshAfterNanos) {
+                staleHits.increment();
+                refreshAsync(cacheKey, loader);
+            }
+        } else {
+            // Caffeine 保证同一个key同时只有一个线程执行加载
+            entry = l1.get(cacheKey, k -> load(k, loader));
+        }
+        return entry.value == NULL_VALUE ? null : (V) entry.value;
+    }
+
+    /**
+     * 批量读取缓存，逐个key查L1、L2，剩下未命中的key调用一次 loader 批量加载并回填
+     * <p>
+     * 批量加载不做同一key的并发合并，同时有其他线程加载同一key时以后写入的为准。
+     *
+     * @param keys   业务key集合
+     * @param loader 按未命中的key批量查询数据源，返回 key -&gt; 值，没有返回的key视为不存在
+     * @return key -&gt; 缓存值，不存在的key不包含在内
+     */
+    @SuppressWarnings("unchecked")
+    public <K> Map<K, V> getAll(Collection<K> keys, Function<Collection<K>, Map<K, V>> loader) {
+        Map<K, V> result = new LinkedHashMap<>();
+        List<K> missingKeys = new ArrayList<>();
+        for (K key : keys) {
+            String cacheKey = keyPrefix + key;
+            Entry entry = l1.getIfPresent(cacheKey);
+            if (entry != null && isInvalidated(cacheKey, entry)) {
+                l1.asMap().remove(cacheKey, entry);
+                entry = null;
+            }
+            if (entry != null) {
+                l1Hits.increment();
+                if (System.nanoTime() - entry.loadedAt > refreshAfterNanos) {
+                    staleHits.increment();
+                    refreshAsync(cacheKey, () -> loader.apply(List.of(key)).get(key));
+                }
+            } else {
+                entry = readL2(cacheKey, System.currentTimeMillis());
+                if (entry == null) {
+                    missingKeys.add(key);
+                    continue;
+                }
+                l1.put(cacheKey, entry);
+            }
+            if (entry.value != NULL_VALUE) {
+                result.put(key, (V) entry.value);
+            }
+        }
+        if (missingKeys.isEmpty()) {
+            return result;
+        }
+
+        long startedAt = System.currentTimeMillis();
+        misses.add(missingKeys.size());
+        Map<K, V> loaded;
+        try {
+            loaded = loader.apply(missingKeys);
+        } catch (RuntimeException e) {
+            loadFailures.increment();
+            throw e;
+        }
+        for (K key : missingKeys) {
+            String cacheKey = keyPrefix + key;
+            V value = loaded.get(key);
+            Entry entry = entry(value, startedAt);
+            // 加载期间被删除的数据照常返回给本次调用，但不写入缓存
+            if (!isInvalidated(cacheKey, entry)) {
+                l1.put(cacheKey, entry);
+                writeL2IfValid(cacheKey, entry);
+            }
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 写入两级缓存，用于数据变更后直接更新缓存
+     */
+    public void put(Object key, V value) {
+        String cacheKey = keyPrefix + key;
+        Entry entry = entry(value, System.currentTimeMillis());
+        l1.put(cacheKey, entry);
+        writeL2(cacheKey, entry);
+    }
+
+    /**
+     * 删除两级缓存，并通知其他实例删除本地缓存
+     */
+    public void evict(Object key) {
+        String cacheKey = keyPrefix + key;
+        long version = System.currentTimeMillis();
+        invalidatedVersions.asMap().merge(cacheKey, version, Math::max);
+        l1.invalidate(cacheKey);
+        if (l2Cache != null) {
+            try {
+                l2Cache.evict(cacheKey);
+            } catch (Exception e) {
+                l2Failures.increment();
+                log.warn("删除二级缓存失败，缓存: {}，key: {}，原因: {}", name, cacheKey, e.getMessage());
+            }
+        }
+        CacheEvictionListener listener = evictionListener;
+        if (listener != null) {
+            listener.onEvict(name, String.valueOf(key), version);
+        }
+    }
+
+    /**
+     * 在当前事务提交后删除两级缓存，没有事务时立即删除。
+     * 事务内立即删除的话，提交前并发读到的旧数据会被重新写回缓存
+     */
+    public void evictAfterCommit(Object key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(key);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(key);
+            }
+        });
+    }
+
+    /**
+     * 只删除本地缓存，用于其他实例的数据变更通知
+     *
+     * @param key     业务key
+     * @param version 变更版本，不大于已处理过的版本时忽略（重复或乱序的通知）
+     * @return 是否处理
+     */
+    public boolean evictLocal(Object key, long version) {
+        String cacheKey = keyPrefix + key;
+        boolean[] newer = {false};
+        invalidatedVersions.asMap().compute(cacheKey, (k, current) -> {
+            if (current == null || version > current) {
+                newer[0] = true;
+                return version;
+            }
+            return current;
+        });
+        if (newer[0]) {
+            l1.invalidate(cacheKey);
+        }
+        return newer[0];
+    }
+
+    void setEvictionListener(CacheEvictionListener evictionListener) {
+        this.evictionListener = evictionListener;
+    }
+
+    /**
+     * 清空本地缓存
+     */
+    public void clearLocal() {
+        l1.invalidateAll();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats l1Stats = l1.stats();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", l1.estimatedSize());
+        stats.put("l1Hits", l1Hits.sum());
+        stats.put("l2Hits", l2Hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("staleHits", staleHits.sum());
+        stats.put("loadFailures", loadFailures.sum());
+        stats.put("l2Failures", l2Failures.sum());
+        stats.put("evictions", l1Stats.evictionCount());
+        return stats;
+    }
+
+    /**
+     * 加载开始时间不晚于最近一次删除时视为旧数据；同一毫秒内开始的加载无法判断先后，按旧数据处理
+     */
+    private boolean isInvalidated(String cacheKey, Entry entry) {
+        Long version = invalidatedVersions.getIfPresent(cacheKey);
+        return version != null && entry.loadStartedAt <= version;
+    }
+
+    private Entry load(String cacheKey, Supplier<V> loader) {
+        long startedAt = System.currentTimeMillis();
+        // 1.查询二级缓存
+        Entry entry = readL2(cacheKey, startedAt);
+        if (entry != null) {
+            return entry;
+        }
+        // 2.查询数据源并回填二级缓存
+        misses.increment();
+        entry = loadFromSource(loader, startedAt);
+        writeL2IfValid(cacheKey, entry);
+        return entry;
+    }
+
+    /**
+     * 查询二级缓存，未命中或读取失败时返回null
+     */
+    private Entry readL2(String cacheKey, long startedAt) {
+        if (l2Cache == null) {
+            return null;
+        }
+        try {
+            String json = l2Cache.get(cacheKey);
+            if (json != null) {
+                l2Hits.increment();
+                Object value = objectMapper.readValue(json, valueType);
+                return entry(value, startedAt);
+            }
+        } catch (Exception e) {
+            l2Failures.increment();
+            log.warn("读取二级缓存失败，缓存: {}，key: {}，原因: {}", name, cacheKey, e.getMessage());
+        }
+        return null;
+    }
+
+    private Entry loadFromSource(Supplier<V> loader, long startedAt) {
+        try {
+            return entry(loader.get(), startedAt);
+        } catch (RuntimeException e) {
+            loadFailures.increment();
+            throw e;
+        }
+    }
+
+    private void refreshAsync(String cacheKey, Supplier<V> loader) {
+        if (!refreshing.add(cacheKey)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    Entry entry = loadFromSource(loader, System.currentTimeMillis());
+                    if (isInvalidated(cacheKey, entry)) {
+                        // 刷新期间数据已变更，丢弃本次结果，下次访问重新加载
+                        l1.invalidate(cacheKey);
+                        return;
+                    }
+                    l1.put(cacheKey, entry);
+                    writeL2IfValid(cacheKey, entry);
+                } catch (Exception e) {
+                    log.warn("后台刷新缓存失败，缓存: {}，key: {}，原因: {}", name, cacheKey, e.getMessage());
+                } finally {
+                    refreshing.remove(cacheKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 刷新线程池已满，继续返回旧数据，等下次访问再刷新
+            refreshing.remove(cacheKey);
+        }
+    }
+
+    /**
+     * 回填二级缓存，加载期间数据已被删除时不写；写入后再检查一次，写入过程中被删除的话把刚写入的旧数据删掉
+     */
+    private void writeL2IfValid(String cacheKey, Entry entry) {
+        if (l2Cache == null || isInvalidated(cacheKey, entry)) {
+            return;
+        }
+        writeL2(cacheKey, entry);
+        if (isInvalidated(cacheKey, entry)) {
+            try {
+                l2Cache.evict(cacheKey);
+            } catch (Exception e) {
+                l2Failures.increment();
+                log.warn("删除二级缓存失败，缓存: {}，key: {}，原因: {}", name, cacheKey, e.getMessage());
+            }
+        }
+    }
+
+    private void writeL2(String cacheKey, Entry entry) {
+        if (l2Cache == null) {
+            return;
+        }
+        try {
+            boolean isNull = entry.value == NULL_VALUE;
+            l2Cache.put(cacheKey, objectMapper.writeValueAsString(isNull ? null : entry.value), isNull ? nullTtl : l2Ttl);
+        } catch (Exception e) {
+            l2Failures.increment();
+            log.warn("写入二级缓存失败，缓存: {}，key: {}，原因: {}", name, cacheKey, e.getMessage());
+        }
+    }
+
+    private Entry entry(Object value, long loadStartedAt) {
+        return value == null
+                ? new Entry(NULL_VALUE, nullTtl.toNanos(), loadStartedAt)
+                : new Entry(value, ttl.toNanos(), loadStartedAt);
+    }
+
+    private static class Entry {
+
+        private final Object value;
+
+        private final long ttlNanos;
+
+        private final long loadedAt = System.nanoTime();
+
+        /**
+         * 开始加载的时间（毫秒时间戳），与失效版本比较
+         */
+        private final long loadStartedAt;
+
+        Entry(Object value, long ttlNanos, long loadStartedAt) {
+            this.value = value;
+            this.ttlNanos = ttlNanos;
+            this.loadStartedAt = loadStartedAt;
+        }
+    }
+}
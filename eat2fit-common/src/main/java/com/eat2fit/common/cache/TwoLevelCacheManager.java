@@ -0,0 +1,107 @@
+package com.eat2fit.common.cache;
+
+import com.eat2fit.common.config.CacheProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 两级缓存管理，按名称创建缓存，配置见 ef.cache.caches.&lt;name&gt;
+ * <p>
+ * 用法：
+ * <pre>
+ * private TwoLevelCache&lt;WorkoutPlan&gt; planCache;
+ *
+ * &#64;PostConstruct
+ * public void initCache() {
+ *     planCache = cacheManager.getCache("fitness-plan", Constants.REDIS_FITNESS_PLAN_PREFIX, WorkoutPlan.class);
+ * }
+ *
+ * WorkoutPlan plan = planCache.get(id, () -&gt; getById(id));
+ * </pre>
+ */
+@Slf4j
+public class TwoLevelCacheManager {
+
+    private final CacheProperties cacheProperties;
+
+    private final L2Cache l2Cache;
+
+    private final ObjectMapper objectMapper;
+
+    private final ThreadPoolExecutor refreshExecutor;
+
+    private final Map<String, TwoLevelCache<?>> caches = new ConcurrentHashMap<>();
+
+    private volatile CacheEvictionListener evictionListener;
+
+    public TwoLevelCacheManager(CacheProperties cacheProperties, L2Cache l2Cache, ObjectMapper objectMapper) {
+        this.cacheProperties = cacheProperties;
+        this.l2Cache = l2Cache;
+        this.objectMapper = objectMapper;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.refreshExecutor = new ThreadPoolExecutor(cacheProperties.getRefreshThreads(), cacheProperties.getRefreshThreads(),
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(cacheProperties.getRefreshQueueSize()), r -> {
+                    Thread thread = new Thread(r, "cache-refresh-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.refreshExecutor.allowCoreThreadTimeOut(true);
+        log.info("初始化两级缓存，二级缓存: {}", l2Cache == null ? "无" : l2Cache.getClass().getSimpleName());
+    }
+
+    public <V> TwoLevelCache<V> getCache(String name, String keyPrefix, Class<V> valueType) {
+        return getCache(name, keyPrefix, objectMapper.getTypeFactory().constructType(valueType));
+    }
+
+    public <V> TwoLevelCache<V> getCache(String name, String keyPrefix, TypeReference<V> valueType) {
+        return getCache(name, keyPrefix, objectMapper.getTypeFactory().constructType(valueType));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> TwoLevelCache<V> getCache(String name, String keyPrefix, JavaType valueType) {
+        return (TwoLevelCache<V>) caches.computeIfAbsent(name, key -> {
+            CacheSpec spec = cacheProperties.getCaches().getOrDefault(name, cacheProperties.getDefaults());
+            TwoLevelCache<V> cache = new TwoLevelCache<>(name, keyPrefix, valueType, spec, cacheProperties.getNullTtl(),
+                    l2Cache, objectMapper, refreshExecutor);
+            cache.setEvictionListener(evictionListener);
+            return cache;
+        });
+    }
+
+    /**
+     * 设置缓存删除监听，对已创建和之后创建的缓存都生效
+     */
+    public void setEvictionListener(CacheEvictionListener evictionListener) {
+        this.evictionListener = evictionListener;
+        caches.values().forEach(cache -> cache.setEvictionListener(evictionListener));
+    }
+
+    public TwoLevelCache<?> findCache(String name) {
+        return caches.get(name);
+    }
+
+    public Collection<TwoLevelCache<?>> getCaches() {
+        return caches.values();
+    }
+
+    public Map<String, Map<String, Object>> stats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        caches.forEach((name, cache) -> stats.put(name, cache.stats()));
+        return stats;
+    }
+
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,66 @@
+package com.eat2fit.common.cache.bus;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 通过HTTP广播失效事件：从注册中心（Nacos）获取本服务的所有实例，逐个调用
+ * POST /internal/cache/invalidations。发送失败的实例只记录日志，由缓存过期时间兜底
+ */
+@Slf4j
+public class HttpInvalidationTransport implements InvalidationTransport {
+
+    public static final String PATH = "/internal/cache/invalidations";
+
+    private final DiscoveryClient discoveryClient;
+
+    private final String serviceName;
+
+    private final RestTemplate restTemplate;
+
+    private volatile Consumer<List<InvalidationEvent>> receiver;
+
+    public HttpInvalidationTransport(DiscoveryClient discoveryClient, String serviceName, Duration timeout) {
+        this.discoveryClient = discoveryClient;
+        this.serviceName = serviceName;
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout((int) timeout.toMillis());
+        factory.setReadTimeout((int) timeout.toMillis());
+        this.restTemplate = new RestTemplate(factory);
+    }
+
+    @Override
+    public void send(List<InvalidationEvent> events) {
+        List<ServiceInstance> instances = discoveryClient.getInstances(serviceName);
+        for (ServiceInstance instance : instances) {
+            String url = instance.getUri() + PATH;
+            try {
+                restTemplate.postForLocation(url, events);
+            } catch (Exception e) {
+                log.warn("发送缓存失效通知到 {} 失败: {}", url, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<List<InvalidationEvent>> receiver) {
+        this.receiver = receiver;
+    }
+
+    /**
+     * 收到其他实例的事件，由 {@link InvalidationController} 调用
+     */
+    public void receive(List<InvalidationEvent> events) {
+        Consumer<List<InvalidationEvent>> current = receiver;
+        if (current != null) {
+            current.accept(events);
+        }
+    }
+}
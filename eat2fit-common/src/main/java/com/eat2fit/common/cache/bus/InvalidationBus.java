@@ -0,0 +1,137 @@
+package com.eat2fit.common.cache.bus;
+
+import com.eat2fit.common.cache.CacheEvictionListener;
+import com.eat2fit.common.cache.TwoLevelCache;
+import com.eat2fit.common.cache.TwoLevelCacheManager;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存失效总线
+ * <p>
+ * 本实例删除缓存后，事件先放入待发送集合，同一缓存同一key只保留版本最大的一条，
+ * 每隔 batchInterval 批量发送给本服务的所有实例。接收方按版本号去重：
+ * 不大于已处理版本的事件（重复或乱序到达）直接忽略，不会让旧数据重新生效。
+ * <p>
+ * 发送失败的事件放回待发送集合，下一批重试。实例停止时最后一次发送仍然失败的事件会丢失，
+ * 其他实例上对应的本地缓存只能等过期后刷新。
+ * <p>
+ * 版本号使用发送方的毫秒时间戳，实例间的时钟偏差会让这个判断有相应的误差。
+ */
+@Slf4j
+public class InvalidationBus implements CacheEvictionListener {
+
+    private final TwoLevelCacheManager cacheManager;
+
+    private final InvalidationTransport transport;
+
+    private final Duration batchInterval;
+
+    private final int batchSize;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final Map<String, InvalidationEvent> pending = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "cache-invalidation-bus");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public InvalidationBus(TwoLevelCacheManager cacheManager, InvalidationTransport transport,
+                           Duration batchInterval, int batchSize) {
+        this.cacheManager = cacheManager;
+        this.transport = transport;
+        this.batchInterval = batchInterval;
+        this.batchSize = batchSize;
+    }
+
+    public void start() {
+        transport.subscribe(this::receive);
+        cacheManager.setEvictionListener(this);
+        long interval = batchInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        cacheManager.setEvictionListener(null);
+        scheduler.shutdown();
+        flush();
+    }
+
+    @Override
+    public void onEvict(String cacheName, String key, long version) {
+        enqueue(new InvalidationEvent(cacheName, key, version, instanceId));
+    }
+
+    /**
+     * 放入待发送集合，同一缓存同一key只保留版本最大的一条
+     */
+    private void enqueue(InvalidationEvent event) {
+        pending.merge(event.getCache() + ":" + event.getKey(), event,
+                (current, added) -> added.getVersion() > current.getVersion() ? added : current);
+    }
+
+    /**
+     * 发送待发送的事件
+     */
+    void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<InvalidationEvent> batch = new ArrayList<>();
+        for (Map.Entry<String, InvalidationEvent> entry : pending.entrySet()) {
+            InvalidationEvent event = entry.getValue();
+            // 读取后同一key又合并进了更新的事件时不删除，留到下一批发送
+            if (!pending.remove(entry.getKey(), event)) {
+                continue;
+            }
+            batch.add(event);
+            if (batch.size() >= batchSize) {
+                send(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    private void send(List<InvalidationEvent> batch) {
+        try {
+            transport.send(batch);
+        } catch (Exception e) {
+            log.warn("发送缓存失效通知失败，下一批重试，事件数: {}，原因: {}", batch.size(), e.getMessage());
+            batch.forEach(this::enqueue);
+        }
+    }
+
+    /**
+     * 处理其他实例发来的事件
+     */
+    void receive(List<InvalidationEvent> events) {
+        int applied = 0;
+        for (InvalidationEvent event : events) {
+            if (instanceId.equals(event.getOrigin())) {
+                continue;
+            }
+            TwoLevelCache<?> cache = cacheManager.findCache(event.getCache());
+            if (cache != null && cache.evictLocal(event.getKey(), event.getVersion())) {
+                applied++;
+            }
+        }
+        if (applied > 0) {
+            log.debug("收到缓存失效通知，事件数: {}，生效: {}", events.size(), applied);
+        }
+    }
+}
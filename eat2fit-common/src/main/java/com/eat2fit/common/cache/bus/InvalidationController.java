@@ -0,0 +1,29 @@
+package com.eat2fit.common.cache.bus;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 接收其他实例的缓存失效通知，只供同一服务的实例之间调用，网关没有配置 /internal 的路由。
+ * 使用进程内传输时不处理
+ */
+@RestController
+@RequestMapping("/internal/cache")
+public class InvalidationController {
+
+    private final ObjectProvider<HttpInvalidationTransport> transport;
+
+    public InvalidationController(ObjectProvider<HttpInvalidationTransport> transport) {
+        this.transport = transport;
+    }
+
+    @PostMapping("/invalidations")
+    public void receive(@RequestBody List<InvalidationEvent> events) {
+        transport.ifAvailable(httpTransport -> httpTransport.receive(events));
+    }
+}
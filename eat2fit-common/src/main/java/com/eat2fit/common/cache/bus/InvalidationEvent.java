@@ -0,0 +1,34 @@
+package com.eat2fit.common.cache.bus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 缓存失效事件
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvalidationEvent {
+
+    /**
+     * 缓存名称，对应实体类型，如 fitness-plan
+     */
+    private String cache;
+
+    /**
+     * 业务key，通常是实体ID
+     */
+    private String key;
+
+    /**
+     * 变更版本（毫秒时间戳），接收方只处理比已处理版本更新的事件
+     */
+    private long version;
+
+    /**
+     * 发送方实例标识，接收方忽略自己发出的事件
+     */
+    private String origin;
+}
@@ -0,0 +1,24 @@
+package com.eat2fit.common.cache.bus;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 缓存失效事件的传输方式
+ */
+public interface InvalidationTransport {
+
+    /**
+     * 把一批事件发送给同一服务的所有实例（可以包括自己）
+     *
+     * @param events 事件
+     */
+    void send(List<InvalidationEvent> events);
+
+    /**
+     * 注册接收方，收到其他实例的事件时回调
+     *
+     * @param receiver 接收方
+     */
+    void subscribe(Consumer<List<InvalidationEvent>> receiver);
+}
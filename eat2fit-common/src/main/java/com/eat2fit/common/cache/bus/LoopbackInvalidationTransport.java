@@ -0,0 +1,26 @@
+package com.eat2fit.common.cache.bus;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 进程内传输，发送的事件直接交给同一个对象上注册的所有接收方。
+ * 单实例部署和测试时使用，多个 InvalidationBus 共用一个对象即可模拟多个实例
+ */
+public class LoopbackInvalidationTransport implements InvalidationTransport {
+
+    private final List<Consumer<List<InvalidationEvent>>> receivers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void send(List<InvalidationEvent> events) {
+        for (Consumer<List<InvalidationEvent>> receiver : receivers) {
+            receiver.accept(events);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<List<InvalidationEvent>> receiver) {
+        receivers.add(receiver);
+    }
+}
@@ -0,0 +1,135 @@
+package com.eat2fit.common.config;
+
+import com.eat2fit.common.cache.InMemoryL2Cache;
+import com.eat2fit.common.cache.L2Cache;
+import com.eat2fit.common.cache.RedisL2Cache;
+import com.eat2fit.common.cache.TwoLevelCache;
+import com.eat2fit.common.cache.TwoLevelCacheManager;
+import com.eat2fit.common.cache.bus.HttpInvalidationTransport;
+import com.eat2fit.common.cache.bus.InvalidationBus;
+import com.eat2fit.common.cache.bus.InvalidationTransport;
+import com.eat2fit.common.cache.bus.LoopbackInvalidationTransport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.web.servlet.DispatcherServlet;
+
+/**
+ * 两级缓存配置
+ */
+@Configuration
+@ConditionalOnClass(DispatcherServlet.class)
+public class CacheConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public TwoLevelCacheManager twoLevelCacheManager(CacheProperties cacheProperties, ObjectProvider<L2Cache> l2Cache,
+                                                     ObjectMapper objectMapper) {
+        return new TwoLevelCacheManager(cacheProperties, l2Cache.getIfAvailable(), objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "ef.cache.l2", havingValue = "memory")
+    public L2Cache inMemoryL2Cache(CacheProperties cacheProperties) {
+        return new InMemoryL2Cache(cacheProperties.getL2MaximumSize());
+    }
+
+    /**
+     * 实例间的缓存失效通知
+     */
+    @Configuration
+    @ConditionalOnProperty(name = "ef.cache.bus.enabled", havingValue = "true", matchIfMissing = true)
+    static class InvalidationBusConfig {
+
+        @Bean
+        @ConditionalOnProperty(name = "ef.cache.bus.transport", havingValue = "http", matchIfMissing = true)
+        public HttpInvalidationTransport httpInvalidationTransport(DiscoveryClient discoveryClient,
+                                                                   @Value("${spring.application.name}") String serviceName,
+                                                                   CacheProperties cacheProperties) {
+            return new HttpInvalidationTransport(discoveryClient, serviceName, cacheProperties.getBus().getTimeout());
+        }
+
+        @Bean
+        @ConditionalOnProperty(name = "ef.cache.bus.transport", havingValue = "loopback")
+        public LoopbackInvalidationTransport loopbackInvalidationTransport() {
+            return new LoopbackInvalidationTransport();
+        }
+
+        @Bean(initMethod = "start", destroyMethod = "stop")
+        public InvalidationBus invalidationBus(TwoLevelCacheManager cacheManager, InvalidationTransport transport,
+                                               CacheProperties cacheProperties) {
+            CacheProperties.Bus bus = cacheProperties.getBus();
+            return new InvalidationBus(cacheManager, transport, bus.getBatchInterval(), bus.getBatchSize());
+        }
+    }
+
+    /**
+     * Redis二级缓存，服务引入Redis依赖后才生效
+     */
+    @Configuration
+    @ConditionalOnClass(StringRedisTemplate.class)
+    @ConditionalOnProperty(name = "ef.cache.l2", havingValue = "redis")
+    static class RedisL2CacheConfig {
+
+        @Bean
+        public L2Cache redisL2Cache(StringRedisTemplate redisTemplate) {
+            return new RedisL2Cache(redisTemplate);
+        }
+    }
+
+    /**
+     * 缓存指标，服务引入 actuator 后生效。
+     * 在所有单例初始化完成后注册，各服务在 @PostConstruct 中创建的缓存都能统计到
+     */
+    @Configuration
+    @ConditionalOnClass(MeterRegistry.class)
+    static class CacheMetricsConfig {
+
+        @Bean
+        public SmartInitializingSingleton twoLevelCacheMetrics(TwoLevelCacheManager cacheManager,
+                                                               ObjectProvider<MeterRegistry> registry) {
+            return () -> registry.ifAvailable(meterRegistry -> {
+                for (TwoLevelCache<?> cache : cacheManager.getCaches()) {
+                    bind(cache, meterRegistry);
+                }
+            });
+        }
+
+        private void bind(TwoLevelCache<?> cache, MeterRegistry registry) {
+            String[] results = {"l1Hits", "l2Hits", "misses", "staleHits"};
+            for (String result : results) {
+                FunctionCounter.builder("cache.two-level.requests", cache, c -> stat(c, result))
+                        .tag("cache", cache.getName())
+                        .tag("result", result)
+                        .register(registry);
+            }
+            FunctionCounter.builder("cache.two-level.evictions", cache, c -> stat(c, "evictions"))
+                    .tag("cache", cache.getName())
+                    .register(registry);
+            FunctionCounter.builder("cache.two-level.failures", cache, c -> stat(c, "loadFailures"))
+                    .tag("cache", cache.getName())
+                    .tag("type", "load")
+                    .register(registry);
+            FunctionCounter.builder("cache.two-level.failures", cache, c -> stat(c, "l2Failures"))
+                    .tag("cache", cache.getName())
+                    .tag("type", "l2")
+                    .register(registry);
+            Gauge.builder("cache.two-level.size", cache, c -> stat(c, "size"))
+                    .tag("cache", cache.getName())
+                    .register(registry);
+        }
+
+        private static double stat(TwoLevelCache<?> cache, String name) {
+            return ((Number) cache.stats().get(name)).doubleValue();
+        }
+    }
+}
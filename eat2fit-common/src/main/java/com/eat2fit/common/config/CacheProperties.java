@@ -0,0 +1,88 @@
+package com.eat2fit.common.config;
+
+import com.eat2fit.common.cache.CacheSpec;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 两级缓存配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "ef.cache")
+public class CacheProperties {
+
+    /**
+     * 二级缓存类型：none-不使用，memory-进程内（本地开发、测试），redis-Redis（需要引入 spring-boot-starter-data-redis）
+     */
+    private String l2 = "none";
+
+    /**
+     * 进程内二级缓存的最大条数
+     */
+    private long l2MaximumSize = 100_000;
+
+    /**
+     * 数据不存在时缓存空值的时间，防止缓存穿透
+     */
+    private Duration nullTtl = Duration.ofSeconds(30);
+
+    /**
+     * 后台刷新的线程数
+     */
+    private int refreshThreads = 2;
+
+    /**
+     * 后台刷新的队列长度，队列满时继续返回旧数据
+     */
+    private int refreshQueueSize = 1000;
+
+    /**
+     * 未单独配置的缓存使用的默认配置
+     */
+    private CacheSpec defaults = new CacheSpec();
+
+    /**
+     * 各缓存的配置，key为缓存名称
+     */
+    private Map<String, CacheSpec> caches = new HashMap<>();
+
+    /**
+     * 实例间的缓存失效通知
+     */
+    private Bus bus = new Bus();
+
+    @Data
+    public static class Bus {
+
+        /**
+         * 是否开启
+         */
+        private boolean enabled = true;
+
+        /**
+         * 传输方式：http-通过注册中心找到本服务的所有实例逐个通知，loopback-只在进程内（单实例、测试）
+         */
+        private String transport = "http";
+
+        /**
+         * 批量发送的间隔
+         */
+        private Duration batchInterval = Duration.ofMillis(50);
+
+        /**
+         * 每批最多的事件数
+         */
+        private int batchSize = 200;
+
+        /**
+         * 通知单个实例的超时时间
+         */
+        private Duration timeout = Duration.ofSeconds(1);
+    }
+}
@@ -0,0 +1,23 @@
+package com.eat2fit.common.config;
+
+import com.eat2fit.common.context.UserContextTaskDecorator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.servlet.DispatcherServlet;
+
+/**
+ * 用户上下文传递配置，Spring Boot 会把 TaskDecorator 应用到默认线程池（@Async）
+ */
+@Configuration
+@ConditionalOnClass(DispatcherServlet.class)
+public class ContextPropagationConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(TaskDecorator.class)
+    public TaskDecorator userContextTaskDecorator() {
+        return new UserContextTaskDecorator();
+    }
+}
@@ -0,0 +1,40 @@
+package com.eat2fit.common.config;
+
+import com.eat2fit.common.sql.SlowQueryInterceptor;
+import com.eat2fit.common.sql.SlowQueryRecorder;
+import org.apache.ibatis.plugin.Interceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 慢SQL采样、EXPLAIN 分析与索引建议
+ * <p>
+ * MyBatis插件以Bean的形式注册，由MyBatis-Plus自动配置加入SqlSessionFactory。
+ */
+@Configuration
+@ConditionalOnClass({DispatcherServlet.class, Interceptor.class})
+@ConditionalOnProperty(name = "ef.slow-query.enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryConfig {
+
+    @Autowired
+    private SlowQueryProperties slowQueryProperties;
+
+    @Bean(destroyMethod = "stop")
+    public SlowQueryRecorder slowQueryRecorder() {
+        return new SlowQueryRecorder(slowQueryProperties.getSampleRate(), slowQueryProperties.isExplain(),
+                TimeUnit.SECONDS.toMillis(slowQueryProperties.getExplainIntervalSeconds()),
+                slowQueryProperties.getMaxShapes());
+    }
+
+    @Bean
+    public SlowQueryInterceptor slowQueryInterceptor() {
+        return new SlowQueryInterceptor(slowQueryRecorder(), slowQueryProperties.getSampleRate(),
+                slowQueryProperties.getSlowThresholdMillis());
+    }
+}
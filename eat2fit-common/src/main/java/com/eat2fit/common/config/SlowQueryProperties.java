@@ -0,0 +1,44 @@
+package com.eat2fit.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 慢SQL采样与EXPLAIN分析
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "ef.slow-query")
+public class SlowQueryProperties {
+
+    /**
+     * 是否开启慢SQL采样
+     */
+    private boolean enabled = true;
+
+    /**
+     * 普通语句的采样比例（0~1），采到的语句计入各SQL形状的耗时分位数，慢SQL不受采样限制
+     */
+    private double sampleRate = 0.1;
+
+    /**
+     * 耗时超过该值（毫秒）的语句视为慢SQL
+     */
+    private long slowThresholdMillis = 200;
+
+    /**
+     * 是否对慢SQL异步执行 EXPLAIN
+     */
+    private boolean explain = true;
+
+    /**
+     * 同一形状的SQL两次 EXPLAIN 的最小间隔（秒）
+     */
+    private long explainIntervalSeconds = 600;
+
+    /**
+     * 最多统计多少种SQL形状，超过后新形状不再记录
+     */
+    private int maxShapes = 500;
+}
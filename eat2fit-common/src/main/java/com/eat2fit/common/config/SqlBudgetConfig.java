@@ -0,0 +1,47 @@
+package com.eat2fit.common.config;
+
+import com.eat2fit.common.sql.SqlBudgetInterceptor;
+import com.eat2fit.common.sql.SqlBudgetRecorder;
+import com.eat2fit.common.sql.SqlStatsInterceptor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.plugin.Interceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 每次请求的SQL统计与N+1检测
+ * <p>
+ * MyBatis插件以Bean的形式注册，由MyBatis-Plus自动配置加入SqlSessionFactory。
+ */
+@Slf4j
+@Configuration
+@ConditionalOnClass({DispatcherServlet.class, Interceptor.class})
+@ConditionalOnProperty(name = "ef.sql-budget.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlBudgetConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private SqlBudgetProperties sqlBudgetProperties;
+
+    @Bean
+    public SqlStatsInterceptor sqlStatsInterceptor() {
+        return new SqlStatsInterceptor();
+    }
+
+    @Bean
+    public SqlBudgetRecorder sqlBudgetRecorder() {
+        return new SqlBudgetRecorder(sqlBudgetProperties.getSlowDbMillis(), sqlBudgetProperties.getHistorySize());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        log.info("注册SQL预算拦截器，单次请求最多 {} 条SQL，同一SQL最多 {} 次",
+                sqlBudgetProperties.getMaxStatements(), sqlBudgetProperties.getMaxRepeats());
+        registry.addInterceptor(new SqlBudgetInterceptor(sqlBudgetProperties, sqlBudgetRecorder()));
+    }
+}
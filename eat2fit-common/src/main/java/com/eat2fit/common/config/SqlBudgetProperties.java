@@ -0,0 +1,44 @@
+package com.eat2fit.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 每次请求的SQL预算
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "ef.sql-budget")
+public class SqlBudgetProperties {
+
+    /**
+     * 是否统计每次请求的SQL
+     */
+    private boolean enabled = true;
+
+    /**
+     * 单次请求最多执行的SQL语句数，小于0表示不限制，接口上可用 @SqlBudget 覆盖
+     */
+    private int maxStatements = 20;
+
+    /**
+     * 同一形状的SQL单次请求最多执行的次数，超过视为N+1查询
+     */
+    private int maxRepeats = 3;
+
+    /**
+     * 单次请求数据库耗时超过该值（毫秒）时记录，小于0表示不检查
+     */
+    private long slowDbMillis = 500;
+
+    /**
+     * 超出预算时直接抛出异常，用于测试中断言接口的查询次数，生产环境保持关闭
+     */
+    private boolean failOnViolation = false;
+
+    /**
+     * 保留最近多少条超限记录
+     */
+    private int historySize = 100;
+}
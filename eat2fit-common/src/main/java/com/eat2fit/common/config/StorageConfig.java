@@ -0,0 +1,105 @@
+package com.eat2fit.common.config;
+
+import com.eat2fit.common.storage.ChunkedUploadStore;
+import com.eat2fit.common.storage.ContentAddressedUploader;
+import com.eat2fit.common.storage.ImageVariantPipeline;
+import com.eat2fit.common.storage.LocalObjectStorage;
+import com.eat2fit.common.storage.ObjectStorage;
+import com.eat2fit.common.storage.OssObjectStorage;
+import com.eat2fit.common.storage.mapper.StoredFileMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+
+/**
+ * 对象存储配置，由 ef.storage.type 选择实现
+ */
+@Configuration
+@ConditionalOnClass(DispatcherServlet.class)
+public class StorageConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = "ef.storage.type", havingValue = "oss", matchIfMissing = true)
+    public ObjectStorage ossObjectStorage(StorageProperties storageProperties) {
+        return new OssObjectStorage(storageProperties.getOss());
+    }
+
+    /**
+     * 本地文件存储，同时把访问地址映射到存储目录
+     */
+    @Configuration
+    @ConditionalOnProperty(name = "ef.storage.type", havingValue = "local")
+    static class LocalStorageConfig implements WebMvcConfigurer {
+
+        private final StorageProperties.Local local;
+
+        LocalStorageConfig(StorageProperties storageProperties) {
+            this.local = storageProperties.getLocal();
+        }
+
+        @Bean
+        public ObjectStorage localObjectStorage() throws IOException {
+            return new LocalObjectStorage(Path.of(local.getRoot()), local.getPublicUrl());
+        }
+
+        @Override
+        public void addResourceHandlers(ResourceHandlerRegistry registry) {
+            String path = URI.create(local.getPublicUrl()).getPath();
+            String location = Path.of(local.getRoot()).toAbsolutePath().normalize().toUri().toString();
+            if (!location.endsWith("/")) {
+                location += "/";
+            }
+            registry.addResourceHandler(path + "/**").addResourceLocations(location);
+        }
+    }
+
+    /**
+     * 按内容去重的上传
+     */
+    @Configuration
+    @ConditionalOnProperty(name = "ef.storage.dedup.enabled", havingValue = "true")
+    static class DedupConfig {
+
+        @Bean
+        public ContentAddressedUploader contentAddressedUploader(ObjectStorage objectStorage,
+                                                                 StoredFileMapper storedFileMapper) {
+            return new ContentAddressedUploader(objectStorage, storedFileMapper);
+        }
+    }
+
+    /**
+     * 图片缩略图、压缩图的后台生成
+     */
+    @Configuration
+    @ConditionalOnProperty(name = "ef.storage.image.enabled", havingValue = "true")
+    static class ImageVariantConfig {
+
+        @Bean(destroyMethod = "shutdown")
+        public ImageVariantPipeline imageVariantPipeline(ObjectStorage objectStorage, StorageProperties storageProperties) {
+            return new ImageVariantPipeline(objectStorage, storageProperties.getImage());
+        }
+    }
+
+    /**
+     * 可断点续传的分片上传
+     */
+    @Configuration
+    @ConditionalOnProperty(name = "ef.storage.chunked.enabled", havingValue = "true")
+    static class ChunkedUploadConfig {
+
+        @Bean
+        public ChunkedUploadStore chunkedUploadStore(StorageProperties storageProperties, ObjectMapper objectMapper)
+                throws IOException {
+            return new ChunkedUploadStore(storageProperties.getChunked(), objectMapper);
+        }
+    }
+}
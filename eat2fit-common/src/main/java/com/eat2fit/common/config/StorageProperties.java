@@ -0,0 +1,182 @@
+package com.eat2fit.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * 对象存储配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "ef.storage")
+public class StorageProperties {
+
+    /**
+     * 存储类型：oss-阿里云OSS，local-本地文件系统（本地开发、测试）
+     */
+    private String type = "oss";
+
+    private Oss oss = new Oss();
+
+    private Local local = new Local();
+
+    private Dedup dedup = new Dedup();
+
+    private Image image = new Image();
+
+    private Chunked chunked = new Chunked();
+
+    @Data
+    public static class Oss {
+
+        private String endpoint = "https://oss-cn-beijing.aliyuncs.com";
+
+        private String bucket = "eat2fit";
+
+        private String region = "cn-beijing";
+
+        /**
+         * 访问地址前缀，例如CDN域名；为空时使用 https://bucket.endpoint
+         */
+        private String publicUrl;
+
+        /**
+         * 客户端最大连接数，所有上传共用一个客户端
+         */
+        private int maxConnections = 64;
+
+        private Duration connectionTimeout = Duration.ofSeconds(5);
+
+        private Duration socketTimeout = Duration.ofSeconds(60);
+
+        /**
+         * 超过该大小（或大小未知）时使用分片上传
+         */
+        private DataSize multipartThreshold = DataSize.ofMegabytes(16);
+
+        /**
+         * 分片大小，每个上传同时在内存中的分片不超过 partConcurrency + 1 个
+         */
+        private DataSize partSize = DataSize.ofMegabytes(8);
+
+        /**
+         * 单个文件同时上传的分片数
+         */
+        private int partConcurrency = 3;
+
+        /**
+         * 分片上传的线程数，所有上传共用
+         */
+        private int uploadThreads = 8;
+    }
+
+    @Data
+    public static class Local {
+
+        /**
+         * 文件保存的根目录
+         */
+        private String root = "./data/storage";
+
+        /**
+         * 访问地址前缀，本服务会把 {publicUrl}/** 映射到根目录
+         */
+        private String publicUrl = "/files";
+    }
+
+    @Data
+    public static class Dedup {
+
+        /**
+         * 是否按内容去重，开启后需要 stored_file 表，并把 com.eat2fit.common.storage.mapper 加入 @MapperScan
+         */
+        private boolean enabled = false;
+
+        /**
+         * 没有业务数据引用的文件（包括上传后从未保存的）在最后一次上传或释放引用后至少保留多久才清理
+         */
+        private Duration purgeGrace = Duration.ofDays(7);
+
+        /**
+         * 每次清理最多删除的文件数
+         */
+        private int purgeBatchSize = 500;
+    }
+
+    @Data
+    public static class Image {
+
+        /**
+         * 是否在上传的图片被业务数据引用后生成缩略图和压缩图
+         */
+        private boolean enabled = false;
+
+        /**
+         * 处理图片的线程数，图片解码很占CPU和内存，不宜过多
+         */
+        private int workers = 2;
+
+        /**
+         * 等待处理的任务数上限，超过后丢弃新任务，列表继续显示原图
+         */
+        private int queueCapacity = 200;
+
+        /**
+         * 缩略图边长，居中裁剪成正方形
+         */
+        private int thumbnailSize = 240;
+
+        /**
+         * 压缩图最长边，原图更小时不放大
+         */
+        private int largeMaxSize = 1280;
+
+        /**
+         * JPEG压缩质量，0~1
+         */
+        private float quality = 0.8f;
+
+        /**
+         * 原图像素数上限，超过的图片不处理，避免解码时占用过多内存
+         */
+        private long maxPixels = 40_000_000L;
+    }
+
+    @Data
+    public static class Chunked {
+
+        /**
+         * 是否开启分片上传
+         */
+        private boolean enabled = false;
+
+        /**
+         * 分片的暂存目录，多实例部署时需要是共享目录，或者在网关按上传ID做会话保持
+         */
+        private String dir = "./data/chunks";
+
+        /**
+         * 分片大小，除最后一片外每片必须正好是这个大小
+         */
+        private DataSize chunkSize = DataSize.ofMegabytes(8);
+
+        /**
+         * 单个文件的大小上限
+         */
+        private DataSize maxFileSize = DataSize.ofGigabytes(2);
+
+        /**
+         * 上传任务多久没有新的分片后清理
+         */
+        private Duration expire = Duration.ofHours(24);
+
+        /**
+         * 合并的最长时间，超过后认为合并的进程已经退出，允许重新合并；需要大于最大文件上传到对象存储的时间
+         */
+        private Duration completeTimeout = Duration.ofHours(1);
+    }
+}
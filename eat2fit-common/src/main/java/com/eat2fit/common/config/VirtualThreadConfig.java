@@ -0,0 +1,38 @@
+package com.eat2fit.common.config;
+
+import com.eat2fit.common.thread.VirtualThreadPinningDetector;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.DispatcherServlet;
+
+/**
+ * 虚拟线程模式
+ * <p>
+ * 各服务在 application.yml 中通过 spring.threads.virtual.enabled 单独开关。
+ * Spring Boot 只在 JDK 21 及以上生效，低版本JDK仍使用平台线程池，这里给出提示。
+ */
+@Slf4j
+@Configuration
+@ConditionalOnClass(DispatcherServlet.class)
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final int VIRTUAL_THREAD_FEATURE_VERSION = 21;
+
+    @Autowired
+    private VirtualThreadProperties virtualThreadProperties;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(name = "ef.virtual-threads.pinning-detection", havingValue = "true", matchIfMissing = true)
+    public VirtualThreadPinningDetector virtualThreadPinningDetector() {
+        if (Runtime.version().feature() < VIRTUAL_THREAD_FEATURE_VERSION) {
+            log.warn("当前JDK版本为 {}，不支持虚拟线程，仍使用平台线程池处理请求", Runtime.version().feature());
+        }
+        return new VirtualThreadPinningDetector(virtualThreadProperties.getPinningThreshold(),
+                virtualThreadProperties.getLogLimitPerSite());
+    }
+}
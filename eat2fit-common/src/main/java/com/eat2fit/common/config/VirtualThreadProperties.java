@@ -0,0 +1,34 @@
+package com.eat2fit.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 虚拟线程配置
+ * <p>
+ * 是否使用虚拟线程由 Spring Boot 的 spring.threads.virtual.enabled 控制（需要 JDK 21），
+ * 开启后 Tomcat 处理请求和 @Async 任务都运行在虚拟线程上，这里只配置配套的线程固定（pinning）检测。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "ef.virtual-threads")
+public class VirtualThreadProperties {
+
+    /**
+     * 是否检测虚拟线程固定在载体线程上（synchronized 块内阻塞、本地方法），基于JFR事件
+     */
+    private boolean pinningDetection = true;
+
+    /**
+     * 固定时间超过该值才记录
+     */
+    private Duration pinningThreshold = Duration.ofMillis(20);
+
+    /**
+     * 每个调用位置完整打印的次数，超过后只计数
+     */
+    private int logLimitPerSite = 3;
+}
@@ -15,6 +15,21 @@ public class Constants {
      */
     public static final String TOKEN_HEADER = "Authorization";
 
+    /**
+     * 网关向下游传递用户ID的请求头
+     */
+    public static final String USER_INFO_HEADER = "user-info";
+
+    /**
+     * 网关向下游传递用户角色的请求头，由网关校验token后写入
+     */
+    public static final String USER_ROLE_HEADER = "user-role";
+
+    /**
+     * 角色：管理员
+     */
+    public static final int ROLE_ADMIN = 1;
+
     /**
      * 用户信息在Redis中的前缀
      */
@@ -70,11 +85,21 @@ public class Constants {
      */
     public static final String REDIS_FITNESS_PLAN_PREFIX = "fitness:plan:";
 
+    /**
+     * 训练课程缓存前缀
+     */
+    public static final String REDIS_FITNESS_COURSE_PREFIX = "fitness:course:";
+
     /**
      * 食谱缓存前缀
      */
     public static final String REDIS_DIET_RECIPE_PREFIX = "diet:recipe:";
 
+    /**
+     * 游标分页总数缓存前缀
+     */
+    public static final String REDIS_PAGE_COUNT_PREFIX = "page:count:";
+
     /**
      * 性别：男
      */
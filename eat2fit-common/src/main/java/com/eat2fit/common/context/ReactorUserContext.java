@@ -0,0 +1,36 @@
+package com.eat2fit.common.context;
+
+import com.eat2fit.common.util.UserContext;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.function.Function;
+
+/**
+ * 在 Reactor Context 中传递用户ID
+ * <p>
+ * 流式接口返回 Flux 后，后续的算子运行在 Reactor 或 HTTP 客户端的线程上，拿不到请求线程的 UserContext。
+ * 在控制器中用 {@code flux.contextWrite(ReactorUserContext.capture())} 把用户ID写入 Reactor Context，
+ * 算子内用 {@link #currentUser()} 读取；配合 {@link UserContextThreadLocalAccessor} 和自动传递，
+ * 算子里直接调用 UserContext.getUser() 也能拿到。
+ */
+public final class ReactorUserContext {
+
+    private ReactorUserContext() {
+    }
+
+    /**
+     * 记录当前线程的用户ID，返回写入 Reactor Context 的函数
+     */
+    public static Function<Context, Context> capture() {
+        Long userId = UserContext.getUser();
+        return context -> userId == null ? context : context.put(UserContextThreadLocalAccessor.KEY, userId);
+    }
+
+    /**
+     * 从 Reactor Context 中读取用户ID，未登录时为空
+     */
+    public static Mono<Long> currentUser() {
+        return Mono.deferContextual(context -> Mono.justOrEmpty(context.<Long>getOrEmpty(UserContextThreadLocalAccessor.KEY)));
+    }
+}
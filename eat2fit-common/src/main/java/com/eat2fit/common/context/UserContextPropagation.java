@@ -0,0 +1,90 @@
+package com.eat2fit.common.context;
+
+import com.eat2fit.common.util.UserContext;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * 把 UserContext 传递到其他线程
+ * <p>
+ * 包装时记录当前线程的用户ID，任务执行前设置到工作线程，执行完恢复工作线程原来的值，
+ * 线程池复用线程时不会串用户。用法：
+ * <pre>
+ * ExecutorService executor = UserContextPropagation.wrap(Executors.newFixedThreadPool(4));
+ * CompletableFuture&lt;PlanVO&gt; plan = CompletableFuture.supplyAsync(() -&gt; getPlan(id), executor);
+ * </pre>
+ */
+public final class UserContextPropagation {
+
+    private UserContextPropagation() {
+    }
+
+    public static Runnable wrap(Runnable task) {
+        Long userId = UserContext.getUser();
+        return () -> {
+            Long previous = apply(userId);
+            try {
+                task.run();
+            } finally {
+                apply(previous);
+            }
+        };
+    }
+
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        Long userId = UserContext.getUser();
+        return () -> {
+            Long previous = apply(userId);
+            try {
+                return task.call();
+            } finally {
+                apply(previous);
+            }
+        };
+    }
+
+    /**
+     * 包装 CompletableFuture.supplyAsync 的任务，和 Callable 重载分开命名，避免 lambda 有歧义
+     */
+    public static <T> Supplier<T> wrapSupplier(Supplier<T> task) {
+        Long userId = UserContext.getUser();
+        return () -> {
+            Long previous = apply(userId);
+            try {
+                return task.get();
+            } finally {
+                apply(previous);
+            }
+        };
+    }
+
+    public static Executor wrap(Executor executor) {
+        if (executor instanceof ExecutorService) {
+            return wrap((ExecutorService) executor);
+        }
+        return task -> executor.execute(wrap(task));
+    }
+
+    public static ExecutorService wrap(ExecutorService executor) {
+        if (executor instanceof UserContextExecutorService) {
+            return executor;
+        }
+        return new UserContextExecutorService(executor);
+    }
+
+    /**
+     * 设置当前线程的用户ID，返回原来的值
+     */
+    private static Long apply(Long userId) {
+        Long previous = UserContext.getUser();
+        if (userId == null) {
+            UserContext.removeUser();
+        } else {
+            UserContext.setUser(userId);
+        }
+        return previous;
+    }
+}
@@ -0,0 +1,14 @@
+package com.eat2fit.common.context;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Spring 线程池的任务装饰器，@Async 方法和 applicationTaskExecutor 执行的任务都能拿到提交时的用户
+ */
+public class UserContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return UserContextPropagation.wrap(runnable);
+    }
+}
@@ -0,0 +1,35 @@
+package com.eat2fit.common.context;
+
+import com.eat2fit.common.util.UserContext;
+import io.micrometer.context.ThreadLocalAccessor;
+
+/**
+ * 把 UserContext 注册到 Micrometer context-propagation，通过 META-INF/services 自动加载
+ * <p>
+ * 开启 spring.reactor.context-propagation=auto 后，Reactor 在切换线程时按 Reactor Context
+ * 中的 {@link #KEY} 恢复 UserContext。
+ */
+public class UserContextThreadLocalAccessor implements ThreadLocalAccessor<Long> {
+
+    public static final String KEY = "eat2fit.user";
+
+    @Override
+    public Object key() {
+        return KEY;
+    }
+
+    @Override
+    public Long getValue() {
+        return UserContext.getUser();
+    }
+
+    @Override
+    public void setValue(Long userId) {
+        UserContext.setUser(userId);
+    }
+
+    @Override
+    public void setValue() {
+        UserContext.removeUser();
+    }
+}
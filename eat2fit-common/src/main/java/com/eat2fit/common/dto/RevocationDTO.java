@@ -0,0 +1,43 @@
+package com.eat2fit.common.dto;
+
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * token吊销信息，用户服务推送给网关
+ */
+@Data
+public class RevocationDTO {
+
+    /**
+     * 禁用用户时 notBefore 的取值，该用户的所有token都失效
+     */
+    public static final long DISABLED = Long.MAX_VALUE;
+
+    /**
+     * 解除限制时 notBefore 的取值
+     */
+    public static final long CLEARED = 0L;
+
+    /**
+     * 用户ID -> notBefore（毫秒时间戳），签发时间早于它的token失效
+     */
+    private Map<Long, Long> users = new HashMap<>();
+
+    /**
+     * 被吊销的token ID（jti） -> token过期时间（毫秒时间戳）
+     */
+    private Map<String, Long> tokens = new HashMap<>();
+
+    /**
+     * 是否为全量快照，为true时网关用它校准已有数据：被禁用的用户以快照为准，其余记录合并
+     */
+    private boolean snapshot;
+
+    /**
+     * 用户服务生成这份数据的时间（毫秒时间戳），网关据此判断快照和推送的先后，并拒绝过旧的推送
+     */
+    private long timestamp;
+}
@@ -71,7 +71,11 @@ public enum ErrorCode {
     FILE_UPLOAD_ERROR(4001, "文件上传失败"),
     FILE_DOWNLOAD_ERROR(4002, "文件下载失败"),
     FILE_TYPE_NOT_SUPPORT(4003, "不支持的文件类型"),
-    FILE_SIZE_EXCEED(4004, "文件大小超出限制");
+    FILE_SIZE_EXCEED(4004, "文件大小超出限制"),
+    FILE_UPLOAD_NOT_FOUND(4005, "上传任务不存在或已过期"),
+    FILE_CHUNK_CHECKSUM_ERROR(4006, "分片校验失败，请重新上传该分片"),
+    FILE_CHUNK_INCOMPLETE(4007, "还有分片未上传"),
+    FILE_CHUNK_COMPLETING(4008, "文件正在合并，请稍后查询上传状态");
 
     /**
      * 错误码
@@ -4,10 +4,10 @@ import cn.hutool.core.util.StrUtil;
 import com.eat2fit.common.util.UserContext;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
 
 
-public class UserInfoInterceptor implements HandlerInterceptor {
+public class UserInfoInterceptor implements AsyncHandlerInterceptor {
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
         //1.获取登录用户信息
@@ -25,4 +25,10 @@ public class UserInfoInterceptor implements HandlerInterceptor {
         //清理用户
         UserContext.removeUser();
     }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        //异步请求（如流式接口）的请求线程提前归还线程池，此时不会调用afterCompletion，需要在这里清理
+        UserContext.removeUser();
+    }
 }
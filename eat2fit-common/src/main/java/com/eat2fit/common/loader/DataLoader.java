@@ -0,0 +1,158 @@
+package com.eat2fit.common.loader;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 按id批量加载关联数据，同时作为一次请求内的身份映射
+ * <p>
+ * 先用 {@link #enqueue} 登记要用到的id，第一次 {@link #load} 时把所有登记的id合并成一次 IN 查询；
+ * 加载过的对象（包括不存在的id）会记住，同一请求内再取同一个id不会再查库。
+ * 一般通过 {@link RequestLoaders#get} 获取，不要自己长期持有。
+ * <pre>
+ * DataLoader&lt;Food&gt; loader = RequestLoaders.get(Food.class, this::listByIds, Food::getId);
+ * ingredients.forEach(ingredient -&gt; loader.enqueue(ingredient.getFoodId()));
+ * Food food = loader.load(ingredient.getFoodId());
+ * </pre>
+ */
+@Slf4j
+public class DataLoader<T> {
+
+    /**
+     * 单条 IN 查询最多的id数，超过时分多次查询
+     */
+    public static final int MAX_BATCH_SIZE = 500;
+
+    private final String name;
+
+    private final Function<Collection<Long>, ? extends Collection<T>> batchLoader;
+
+    private final Function<T, Long> idGetter;
+
+    /**
+     * 已加载的对象，value为null表示该id不存在
+     */
+    private final Map<Long, T> loaded = new HashMap<>();
+
+    /**
+     * 已登记还未加载的id
+     */
+    private final Set<Long> pending = new LinkedHashSet<>();
+
+    /**
+     * @param name        名称，用于日志
+     * @param batchLoader 按id集合批量查询，一般为 IService::listByIds
+     * @param idGetter    取对象的id
+     */
+    public DataLoader(String name, Function<Collection<Long>, ? extends Collection<T>> batchLoader,
+                      Function<T, Long> idGetter) {
+        this.name = name;
+        this.batchLoader = batchLoader;
+        this.idGetter = idGetter;
+    }
+
+    /**
+     * 登记一个id，等到下一次加载时一起查询
+     */
+    public synchronized DataLoader<T> enqueue(Long id) {
+        if (id != null && !loaded.containsKey(id)) {
+            pending.add(id);
+        }
+        return this;
+    }
+
+    /**
+     * 登记多个id
+     */
+    public synchronized DataLoader<T> enqueueAll(Collection<Long> ids) {
+        for (Long id : ids) {
+            enqueue(id);
+        }
+        return this;
+    }
+
+    /**
+     * 获取一个对象，未加载时连同所有已登记的id一起查询
+     * @return 对象，不存在时返回null
+     */
+    public synchronized T load(Long id) {
+        if (id == null) {
+            return null;
+        }
+        if (!loaded.containsKey(id)) {
+            pending.add(id);
+            dispatch();
+        }
+        return loaded.get(id);
+    }
+
+    /**
+     * 批量获取对象
+     * @return id到对象的映射，按传入顺序排列，不包含不存在的id
+     */
+    public synchronized Map<Long, T> loadMany(Collection<Long> ids) {
+        enqueueAll(ids);
+        dispatch();
+
+        Map<Long, T> result = new LinkedHashMap<>();
+        for (Long id : ids) {
+            T value = id == null ? null : loaded.get(id);
+            if (value != null) {
+                result.put(id, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 立即加载所有已登记的id
+     */
+    public synchronized void dispatch() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(pending);
+        pending.clear();
+
+        for (int from = 0; from < ids.size(); from += MAX_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + MAX_BATCH_SIZE, ids.size()));
+            Collection<T> values = batchLoader.apply(batch);
+            if (values != null) {
+                for (T value : values) {
+                    loaded.put(idGetter.apply(value), value);
+                }
+            }
+            // 查不到的id也记下来，避免重复查询
+            for (Long id : batch) {
+                loaded.putIfAbsent(id, null);
+            }
+            log.debug("批量加载{}，id数: {}，命中: {}", name, batch.size(), values == null ? 0 : values.size());
+        }
+    }
+
+    /**
+     * 放入已经查到的对象，之后取这个id不再查库
+     */
+    public synchronized void prime(T value) {
+        if (value != null) {
+            loaded.put(idGetter.apply(value), value);
+        }
+    }
+
+    /**
+     * 移除一个id，数据修改后调用，之后会重新查库
+     */
+    public synchronized void clear(Long id) {
+        loaded.remove(id);
+        pending.remove(id);
+    }
+}
@@ -0,0 +1,71 @@
+package com.eat2fit.common.loader;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 绑定在当前请求上的 DataLoader
+ * <p>
+ * 每个实体类型在一次请求内只有一个 DataLoader，保存在请求属性中，请求结束后随请求一起释放，
+ * 不需要额外的拦截器清理。同一类型第一次获取时传入的查询函数生效，所以应当只在该实体自己的Service里获取。
+ * 不在Web请求中（定时任务、MQ消费等）时每次返回新的 DataLoader，只在本次调用内合并查询。
+ */
+public class RequestLoaders {
+
+    private static final String ATTRIBUTE = RequestLoaders.class.getName() + ".LOADERS";
+
+    private RequestLoaders() {
+    }
+
+    /**
+     * 获取当前请求内某个实体类型的 DataLoader
+     *
+     * @param type        实体类型
+     * @param batchLoader 按id集合批量查询，一般为 IService::listByIds
+     * @param idGetter    取实体的id
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> DataLoader<T> get(Class<T> type, Function<Collection<Long>, ? extends Collection<T>> batchLoader,
+                                        Function<T, Long> idGetter) {
+        Map<Class<?>, DataLoader<?>> loaders = currentLoaders(true);
+        if (loaders == null) {
+            return new DataLoader<>(type.getSimpleName(), batchLoader, idGetter);
+        }
+        return (DataLoader<T>) loaders.computeIfAbsent(type,
+                key -> new DataLoader<>(type.getSimpleName(), batchLoader, idGetter));
+    }
+
+    /**
+     * 数据修改后移除当前请求内缓存的对象
+     */
+    public static void clear(Class<?> type, Long id) {
+        Map<Class<?>, DataLoader<?>> loaders = currentLoaders(false);
+        if (loaders == null) {
+            return;
+        }
+        DataLoader<?> loader = loaders.get(type);
+        if (loader != null) {
+            loader.clear(id);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Class<?>, DataLoader<?>> currentLoaders(boolean create) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<Class<?>, DataLoader<?>> loaders =
+                (Map<Class<?>, DataLoader<?>>) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (loaders == null && create) {
+            loaders = new ConcurrentHashMap<>();
+            attributes.setAttribute(ATTRIBUTE, loaders, RequestAttributes.SCOPE_REQUEST);
+        }
+        return loaders;
+    }
+}
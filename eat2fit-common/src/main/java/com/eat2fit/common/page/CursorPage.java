@@ -0,0 +1,55 @@
+package com.eat2fit.common.page;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标分页结果
+ * <p>
+ * 下一页请求带上 nextCursor 即可，hasMore 为 false 时 nextCursor 为 null。
+ * total 只在请求时带上 withTotal=true 才返回，且可能是短时间内缓存的值。
+ */
+@Data
+public class CursorPage<T> {
+
+    /**
+     * 当前页数据
+     */
+    private List<T> records = new ArrayList<>();
+
+    /**
+     * 每页大小
+     */
+    private long size;
+
+    /**
+     * 是否还有下一页
+     */
+    private boolean hasMore;
+
+    /**
+     * 下一页游标
+     */
+    private String nextCursor;
+
+    /**
+     * 总记录数，未请求时为null
+     */
+    private Long total;
+
+    /**
+     * 转换记录类型，游标信息保持不变
+     */
+    public <R> CursorPage<R> convert(Function<List<T>, List<R>> converter) {
+        CursorPage<R> page = new CursorPage<>();
+        page.setRecords(converter.apply(records));
+        page.setSize(size);
+        page.setHasMore(hasMore);
+        page.setNextCursor(nextCursor);
+        page.setTotal(total);
+        return page;
+    }
+}
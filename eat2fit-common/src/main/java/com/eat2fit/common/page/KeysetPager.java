@@ -0,0 +1,99 @@
+package com.eat2fit.common.page;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.eat2fit.common.exception.BusinessException;
+import com.eat2fit.common.exception.ErrorCode;
+
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 按 (排序列, id) 倒序的游标分页
+ * <p>
+ * 用 WHERE (sort &lt; ? OR (sort = ? AND id &lt; ?)) ... LIMIT size+1 代替 OFFSET，
+ * 翻到多深都只扫描一页的数据；多查的一条用来判断是否还有下一页，不需要 COUNT(*)。
+ * 排序列不能为null，建议建立 (过滤列..., 排序列, id) 的联合索引。
+ * <p>
+ * 用法：
+ * <pre>
+ * private static final KeysetPager&lt;Recipe, LocalDateTime&gt; PAGER =
+ *         new KeysetPager&lt;&gt;(Recipe::getCreateTime, Recipe::getId, LocalDateTime::parse);
+ *
+ * CursorPage&lt;Recipe&gt; page = PAGER.page(queryWrapper, cursor, size, baseMapper, null);
+ * </pre>
+ */
+public class KeysetPager<T, K> {
+
+    /**
+     * 单页最大条数
+     */
+    public static final int MAX_SIZE = 100;
+
+    private final SFunction<T, K> sortColumn;
+
+    private final SFunction<T, Long> idColumn;
+
+    private final Function<String, K> keyParser;
+
+    /**
+     * @param sortColumn 排序列
+     * @param idColumn   主键列
+     * @param keyParser  把游标中的排序值还原为列的类型，与排序值的 toString 对应
+     */
+    public KeysetPager(SFunction<T, K> sortColumn, SFunction<T, Long> idColumn, Function<String, K> keyParser) {
+        this.sortColumn = sortColumn;
+        this.idColumn = idColumn;
+        this.keyParser = keyParser;
+    }
+
+    /**
+     * 查询一页
+     *
+     * @param queryWrapper 过滤条件，不要带排序，调用后会被加上游标条件和排序
+     * @param cursor       上一页返回的游标，第一页为null
+     * @param size         每页大小
+     * @param mapper       执行查询的Mapper
+     * @param total        总数，不需要时为null；queryWrapper 调用后会被修改，计数需要另外创建查询条件
+     */
+    public CursorPage<T> page(LambdaQueryWrapper<T> queryWrapper, String cursor, int size,
+                              BaseMapper<T> mapper, Supplier<Long> total) {
+        int pageSize = Math.max(1, Math.min(size, MAX_SIZE));
+        CursorPage<T> page = new CursorPage<>();
+        page.setSize(pageSize);
+        if (total != null) {
+            page.setTotal(total.get());
+        }
+
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        if (pageCursor != null) {
+            K key = parseKey(pageCursor.getKey());
+            queryWrapper.and(wrapper -> wrapper.lt(sortColumn, key)
+                    .or(tie -> tie.eq(sortColumn, key).lt(idColumn, pageCursor.getId())));
+        }
+        queryWrapper.orderByDesc(sortColumn)
+                .orderByDesc(idColumn)
+                .last("LIMIT " + (pageSize + 1));
+
+        List<T> records = mapper.selectList(queryWrapper);
+        if (records.size() > pageSize) {
+            records = records.subList(0, pageSize);
+            T last = records.get(pageSize - 1);
+            page.setHasMore(true);
+            page.setNextCursor(new PageCursor(String.valueOf(sortColumn.apply(last)), idColumn.apply(last)).encode());
+        }
+        page.setRecords(records);
+        return page;
+    }
+
+    private K parseKey(String key) {
+        try {
+            return keyParser.apply(key);
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new BusinessException(ErrorCode.BAD_REQUEST.getCode(), "无效的分页游标");
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.eat2fit.common.page;
+
+import com.eat2fit.common.exception.BusinessException;
+import com.eat2fit.common.exception.ErrorCode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 分页游标，记录上一页最后一条数据的排序值和ID
+ * <p>
+ * 对客户端是不透明的字符串，内容为 "排序值|ID" 的 URL 安全 Base64 编码。
+ */
+@Getter
+@AllArgsConstructor
+public class PageCursor {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * 排序列的值
+     */
+    private final String key;
+
+    /**
+     * 记录ID，排序值相同时用来区分先后
+     */
+    private final Long id;
+
+    public String encode() {
+        String raw = key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标，空字符串返回null表示第一页
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            if (index <= 0) {
+                throw new BusinessException(ErrorCode.BAD_REQUEST.getCode(), "无效的分页游标");
+            }
+            return new PageCursor(raw.substring(0, index), Long.parseLong(raw.substring(index + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(ErrorCode.BAD_REQUEST.getCode(), "无效的分页游标");
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.eat2fit.common.sql;
+
+import lombok.Data;
+
+/**
+ * MySQL EXPLAIN 结果中的一行
+ */
+@Data
+public class ExplainRow {
+
+    private String table;
+
+    /**
+     * 访问类型，ALL 为全表扫描
+     */
+    private String type;
+
+    private String possibleKeys;
+
+    private String key;
+
+    private Long rows;
+
+    private String extra;
+
+    public boolean isFullScan() {
+        return "ALL".equalsIgnoreCase(type);
+    }
+
+    public boolean isFilesort() {
+        return extra != null && extra.contains("Using filesort");
+    }
+}
@@ -0,0 +1,186 @@
+package com.eat2fit.common.sql;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 根据SQL文本、参数和 EXPLAIN 结果给出索引建议
+ * <p>
+ * 只做几条常见规则的文本分析：前导通配符 LIKE、ORDER BY 表达式、全表扫描和文件排序，
+ * 建议的联合索引由 WHERE 中的等值列加上 ORDER BY 的普通列组成，上线前仍需结合数据分布确认。
+ */
+public class IndexAdvisor {
+
+    private static final Pattern FROM = Pattern.compile("\\bFROM\\s+`?(\\w+)`?", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern WHERE = Pattern.compile(
+            "\\bWHERE\\b(.*?)(?:\\bGROUP BY\\b|\\bORDER BY\\b|\\bLIMIT\\b|$)", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern EQ_COLUMN = Pattern.compile("`?(\\w+)`?\\s*=\\s*(?:\\?|'[^']*'|\\d+)");
+
+    private static final Pattern LIKE = Pattern.compile("`?(\\w+)`?\\s+LIKE\\s+(\\?|'[^']*')", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern ORDER_BY = Pattern.compile("\\bORDER BY\\b(.*?)(?:\\bLIMIT\\b|$)", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern SIMPLE_ORDER_ITEM = Pattern.compile("`?(\\w+)`?(?:\\s+(?:ASC|DESC))?", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern ORDER_DIRECTION = Pattern.compile("\\s+(?:ASC|DESC)$", Pattern.CASE_INSENSITIVE);
+
+    private static final int MAX_INDEX_NAME_LENGTH = 64;
+
+    private IndexAdvisor() {
+    }
+
+    /**
+     * @param sql        交给JDBC的SQL
+     * @param parameters 按占位符顺序排列的参数值
+     * @param explain    EXPLAIN 结果，未执行时为空
+     * @return 发现的问题和建议，没有问题时为空
+     */
+    public static List<String> advise(String sql, List<Object> parameters, List<ExplainRow> explain) {
+        Set<String> advice = new LinkedHashSet<>();
+        String table = table(sql);
+        List<String> eqColumns = eqColumns(sql);
+
+        List<String> leadingWildcard = leadingWildcardColumns(sql, parameters);
+        if (!leadingWildcard.isEmpty()) {
+            advice.add(String.format("字段 %s 使用前导通配符 LIKE '%%...'，无法使用索引，只能逐行匹配。"
+                            + "建议改为前缀匹配，或建立全文索引并改用 MATCH ... AGAINST: "
+                            + "ALTER TABLE %s ADD FULLTEXT INDEX %s (%s) WITH PARSER ngram",
+                    String.join(", ", leadingWildcard), table,
+                    indexName("ft", table, leadingWildcard), String.join(", ", leadingWildcard)));
+        }
+
+        List<String> orderItems = orderItems(sql);
+        List<String> orderColumns = new ArrayList<>();
+        String orderExpression = null;
+        for (String item : orderItems) {
+            Matcher matcher = SIMPLE_ORDER_ITEM.matcher(item);
+            if (matcher.matches()) {
+                orderColumns.add(matcher.group(1));
+            } else if (orderExpression == null) {
+                orderExpression = ORDER_DIRECTION.matcher(item).replaceFirst("");
+            }
+        }
+        if (orderExpression != null) {
+            List<String> columns = new ArrayList<>(eqColumns);
+            columns.add("sort_score");
+            advice.add(String.format("ORDER BY 表达式 %s 需要逐行计算后再排序（filesort），无法使用索引。"
+                            + "建议增加生成列并与等值条件建立联合索引: "
+                            + "ALTER TABLE %s ADD COLUMN sort_score DOUBLE AS (%s) STORED, ADD INDEX %s (%s)",
+                    orderExpression, table, orderExpression,
+                    indexName("idx", table, columns), String.join(", ", columns)));
+        }
+
+        List<String> composite = new ArrayList<>(eqColumns);
+        for (String column : orderColumns) {
+            if (!composite.contains(column)) {
+                composite.add(column);
+            }
+        }
+        for (ExplainRow row : explain) {
+            String rowTable = row.getTable() != null ? row.getTable() : table;
+            if (row.isFullScan()) {
+                advice.add(String.format("表 %s 全表扫描，预计扫描 %s 行", rowTable, row.getRows()));
+            }
+            if (row.isFilesort()) {
+                advice.add(String.format("表 %s 使用文件排序（Using filesort）", rowTable));
+            }
+            boolean explained = !leadingWildcard.isEmpty() || orderExpression != null;
+            if ((row.isFullScan() || row.isFilesort()) && !explained && !composite.isEmpty()) {
+                advice.add(String.format("建议建立联合索引: CREATE INDEX %s ON %s (%s)",
+                        indexName("idx", rowTable, composite), rowTable, String.join(", ", composite)));
+            }
+        }
+        return new ArrayList<>(advice);
+    }
+
+    private static String table(String sql) {
+        Matcher matcher = FROM.matcher(sql);
+        return matcher.find() ? matcher.group(1) : "?";
+    }
+
+    private static List<String> eqColumns(String sql) {
+        List<String> columns = new ArrayList<>();
+        Matcher where = WHERE.matcher(sql);
+        if (!where.find()) {
+            return columns;
+        }
+        Matcher matcher = EQ_COLUMN.matcher(where.group(1));
+        while (matcher.find()) {
+            if (!columns.contains(matcher.group(1))) {
+                columns.add(matcher.group(1));
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * 找出匹配值以 % 开头的 LIKE 字段，参数化的 LIKE ? 按占位符位置取参数值
+     */
+    private static List<String> leadingWildcardColumns(String sql, List<Object> parameters) {
+        List<String> columns = new ArrayList<>();
+        Matcher matcher = LIKE.matcher(sql);
+        while (matcher.find()) {
+            String operand = matcher.group(2);
+            Object value;
+            if ("?".equals(operand)) {
+                int index = placeholderIndex(sql, matcher.start(2));
+                value = index < parameters.size() ? parameters.get(index) : null;
+            } else {
+                value = operand.substring(1, operand.length() - 1);
+            }
+            if (value instanceof String text && text.startsWith("%") && !columns.contains(matcher.group(1))) {
+                columns.add(matcher.group(1));
+            }
+        }
+        return columns;
+    }
+
+    private static int placeholderIndex(String sql, int position) {
+        int index = 0;
+        for (int i = 0; i < position; i++) {
+            if (sql.charAt(i) == '?') {
+                index++;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * 按顶层逗号拆分 ORDER BY 子句，函数参数中的逗号不拆
+     */
+    private static List<String> orderItems(String sql) {
+        List<String> items = new ArrayList<>();
+        Matcher matcher = ORDER_BY.matcher(sql);
+        if (!matcher.find()) {
+            return items;
+        }
+        String clause = matcher.group(1);
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < clause.length(); i++) {
+            char c = clause.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                items.add(clause.substring(start, i).trim());
+                start = i + 1;
+            }
+        }
+        items.add(clause.substring(start).trim());
+        items.removeIf(String::isEmpty);
+        return items;
+    }
+
+    private static String indexName(String prefix, String table, List<String> columns) {
+        String name = prefix + "_" + table + "_" + String.join("_", columns);
+        return name.length() > MAX_INDEX_NAME_LENGTH ? name.substring(0, MAX_INDEX_NAME_LENGTH) : name;
+    }
+}
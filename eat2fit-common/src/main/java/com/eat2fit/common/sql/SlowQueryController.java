@@ -0,0 +1,39 @@
+package com.eat2fit.common.sql;
+
+import com.eat2fit.common.response.Result;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 查看各SQL形状的耗时分位数、EXPLAIN 结果和索引建议，只供内部排查使用
+ */
+@RestController
+@RequestMapping("/internal/slow-query")
+public class SlowQueryController {
+
+    private final ObjectProvider<SlowQueryRecorder> recorder;
+
+    public SlowQueryController(ObjectProvider<SlowQueryRecorder> recorder) {
+        this.recorder = recorder;
+    }
+
+    @GetMapping
+    public Result<Map<String, Object>> snapshot() {
+        SlowQueryRecorder slowQueryRecorder = recorder.getIfAvailable();
+        if (slowQueryRecorder == null) {
+            return Result.failed("慢SQL采样未开启");
+        }
+        return Result.success(slowQueryRecorder.snapshot());
+    }
+
+    @DeleteMapping
+    public Result<Void> reset() {
+        recorder.ifAvailable(SlowQueryRecorder::reset);
+        return Result.success();
+    }
+}
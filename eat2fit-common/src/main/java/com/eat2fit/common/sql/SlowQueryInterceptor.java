@@ -0,0 +1,107 @@
+package com.eat2fit.common.sql;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 慢SQL采样插件，替代把每条SQL同步打印到标准输出的 StdOutImpl
+ * <p>
+ * 每条语句只计时，按采样比例或超过慢SQL阈值时才归一化SQL并记录，
+ * 慢SQL的参数在当前线程上取出，EXPLAIN 交给 SlowQueryRecorder 异步执行。
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class SlowQueryInterceptor implements Interceptor {
+
+    private final SlowQueryRecorder recorder;
+
+    private final double sampleRate;
+
+    private final long slowThresholdNanos;
+
+    public SlowQueryInterceptor(SlowQueryRecorder recorder, double sampleRate, long slowThresholdMillis) {
+        this.recorder = recorder;
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThresholdMillis * 1_000_000;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            boolean slow = elapsed >= slowThresholdNanos;
+            boolean sampled = ThreadLocalRandom.current().nextDouble() < sampleRate;
+            if (slow || sampled) {
+                record(invocation.getArgs(), elapsed, sampled, slow);
+            }
+        }
+    }
+
+    private void record(Object[] args, long elapsed, boolean sampled, boolean slow) {
+        MappedStatement ms = (MappedStatement) args[0];
+        BoundSql boundSql = args.length == 6 ? (BoundSql) args[5] : ms.getBoundSql(args[1]);
+        SlowQueryRecorder.ShapeStats stats = recorder.record(SqlShapes.normalize(boundSql.getSql()),
+                ms.getId(), elapsed, sampled, slow);
+        if (slow && stats != null && recorder.shouldAnalyze(stats)) {
+            recorder.analyze(stats, ms.getConfiguration().getEnvironment().getDataSource(),
+                    boundSql.getSql(), parameters(ms, boundSql, args[1]), elapsed);
+        }
+    }
+
+    /**
+     * 按占位符顺序取出参数值，取值方式与 DefaultParameterHandler 一致
+     */
+    private List<Object> parameters(MappedStatement ms, BoundSql boundSql, Object parameterObject) {
+        Configuration configuration = ms.getConfiguration();
+        TypeHandlerRegistry typeHandlerRegistry = configuration.getTypeHandlerRegistry();
+        List<Object> values = new ArrayList<>();
+        MetaObject metaObject = null;
+        for (ParameterMapping mapping : boundSql.getParameterMappings()) {
+            if (mapping.getMode() == ParameterMode.OUT) {
+                continue;
+            }
+            String property = mapping.getProperty();
+            Object value;
+            if (boundSql.hasAdditionalParameter(property)) {
+                value = boundSql.getAdditionalParameter(property);
+            } else if (parameterObject == null) {
+                value = null;
+            } else if (typeHandlerRegistry.hasTypeHandler(parameterObject.getClass())) {
+                value = parameterObject;
+            } else {
+                if (metaObject == null) {
+                    metaObject = configuration.newMetaObject(parameterObject);
+                }
+                value = metaObject.getValue(property);
+            }
+            values.add(value);
+        }
+        return values;
+    }
+}
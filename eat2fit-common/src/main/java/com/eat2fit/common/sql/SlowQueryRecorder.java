@@ -0,0 +1,255 @@
+package com.eat2fit.common.sql;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按SQL形状汇总采样到的耗时，对慢SQL异步执行 EXPLAIN 并给出索引建议
+ * <p>
+ * 每种形状保留最近 {@value #RESERVOIR_SIZE} 个采样耗时用于计算分位数，
+ * 慢SQL只计入慢查询次数和最大耗时，不进入分位数，避免采样比例把分位数拉高。
+ * EXPLAIN 在单独的线程上执行，队列满时直接丢弃，不影响业务请求。
+ */
+@Slf4j
+public class SlowQueryRecorder {
+
+    private static final int RESERVOIR_SIZE = 1024;
+
+    private static final int EXPLAIN_QUEUE_SIZE = 16;
+
+    private final double sampleRate;
+
+    private final boolean explainEnabled;
+
+    private final long explainIntervalMillis;
+
+    private final int maxShapes;
+
+    private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+
+    private final ThreadPoolExecutor explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(EXPLAIN_QUEUE_SIZE), r -> {
+                Thread thread = new Thread(r, "slow-query-explain");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+
+    public SlowQueryRecorder(double sampleRate, boolean explainEnabled, long explainIntervalMillis, int maxShapes) {
+        this.sampleRate = sampleRate;
+        this.explainEnabled = explainEnabled;
+        this.explainIntervalMillis = explainIntervalMillis;
+        this.maxShapes = maxShapes;
+    }
+
+    /**
+     * 记录一次语句执行
+     *
+     * @param sampled 是否被采样，采样的耗时计入分位数
+     * @param slow    是否为慢SQL
+     * @return 该形状的统计，形状数已满时返回null
+     */
+    public ShapeStats record(String shape, String statementId, long nanos, boolean sampled, boolean slow) {
+        ShapeStats stats = shapes.get(shape);
+        if (stats == null) {
+            if (shapes.size() >= maxShapes) {
+                return null;
+            }
+            stats = shapes.computeIfAbsent(shape, k -> new ShapeStats(shape, statementId));
+        }
+        stats.record(nanos, sampled, slow);
+        return stats;
+    }
+
+    /**
+     * 同一形状在间隔内只分析一次
+     */
+    public boolean shouldAnalyze(ShapeStats stats) {
+        long now = System.currentTimeMillis();
+        long last = stats.lastAnalyzedAt.get();
+        return now - last >= explainIntervalMillis && stats.lastAnalyzedAt.compareAndSet(last, now);
+    }
+
+    /**
+     * 异步分析慢SQL
+     *
+     * @param parameters 按占位符顺序排列的参数值，需在调用线程上取好
+     */
+    public void analyze(ShapeStats stats, DataSource dataSource, String sql, List<Object> parameters, long nanos) {
+        explainExecutor.execute(() -> {
+            List<ExplainRow> explain = explainEnabled && isSelect(sql)
+                    ? explain(dataSource, sql, parameters) : Collections.emptyList();
+            List<String> advice = IndexAdvisor.advise(sql, parameters, explain);
+            stats.explain = explain;
+            stats.advice = advice;
+            if (advice.isEmpty()) {
+                log.info("慢SQL {} 耗时 {}ms: {}", stats.statementId, nanos / 1_000_000, stats.shape);
+            } else {
+                log.warn("慢SQL {} 耗时 {}ms: {}，问题: {}", stats.statementId, nanos / 1_000_000, stats.shape, advice);
+            }
+        });
+    }
+
+    private List<ExplainRow> explain(DataSource dataSource, String sql, List<Object> parameters) {
+        List<ExplainRow> rows = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    ExplainRow row = new ExplainRow();
+                    row.setTable(rs.getString("table"));
+                    row.setType(rs.getString("type"));
+                    row.setPossibleKeys(rs.getString("possible_keys"));
+                    row.setKey(rs.getString("key"));
+                    row.setRows(rs.getLong("rows"));
+                    row.setExtra(rs.getString("Extra"));
+                    rows.add(row);
+                }
+            }
+        } catch (SQLException e) {
+            log.debug("EXPLAIN 执行失败: {}", e.getMessage());
+        }
+        return rows;
+    }
+
+    private boolean isSelect(String sql) {
+        return sql.stripLeading().regionMatches(true, 0, "SELECT", 0, 6);
+    }
+
+    public Map<String, Object> snapshot() {
+        List<ShapeReport> reports = new ArrayList<>();
+        for (ShapeStats stats : shapes.values()) {
+            reports.add(stats.report());
+        }
+        reports.sort(Comparator.comparingLong(ShapeReport::getSlowCount).reversed()
+                .thenComparing(Comparator.comparingDouble(ShapeReport::getP99Millis).reversed()));
+        return Map.of("sampleRate", sampleRate, "shapes", reports);
+    }
+
+    public void reset() {
+        shapes.clear();
+    }
+
+    public void stop() {
+        explainExecutor.shutdownNow();
+    }
+
+    /**
+     * 单个SQL形状的统计
+     */
+    public static class ShapeStats {
+
+        private final String shape;
+
+        private final String statementId;
+
+        private final long[] reservoir = new long[RESERVOIR_SIZE];
+
+        private final AtomicLong lastAnalyzedAt = new AtomicLong();
+
+        private int next;
+
+        private long samples;
+
+        private long slowCount;
+
+        private long maxNanos;
+
+        private volatile List<ExplainRow> explain = Collections.emptyList();
+
+        private volatile List<String> advice = Collections.emptyList();
+
+        ShapeStats(String shape, String statementId) {
+            this.shape = shape;
+            this.statementId = statementId;
+        }
+
+        synchronized void record(long nanos, boolean sampled, boolean slow) {
+            if (sampled) {
+                reservoir[next] = nanos;
+                next = (next + 1) % RESERVOIR_SIZE;
+                samples++;
+            }
+            if (slow) {
+                slowCount++;
+            }
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        synchronized ShapeReport report() {
+            int size = (int) Math.min(samples, RESERVOIR_SIZE);
+            long[] sorted = Arrays.copyOf(reservoir, size);
+            Arrays.sort(sorted);
+
+            ShapeReport report = new ShapeReport();
+            report.setShape(shape);
+            report.setStatementId(statementId);
+            report.setSamples(samples);
+            report.setSlowCount(slowCount);
+            report.setP50Millis(percentile(sorted, 0.50));
+            report.setP95Millis(percentile(sorted, 0.95));
+            report.setP99Millis(percentile(sorted, 0.99));
+            report.setMaxMillis(maxNanos / 1_000_000.0);
+            report.setExplain(explain);
+            report.setAdvice(advice);
+            return report;
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+
+    /**
+     * 单个SQL形状的统计结果
+     */
+    @Data
+    public static class ShapeReport {
+
+        private String shape;
+
+        private String statementId;
+
+        /**
+         * 采样次数，除以采样比例约为执行次数
+         */
+        private long samples;
+
+        private long slowCount;
+
+        private double p50Millis;
+
+        private double p95Millis;
+
+        private double p99Millis;
+
+        private double maxMillis;
+
+        private List<ExplainRow> explain;
+
+        private List<String> advice;
+    }
+}
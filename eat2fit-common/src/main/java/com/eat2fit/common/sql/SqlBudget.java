@@ -0,0 +1,29 @@
+package com.eat2fit.common.sql;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 单个接口的SQL预算，覆盖 ef.sql-budget 中的全局配置
+ * <p>
+ * 标在控制器方法或控制器类上，方法上的优先。测试中开启 ef.sql-budget.fail-on-violation 后，
+ * 超出预算的SQL会直接抛出 SqlBudgetExceededException，可用来断言接口的最大查询次数。
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface SqlBudget {
+
+    /**
+     * 单次请求最多执行的SQL语句数，小于0表示使用全局配置
+     */
+    int maxStatements() default -1;
+
+    /**
+     * 同一形状的SQL单次请求最多执行的次数，超过视为N+1查询，小于0表示使用全局配置
+     */
+    int maxRepeats() default -1;
+}
@@ -0,0 +1,39 @@
+package com.eat2fit.common.sql;
+
+import com.eat2fit.common.response.Result;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 查看各接口的SQL统计和超出预算的请求，只供内部排查使用，网关没有配置 /internal 的路由
+ */
+@RestController
+@RequestMapping("/internal/sql-budget")
+public class SqlBudgetController {
+
+    private final ObjectProvider<SqlBudgetRecorder> recorder;
+
+    public SqlBudgetController(ObjectProvider<SqlBudgetRecorder> recorder) {
+        this.recorder = recorder;
+    }
+
+    @GetMapping
+    public Result<Map<String, Object>> snapshot() {
+        SqlBudgetRecorder budgetRecorder = recorder.getIfAvailable();
+        if (budgetRecorder == null) {
+            return Result.failed("SQL统计未开启");
+        }
+        return Result.success(budgetRecorder.snapshot());
+    }
+
+    @DeleteMapping
+    public Result<Void> reset() {
+        recorder.ifAvailable(SqlBudgetRecorder::reset);
+        return Result.success();
+    }
+}
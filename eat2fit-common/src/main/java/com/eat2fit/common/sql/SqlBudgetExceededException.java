@@ -0,0 +1,11 @@
+package com.eat2fit.common.sql;
+
+/**
+ * 请求执行的SQL超出预算，只在开启 ef.sql-budget.fail-on-violation 时抛出
+ */
+public class SqlBudgetExceededException extends RuntimeException {
+
+    public SqlBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,75 @@
+package com.eat2fit.common.sql;
+
+import com.eat2fit.common.config.SqlBudgetProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * 为每次请求开启SQL统计，请求结束时按预算检查并汇总
+ * <p>
+ * 预算优先取控制器方法或类上的 {@link SqlBudget}，否则使用 ef.sql-budget 的全局配置。
+ */
+public class SqlBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    private final SqlBudgetProperties properties;
+
+    private final SqlBudgetRecorder recorder;
+
+    public SqlBudgetInterceptor(SqlBudgetProperties properties, SqlBudgetRecorder recorder) {
+        this.properties = properties;
+        this.recorder = recorder;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        int maxStatements = properties.getMaxStatements();
+        int maxRepeats = properties.getMaxRepeats();
+        SqlBudget budget = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), SqlBudget.class);
+        if (budget == null) {
+            budget = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), SqlBudget.class);
+        }
+        if (budget != null) {
+            if (budget.maxStatements() >= 0) {
+                maxStatements = budget.maxStatements();
+            }
+            if (budget.maxRepeats() >= 0) {
+                maxRepeats = budget.maxRepeats();
+            }
+        }
+        SqlStatsContext.begin(new SqlRequestStats(endpoint(request), maxStatements, maxRepeats,
+                properties.isFailOnViolation()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        SqlRequestStats stats = SqlStatsContext.end();
+        if (stats != null) {
+            recorder.record(stats);
+        }
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // 异步请求的后续SQL不在当前线程上执行，到此为止
+        SqlRequestStats stats = SqlStatsContext.end();
+        if (stats != null) {
+            recorder.record(stats);
+        }
+    }
+
+    /**
+     * 以路由模板而不是实际路径作为接口标识，避免路径变量把同一接口拆成多条
+     */
+    private String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+}
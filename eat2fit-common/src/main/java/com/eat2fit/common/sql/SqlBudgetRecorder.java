@@ -0,0 +1,140 @@
+package com.eat2fit.common.sql;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 汇总各接口的SQL统计，记录超出预算的请求
+ */
+@Slf4j
+public class SqlBudgetRecorder {
+
+    private final long slowDbMillis;
+
+    private final int historySize;
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    private final Deque<Violation> recentViolations = new ArrayDeque<>();
+
+    public SqlBudgetRecorder(long slowDbMillis, int historySize) {
+        this.slowDbMillis = slowDbMillis;
+        this.historySize = historySize;
+    }
+
+    /**
+     * 请求结束时调用
+     */
+    public void record(SqlRequestStats stats) {
+        EndpointStats endpoint = endpoints.computeIfAbsent(stats.getEndpoint(), k -> new EndpointStats());
+        endpoint.requests.incrementAndGet();
+        endpoint.statements.addAndGet(stats.getStatements());
+        endpoint.dbMillis.addAndGet(stats.getDbMillis());
+        endpoint.maxStatements.accumulateAndGet(stats.getStatements(), Math::max);
+
+        List<SqlRequestStats.ShapeStats> repeated = stats.getRepeatedShapes();
+        boolean slow = slowDbMillis >= 0 && stats.getDbMillis() > slowDbMillis;
+        if (!stats.isStatementsExceeded() && repeated.isEmpty() && !slow) {
+            return;
+        }
+        endpoint.violations.incrementAndGet();
+
+        List<String> offenders = repeated.stream()
+                .map(shape -> shape.getStatementId() + " x" + shape.getCount())
+                .collect(Collectors.toList());
+        log.warn("SQL预算超限 {}，语句数: {}（预算 {}），数据库耗时: {}ms，重复执行: {}",
+                stats.getEndpoint(), stats.getStatements(), stats.getMaxStatements(), stats.getDbMillis(), offenders);
+        for (SqlRequestStats.ShapeStats shape : repeated) {
+            log.debug("重复执行的SQL {} x{}: {}", shape.getStatementId(), shape.getCount(), shape.getSql());
+        }
+
+        Violation violation = new Violation();
+        violation.setEndpoint(stats.getEndpoint());
+        violation.setTime(System.currentTimeMillis());
+        violation.setStatements(stats.getStatements());
+        violation.setDbMillis(stats.getDbMillis());
+        violation.setRepeated(offenders);
+        synchronized (recentViolations) {
+            recentViolations.addFirst(violation);
+            while (recentViolations.size() > historySize) {
+                recentViolations.removeLast();
+            }
+        }
+    }
+
+    /**
+     * 各接口的汇总和最近的超限记录
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> endpointStats = new LinkedHashMap<>();
+        endpoints.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> endpointStats.put(entry.getKey(), entry.getValue().toMap()));
+        List<Violation> violations;
+        synchronized (recentViolations) {
+            violations = new ArrayList<>(recentViolations);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("endpoints", endpointStats);
+        result.put("recentViolations", violations);
+        return result;
+    }
+
+    public void reset() {
+        endpoints.clear();
+        synchronized (recentViolations) {
+            recentViolations.clear();
+        }
+    }
+
+    private static class EndpointStats {
+
+        private final AtomicLong requests = new AtomicLong();
+
+        private final AtomicLong statements = new AtomicLong();
+
+        private final AtomicLong dbMillis = new AtomicLong();
+
+        private final AtomicLong maxStatements = new AtomicLong();
+
+        private final AtomicLong violations = new AtomicLong();
+
+        Map<String, Object> toMap() {
+            long count = requests.get();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("requests", count);
+            map.put("avgStatements", count == 0 ? 0 : (double) statements.get() / count);
+            map.put("maxStatements", maxStatements.get());
+            map.put("avgDbMillis", count == 0 ? 0 : (double) dbMillis.get() / count);
+            map.put("violations", violations.get());
+            return map;
+        }
+    }
+
+    @Data
+    public static class Violation {
+
+        private String endpoint;
+
+        private long time;
+
+        private int statements;
+
+        private long dbMillis;
+
+        /**
+         * 重复执行的SQL及次数
+         */
+        private List<String> repeated;
+    }
+}
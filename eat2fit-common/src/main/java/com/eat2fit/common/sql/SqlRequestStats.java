@@ -0,0 +1,126 @@
+package com.eat2fit.common.sql;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单次请求的SQL统计
+ * <p>
+ * 只在请求线程内读写，不做同步。按SQL形状（归一化后的SQL文本）分组计数，
+ * 同一形状执行多次通常意味着在循环里逐条查询。
+ */
+@Getter
+public class SqlRequestStats {
+
+    /**
+     * 接口标识，如 GET /diet/recipes/{id}
+     */
+    private final String endpoint;
+
+    private final int maxStatements;
+
+    private final int maxRepeats;
+
+    private final boolean failOnViolation;
+
+    private int statements;
+
+    private long dbNanos;
+
+    private final Map<String, ShapeStats> shapes = new LinkedHashMap<>();
+
+    public SqlRequestStats(String endpoint, int maxStatements, int maxRepeats, boolean failOnViolation) {
+        this.endpoint = endpoint;
+        this.maxStatements = maxStatements;
+        this.maxRepeats = maxRepeats;
+        this.failOnViolation = failOnViolation;
+    }
+
+    /**
+     * 记录一条执行完成的SQL
+     */
+    void record(String shape, String statementId, long nanos) {
+        statements++;
+        dbNanos += nanos;
+        ShapeStats stats = shapes.computeIfAbsent(shape, k -> new ShapeStats(statementId, shape));
+        stats.count++;
+        stats.nanos += nanos;
+    }
+
+    /**
+     * 执行前检查预算，fail-on-violation 时超出即抛出异常
+     */
+    void checkBeforeExecute(String shape) {
+        if (!failOnViolation) {
+            return;
+        }
+        if (maxStatements >= 0 && statements + 1 > maxStatements) {
+            throw new SqlBudgetExceededException(String.format("%s 执行的SQL超过 %d 条", endpoint, maxStatements));
+        }
+        ShapeStats stats = shapes.get(shape);
+        if (maxRepeats >= 0 && stats != null && stats.count + 1 > maxRepeats) {
+            throw new SqlBudgetExceededException(String.format("%s 重复执行同一SQL超过 %d 次: %s",
+                    endpoint, maxRepeats, stats.statementId));
+        }
+    }
+
+    public long getDbMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(dbNanos);
+    }
+
+    /**
+     * 执行次数超过 maxRepeats 的SQL形状
+     */
+    public List<ShapeStats> getRepeatedShapes() {
+        List<ShapeStats> repeated = new ArrayList<>();
+        if (maxRepeats < 0) {
+            return repeated;
+        }
+        for (ShapeStats stats : shapes.values()) {
+            if (stats.count > maxRepeats) {
+                repeated.add(stats);
+            }
+        }
+        return repeated;
+    }
+
+    public boolean isStatementsExceeded() {
+        return maxStatements >= 0 && statements > maxStatements;
+    }
+
+    public boolean isViolated() {
+        return isStatementsExceeded() || !getRepeatedShapes().isEmpty();
+    }
+
+    /**
+     * 同一形状SQL的统计
+     */
+    @Getter
+    public static class ShapeStats {
+
+        /**
+         * Mapper方法，如 com.eat2fit.diet.mapper.FoodMapper.selectById
+         */
+        private final String statementId;
+
+        private final String sql;
+
+        private int count;
+
+        private long nanos;
+
+        ShapeStats(String statementId, String sql) {
+            this.statementId = statementId;
+            this.sql = sql;
+        }
+
+        public long getMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(nanos);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.eat2fit.common.sql;
+
+import java.util.regex.Pattern;
+
+/**
+ * SQL形状归一化
+ * <p>
+ * MyBatis交给JDBC的SQL已经用 ? 代替了参数，这里再合并空白、把 IN (?, ?, ...) 折叠成 IN (?...)，
+ * 使同一条语句不论参数个数都归为同一个形状。
+ */
+public class SqlShapes {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    private SqlShapes() {
+    }
+
+    public static String normalize(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String shape = WHITESPACE.matcher(sql).replaceAll(" ").trim();
+        return IN_LIST.matcher(shape).replaceAll("(?...)");
+    }
+}
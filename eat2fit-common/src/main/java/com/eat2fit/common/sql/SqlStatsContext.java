@@ -0,0 +1,62 @@
+package com.eat2fit.common.sql;
+
+/**
+ * 当前线程的SQL统计
+ * <p>
+ * Web请求由 SqlBudgetInterceptor 开启和结束；测试或后台任务可以用 {@link #measure} 统计一段代码执行的SQL。
+ * 没有开启统计的线程上执行的SQL不做任何记录。
+ */
+public class SqlStatsContext {
+
+    private static final ThreadLocal<SqlRequestStats> tl = new ThreadLocal<>();
+
+    private SqlStatsContext() {
+    }
+
+    /**
+     * 开启当前线程的统计
+     */
+    public static void begin(SqlRequestStats stats) {
+        tl.set(stats);
+    }
+
+    /**
+     * 获取当前线程的统计，未开启时返回null
+     */
+    public static SqlRequestStats current() {
+        return tl.get();
+    }
+
+    /**
+     * 结束当前线程的统计
+     * @return 本次统计结果
+     */
+    public static SqlRequestStats end() {
+        SqlRequestStats stats = tl.get();
+        tl.remove();
+        return stats;
+    }
+
+    /**
+     * 统计一段代码执行的SQL，不设预算
+     * <pre>
+     * SqlRequestStats stats = SqlStatsContext.measure(() -> recipeController.getDetail(1L));
+     * assertTrue(stats.getStatements() &lt;= 5);
+     * </pre>
+     */
+    public static SqlRequestStats measure(Runnable action) {
+        SqlRequestStats previous = tl.get();
+        SqlRequestStats stats = new SqlRequestStats("measure", -1, -1, false);
+        tl.set(stats);
+        try {
+            action.run();
+        } finally {
+            if (previous == null) {
+                tl.remove();
+            } else {
+                tl.set(previous);
+            }
+        }
+        return stats;
+    }
+}
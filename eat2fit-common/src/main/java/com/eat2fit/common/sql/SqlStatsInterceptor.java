@@ -0,0 +1,49 @@
+package com.eat2fit.common.sql;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * 统计每次请求执行的SQL条数、耗时和重复形状的MyBatis插件
+ * <p>
+ * 只有当前线程开启了统计（见 SqlStatsContext）时才记录，其余情况直接放行。
+ * 耗时为Executor层的耗时，包含结果集映射。
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class SqlStatsInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        SqlRequestStats stats = SqlStatsContext.current();
+        if (stats == null) {
+            return invocation.proceed();
+        }
+        Object[] args = invocation.getArgs();
+        MappedStatement ms = (MappedStatement) args[0];
+        BoundSql boundSql = args.length == 6 ? (BoundSql) args[5] : ms.getBoundSql(args[1]);
+        String shape = SqlShapes.normalize(boundSql.getSql());
+
+        stats.checkBeforeExecute(shape);
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            stats.record(shape, ms.getId(), System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.eat2fit.common.storage;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 分片上传任务
+ */
+@Data
+public class ChunkedUpload {
+
+    /**
+     * 上传ID
+     */
+    private String uploadId;
+
+    /**
+     * 发起上传的用户ID
+     */
+    private Long userId;
+
+    /**
+     * 原文件名
+     */
+    private String filename;
+
+    /**
+     * 内容类型
+     */
+    private String contentType;
+
+    /**
+     * 文件大小(字节)
+     */
+    private Long size;
+
+    /**
+     * 分片大小(字节)，除最后一片外每片必须正好是这个大小
+     */
+    private Long chunkSize;
+
+    /**
+     * 分片总数，分片序号从0开始
+     */
+    private Integer totalChunks;
+
+    /**
+     * 已上传的分片序号，断点续传时跳过这些分片
+     */
+    private List<Integer> receivedChunks;
+
+    /**
+     * 合并完成后的访问地址，未完成时为空
+     */
+    private String url;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createTime;
+
+    /**
+     * 第 index 个分片的长度
+     */
+    public long chunkLength(int index) {
+        return index < totalChunks - 1 ? chunkSize : size - chunkSize * (totalChunks - 1);
+    }
+}
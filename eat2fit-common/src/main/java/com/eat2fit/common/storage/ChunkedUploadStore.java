@@ -0,0 +1,355 @@
+package com.eat2fit.common.storage;
+
+import com.eat2fit.common.config.StorageProperties;
+import com.eat2fit.common.exception.BusinessException;
+import com.eat2fit.common.exception.ErrorCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 可断点续传的分片上传
+ * <p>
+ * 每个上传任务是暂存目录下的一个子目录，包含任务信息 upload.json 和已校验的分片文件。
+ * 分片先写入临时文件，长度和SHA-256都正确后才改名为正式分片，状态查询直接列目录，
+ * 服务重启后仍然可以续传。合并时按顺序流式读取分片交给调用方上传，不会把整个文件读进内存。
+ * <p>
+ * 合并期间任务目录下有锁文件，此时拒绝合并和写入分片。合并的进程异常退出时锁文件会留下，
+ * 超过 completeTimeout 的锁视为失效，下一次合并会接管。
+ * <p>
+ * 超过 expire 没有新分片的任务在发起新上传时清理。
+ */
+@Slf4j
+public class ChunkedUploadStore {
+
+    private static final String META_FILE = "upload.json";
+
+    private static final String LOCK_FILE = ".completing";
+
+    private static final String CHUNK_PREFIX = "chunk-";
+
+    private static final Pattern UPLOAD_ID = Pattern.compile("[0-9a-f]{32}");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+
+    private final StorageProperties.Chunked properties;
+
+    private final ObjectMapper objectMapper;
+
+    public ChunkedUploadStore(StorageProperties.Chunked properties, ObjectMapper objectMapper) throws IOException {
+        this.root = Path.of(properties.getDir()).toAbsolutePath().normalize();
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        Files.createDirectories(root);
+        log.info("分片上传暂存目录: {}", root);
+    }
+
+    /**
+     * 合并分片，由调用方把按顺序排列的分片上传到存储
+     */
+    @FunctionalInterface
+    public interface Assembler {
+
+        /**
+         * @return 访问地址
+         */
+        String assemble(ChunkedUpload upload, List<Path> chunks) throws IOException;
+    }
+
+    /**
+     * 发起上传
+     */
+    public ChunkedUpload init(Long userId, String filename, long size, String contentType) throws IOException {
+        if (size <= 0) {
+            throw new BusinessException(ErrorCode.BAD_REQUEST.getCode(), "文件大小不正确");
+        }
+        if (size > properties.getMaxFileSize().toBytes()) {
+            throw new BusinessException(ErrorCode.FILE_SIZE_EXCEED);
+        }
+        purgeExpired();
+
+        long chunkSize = properties.getChunkSize().toBytes();
+        ChunkedUpload upload = new ChunkedUpload();
+        upload.setUploadId(UUID.randomUUID().toString().replace("-", ""));
+        upload.setUserId(userId);
+        upload.setFilename(filename);
+        upload.setContentType(contentType);
+        upload.setSize(size);
+        upload.setChunkSize(chunkSize);
+        upload.setTotalChunks((int) ((size + chunkSize - 1) / chunkSize));
+        upload.setCreateTime(LocalDateTime.now());
+
+        Path dir = root.resolve(upload.getUploadId());
+        Files.createDirectories(dir);
+        writeMeta(dir, upload);
+        upload.setReceivedChunks(List.of());
+        log.info("发起分片上传: {}，文件: {}，大小: {}，分片数: {}",
+                upload.getUploadId(), filename, size, upload.getTotalChunks());
+        return upload;
+    }
+
+    /**
+     * 上传状态，包含已上传的分片序号
+     */
+    public ChunkedUpload status(String uploadId, Long userId) throws IOException {
+        ChunkedUpload upload = load(uploadId, userId);
+        upload.setReceivedChunks(receivedChunks(dir(uploadId), upload));
+        return upload;
+    }
+
+    /**
+     * 写入一个分片，重复上传同一分片时覆盖
+     *
+     * @param in       分片内容，由调用方关闭
+     * @param checksum 分片内容的SHA-256，十六进制
+     */
+    public void writeChunk(String uploadId, Long userId, int index, InputStream in, String checksum) throws IOException {
+        ChunkedUpload upload = load(uploadId, userId);
+        if (upload.getUrl() != null) {
+            return;
+        }
+        Path dir = dir(uploadId);
+        checkNotCompleting(dir);
+        if (index < 0 || index >= upload.getTotalChunks()) {
+            throw new BusinessException(ErrorCode.BAD_REQUEST.getCode(), "分片序号超出范围");
+        }
+        long expected = upload.chunkLength(index);
+        Path temp = Files.createTempFile(dir, ".chunk-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            long length = 0;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    length += read;
+                    if (length > expected) {
+                        break;
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            if (length != expected) {
+                throw new BusinessException(ErrorCode.BAD_REQUEST.getCode(),
+                        "分片" + index + "的大小应为" + expected + "字节");
+            }
+            if (checksum == null || !HexFormat.of().formatHex(digest.digest()).equalsIgnoreCase(checksum)) {
+                throw new BusinessException(ErrorCode.FILE_CHUNK_CHECKSUM_ERROR);
+            }
+            // 写入期间可能开始了合并，不能替换正在被读取的分片
+            checkNotCompleting(dir);
+            Files.move(temp, chunk(dir, index), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 所有分片上传后合并，已经合并过时直接返回地址
+     *
+     * @return 访问地址
+     */
+    public String complete(String uploadId, Long userId, Assembler assembler) throws IOException {
+        ChunkedUpload upload = load(uploadId, userId);
+        if (upload.getUrl() != null) {
+            return upload.getUrl();
+        }
+        Path dir = dir(uploadId);
+        if (receivedChunks(dir, upload).size() < upload.getTotalChunks()) {
+            throw new BusinessException(ErrorCode.FILE_CHUNK_INCOMPLETE);
+        }
+
+        Path lock = lock(uploadId, dir);
+        try {
+            List<Path> chunks = new ArrayList<>(upload.getTotalChunks());
+            for (int i = 0; i < upload.getTotalChunks(); i++) {
+                chunks.add(chunk(dir, i));
+            }
+            String url = assembler.assemble(upload, chunks);
+
+            // 保留任务信息到过期，重复调用合并或查询状态时返回地址
+            upload.setUrl(url);
+            writeMeta(dir, upload);
+            for (Path chunk : chunks) {
+                Files.deleteIfExists(chunk);
+            }
+            log.info("分片上传完成: {}，URL: {}", uploadId, url);
+            return url;
+        } finally {
+            Files.deleteIfExists(lock);
+        }
+    }
+
+    /**
+     * 取消上传，删除已上传的分片
+     */
+    public void abort(String uploadId, Long userId) throws IOException {
+        load(uploadId, userId);
+        deleteRecursively(dir(uploadId));
+    }
+
+    /**
+     * 清理过期的上传任务
+     *
+     * @return 清理的任务数
+     */
+    public int purgeExpired() {
+        Instant deadline = Instant.now().minus(properties.getExpire());
+        int purged = 0;
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path dir : dirs) {
+                try {
+                    if (Files.getLastModifiedTime(dir).toInstant().isBefore(deadline)) {
+                        deleteRecursively(dir);
+                        purged++;
+                    }
+                } catch (IOException e) {
+                    log.warn("清理过期的分片上传失败: {}", dir, e);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("读取分片上传暂存目录失败: {}", root, e);
+        }
+        if (purged > 0) {
+            log.info("清理过期的分片上传 {} 个", purged);
+        }
+        return purged;
+    }
+
+    /**
+     * 加合并锁，已有失效的锁时接管
+     *
+     * @return 锁文件
+     */
+    private Path lock(String uploadId, Path dir) throws IOException {
+        Path lock = dir.resolve(LOCK_FILE);
+        try {
+            return Files.createFile(lock);
+        } catch (FileAlreadyExistsException e) {
+            checkNotCompleting(dir);
+        }
+        // 先把失效的锁改名，同时接管时只有一个能改名成功；改名后发现是刚加的锁时放回去
+        Path stale = dir.resolve(LOCK_FILE + "." + UUID.randomUUID());
+        try {
+            Files.move(lock, stale, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            // 已被其他请求接管或合并刚结束
+        }
+        if (Files.exists(stale)) {
+            if (!expired(stale)) {
+                Files.move(stale, lock, StandardCopyOption.ATOMIC_MOVE);
+                throw new BusinessException(ErrorCode.FILE_CHUNK_COMPLETING);
+            }
+            Files.deleteIfExists(stale);
+            log.warn("分片上传的合并锁已失效，重新合并: {}", uploadId);
+        }
+        try {
+            return Files.createFile(lock);
+        } catch (FileAlreadyExistsException e) {
+            throw new BusinessException(ErrorCode.FILE_CHUNK_COMPLETING);
+        }
+    }
+
+    /**
+     * 有未失效的合并锁时拒绝操作
+     */
+    private void checkNotCompleting(Path dir) throws IOException {
+        try {
+            if (!expired(dir.resolve(LOCK_FILE))) {
+                throw new BusinessException(ErrorCode.FILE_CHUNK_COMPLETING);
+            }
+        } catch (NoSuchFileException e) {
+            // 没有在合并
+        }
+    }
+
+    private boolean expired(Path lock) throws IOException {
+        Instant deadline = Instant.now().minus(properties.getCompleteTimeout());
+        return Files.getLastModifiedTime(lock).toInstant().isBefore(deadline);
+    }
+
+    private ChunkedUpload load(String uploadId, Long userId) throws IOException {
+        if (uploadId == null || !UPLOAD_ID.matcher(uploadId).matches()) {
+            throw new BusinessException(ErrorCode.FILE_UPLOAD_NOT_FOUND);
+        }
+        Path meta = dir(uploadId).resolve(META_FILE);
+        if (!Files.isRegularFile(meta)) {
+            throw new BusinessException(ErrorCode.FILE_UPLOAD_NOT_FOUND);
+        }
+        ChunkedUpload upload = objectMapper.readValue(meta.toFile(), ChunkedUpload.class);
+        if (!upload.getUserId().equals(userId)) {
+            throw new BusinessException(ErrorCode.FORBIDDEN);
+        }
+        return upload;
+    }
+
+    private void writeMeta(Path dir, ChunkedUpload upload) throws IOException {
+        Path temp = Files.createTempFile(dir, ".meta-", ".tmp");
+        try {
+            objectMapper.writeValue(temp.toFile(), upload);
+            Files.move(temp, dir.resolve(META_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private List<Integer> receivedChunks(Path dir, ChunkedUpload upload) {
+        List<Integer> received = new ArrayList<>();
+        for (int i = 0; i < upload.getTotalChunks(); i++) {
+            if (Files.isRegularFile(chunk(dir, i))) {
+                received.add(i);
+            }
+        }
+        return received;
+    }
+
+    private Path dir(String uploadId) {
+        return root.resolve(uploadId);
+    }
+
+    private static Path chunk(Path dir, int index) {
+        return dir.resolve(CHUNK_PREFIX + index);
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
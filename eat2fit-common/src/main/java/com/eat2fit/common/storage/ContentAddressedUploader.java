@@ -0,0 +1,270 @@
+package com.eat2fit.common.storage;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.eat2fit.common.storage.mapper.StoredFileMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 按内容去重的上传
+ * <p>
+ * 上传的内容一边写入临时文件一边计算SHA-256，内容已经上传过时直接返回已有的地址，不再上传到对象存储。
+ * 新内容仍按 yyyy/MM/随机名 保存，清理后重新上传的相同内容会得到新地址，不会和正在进行的清理冲突。
+ * <p>
+ * 引用次数是业务数据引用该地址的次数，上传本身不计数：业务数据保存、修改、删除时通过 {@link #writeReferences}
+ * 按前后引用的地址增减。没有引用的文件（包括上传后一直没有被使用的）在最后一次上传或释放超过保留时间后，
+ * 由 {@link #purge} 清理，同时删除其图片派生版本。
+ */
+@Slf4j
+public class ContentAddressedUploader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectStorage objectStorage;
+
+    private final StoredFileMapper storedFileMapper;
+
+    public ContentAddressedUploader(ObjectStorage objectStorage, StoredFileMapper storedFileMapper) {
+        this.objectStorage = objectStorage;
+        this.storedFileMapper = storedFileMapper;
+    }
+
+    /**
+     * 上传表单文件
+     * @return 访问地址
+     */
+    public String upload(MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return upload(in, file.getOriginalFilename(), file.getContentType());
+        }
+    }
+
+    /**
+     * 上传流，由调用方关闭
+     * @return 访问地址
+     */
+    public String upload(InputStream in, String originalFilename, String contentType) throws IOException {
+        Path temp = Files.createTempFile("upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            try (DigestInputStream digestIn = new DigestInputStream(in, digest)) {
+                Files.copy(digestIn, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+
+            return upload(hash, List.of(temp), originalFilename, contentType);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 上传按顺序排列的多个本地文件（例如分片上传的分片），合并后作为一个对象保存
+     * <p>
+     * 先顺序读一遍计算摘要，内容是新的时再顺序读一遍上传，文件不会被整个读进内存
+     *
+     * @return 访问地址
+     */
+    public String upload(List<Path> parts, String originalFilename, String contentType) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        for (Path part : parts) {
+            try (InputStream in = Files.newInputStream(part)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+        }
+        return upload(HexFormat.of().formatHex(digest.digest()), parts, originalFilename, contentType);
+    }
+
+    private String upload(String hash, List<Path> parts, String originalFilename, String contentType) throws IOException {
+        String existing = touch(hash);
+        if (existing != null) {
+            log.debug("上传内容已存在，直接返回: {}", existing);
+            return existing;
+        }
+        return store(hash, parts, originalFilename, contentType);
+    }
+
+    /**
+     * 执行业务数据的写入，并按写入前后引用的地址增减引用次数
+     * <p>
+     * 新增的引用在写入前计数，写入失败时撤回；去掉的引用在写入成功后才释放。中途出错最多多计引用，
+     * 不会让仍在使用的文件被清理。同一地址被引用多次时按次数计算，空地址和不是通过本类上传的地址会被忽略。
+     *
+     * @param oldUrls 写入前引用的地址，新增数据时为空
+     * @param newUrls 写入后引用的地址，删除数据时为空
+     * @param write   业务数据的写入，返回是否成功
+     * @return write 的返回值
+     */
+    public boolean writeReferences(Collection<String> oldUrls, Collection<String> newUrls, BooleanSupplier write) {
+        Map<String, Integer> delta = new LinkedHashMap<>();
+        for (String url : newUrls) {
+            if (StringUtils.hasText(url)) {
+                delta.merge(url, 1, Integer::sum);
+            }
+        }
+        for (String url : oldUrls) {
+            if (StringUtils.hasText(url)) {
+                delta.merge(url, -1, Integer::sum);
+            }
+        }
+        delta.values().removeIf(count -> count == 0);
+
+        adjust(delta, true);
+        boolean written;
+        try {
+            written = write.getAsBoolean();
+        } catch (RuntimeException e) {
+            revert(delta);
+            throw e;
+        }
+        if (written) {
+            adjust(delta, false);
+        } else {
+            revert(delta);
+        }
+        return written;
+    }
+
+    /**
+     * 调整引用次数
+     * @param increase true-只处理增加的，false-只处理减少的
+     */
+    private void adjust(Map<String, Integer> delta, boolean increase) {
+        delta.forEach((url, count) -> {
+            if ((count > 0) == increase) {
+                storedFileMapper.addRefCount(url, count);
+            }
+        });
+    }
+
+    private void revert(Map<String, Integer> delta) {
+        delta.forEach((url, count) -> {
+            if (count > 0) {
+                storedFileMapper.addRefCount(url, -count);
+            }
+        });
+    }
+
+    /**
+     * 删除没有引用且超过保留时间的文件
+     * @param grace 保留时间，释放后在这段时间内不会被删除
+     * @param limit 本次最多删除的文件数
+     * @return 删除的文件数
+     */
+    public int purge(Duration grace, int limit) {
+        LocalDateTime before = LocalDateTime.now().minus(grace);
+        LambdaQueryWrapper<StoredFile> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.le(StoredFile::getRefCount, 0)
+                   .lt(StoredFile::getUpdateTime, before)
+                   .last("LIMIT " + limit);
+        List<StoredFile> files = storedFileMapper.selectList(queryWrapper);
+
+        int purged = 0;
+        for (StoredFile file : files) {
+            // 先删记录，删除成功说明期间没有被引用或重新上传，再删除对象
+            if (storedFileMapper.deleteUnreferenced(file.getId(), before) == 0) {
+                continue;
+            }
+            try {
+                objectStorage.delete(file.getObjectKey());
+                purged++;
+            } catch (IOException | RuntimeException e) {
+                log.warn("删除未引用的文件失败: {}", file.getObjectKey(), e);
+                continue;
+            }
+            if (file.getContentType() != null && file.getContentType().startsWith("image/")) {
+                for (ImageVariant variant : ImageVariant.values()) {
+                    deleteQuietly(variant.key(file.getObjectKey()));
+                }
+            }
+        }
+        if (purged > 0) {
+            log.info("清理未引用的上传文件 {} 个", purged);
+        }
+        return purged;
+    }
+
+    /**
+     * 已有相同内容时刷新更新时间，重新上传的地址在保留时间内不会被清理
+     * @return 已有文件的地址，不存在时返回null
+     */
+    private String touch(String hash) {
+        LambdaQueryWrapper<StoredFile> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(StoredFile::getHash, hash);
+        StoredFile storedFile = storedFileMapper.selectOne(queryWrapper);
+        if (storedFile == null || storedFileMapper.touch(hash) == 0) {
+            return null;
+        }
+        return storedFile.getUrl();
+    }
+
+    private String store(String hash, List<Path> parts, String originalFilename, String contentType) throws IOException {
+        String key = ObjectKeys.generate(originalFilename);
+        long size = 0;
+        for (Path part : parts) {
+            size += Files.size(part);
+        }
+        String url = objectStorage.put(key, parts, contentType);
+
+        StoredFile storedFile = new StoredFile();
+        storedFile.setHash(hash);
+        storedFile.setObjectKey(key);
+        storedFile.setUrl(url);
+        storedFile.setFileSize(size);
+        storedFile.setContentType(contentType);
+        storedFile.setRefCount(0);
+        storedFile.setCreateTime(LocalDateTime.now());
+        storedFile.setUpdateTime(LocalDateTime.now());
+        try {
+            storedFileMapper.insert(storedFile);
+            return url;
+        } catch (DuplicateKeyException e) {
+            // 相同内容被同时上传，使用先写入的那一份，删除自己上传的对象
+            String existing = touch(hash);
+            if (existing == null) {
+                throw e;
+            }
+            deleteQuietly(key);
+            return existing;
+        }
+    }
+
+    private void deleteQuietly(String key) {
+        try {
+            objectStorage.delete(key);
+        } catch (IOException | RuntimeException e) {
+            log.warn("删除文件失败: {}", key, e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.eat2fit.common.storage;
+
+/**
+ * 图片的派生版本，保存在原图旁边，例如 2024/06/xxx.png 的缩略图为 2024/06/xxx_thumb.jpg
+ */
+public enum ImageVariant {
+
+    /**
+     * 固定尺寸的正方形缩略图，用于列表
+     */
+    THUMBNAIL("thumb"),
+
+    /**
+     * 限制最长边的压缩图，用于详情
+     */
+    LARGE("large");
+
+    private final String suffix;
+
+    ImageVariant(String suffix) {
+        this.suffix = suffix;
+    }
+
+    /**
+     * 派生版本的对象路径
+     */
+    public String key(String originalKey) {
+        String extension = ObjectKeys.extension(originalKey);
+        String base = originalKey.substring(0, originalKey.length() - extension.length());
+        return base + "_" + suffix + ".jpg";
+    }
+}
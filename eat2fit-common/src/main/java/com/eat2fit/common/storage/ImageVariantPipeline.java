@@ -0,0 +1,263 @@
+package com.eat2fit.common.storage;
+
+import com.eat2fit.common.config.StorageProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 图片派生版本的后台生成
+ * <p>
+ * 业务数据引用了上传的图片后调用 {@link #submit}，在事务提交后交给固定大小的线程池生成
+ * 缩略图和压缩图，写回对象存储，再通过回调把地址记录到业务数据上。队列满时丢弃任务，
+ * 列表继续显示原图。派生版本的路径由原图路径决定，按内容去重后引用同一张原图的数据不会重复生成。
+ * <p>
+ * 输出统一为JPEG：JDK自带的ImageIO不支持写WebP，透明背景填充为白色。
+ */
+@Slf4j
+public class ImageVariantPipeline {
+
+    private static final String JPEG = "image/jpeg";
+
+    private final ObjectStorage objectStorage;
+
+    private final StorageProperties.Image properties;
+
+    private final ThreadPoolExecutor executor;
+
+    public ImageVariantPipeline(ObjectStorage objectStorage, StorageProperties.Image properties) {
+        this.objectStorage = objectStorage;
+        this.properties = properties;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.getWorkers(), properties.getWorkers(),
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()), r -> {
+                    Thread thread = new Thread(r, "image-variant-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+        // 从流解码时在内存中缓冲，不写临时文件
+        ImageIO.setUseCache(false);
+    }
+
+    /**
+     * 后台生成一张图片的派生版本，成功后调用回调；图片无法处理时不调用
+     */
+    public void submit(String url, Consumer<ImageVariants> onComplete) {
+        if (!StringUtils.hasText(url)) {
+            return;
+        }
+        afterCommit(() -> execute(url, () -> {
+            ImageVariants variants = generate(url);
+            if (variants != null) {
+                onComplete.accept(variants);
+            }
+        }));
+    }
+
+    /**
+     * 后台生成多张图片的派生版本，全部处理完后按原顺序回调，无法处理的图片使用原图地址
+     */
+    public void submitAll(List<String> urls, Consumer<List<ImageVariants>> onComplete) {
+        if (urls == null || urls.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> execute(urls.get(0), () -> {
+            List<ImageVariants> result = new ArrayList<>(urls.size());
+            for (String url : urls) {
+                ImageVariants variants = generate(url);
+                result.add(variants != null ? variants : ImageVariants.original(url));
+            }
+            onComplete.accept(result);
+        }));
+    }
+
+    /**
+     * 在当前线程生成派生版本，已经生成过时直接返回地址
+     *
+     * @return 派生版本地址，不是本存储的地址、不是图片或图片过大时返回null
+     */
+    public ImageVariants generate(String url) {
+        String key = objectStorage.keyOf(url);
+        if (key == null) {
+            return null;
+        }
+        String thumbnailKey = ImageVariant.THUMBNAIL.key(key);
+        String largeKey = ImageVariant.LARGE.key(key);
+        try {
+            if (!objectStorage.exists(thumbnailKey) || !objectStorage.exists(largeKey)) {
+                BufferedImage image = read(key);
+                if (image == null) {
+                    return null;
+                }
+                write(thumbnailKey, thumbnail(image, properties.getThumbnailSize()));
+                write(largeKey, fit(image, properties.getLargeMaxSize()));
+                log.debug("生成图片派生版本: {}，原图尺寸: {}x{}", key, image.getWidth(), image.getHeight());
+            }
+            return new ImageVariants(url, objectStorage.url(thumbnailKey), objectStorage.url(largeKey));
+        } catch (IOException | RuntimeException e) {
+            log.warn("生成图片派生版本失败: {}，原因: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 解码原图，原图远大于压缩图时按整数倍隔行采样，减少解码的内存和CPU
+     */
+    private BufferedImage read(String key) throws IOException {
+        try (InputStream in = objectStorage.get(key);
+             ImageInputStream imageIn = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageIn);
+            if (!readers.hasNext()) {
+                log.debug("不是支持的图片格式，跳过: {}", key);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageIn, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > properties.getMaxPixels()) {
+                    log.warn("图片尺寸过大，跳过: {}，尺寸: {}x{}", key, width, height);
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.min(Math.max(width, height) / properties.getLargeMaxSize(),
+                        Math.min(width, height) / properties.getThumbnailSize());
+                if (step > 1) {
+                    param.setSourceSubsampling(step, step, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void write(String key, BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOut);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(properties.getQuality());
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        byte[] bytes = out.toByteArray();
+        objectStorage.put(key, new ByteArrayInputStream(bytes), bytes.length, JPEG);
+    }
+
+    /**
+     * 居中裁剪成正方形再缩放
+     */
+    static BufferedImage thumbnail(BufferedImage image, int size) {
+        int side = Math.min(image.getWidth(), image.getHeight());
+        BufferedImage square = image.getSubimage((image.getWidth() - side) / 2, (image.getHeight() - side) / 2, side, side);
+        return resize(square, Math.min(size, side), Math.min(size, side));
+    }
+
+    /**
+     * 等比缩放到最长边不超过 maxSize，不放大
+     */
+    static BufferedImage fit(BufferedImage image, int maxSize) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double scale = Math.min(1.0, (double) maxSize / Math.max(width, height));
+        return resize(image, Math.max(1, (int) Math.round(width * scale)), Math.max(1, (int) Math.round(height * scale)));
+    }
+
+    /**
+     * 缩放到RGB图片，缩小超过一半时逐次减半，避免一次双线性插值丢失细节
+     */
+    private static BufferedImage resize(BufferedImage image, int width, int height) {
+        BufferedImage current = image;
+        int currentWidth = image.getWidth();
+        int currentHeight = image.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            if (currentWidth < width * 2 && currentHeight < height * 2) {
+                currentWidth = width;
+                currentHeight = height;
+            }
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, currentWidth, currentHeight);
+                g.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (currentWidth != width || currentHeight != height);
+        return current;
+    }
+
+    private void execute(String url, Runnable task) {
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    log.warn("处理图片派生版本失败: {}", url, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 队列已满，继续使用原图
+            log.warn("图片处理队列已满，跳过: {}", url);
+        }
+    }
+
+    /**
+     * 在当前事务提交后执行，没有事务时立即执行，保证回调更新时业务数据已经可见
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,34 @@
+package com.eat2fit.common.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 一张图片的派生版本地址
+ */
+@Getter
+@AllArgsConstructor
+public class ImageVariants {
+
+    /**
+     * 原图地址
+     */
+    private final String originalUrl;
+
+    /**
+     * 缩略图地址
+     */
+    private final String thumbnailUrl;
+
+    /**
+     * 压缩图地址
+     */
+    private final String largeUrl;
+
+    /**
+     * 无法处理的图片（外部地址、不是图片等）直接使用原图
+     */
+    public static ImageVariants original(String url) {
+        return new ImageVariants(url, url, url);
+    }
+}
@@ -0,0 +1,194 @@
+package com.eat2fit.common.storage;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+
+/**
+ * 本地文件的分段下载，用于视频拖动播放
+ * <p>
+ * 支持单个 Range（多段请求按整个文件返回）、If-Range、If-None-Match 和 HEAD。调用方的地址（例如按课程ID播放）
+ * 指向的文件可能被替换，响应不允许共享缓存，浏览器每次使用前用 ETag 重新验证，文件未变化时返回304。
+ * <p>
+ * 运行在 Tomcat 上时把文件和区间交给连接器的 sendfile，由 Tomcat 用 FileChannel.transferTo 零拷贝发送，
+ * 不占用请求线程；不支持 sendfile 时（例如压缩响应、其他容器）在当前线程用 transferTo 写出。
+ */
+@Slf4j
+public final class LocalFileStreamer {
+
+    /**
+     * 只允许浏览器缓存，每次使用前重新验证
+     */
+    private static final String CACHE_CONTROL = "private, no-cache";
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private LocalFileStreamer() {
+    }
+
+    /**
+     * 按请求头返回文件的全部或一段
+     *
+     * @param contentType 内容类型，为null时按文件名推断
+     */
+    public static void stream(HttpServletRequest request, HttpServletResponse response, Path file, String contentType)
+            throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader("ETag", etag);
+        response.setHeader("Cache-Control", CACHE_CONTROL);
+        response.setHeader("Accept-Ranges", "bytes");
+        response.setDateHeader("Last-Modified", lastModified);
+
+        if (matches(request.getHeader("If-None-Match"), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = size - 1;
+        String range = request.getHeader("Range");
+        String ifRange = request.getHeader("If-Range");
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] parsed = parseRange(range, size);
+            if (parsed == null) {
+                response.setHeader("Content-Range", "bytes */" + size);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (parsed.length == 2) {
+                start = parsed[0];
+                end = parsed[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentType(contentType != null ? contentType : contentType(file));
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        transfer(response, file, start, length);
+    }
+
+    /**
+     * 解析 Range 请求头
+     *
+     * @return 单段请求返回 [start, end]（包含end），多段或无法识别的请求返回空数组表示返回整个文件，
+     * 区间不可满足时返回null
+     */
+    static long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // bytes=-500 表示最后500字节
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) {
+                    return null;
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+                if (end < start) {
+                    // 语法错误的区间按没有 Range 处理
+                    return new long[0];
+                }
+                if (start >= size) {
+                    return null;
+                }
+                end = Math.min(end, size - 1);
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(etag));
+    }
+
+    private static void transfer(HttpServletResponse response, Path file, long start, long length) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, out);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        } catch (IOException e) {
+            // 拖动进度条时播放器会主动断开上一个请求
+            log.debug("客户端断开，文件: {}，原因: {}", file, e.getMessage());
+        }
+    }
+
+    private static String contentType(Path file) {
+        try {
+            String probed = Files.probeContentType(file);
+            if (probed != null) {
+                return probed;
+            }
+        } catch (IOException ignored) {
+            // 按扩展名推断失败时使用默认类型
+        }
+        return switch (ObjectKeys.extension(file.getFileName().toString())) {
+            case ".mp4" -> "video/mp4";
+            case ".webm" -> "video/webm";
+            case ".mov" -> "video/quicktime";
+            case ".m3u8" -> "application/vnd.apple.mpegurl";
+            default -> "application/octet-stream";
+        };
+    }
+}
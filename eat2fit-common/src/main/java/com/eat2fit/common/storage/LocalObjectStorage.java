@@ -0,0 +1,90 @@
+package com.eat2fit.common.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 本地文件系统存储，用于本地开发和测试
+ * <p>
+ * 先写入同目录下的临时文件再改名，读到的文件总是完整的。
+ */
+@Slf4j
+public class LocalObjectStorage implements ObjectStorage {
+
+    private final Path root;
+
+    private final String publicUrl;
+
+    public LocalObjectStorage(Path root, String publicUrl) throws IOException {
+        this.root = root.toAbsolutePath().normalize();
+        this.publicUrl = publicUrl.endsWith("/") ? publicUrl.substring(0, publicUrl.length() - 1) : publicUrl;
+        Files.createDirectories(this.root);
+        log.info("使用本地文件存储，目录: {}", this.root);
+    }
+
+    @Override
+    public String put(String key, InputStream in, long size, String contentType) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return url(key);
+    }
+
+    @Override
+    public String put(String key, Path file, String contentType) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return put(key, in, Files.size(file), contentType);
+        }
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        Path file = resolve(key);
+        if (!Files.isRegularFile(file)) {
+            throw new NoSuchFileException(key);
+        }
+        return Files.newInputStream(file);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public String url(String key) {
+        return publicUrl + "/" + key;
+    }
+
+    /**
+     * 对象在本地的文件路径
+     */
+    public Path resolve(String key) {
+        Path file = root.resolve(key).normalize();
+        if (!file.startsWith(root) || file.equals(root)) {
+            throw new IllegalArgumentException("非法的对象路径: " + key);
+        }
+        return file;
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+}
@@ -0,0 +1,40 @@
+package com.eat2fit.common.storage;
+
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+/**
+ * 对象路径
+ */
+public class ObjectKeys {
+
+    private static final DateTimeFormatter DIR_FORMATTER = DateTimeFormatter.ofPattern("yyyy/MM");
+
+    private ObjectKeys() {
+    }
+
+    /**
+     * 生成不重复的对象路径，格式为 yyyy/MM/uuid.扩展名
+     */
+    public static String generate(String originalFilename) {
+        String dir = LocalDate.now().format(DIR_FORMATTER);
+        return dir + "/" + UUID.randomUUID() + extension(originalFilename);
+    }
+
+    /**
+     * 文件扩展名（包含点），没有扩展名时返回空字符串
+     */
+    public static String extension(String filename) {
+        if (!StringUtils.hasText(filename)) {
+            return "";
+        }
+        int dot = filename.lastIndexOf('.');
+        if (dot < 0 || dot < filename.lastIndexOf('/')) {
+            return "";
+        }
+        return filename.substring(dot).toLowerCase();
+    }
+}
@@ -0,0 +1,121 @@
+package com.eat2fit.common.storage;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 对象存储
+ * <p>
+ * 上传都以流或文件的形式传入，实现不应把整个文件读进内存。实现由 ef.storage.type 选择：
+ * oss-阿里云OSS（{@link OssObjectStorage}），local-本地文件系统（{@link LocalObjectStorage}）。
+ */
+public interface ObjectStorage {
+
+    /**
+     * 上传流
+     *
+     * @param key         对象路径，例如 2024/06/xxx.png
+     * @param in          内容，由调用方关闭
+     * @param size        内容长度，未知时传 -1
+     * @param contentType 内容类型，可以为null
+     * @return 访问地址
+     */
+    String put(String key, InputStream in, long size, String contentType) throws IOException;
+
+    /**
+     * 上传本地文件
+     *
+     * @return 访问地址
+     */
+    String put(String key, Path file, String contentType) throws IOException;
+
+    /**
+     * 按顺序拼接多个本地文件（例如分片上传的分片）后上传，读到哪个文件才打开哪个
+     *
+     * @return 访问地址
+     */
+    default String put(String key, List<Path> parts, String contentType) throws IOException {
+        if (parts.size() == 1) {
+            return put(key, parts.get(0), contentType);
+        }
+        long size = 0;
+        for (Path part : parts) {
+            size += Files.size(part);
+        }
+        Iterator<Path> iterator = parts.iterator();
+        try (InputStream in = new SequenceInputStream(new Enumeration<>() {
+            @Override
+            public boolean hasMoreElements() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                try {
+                    return Files.newInputStream(iterator.next());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        })) {
+            return put(key, in, size, contentType);
+        }
+    }
+
+    /**
+     * 读取对象，由调用方关闭
+     */
+    InputStream get(String key) throws IOException;
+
+    boolean exists(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    /**
+     * 对象的访问地址
+     */
+    String url(String key);
+
+    /**
+     * 由访问地址反查对象路径
+     *
+     * @return 对象路径，不是本存储的地址时返回null
+     */
+    default String keyOf(String url) {
+        String prefix = url("");
+        if (url == null || !url.startsWith(prefix) || url.length() == prefix.length()) {
+            return null;
+        }
+        return url.substring(prefix.length());
+    }
+
+    /**
+     * 上传表单文件，按 yyyy/MM/随机名 生成对象路径
+     *
+     * @return 访问地址
+     */
+    default String upload(MultipartFile file) throws IOException {
+        String key = ObjectKeys.generate(file.getOriginalFilename());
+        try (InputStream in = file.getInputStream()) {
+            return put(key, in, file.getSize(), file.getContentType());
+        }
+    }
+
+    /**
+     * 上传按顺序排列的多个本地文件，按 yyyy/MM/随机名 生成对象路径
+     *
+     * @return 访问地址
+     */
+    default String upload(List<Path> parts, String originalFilename, String contentType) throws IOException {
+        return put(ObjectKeys.generate(originalFilename), parts, contentType);
+    }
+}
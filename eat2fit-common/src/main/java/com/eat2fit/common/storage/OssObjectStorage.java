@@ -0,0 +1,241 @@
+package com.eat2fit.common.storage;
+
+import com.aliyun.oss.ClientBuilderConfiguration;
+import com.aliyun.oss.OSS;
+import com.aliyun.oss.OSSClientBuilder;
+import com.aliyun.oss.common.auth.CredentialsProviderFactory;
+import com.aliyun.oss.common.auth.EnvironmentVariableCredentialsProvider;
+import com.aliyun.oss.common.comm.SignVersion;
+import com.aliyun.oss.model.AbortMultipartUploadRequest;
+import com.aliyun.oss.model.CompleteMultipartUploadRequest;
+import com.aliyun.oss.model.InitiateMultipartUploadRequest;
+import com.aliyun.oss.model.ObjectMetadata;
+import com.aliyun.oss.model.PartETag;
+import com.aliyun.oss.model.PutObjectRequest;
+import com.aliyun.oss.model.UploadFileRequest;
+import com.aliyun.oss.model.UploadPartRequest;
+import com.eat2fit.common.config.StorageProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.StringUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 阿里云OSS存储
+ * <p>
+ * 整个服务共用一个 OSS 客户端（内部是连接池），第一次使用时创建，服务停止时关闭。
+ * 访问凭证从环境变量 OSS_ACCESS_KEY_ID、OSS_ACCESS_KEY_SECRET 中读取。
+ * <p>
+ * 小文件直接上传；超过 multipart-threshold 或大小未知的流按 part-size 分片，
+ * 单个文件同时上传 part-concurrency 个分片，内存中最多同时有 part-concurrency + 1 个分片。
+ */
+@Slf4j
+public class OssObjectStorage implements ObjectStorage {
+
+    private final StorageProperties.Oss properties;
+
+    private final String baseUrl;
+
+    private final ThreadPoolExecutor uploadExecutor;
+
+    private volatile OSS client;
+
+    public OssObjectStorage(StorageProperties.Oss properties) {
+        this.properties = properties;
+        this.baseUrl = StringUtils.hasText(properties.getPublicUrl())
+                ? StringUtils.trimTrailingCharacter(properties.getPublicUrl(), '/')
+                : properties.getEndpoint().replaceFirst("//", "//" + properties.getBucket() + ".");
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.uploadExecutor = new ThreadPoolExecutor(properties.getUploadThreads(), properties.getUploadThreads(),
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, "oss-upload-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.uploadExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public String put(String key, InputStream in, long size, String contentType) throws IOException {
+        if (size >= 0 && size <= properties.getMultipartThreshold().toBytes()) {
+            ObjectMetadata metadata = metadata(contentType);
+            metadata.setContentLength(size);
+            client().putObject(new PutObjectRequest(properties.getBucket(), key, in, metadata));
+        } else {
+            multipartUpload(key, in, contentType);
+        }
+        return url(key);
+    }
+
+    @Override
+    public String put(String key, Path file, String contentType) throws IOException {
+        long size = Files.size(file);
+        if (size <= properties.getMultipartThreshold().toBytes()) {
+            client().putObject(new PutObjectRequest(properties.getBucket(), key, file.toFile(), metadata(contentType)));
+            return url(key);
+        }
+
+        // 本地文件交给SDK按分片并发上传，分片直接从文件读取
+        UploadFileRequest request = new UploadFileRequest(properties.getBucket(), key, file.toString(),
+                properties.getPartSize().toBytes(), properties.getPartConcurrency());
+        request.setObjectMetadata(metadata(contentType));
+        try {
+            client().uploadFile(request);
+        } catch (IOException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IOException("分片上传失败: " + key, e);
+        }
+        return url(key);
+    }
+
+    @Override
+    public InputStream get(String key) {
+        return client().getObject(properties.getBucket(), key).getObjectContent();
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return client().doesObjectExist(properties.getBucket(), key);
+    }
+
+    @Override
+    public void delete(String key) {
+        client().deleteObject(properties.getBucket(), key);
+    }
+
+    @Override
+    public String url(String key) {
+        return baseUrl + "/" + key;
+    }
+
+    /**
+     * 按分片读取流并行上传，失败时取消分片上传
+     */
+    private void multipartUpload(String key, InputStream in, String contentType) throws IOException {
+        OSS oss = client();
+        String bucket = properties.getBucket();
+        int partSize = (int) properties.getPartSize().toBytes();
+        String uploadId = oss.initiateMultipartUpload(
+                new InitiateMultipartUploadRequest(bucket, key, metadata(contentType))).getUploadId();
+
+        Semaphore inFlight = new Semaphore(properties.getPartConcurrency());
+        List<Future<PartETag>> parts = new ArrayList<>();
+        try {
+            int partNumber = 1;
+            while (true) {
+                byte[] buffer = new byte[partSize];
+                int length = in.readNBytes(buffer, 0, partSize);
+                if (length == 0 && partNumber > 1) {
+                    break;
+                }
+                inFlight.acquire();
+                UploadPartRequest request = new UploadPartRequest(bucket, key, uploadId, partNumber,
+                        new ByteArrayInputStream(buffer, 0, length), length);
+                parts.add(uploadExecutor.submit(() -> {
+                    try {
+                        return oss.uploadPart(request).getPartETag();
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+                partNumber++;
+                if (length < partSize) {
+                    break;
+                }
+            }
+
+            List<PartETag> partETags = new ArrayList<>(parts.size());
+            for (Future<PartETag> part : parts) {
+                partETags.add(part.get());
+            }
+            oss.completeMultipartUpload(new CompleteMultipartUploadRequest(bucket, key, uploadId, partETags));
+            log.debug("分片上传完成: {}，分片数: {}", key, partETags.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(key, uploadId, parts);
+            throw new InterruptedIOException("分片上传被中断: " + key);
+        } catch (ExecutionException e) {
+            abort(key, uploadId, parts);
+            throw new IOException("分片上传失败: " + key, e.getCause());
+        } catch (IOException | RuntimeException e) {
+            abort(key, uploadId, parts);
+            throw e;
+        }
+    }
+
+    private void abort(String key, String uploadId, List<Future<PartETag>> parts) {
+        parts.forEach(part -> part.cancel(true));
+        try {
+            client().abortMultipartUpload(new AbortMultipartUploadRequest(properties.getBucket(), key, uploadId));
+        } catch (RuntimeException e) {
+            log.warn("取消分片上传失败: {}", key, e);
+        }
+    }
+
+    private ObjectMetadata metadata(String contentType) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        if (StringUtils.hasText(contentType)) {
+            metadata.setContentType(contentType);
+        }
+        return metadata;
+    }
+
+    private OSS client() {
+        OSS oss = client;
+        if (oss == null) {
+            synchronized (this) {
+                oss = client;
+                if (oss == null) {
+                    oss = createClient();
+                    client = oss;
+                }
+            }
+        }
+        return oss;
+    }
+
+    private OSS createClient() {
+        ClientBuilderConfiguration configuration = new ClientBuilderConfiguration();
+        configuration.setSignatureVersion(SignVersion.V4);
+        configuration.setMaxConnections(properties.getMaxConnections());
+        configuration.setConnectionTimeout((int) properties.getConnectionTimeout().toMillis());
+        configuration.setSocketTimeout((int) properties.getSocketTimeout().toMillis());
+        EnvironmentVariableCredentialsProvider credentialsProvider;
+        try {
+            credentialsProvider = CredentialsProviderFactory.newEnvironmentVariableCredentialsProvider();
+        } catch (Exception e) {
+            throw new IllegalStateException("读取OSS访问凭证失败，请设置环境变量OSS_ACCESS_KEY_ID和OSS_ACCESS_KEY_SECRET", e);
+        }
+        log.info("创建OSS客户端，endpoint: {}，bucket: {}，最大连接数: {}",
+                properties.getEndpoint(), properties.getBucket(), properties.getMaxConnections());
+        return OSSClientBuilder.create()
+                .endpoint(properties.getEndpoint())
+                .credentialsProvider(credentialsProvider)
+                .clientConfiguration(configuration)
+                .region(properties.getRegion())
+                .build();
+    }
+
+    public void shutdown() {
+        uploadExecutor.shutdown();
+        OSS oss = client;
+        if (oss != null) {
+            oss.shutdown();
+        }
+    }
+}
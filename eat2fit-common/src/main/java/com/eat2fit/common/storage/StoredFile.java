@@ -0,0 +1,53 @@
+package com.eat2fit.common.storage;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 按内容去重的上传文件
+ */
+@Data
+@TableName("stored_file")
+public class StoredFile implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 内容的SHA-256，十六进制
+     */
+    private String hash;
+
+    /**
+     * 对象路径
+     */
+    private String objectKey;
+
+    /**
+     * 访问地址
+     */
+    private String url;
+
+    /**
+     * 文件大小（字节）
+     */
+    private Long fileSize;
+
+    private String contentType;
+
+    /**
+     * 业务数据引用的次数，上传本身不计数，不大于0的文件超过保留时间后可以清理
+     */
+    private Integer refCount;
+
+    private LocalDateTime createTime;
+
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,35 @@
+package com.eat2fit.common.storage;
+
+import com.eat2fit.common.config.StorageProperties;
+import com.eat2fit.common.response.Result;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 清理没有引用的上传文件，只供内部运维使用，网关没有配置 /internal 的路由
+ */
+@RestController
+@RequestMapping("/internal/stored-files")
+public class StoredFileController {
+
+    private final ObjectProvider<ContentAddressedUploader> uploader;
+
+    private final StorageProperties storageProperties;
+
+    public StoredFileController(ObjectProvider<ContentAddressedUploader> uploader, StorageProperties storageProperties) {
+        this.uploader = uploader;
+        this.storageProperties = storageProperties;
+    }
+
+    @PostMapping("/purge")
+    public Result<Integer> purge() {
+        ContentAddressedUploader contentAddressedUploader = uploader.getIfAvailable();
+        if (contentAddressedUploader == null) {
+            return Result.failed("上传去重未开启");
+        }
+        StorageProperties.Dedup dedup = storageProperties.getDedup();
+        return Result.success(contentAddressedUploader.purge(dedup.getPurgeGrace(), dedup.getPurgeBatchSize()));
+    }
+}
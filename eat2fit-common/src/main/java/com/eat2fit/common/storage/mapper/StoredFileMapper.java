@@ -0,0 +1,33 @@
+package com.eat2fit.common.storage.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.eat2fit.common.storage.StoredFile;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+
+/**
+ * 上传文件索引Mapper，使用的服务需要把本包加入 @MapperScan
+ */
+public interface StoredFileMapper extends BaseMapper<StoredFile> {
+
+    /**
+     * 重新上传相同内容时刷新更新时间，推迟清理
+     */
+    @Update("UPDATE stored_file SET update_time = NOW() WHERE hash = #{hash}")
+    int touch(@Param("hash") String hash);
+
+    /**
+     * 增减引用次数，最小为0
+     */
+    @Update("UPDATE stored_file SET ref_count = GREATEST(ref_count + #{delta}, 0), update_time = NOW() WHERE url = #{url}")
+    int addRefCount(@Param("url") String url, @Param("delta") int delta);
+
+    /**
+     * 只删除仍然没有引用、且在 before 之后没有再上传或释放过的记录，清理期间被引用或重新上传的文件不会被删除
+     */
+    @Delete("DELETE FROM stored_file WHERE id = #{id} AND ref_count <= 0 AND update_time < #{before}")
+    int deleteUnreferenced(@Param("id") Long id, @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,100 @@
+package com.eat2fit.common.thread;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 虚拟线程固定检测
+ * <p>
+ * 订阅 JFR 的 jdk.VirtualThreadPinned 事件。虚拟线程在 synchronized 块内或本地方法中阻塞时，
+ * 会占住载体线程，常见于旧版 JDBC 驱动和连接池。事件按调用位置（栈顶第一个非JDK帧）汇总，
+ * 每个位置前几次打印堆栈，之后只计数。
+ */
+@Slf4j
+public class VirtualThreadPinningDetector {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final int STACK_DEPTH = 12;
+
+    private final Duration threshold;
+
+    private final int logLimitPerSite;
+
+    private final Map<String, LongAdder> pinnedCounts = new ConcurrentHashMap<>();
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningDetector(Duration threshold, int logLimitPerSite) {
+        this.threshold = threshold;
+        this.logLimitPerSite = logLimitPerSite;
+    }
+
+    public synchronized void start() {
+        // JDK 21 之前没有虚拟线程，也没有这个事件
+        if (stream != null || Runtime.version().feature() < 21) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("已开启虚拟线程固定检测，阈值: {}ms", threshold.toMillis());
+    }
+
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    /**
+     * 各调用位置的固定次数
+     */
+    public Map<String, Long> getPinnedCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        pinnedCounts.forEach((site, count) -> counts.put(site, count.sum()));
+        return counts;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace == null ? List.of() : stackTrace.getFrames();
+        String site = site(frames);
+        LongAdder count = pinnedCounts.computeIfAbsent(site, key -> new LongAdder());
+        count.increment();
+        if (count.sum() > logLimitPerSite) {
+            return;
+        }
+        StringBuilder stack = new StringBuilder();
+        for (int i = 0; i < Math.min(STACK_DEPTH, frames.size()); i++) {
+            stack.append(System.lineSeparator()).append("    at ").append(frame(frames.get(i)));
+        }
+        log.warn("虚拟线程被固定 {}ms，位置: {}{}", event.getDuration().toMillis(), site, stack);
+    }
+
+    private static String site(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String className = frame.getMethod().getType().getName();
+            if (!className.startsWith("java.") && !className.startsWith("jdk.") && !className.startsWith("sun.")) {
+                return frame(frame);
+            }
+        }
+        return frames.isEmpty() ? "unknown" : frame(frames.get(0));
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
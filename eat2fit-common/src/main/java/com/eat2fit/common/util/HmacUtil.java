@@ -0,0 +1,59 @@
+package com.eat2fit.common.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * 服务之间内部调用的 HMAC-SHA256 签名
+ */
+public class HmacUtil {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private HmacUtil() {
+    }
+
+    /**
+     * 检查密钥已配置，未配置时直接失败，不使用任何默认密钥
+     * @param secret 配置的密钥
+     * @param property 配置项名称，用于提示
+     * @return 密钥
+     */
+    public static String requireSecret(String secret, String property) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("未配置 " + property + "，请通过环境变量设置；本地开发可以使用 dev 配置");
+        }
+        return secret;
+    }
+
+    /**
+     * 计算签名
+     * @param secret 双方共享的密钥
+     * @param payload 被签名的内容
+     * @return 十六进制签名
+     */
+    public static String sign(String secret, String payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            return HexFormat.of().formatHex(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 校验签名，比较耗时与签名内容无关
+     */
+    public static boolean verify(String secret, String payload, String signature) {
+        if (secret == null || payload == null || signature == null) {
+            return false;
+        }
+        byte[] expected = sign(secret, payload).getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(expected, signature.toLowerCase().getBytes(StandardCharsets.UTF_8));
+    }
+}
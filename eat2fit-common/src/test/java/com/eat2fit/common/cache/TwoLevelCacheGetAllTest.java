@@ -0,0 +1,100 @@
+package com.eat2fit.common.cache;
+
+import com.eat2fit.common.config.CacheProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TwoLevelCacheGetAllTest {
+
+    private TwoLevelCacheManager cacheManager;
+
+    private TwoLevelCache<String> cache;
+
+    /**
+     * 每次批量加载收到的key
+     */
+    private final List<Set<Long>> loads = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new TwoLevelCacheManager(new CacheProperties(), new InMemoryL2Cache(100), new ObjectMapper());
+        cache = cacheManager.getCache("test", "test:", String.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.shutdown();
+    }
+
+    @Test
+    void loadsOnlyMissingKeysInOneBatch() {
+        cache.get(1L, () -> "v1");
+
+        Map<Long, String> values = cache.getAll(List.of(1L, 2L, 3L), this::load);
+
+        assertEquals(Map.of(1L, "v1", 2L, "v2", 3L, "v3"), values);
+        assertEquals(List.of(Set.of(2L, 3L)), loads);
+    }
+
+    @Test
+    void secondCallIsServedFromCache() {
+        cache.getAll(List.of(1L, 2L), this::load);
+        loads.clear();
+
+        Map<Long, String> values = cache.getAll(List.of(1L, 2L), this::load);
+
+        assertEquals(Map.of(1L, "v1", 2L, "v2"), values);
+        assertTrue(loads.isEmpty());
+        assertEquals("v2", cache.get(2L, () -> "unexpected"));
+    }
+
+    @Test
+    void absentKeysAreCachedAsNull() {
+        Map<Long, String> values = cache.getAll(List.of(1L, 404L), this::load);
+        assertFalse(values.containsKey(404L));
+
+        loads.clear();
+        values = cache.getAll(List.of(404L), this::load);
+
+        assertTrue(values.isEmpty());
+        assertTrue(loads.isEmpty());
+    }
+
+    @Test
+    void evictedKeysAreReloaded() {
+        cache.getAll(List.of(1L, 2L), this::load);
+        cache.evict(2L);
+        loads.clear();
+
+        cache.getAll(List.of(1L, 2L), this::load);
+
+        assertEquals(List.of(Set.of(2L)), loads);
+    }
+
+    /**
+     * 模拟按ID批量查询，404不存在
+     */
+    private Map<Long, String> load(Collection<Long> ids) {
+        loads.add(Set.copyOf(ids));
+        Map<Long, String> values = new HashMap<>();
+        for (Long id : ids) {
+            if (id != 404L) {
+                values.put(id, "v" + id);
+            }
+        }
+        return values;
+    }
+}
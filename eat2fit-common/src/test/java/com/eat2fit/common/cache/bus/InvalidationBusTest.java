@@ -0,0 +1,113 @@
+package com.eat2fit.common.cache.bus;
+
+import com.eat2fit.common.cache.TwoLevelCacheManager;
+import com.eat2fit.common.config.CacheProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvalidationBusTest {
+
+    private TwoLevelCacheManager cacheManager;
+
+    private RecordingTransport transport;
+
+    private InvalidationBus bus;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new TwoLevelCacheManager(new CacheProperties(), null, new ObjectMapper());
+        transport = new RecordingTransport();
+        bus = new InvalidationBus(cacheManager, transport, Duration.ofHours(1), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.shutdown();
+    }
+
+    @Test
+    void keepsOnlyLatestVersionPerKeyAndSplitsBatches() {
+        bus.onEvict("plan", "1", 1);
+        bus.onEvict("plan", "1", 3);
+        bus.onEvict("plan", "1", 2);
+        bus.onEvict("plan", "2", 1);
+        bus.onEvict("recipe", "1", 1);
+
+        bus.flush();
+
+        List<InvalidationEvent> sent = transport.sent();
+        assertEquals(3, sent.size());
+        assertEquals(3, sent.stream().filter(e -> e.getCache().equals("plan") && e.getKey().equals("1"))
+                .findFirst().orElseThrow().getVersion());
+        assertTrue(transport.batches.stream().allMatch(batch -> batch.size() <= 2));
+    }
+
+    @Test
+    void failedBatchIsRetriedOnNextFlush() {
+        transport.failures = 1;
+        bus.onEvict("plan", "1", 1);
+
+        bus.flush();
+        assertTrue(transport.sent().isEmpty());
+
+        bus.flush();
+        assertEquals(List.of("plan:1:1"), describe(transport.sent()));
+    }
+
+    @Test
+    void retryDoesNotOverrideNewerEvent() {
+        transport.failures = 1;
+        // 发送失败前同一key又有了更新的事件
+        transport.beforeSend = batch -> bus.onEvict("plan", "1", 5);
+        bus.onEvict("plan", "1", 1);
+
+        bus.flush();
+        transport.beforeSend = batch -> {
+        };
+        bus.flush();
+
+        assertEquals(List.of("plan:1:5"), describe(transport.sent()));
+    }
+
+    private static List<String> describe(List<InvalidationEvent> events) {
+        return events.stream().map(e -> e.getCache() + ":" + e.getKey() + ":" + e.getVersion()).toList();
+    }
+
+    private static class RecordingTransport implements InvalidationTransport {
+
+        private final List<List<InvalidationEvent>> batches = new ArrayList<>();
+
+        private int failures;
+
+        private Consumer<List<InvalidationEvent>> beforeSend = batch -> {
+        };
+
+        @Override
+        public void send(List<InvalidationEvent> events) {
+            beforeSend.accept(events);
+            if (failures > 0) {
+                failures--;
+                throw new IllegalStateException("连接失败");
+            }
+            batches.add(List.copyOf(events));
+        }
+
+        @Override
+        public void subscribe(Consumer<List<InvalidationEvent>> receiver) {
+        }
+
+        private List<InvalidationEvent> sent() {
+            return batches.stream().flatMap(List::stream).toList();
+        }
+    }
+}
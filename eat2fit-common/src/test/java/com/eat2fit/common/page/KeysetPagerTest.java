@@ -0,0 +1,168 @@
+package com.eat2fit.common.page;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.eat2fit.common.exception.BusinessException;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KeysetPagerTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 3, 1, 8, 0);
+
+    private static final KeysetPager<Item, LocalDateTime> PAGER =
+            new KeysetPager<>(Item::getCreateTime, Item::getId, LocalDateTime::parse);
+
+    private BaseMapper<Item> mapper;
+
+    @BeforeAll
+    static void initTableInfo() {
+        // Lambda条件需要实体的列信息，正常由Mapper注册时初始化
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), Item.class);
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        mapper = mock(BaseMapper.class);
+    }
+
+    @Test
+    void firstPageFetchesOneExtraRowToDetectMore() {
+        when(mapper.selectList(any())).thenReturn(items(5, 4, 3));
+        LambdaQueryWrapper<Item> queryWrapper = new LambdaQueryWrapper<>();
+
+        CursorPage<Item> page = PAGER.page(queryWrapper, null, 2, mapper, null);
+
+        assertEquals(2, page.getRecords().size());
+        assertTrue(page.isHasMore());
+        assertNull(page.getTotal());
+        String sql = queryWrapper.getSqlSegment();
+        int orderBy = sql.indexOf("ORDER BY");
+        assertTrue(orderBy >= 0, sql);
+        assertTrue(sql.indexOf("create_time DESC", orderBy) < sql.indexOf("id DESC", orderBy), sql);
+        assertTrue(sql.endsWith("LIMIT 3"), sql);
+
+        PageCursor next = PageCursor.decode(page.getNextCursor());
+        assertEquals(BASE.plusMinutes(4).toString(), next.getKey());
+        assertEquals(4L, next.getId());
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        when(mapper.selectList(any())).thenReturn(items(2, 1));
+
+        CursorPage<Item> page = PAGER.page(new LambdaQueryWrapper<>(), null, 2, mapper, null);
+
+        assertEquals(2, page.getRecords().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void cursorSeeksPastLastRow() {
+        when(mapper.selectList(any())).thenReturn(items(3));
+        LambdaQueryWrapper<Item> queryWrapper = new LambdaQueryWrapper<>();
+        String cursor = new PageCursor(BASE.plusMinutes(4).toString(), 4L).encode();
+
+        PAGER.page(queryWrapper, cursor, 2, mapper, null);
+
+        String sql = queryWrapper.getSqlSegment();
+        assertTrue(sql.contains("create_time <"), sql);
+        assertTrue(sql.contains("create_time ="), sql);
+        assertTrue(sql.contains("id <"), sql);
+        assertTrue(queryWrapper.getParamNameValuePairs().containsValue(BASE.plusMinutes(4)));
+        assertTrue(queryWrapper.getParamNameValuePairs().containsValue(4L));
+    }
+
+    @Test
+    void sizeIsClamped() {
+        when(mapper.selectList(any())).thenReturn(new ArrayList<>());
+        LambdaQueryWrapper<Item> large = new LambdaQueryWrapper<>();
+        LambdaQueryWrapper<Item> small = new LambdaQueryWrapper<>();
+
+        assertEquals(KeysetPager.MAX_SIZE, PAGER.page(large, null, 1000, mapper, null).getSize());
+        assertEquals(1, PAGER.page(small, null, 0, mapper, null).getSize());
+        assertTrue(large.getSqlSegment().endsWith("LIMIT " + (KeysetPager.MAX_SIZE + 1)));
+        assertTrue(small.getSqlSegment().endsWith("LIMIT 2"));
+    }
+
+    @Test
+    void totalOnlyWhenRequested() {
+        when(mapper.selectList(any())).thenReturn(items(1));
+
+        CursorPage<Item> page = PAGER.page(new LambdaQueryWrapper<>(), null, 10, mapper, () -> 1L);
+
+        assertEquals(1L, page.getTotal());
+    }
+
+    @Test
+    void malformedKeyIsRejectedBeforeQuery() {
+        String cursor = new PageCursor("yesterday", 4L).encode();
+
+        assertThrows(BusinessException.class,
+                () -> PAGER.page(new LambdaQueryWrapper<>(), cursor, 10, mapper, null));
+        verify(mapper, never()).selectList(any());
+    }
+
+    /**
+     * 按id倒序生成记录，创建时间随id递增
+     */
+    private static List<Item> items(long... ids) {
+        List<Item> items = new ArrayList<>();
+        for (long id : ids) {
+            items.add(new Item(id, BASE.plusMinutes(id)));
+        }
+        return items;
+    }
+
+    public static class Item {
+
+        private Long id;
+
+        private LocalDateTime createTime;
+
+        public Item() {
+        }
+
+        Item(Long id, LocalDateTime createTime) {
+            this.id = id;
+            this.createTime = createTime;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public LocalDateTime getCreateTime() {
+            return createTime;
+        }
+
+        public void setCreateTime(LocalDateTime createTime) {
+            this.createTime = createTime;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.eat2fit.common.page;
+
+import com.eat2fit.common.exception.BusinessException;
+import com.eat2fit.common.exception.ErrorCode;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageCursorTest {
+
+    @Test
+    void encodeAndDecodeRoundTrip() {
+        String encoded = new PageCursor("2024-03-01T08:30", 42L).encode();
+
+        PageCursor decoded = PageCursor.decode(encoded);
+        assertEquals("2024-03-01T08:30", decoded.getKey());
+        assertEquals(42L, decoded.getId());
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = new PageCursor("?>?>?>", Long.MAX_VALUE).encode();
+
+        assertFalse(encoded.contains("+") || encoded.contains("/") || encoded.contains("="), encoded);
+    }
+
+    @Test
+    void keyMayContainSeparator() {
+        PageCursor decoded = PageCursor.decode(new PageCursor("a|b", 7L).encode());
+
+        assertEquals("a|b", decoded.getKey());
+        assertEquals(7L, decoded.getId());
+    }
+
+    @Test
+    void blankCursorMeansFirstPage() {
+        assertNull(PageCursor.decode(null));
+        assertNull(PageCursor.decode(""));
+        assertNull(PageCursor.decode("  "));
+    }
+
+    @Test
+    void invalidCursorIsBadRequest() {
+        assertBadRequest("not base64!");
+        assertBadRequest(encodeRaw("no-separator"));
+        assertBadRequest(encodeRaw("|42"));
+        assertBadRequest(encodeRaw("2024-03-01T08:30|abc"));
+    }
+
+    private static void assertBadRequest(String cursor) {
+        BusinessException e = assertThrows(BusinessException.class, () -> PageCursor.decode(cursor));
+        assertEquals(ErrorCode.BAD_REQUEST.getCode(), e.getCode());
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,186 @@
+package com.eat2fit.common.storage;
+
+import com.eat2fit.common.config.StorageProperties;
+import com.eat2fit.common.exception.BusinessException;
+import com.eat2fit.common.exception.ErrorCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ChunkedUploadStoreTest {
+
+    private static final Long USER_ID = 1L;
+
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path root;
+
+    private ChunkedUploadStore store;
+
+    /**
+     * 合并得到的内容
+     */
+    private final ByteArrayOutputStream assembled = new ByteArrayOutputStream();
+
+    private final AtomicInteger assembleCount = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        StorageProperties.Chunked properties = new StorageProperties.Chunked();
+        properties.setDir(root.toString());
+        properties.setChunkSize(DataSize.ofBytes(4));
+        properties.setCompleteTimeout(Duration.ofMinutes(10));
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        store = new ChunkedUploadStore(properties, objectMapper);
+    }
+
+    @Test
+    void uploadsChunksAndAssemblesInOrder() throws IOException {
+        ChunkedUpload upload = store.init(USER_ID, "a.mp4", CONTENT.length, "video/mp4");
+        assertEquals(3, upload.getTotalChunks());
+
+        writeChunk(upload, 2);
+        writeChunk(upload, 0);
+        assertEquals(List.of(0, 2), store.status(upload.getUploadId(), USER_ID).getReceivedChunks());
+        assertThrows(BusinessException.class, () -> complete(upload));
+
+        writeChunk(upload, 1);
+        assertEquals("/files/a.mp4", complete(upload));
+        assertArrayEquals(CONTENT, assembled.toByteArray());
+
+        // 重复调用直接返回地址，不再合并
+        assertEquals("/files/a.mp4", complete(upload));
+        assertEquals(1, assembleCount.get());
+        assertEquals("/files/a.mp4", store.status(upload.getUploadId(), USER_ID).getUrl());
+    }
+
+    @Test
+    void rejectsWrongLengthAndChecksum() throws IOException {
+        ChunkedUpload upload = store.init(USER_ID, "a.mp4", CONTENT.length, "video/mp4");
+
+        BusinessException tooShort = assertThrows(BusinessException.class, () -> store.writeChunk(
+                upload.getUploadId(), USER_ID, 0, new ByteArrayInputStream(CONTENT, 0, 3), sha256(CONTENT, 0, 3)));
+        assertEquals(ErrorCode.BAD_REQUEST.getCode(), tooShort.getCode());
+
+        BusinessException badChecksum = assertThrows(BusinessException.class, () -> store.writeChunk(
+                upload.getUploadId(), USER_ID, 0, new ByteArrayInputStream(CONTENT, 0, 4), sha256(CONTENT, 4, 4)));
+        assertEquals(ErrorCode.FILE_CHUNK_CHECKSUM_ERROR.getCode(), badChecksum.getCode());
+
+        assertEquals(List.of(), store.status(upload.getUploadId(), USER_ID).getReceivedChunks());
+    }
+
+    @Test
+    void otherUsersCannotAccessUpload() throws IOException {
+        ChunkedUpload upload = store.init(USER_ID, "a.mp4", CONTENT.length, "video/mp4");
+
+        BusinessException e = assertThrows(BusinessException.class, () -> store.status(upload.getUploadId(), 2L));
+        assertEquals(ErrorCode.FORBIDDEN.getCode(), e.getCode());
+    }
+
+    @Test
+    void activeLockBlocksCompleteAndChunkWrites() throws IOException {
+        ChunkedUpload upload = uploadAllChunks();
+        Files.createFile(root.resolve(upload.getUploadId()).resolve(".completing"));
+
+        BusinessException completing = assertThrows(BusinessException.class, () -> complete(upload));
+        assertEquals(ErrorCode.FILE_CHUNK_COMPLETING.getCode(), completing.getCode());
+        BusinessException writing = assertThrows(BusinessException.class, () -> writeChunk(upload, 0));
+        assertEquals(ErrorCode.FILE_CHUNK_COMPLETING.getCode(), writing.getCode());
+        assertEquals(0, assembleCount.get());
+    }
+
+    @Test
+    void expiredLockIsTakenOver() throws IOException {
+        ChunkedUpload upload = uploadAllChunks();
+        // 模拟合并到一半进程退出留下的锁
+        Path lock = Files.createFile(root.resolve(upload.getUploadId()).resolve(".completing"));
+        Files.setLastModifiedTime(lock, FileTime.from(Instant.now().minus(Duration.ofHours(1))));
+
+        assertEquals("/files/a.mp4", complete(upload));
+        assertArrayEquals(CONTENT, assembled.toByteArray());
+        assertFalse(Files.exists(lock));
+    }
+
+    @Test
+    void failedAssembleReleasesLock() throws IOException {
+        ChunkedUpload upload = uploadAllChunks();
+
+        assertThrows(IOException.class, () -> store.complete(upload.getUploadId(), USER_ID, (u, chunks) -> {
+            throw new IOException("上传失败");
+        }));
+
+        assertEquals("/files/a.mp4", complete(upload));
+    }
+
+    @Test
+    void abortAndPurgeRemoveUploads() throws IOException {
+        ChunkedUpload aborted = store.init(USER_ID, "a.mp4", CONTENT.length, "video/mp4");
+        store.abort(aborted.getUploadId(), USER_ID);
+        BusinessException e = assertThrows(BusinessException.class, () -> store.status(aborted.getUploadId(), USER_ID));
+        assertEquals(ErrorCode.FILE_UPLOAD_NOT_FOUND.getCode(), e.getCode());
+
+        ChunkedUpload expired = store.init(USER_ID, "b.mp4", CONTENT.length, "video/mp4");
+        Files.setLastModifiedTime(root.resolve(expired.getUploadId()),
+                FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+        assertEquals(1, store.purgeExpired());
+        assertFalse(Files.exists(root.resolve(expired.getUploadId())));
+    }
+
+    private ChunkedUpload uploadAllChunks() throws IOException {
+        ChunkedUpload upload = store.init(USER_ID, "a.mp4", CONTENT.length, "video/mp4");
+        for (int i = 0; i < upload.getTotalChunks(); i++) {
+            writeChunk(upload, i);
+        }
+        return upload;
+    }
+
+    private void writeChunk(ChunkedUpload upload, int index) throws IOException {
+        int offset = (int) (upload.getChunkSize() * index);
+        int length = (int) upload.chunkLength(index);
+        store.writeChunk(upload.getUploadId(), USER_ID, index,
+                new ByteArrayInputStream(CONTENT, offset, length), sha256(CONTENT, offset, length));
+    }
+
+    private String complete(ChunkedUpload upload) throws IOException {
+        return store.complete(upload.getUploadId(), USER_ID, (u, chunks) -> {
+            assembleCount.incrementAndGet();
+            for (Path chunk : chunks) {
+                assembled.write(Files.readAllBytes(chunk));
+            }
+            return "/files/" + u.getFilename();
+        });
+    }
+
+    private static String sha256(byte[] bytes, int offset, int length) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(bytes, offset, length);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
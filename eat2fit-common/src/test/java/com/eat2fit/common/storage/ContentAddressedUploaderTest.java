@@ -0,0 +1,85 @@
+package com.eat2fit.common.storage;
+
+import com.eat2fit.common.storage.mapper.StoredFileMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+class ContentAddressedUploaderTest {
+
+    private StoredFileMapper storedFileMapper;
+
+    private ContentAddressedUploader uploader;
+
+    @BeforeEach
+    void setUp() {
+        storedFileMapper = mock(StoredFileMapper.class);
+        uploader = new ContentAddressedUploader(mock(ObjectStorage.class), storedFileMapper);
+    }
+
+    @Test
+    void addsBeforeWriteAndReleasesAfter() {
+        InOrder order = inOrder(storedFileMapper);
+
+        boolean written = uploader.writeReferences(List.of("/a", "/b"), List.of("/b", "/c"), () -> {
+            order.verify(storedFileMapper).addRefCount("/c", 1);
+            order.verifyNoMoreInteractions();
+            return true;
+        });
+
+        assertTrue(written);
+        order.verify(storedFileMapper).addRefCount("/a", -1);
+        verify(storedFileMapper, never()).addRefCount("/b", 1);
+        verify(storedFileMapper, never()).addRefCount("/b", -1);
+    }
+
+    @Test
+    void countsEachReferenceAndIgnoresBlankUrls() {
+        uploader.writeReferences(List.of(), Arrays.asList("/a", null, "", "/a"), () -> true);
+
+        verify(storedFileMapper).addRefCount("/a", 2);
+        verifyNoMoreInteractions(storedFileMapper);
+    }
+
+    @Test
+    void failedWriteRevertsAddedReferences() {
+        boolean written = uploader.writeReferences(List.of("/a"), List.of("/b"), () -> false);
+
+        assertFalse(written);
+        verify(storedFileMapper).addRefCount("/b", 1);
+        verify(storedFileMapper).addRefCount("/b", -1);
+        verify(storedFileMapper, never()).addRefCount("/a", -1);
+    }
+
+    @Test
+    void exceptionRevertsAddedReferences() {
+        assertThrows(IllegalStateException.class, () -> uploader.writeReferences(List.of("/a"), List.of("/b"), () -> {
+            throw new IllegalStateException("写入失败");
+        }));
+
+        verify(storedFileMapper).addRefCount("/b", 1);
+        verify(storedFileMapper).addRefCount("/b", -1);
+        verify(storedFileMapper, never()).addRefCount("/a", -1);
+    }
+
+    @Test
+    void unchangedReferencesDoNotTouchTheTable() {
+        uploader.writeReferences(List.of("/a"), List.of("/a"), () -> true);
+
+        verify(storedFileMapper, never()).addRefCount(anyString(), anyInt());
+    }
+}
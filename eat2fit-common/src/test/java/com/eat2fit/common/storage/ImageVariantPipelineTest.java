@@ -0,0 +1,132 @@
+package com.eat2fit.common.storage;
+
+import com.eat2fit.common.config.StorageProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ImageVariantPipelineTest {
+
+    @TempDir
+    Path root;
+
+    private LocalObjectStorage storage;
+
+    private ImageVariantPipeline pipeline;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = new LocalObjectStorage(root, "/files");
+        StorageProperties.Image properties = new StorageProperties.Image();
+        properties.setThumbnailSize(100);
+        properties.setLargeMaxSize(400);
+        pipeline = new ImageVariantPipeline(storage, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void generatesThumbnailAndLargeNextToOriginal() throws IOException {
+        String url = putImage("2024/06/a.png", 800, 400, BufferedImage.TYPE_INT_RGB);
+
+        ImageVariants variants = pipeline.generate(url);
+
+        assertNotNull(variants);
+        assertEquals(url, variants.getOriginalUrl());
+        assertEquals("/files/2024/06/a_thumb.jpg", variants.getThumbnailUrl());
+        assertEquals("/files/2024/06/a_large.jpg", variants.getLargeUrl());
+        BufferedImage thumbnail = read("2024/06/a_thumb.jpg");
+        assertEquals(100, thumbnail.getWidth());
+        assertEquals(100, thumbnail.getHeight());
+        BufferedImage large = read("2024/06/a_large.jpg");
+        assertEquals(400, large.getWidth());
+        assertEquals(200, large.getHeight());
+    }
+
+    @Test
+    void existingVariantsAreNotRegenerated() throws IOException {
+        String url = putImage("2024/06/b.png", 300, 300, BufferedImage.TYPE_INT_RGB);
+        pipeline.generate(url);
+        // 原图不在了也能直接返回已有的派生版本
+        storage.delete("2024/06/b.png");
+
+        ImageVariants variants = pipeline.generate(url);
+
+        assertNotNull(variants);
+        assertEquals("/files/2024/06/b_thumb.jpg", variants.getThumbnailUrl());
+    }
+
+    @Test
+    void skipsForeignUrlsAndNonImages() throws IOException {
+        byte[] text = "not an image".getBytes(StandardCharsets.UTF_8);
+        String url = storage.put("2024/06/c.png", new ByteArrayInputStream(text), text.length, "image/png");
+
+        assertNull(pipeline.generate(url));
+        assertNull(pipeline.generate("https://example.com/d.png"));
+        assertFalse(storage.exists("2024/06/c_thumb.jpg"));
+    }
+
+    @Test
+    void submitCallsBackOutsideTransaction() throws Exception {
+        String url = putImage("2024/06/e.png", 200, 200, BufferedImage.TYPE_INT_RGB);
+        CompletableFuture<ImageVariants> result = new CompletableFuture<>();
+
+        pipeline.submit(url, result::complete);
+
+        assertEquals("/files/2024/06/e_large.jpg", result.get(10, TimeUnit.SECONDS).getLargeUrl());
+    }
+
+    @Test
+    void thumbnailCropsCenterAndDoesNotUpscale() {
+        BufferedImage image = new BufferedImage(60, 30, BufferedImage.TYPE_INT_RGB);
+
+        BufferedImage thumbnail = ImageVariantPipeline.thumbnail(image, 100);
+
+        assertEquals(30, thumbnail.getWidth());
+        assertEquals(30, thumbnail.getHeight());
+    }
+
+    @Test
+    void fitKeepsAspectRatioAndFillsTransparencyWithWhite() {
+        BufferedImage image = new BufferedImage(1000, 250, BufferedImage.TYPE_INT_ARGB);
+
+        BufferedImage fitted = ImageVariantPipeline.fit(image, 200);
+
+        assertEquals(200, fitted.getWidth());
+        assertEquals(50, fitted.getHeight());
+        assertEquals(0xFFFFFF, fitted.getRGB(10, 10) & 0xFFFFFF);
+    }
+
+    private String putImage(String key, int width, int height, int type) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, type), "png", out);
+        byte[] bytes = out.toByteArray();
+        return storage.put(key, new ByteArrayInputStream(bytes), bytes.length, "image/png");
+    }
+
+    private BufferedImage read(String key) throws IOException {
+        try (InputStream in = storage.get(key)) {
+            return ImageIO.read(in);
+        }
+    }
+}
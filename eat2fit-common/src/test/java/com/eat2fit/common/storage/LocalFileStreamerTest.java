@@ -0,0 +1,91 @@
+package com.eat2fit.common.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LocalFileStreamerTest {
+
+    private static final long[] WHOLE_FILE = new long[0];
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void parsesSingleRanges() {
+        assertArrayEquals(new long[]{0, 99}, LocalFileStreamer.parseRange("bytes=0-99", 1000));
+        assertArrayEquals(new long[]{500, 999}, LocalFileStreamer.parseRange("bytes=500-", 1000));
+        assertArrayEquals(new long[]{900, 999}, LocalFileStreamer.parseRange("bytes=-100", 1000));
+        // 超出文件末尾的部分截掉
+        assertArrayEquals(new long[]{900, 999}, LocalFileStreamer.parseRange("bytes=900-5000", 1000));
+        assertArrayEquals(new long[]{0, 999}, LocalFileStreamer.parseRange("bytes=-5000", 1000));
+    }
+
+    @Test
+    void unsupportedOrMalformedRangesReturnWholeFile() {
+        assertArrayEquals(WHOLE_FILE, LocalFileStreamer.parseRange("bytes=0-1,5-6", 1000));
+        assertArrayEquals(WHOLE_FILE, LocalFileStreamer.parseRange("items=0-1", 1000));
+        assertArrayEquals(WHOLE_FILE, LocalFileStreamer.parseRange("bytes=abc", 1000));
+        assertArrayEquals(WHOLE_FILE, LocalFileStreamer.parseRange("bytes=x-y", 1000));
+        assertArrayEquals(WHOLE_FILE, LocalFileStreamer.parseRange("bytes=10-5", 1000));
+    }
+
+    @Test
+    void unsatisfiableRangesReturnNull() {
+        assertNull(LocalFileStreamer.parseRange("bytes=1000-", 1000));
+        assertNull(LocalFileStreamer.parseRange("bytes=-0", 1000));
+        assertNull(LocalFileStreamer.parseRange("bytes=-10", 0));
+    }
+
+    @Test
+    void streamsRequestedRangeAndRequiresRevalidation() throws Exception {
+        Path file = Files.writeString(dir.resolve("a.mp4"), "0123456789");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/fitness/courses/1/video");
+        request.addHeader("Range", "bytes=2-5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        LocalFileStreamer.stream(request, response, file, "video/mp4");
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-5/10", response.getHeader("Content-Range"));
+        assertEquals("2345", response.getContentAsString(StandardCharsets.UTF_8));
+        assertEquals("private, no-cache", response.getHeader("Cache-Control"));
+    }
+
+    @Test
+    void matchingEtagReturnsNotModified() throws Exception {
+        Path file = Files.writeString(dir.resolve("a.mp4"), "0123456789");
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        LocalFileStreamer.stream(new MockHttpServletRequest("GET", "/"), first, file, "video/mp4");
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("If-None-Match", first.getHeader("ETag"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        LocalFileStreamer.stream(request, response, file, "video/mp4");
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void unsatisfiableRangeReturns416() throws Exception {
+        Path file = Files.writeString(dir.resolve("a.mp4"), "0123456789");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("Range", "bytes=10-");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        LocalFileStreamer.stream(request, response, file, "video/mp4");
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader("Content-Range"));
+    }
+}
@@ -10,7 +10,7 @@ import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
  */
 @SpringBootApplication(scanBasePackages = {"com.eat2fit.diet", "com.eat2fit.common"})
 @EnableDiscoveryClient
-@MapperScan("com.eat2fit.diet.mapper")
+@MapperScan({"com.eat2fit.diet.mapper", "com.eat2fit.common.storage.mapper"})
 public class DietApplication {
 
     public static void main(String[] args) {
@@ -2,8 +2,11 @@ package com.eat2fit.diet.controller;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.eat2fit.common.page.CursorPage;
 import com.eat2fit.common.response.Result;
-import com.eat2fit.common.util.AliyunOSSOperator;
+import com.eat2fit.common.storage.ContentAddressedUploader;
+import com.eat2fit.common.storage.ObjectStorage;
+import com.eat2fit.diet.converter.FoodConverter;
 import com.eat2fit.diet.dto.FoodQueryDTO;
 import com.eat2fit.diet.entity.Food;
 import com.eat2fit.diet.service.FoodService;
@@ -15,12 +18,12 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -38,7 +41,13 @@ public class FoodController {
     private FoodService foodService;
     
     @Autowired
-    private AliyunOSSOperator aliyunOSSOperator;
+    private ObjectProvider<ContentAddressedUploader> uploader;
+    
+    @Autowired
+    private ObjectStorage objectStorage;
+    
+    @Autowired
+    private FoodConverter foodConverter;
 
     @GetMapping("/page")
     @Operation(summary = "分页查询食物", description = "根据条件分页查询食物列表")
@@ -47,34 +56,27 @@ public class FoodController {
         page = foodService.pageList(page, queryDTO.getCategory(), queryDTO.getKeyword());
         
         // 转换为VO
-        Page<FoodVO> resultPage = new Page<>();
-        BeanUtils.copyProperties(page, resultPage, "records");
-        
-        List<FoodVO> voList = new ArrayList<>();
-        for (Food food : page.getRecords()) {
-            FoodVO vo = new FoodVO();
-            BeanUtils.copyProperties(food, vo);
-            voList.add(vo);
-        }
-        resultPage.setRecords(voList);
+        Page<FoodVO> resultPage = new Page<>(page.getCurrent(), page.getSize(), page.getTotal());
+        resultPage.setRecords(foodConverter.toVOList(page.getRecords()));
         
         return Result.success(resultPage);
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "游标分页查询食物", description = "按创建时间倒序的游标分页，下一页带上返回的nextCursor")
+    public Result<CursorPage<FoodVO>> cursorList(@Parameter(description = "查询参数") FoodQueryDTO queryDTO) {
+        CursorPage<Food> page = foodService.cursorList(queryDTO.getCursor(), queryDTO.getSize(),
+                Boolean.TRUE.equals(queryDTO.getWithTotal()), queryDTO.getCategory(), queryDTO.getKeyword());
+        return Result.success(page.convert(foodConverter::toVOList));
+    }
+
     @GetMapping("/list")
     @Operation(summary = "获取全部食物", description = "获取全部食物列表，用于下拉选择")
     public Result<List<FoodVO>> getAllFoods() {
         List<Food> foods = foodService.list();
         
         // 转换为VO
-        List<FoodVO> voList = new ArrayList<>();
-        for (Food food : foods) {
-            FoodVO vo = new FoodVO();
-            BeanUtils.copyProperties(food, vo);
-            voList.add(vo);
-        }
-        
-        return Result.success(voList);
+        return Result.success(foodConverter.toVOList(foods));
     }
 
     @GetMapping("/categories")
@@ -92,10 +94,7 @@ public class FoodController {
             return Result.failed("食物不存在");
         }
         
-        FoodVO vo = new FoodVO();
-        BeanUtils.copyProperties(food, vo);
-        
-        return Result.success(vo);
+        return Result.success(foodConverter.toVO(food));
     }
     
     /**
@@ -130,9 +129,17 @@ public class FoodController {
     @Operation(summary = "上传食物图片", description = "上传食物图片到OSS")
     public Result<String> uploadFoodImage(MultipartFile file) throws Exception {
         log.info("上传食物图片: {}", file.getOriginalFilename());
-        // 上传文件到阿里云OSS
-        String fileUrl = aliyunOSSOperator.upload(file.getBytes(), file.getOriginalFilename());
-        log.info("上传食物图片成功，OSS URL: {}", fileUrl);
+        // 上传文件到对象存储
+        String fileUrl = upload(file);
+        log.info("上传食物图片成功，URL: {}", fileUrl);
         return Result.success(fileUrl);
     }
+
+    /**
+     * 上传文件，开启上传去重时相同内容只保存一份
+     */
+    private String upload(MultipartFile file) throws IOException {
+        ContentAddressedUploader contentAddressedUploader = uploader.getIfAvailable();
+        return contentAddressedUploader != null ? contentAddressedUploader.upload(file) : objectStorage.upload(file);
+    }
 } 
\ No newline at end of file
@@ -2,8 +2,12 @@ package com.eat2fit.diet.controller;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.eat2fit.common.page.CursorPage;
 import com.eat2fit.common.response.Result;
-import com.eat2fit.common.util.AliyunOSSOperator;
+import com.eat2fit.common.storage.ContentAddressedUploader;
+import com.eat2fit.common.storage.ObjectStorage;
+import com.eat2fit.diet.converter.FoodConverter;
+import com.eat2fit.diet.converter.RecipeConverter;
 import com.eat2fit.diet.dto.RecipeQueryDTO;
 import com.eat2fit.diet.entity.Food;
 import com.eat2fit.diet.entity.Recipe;
@@ -22,17 +26,19 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 import com.eat2fit.common.util.UserContext;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 import java.time.LocalDate;
 import java.util.HashMap;
@@ -59,7 +65,16 @@ public class RecipeController {
     private ObjectMapper objectMapper;
     
     @Autowired
-    private AliyunOSSOperator aliyunOSSOperator;
+    private ObjectProvider<ContentAddressedUploader> uploader;
+    
+    @Autowired
+    private ObjectStorage objectStorage;
+    
+    @Autowired
+    private RecipeConverter recipeConverter;
+    
+    @Autowired
+    private FoodConverter foodConverter;
 
     @GetMapping("/page")
     @Operation(summary = "分页查询食谱", description = "根据条件分页查询食谱列表")
@@ -70,54 +85,39 @@ public class RecipeController {
                                    queryDTO.getKeyword());
         
         // 转换为VO
-        Page<RecipeVO> resultPage = new Page<>();
-        BeanUtils.copyProperties(page, resultPage, "records");
-        
-        List<RecipeVO> voList = new ArrayList<>();
-        for (Recipe recipe : page.getRecords()) {
-            RecipeVO vo = new RecipeVO();
-            BeanUtils.copyProperties(recipe, vo);
-            
-            // 计算总时长
-            if (recipe.getPrepTime() != null && recipe.getCookTime() != null) {
-                vo.setTotalTime(recipe.getPrepTime() + recipe.getCookTime());
-            }
-            
-            // 设置文本描述
-            setDifficultyAndGoalText(vo);
-            
-            voList.add(vo);
-        }
-        resultPage.setRecords(voList);
+        Page<RecipeVO> resultPage = new Page<>(page.getCurrent(), page.getSize(), page.getTotal());
+        resultPage.setRecords(toVOList(page.getRecords()));
         
         return Result.success(resultPage);
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "游标分页查询食谱", description = "按创建时间倒序的游标分页，下一页带上返回的nextCursor，适合无限滚动")
+    public Result<CursorPage<RecipeVO>> cursorList(@Parameter(description = "查询参数") RecipeQueryDTO queryDTO) {
+        CursorPage<Recipe> page = recipeService.cursorList(queryDTO.getCursor(), queryDTO.getSize(),
+                Boolean.TRUE.equals(queryDTO.getWithTotal()), queryDTO.getFitnessGoal(),
+                queryDTO.getMealType(), queryDTO.getDifficulty(), queryDTO.getKeyword());
+        return Result.success(page.convert(this::toVOList));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "获取食谱详情", description = "根据ID获取食谱详情")
     public Result<RecipeDetailVO> getDetail(
             @Parameter(description = "食谱ID") @PathVariable Long id) {
         
-        Recipe recipe = recipeService.getById(id);
+        Recipe recipe = recipeService.getRecipeDetail(id);
         if (recipe == null) {
             return Result.failed("食谱不存在");
         }
         
-        // 增加观看次数
-        recipeService.increaseViewCount(id);
-        
-        // 转换为VO
-        RecipeDetailVO vo = new RecipeDetailVO();
-        BeanUtils.copyProperties(recipe, vo);
+        // 转换为VO，观看次数由 /view/{id} 单独记录，详情在网关合并请求
+        RecipeDetailVO vo = recipeConverter.toDetailVO(recipe);
         
         // 计算总时长
         if (recipe.getPrepTime() != null && recipe.getCookTime() != null) {
             vo.setTotalTime(recipe.getPrepTime() + recipe.getCookTime());
         }
         
-        // 设置文本描述
-        setDifficultyAndGoalText(vo);
-        
         // 设置标签列表
         if (StringUtils.hasText(recipe.getTags())) {
             vo.setTagList(Arrays.asList(recipe.getTags().split(",")));
@@ -125,34 +125,11 @@ public class RecipeController {
             vo.setTagList(new ArrayList<>());
         }
         
-        // 从UserContext获取用户ID并设置是否已收藏
-        Long userId = UserContext.getUser();
-        if (userId != null) {
-            boolean isFavorite = favoriteService.isFavorite(userId, id);
-            vo.setIsFavorite(isFavorite);
-        }
+        // 详情在网关按ID合并，不含当前用户的收藏状态，前端通过 /diet/favorites/check 查询
         
         // 获取食谱的食材列表
         List<RecipeIngredient> ingredients = recipeService.getRecipeIngredients(id);
-        List<RecipeIngredientVO> ingredientVOList = new ArrayList<>();
-        
-        for (RecipeIngredient ingredient : ingredients) {
-            RecipeIngredientVO ingredientVO = new RecipeIngredientVO();
-            BeanUtils.copyProperties(ingredient, ingredientVO);
-            
-            // 如果有关联食物ID，获取食物详情
-            if (ingredient.getFoodId() != null) {
-                Food food = foodService.getById(ingredient.getFoodId());
-                if (food != null) {
-                    FoodVO foodVO = new FoodVO();
-                    BeanUtils.copyProperties(food, foodVO);
-                    ingredientVO.setFood(foodVO);
-                }
-            }
-            
-            ingredientVOList.add(ingredientVO);
-        }
-        vo.setIngredients(ingredientVOList);
+        vo.setIngredients(toIngredientVOList(ingredients));
         
         // 设置烹饪步骤
         if (StringUtils.hasText(recipe.getSteps())) {
@@ -171,6 +148,15 @@ public class RecipeController {
         return Result.success(vo);
     }
 
+    @PostMapping("/view/{id}")
+    @Operation(summary = "记录观看", description = "打开食谱详情时调用，增加观看次数")
+    public Result<Boolean> viewRecipe(
+            @Parameter(description = "食谱ID") @PathVariable Long id) {
+        
+        boolean result = recipeService.increaseViewCount(id);
+        return Result.success(result);
+    }
+
     @GetMapping("/recommend")
     @Operation(summary = "推荐食谱", description = "获取推荐食谱列表")
     public Result<List<RecipeVO>> recommendRecipes(
@@ -187,11 +173,7 @@ public class RecipeController {
         // 转换为VO
         List<RecipeVO> voList = new ArrayList<>();
         for (Recipe recipe : recipes) {
-            RecipeVO vo = new RecipeVO();
-            BeanUtils.copyProperties(recipe, vo);
-            
-            // 设置文本描述
-            setDifficultyAndGoalText(vo);
+            RecipeVO vo = recipeConverter.toVO(recipe);
             
             // 设置是否已收藏
             boolean isFavorite = favoriteService.isFavorite(userId, recipe.getId());
@@ -258,9 +240,9 @@ public class RecipeController {
     @Operation(summary = "上传封面图片", description = "上传食谱封面图片")
     public Result<String> uploadCoverImage(MultipartFile file) throws Exception {
         log.info("上传食谱封面图片: {}", file.getOriginalFilename());
-        // 上传文件到阿里云OSS
-        String fileUrl = aliyunOSSOperator.upload(file.getBytes(), file.getOriginalFilename());
-        log.info("上传封面图片成功，OSS URL: {}", fileUrl);
+        // 上传文件到对象存储
+        String fileUrl = upload(file);
+        log.info("上传封面图片成功，URL: {}", fileUrl);
         return Result.success(fileUrl);
     }
     
@@ -271,26 +253,7 @@ public class RecipeController {
     @Operation(summary = "获取食谱食材", description = "获取指定食谱的食材列表")
     public Result<List<RecipeIngredientVO>> getRecipeIngredients(@PathVariable Long recipeId) {
         List<RecipeIngredient> ingredients = recipeService.getRecipeIngredients(recipeId);
-        List<RecipeIngredientVO> voList = new ArrayList<>();
-        
-        for (RecipeIngredient ingredient : ingredients) {
-            RecipeIngredientVO vo = new RecipeIngredientVO();
-            BeanUtils.copyProperties(ingredient, vo);
-            
-            // 如果有关联食物ID，获取食物详情
-            if (ingredient.getFoodId() != null) {
-                Food food = foodService.getById(ingredient.getFoodId());
-                if (food != null) {
-                    FoodVO foodVO = new FoodVO();
-                    BeanUtils.copyProperties(food, foodVO);
-                    vo.setFood(foodVO);
-                }
-            }
-            
-            voList.add(vo);
-        }
-        
-        return Result.success(voList);
+        return Result.success(toIngredientVOList(ingredients));
     }
     
     /**
@@ -326,7 +289,7 @@ public class RecipeController {
     @GetMapping("/{recipeId}/steps")
     @Operation(summary = "获取烹饪步骤", description = "获取指定食谱的烹饪步骤")
     public Result<List<Map<String, Object>>> getRecipeSteps(@PathVariable Long recipeId) {
-        Recipe recipe = recipeService.getById(recipeId);
+        Recipe recipe = recipeService.getRecipeDetail(recipeId);
         if (recipe == null) {
             return Result.failed("食谱不存在");
         }
@@ -383,93 +346,61 @@ public class RecipeController {
     @Operation(summary = "上传步骤图片", description = "上传烹饪步骤的图片")
     public Result<String> uploadStepImage(MultipartFile file) throws Exception {
         log.info("上传步骤图片: {}", file.getOriginalFilename());
-        // 上传文件到阿里云OSS
-        String fileUrl = aliyunOSSOperator.upload(file.getBytes(), file.getOriginalFilename());
-        log.info("上传步骤图片成功，OSS URL: {}", fileUrl);
+        // 上传文件到对象存储
+        String fileUrl = upload(file);
+        log.info("上传步骤图片成功，URL: {}", fileUrl);
         return Result.success(fileUrl);
     }
-    
+
     /**
-     * 设置难度和目标的文本描述
+     * 转换为列表VO并计算总时长
      */
-    private void setDifficultyAndGoalText(RecipeVO vo) {
-        // 设置难度文本
-        if (vo.getDifficulty() != null) {
-            switch (vo.getDifficulty()) {
-                case 1:
-                    vo.setDifficultyText("简单");
-                    break;
-                case 2:
-                    vo.setDifficultyText("中等");
-                    break;
-                case 3:
-                    vo.setDifficultyText("复杂");
-                    break;
-                default:
-                    vo.setDifficultyText("未知");
-            }
-        }
-        
-        // 设置目标文本
-        if (vo.getFitnessGoal() != null) {
-            switch (vo.getFitnessGoal()) {
-                case 1:
-                    vo.setFitnessGoalText("增肌");
-                    break;
-                case 2:
-                    vo.setFitnessGoalText("减脂");
-                    break;
-                case 3:
-                    vo.setFitnessGoalText("塑形");
-                    break;
-                case 4:
-                    vo.setFitnessGoalText("维持");
-                    break;
-                default:
-                    vo.setFitnessGoalText("未知");
+    private List<RecipeVO> toVOList(List<Recipe> recipes) {
+        List<RecipeVO> voList = new ArrayList<>();
+        for (Recipe recipe : recipes) {
+            RecipeVO vo = recipeConverter.toVO(recipe);
+            
+            // 计算总时长
+            if (recipe.getPrepTime() != null && recipe.getCookTime() != null) {
+                vo.setTotalTime(recipe.getPrepTime() + recipe.getCookTime());
             }
+            
+            voList.add(vo);
         }
+        return voList;
     }
-    
+
     /**
-     * 为DetailVO设置难度和目标的文本描述
+     * 转换食材列表，关联的食物一次查询
      */
-    private void setDifficultyAndGoalText(RecipeDetailVO vo) {
-        // 设置难度文本
-        if (vo.getDifficulty() != null) {
-            switch (vo.getDifficulty()) {
-                case 1:
-                    vo.setDifficultyText("简单");
-                    break;
-                case 2:
-                    vo.setDifficultyText("中等");
-                    break;
-                case 3:
-                    vo.setDifficultyText("复杂");
-                    break;
-                default:
-                    vo.setDifficultyText("未知");
-            }
-        }
+    private List<RecipeIngredientVO> toIngredientVOList(List<RecipeIngredient> ingredients) {
+        List<Long> foodIds = ingredients.stream()
+                .map(RecipeIngredient::getFoodId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        Map<Long, Food> foodMap = foodService.getFoodMap(foodIds);
         
-        // 设置目标文本
-        if (vo.getFitnessGoal() != null) {
-            switch (vo.getFitnessGoal()) {
-                case 1:
-                    vo.setFitnessGoalText("增肌");
-                    break;
-                case 2:
-                    vo.setFitnessGoalText("减脂");
-                    break;
-                case 3:
-                    vo.setFitnessGoalText("塑形");
-                    break;
-                case 4:
-                    vo.setFitnessGoalText("维持");
-                    break;
-                default:
-                    vo.setFitnessGoalText("未知");
+        List<RecipeIngredientVO> voList = new ArrayList<>();
+        for (RecipeIngredient ingredient : ingredients) {
+            RecipeIngredientVO vo = recipeConverter.toIngredientVO(ingredient);
+            
+            // 如果有关联食物ID，设置食物详情
+            Food food = ingredient.getFoodId() == null ? null : foodMap.get(ingredient.getFoodId());
+            if (food != null) {
+                FoodVO foodVO = foodConverter.toVO(food);
+                vo.setFood(foodVO);
             }
+            
+            voList.add(vo);
         }
+        return voList;
+    }
+
+    /**
+     * 上传文件，开启上传去重时相同内容只保存一份
+     */
+    private String upload(MultipartFile file) throws IOException {
+        ContentAddressedUploader contentAddressedUploader = uploader.getIfAvailable();
+        return contentAddressedUploader != null ? contentAddressedUploader.upload(file) : objectStorage.upload(file);
     }
-} 
\ No newline at end of file
+}
@@ -1,7 +1,9 @@
 package com.eat2fit.diet.controller;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.eat2fit.common.page.CursorPage;
 import com.eat2fit.common.response.Result;
+import com.eat2fit.diet.converter.RecipeConverter;
 import com.eat2fit.diet.dto.FavoriteDTO;
 import com.eat2fit.diet.entity.Recipe;
 import com.eat2fit.diet.entity.UserRecipeFavorite;
@@ -11,7 +13,6 @@ import com.eat2fit.diet.vo.RecipeVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 import com.eat2fit.common.util.UserContext;
@@ -31,6 +32,9 @@ public class UserRecipeFavoriteController {
     @Autowired
     private UserRecipeFavoriteService favoriteService;
 
+    @Autowired
+    private RecipeConverter recipeConverter;
+
     @PostMapping("/add")
     @Operation(summary = "添加收藏", description = "用户添加食谱收藏")
     public Result<Boolean> addFavorite(@RequestBody FavoriteDTO favoriteDTO) {
@@ -88,11 +92,35 @@ public class UserRecipeFavoriteController {
         Page<Map<String, Object>> result = favoriteService.getFavoriteRecipes(userId, page);
         
         // 转换为VO
-        Page<FavoriteRecipeVO> voPage = new Page<>();
-        BeanUtils.copyProperties(result, voPage, "records");
+        Page<FavoriteRecipeVO> voPage = new Page<>(result.getCurrent(), result.getSize(), result.getTotal());
+        voPage.setRecords(toFavoriteVOList(result.getRecords()));
+        
+        return Result.success(voPage);
+    }
+
+    @GetMapping("/cursor")
+    @Operation(summary = "收藏列表（游标分页）", description = "按收藏时间倒序的游标分页，下一页带上返回的nextCursor")
+    public Result<CursorPage<FavoriteRecipeVO>> cursorFavoriteRecipes(
+            @Parameter(description = "上一页返回的游标") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页大小") @RequestParam(defaultValue = "10") Integer size,
+            @Parameter(description = "是否返回总数") @RequestParam(defaultValue = "false") Boolean withTotal) {
+        
+        // 从UserContext获取用户ID
+        Long userId = UserContext.getUser();
+        if (userId == null) {
+            return Result.failed("用户未登录");
+        }
         
+        CursorPage<Map<String, Object>> result = favoriteService.cursorFavoriteRecipes(userId, cursor, size, withTotal);
+        return Result.success(result.convert(this::toFavoriteVOList));
+    }
+
+    /**
+     * 转换收藏列表VO
+     */
+    private List<FavoriteRecipeVO> toFavoriteVOList(List<Map<String, Object>> records) {
         List<FavoriteRecipeVO> voList = new ArrayList<>();
-        for (Map<String, Object> item : result.getRecords()) {
+        for (Map<String, Object> item : records) {
             FavoriteRecipeVO vo = new FavoriteRecipeVO();
             
             // 设置收藏信息
@@ -102,66 +130,18 @@ public class UserRecipeFavoriteController {
             // 设置食谱信息
             Recipe recipe = (Recipe) item.get("recipe");
             if (recipe != null) {
-                RecipeVO recipeVO = new RecipeVO();
-                BeanUtils.copyProperties(recipe, recipeVO);
+                RecipeVO recipeVO = recipeConverter.toVO(recipe);
                 
                 // 计算总时长
                 if (recipe.getPrepTime() != null && recipe.getCookTime() != null) {
                     recipeVO.setTotalTime(recipe.getPrepTime() + recipe.getCookTime());
                 }
                 
-                // 设置文本描述
-                setDifficultyAndGoalText(recipeVO);
-                
                 vo.setRecipe(recipeVO);
             }
             
             voList.add(vo);
         }
-        voPage.setRecords(voList);
-        
-        return Result.success(voPage);
-    }
-    
-    /**
-     * 设置难度和目标的文本描述
-     */
-    private void setDifficultyAndGoalText(RecipeVO vo) {
-        // 设置难度文本
-        if (vo.getDifficulty() != null) {
-            switch (vo.getDifficulty()) {
-                case 1:
-                    vo.setDifficultyText("简单");
-                    break;
-                case 2:
-                    vo.setDifficultyText("中等");
-                    break;
-                case 3:
-                    vo.setDifficultyText("复杂");
-                    break;
-                default:
-                    vo.setDifficultyText("未知");
-            }
-        }
-        
-        // 设置健身目标文本
-        if (vo.getFitnessGoal() != null) {
-            switch (vo.getFitnessGoal()) {
-                case 1:
-                    vo.setFitnessGoalText("增肌");
-                    break;
-                case 2:
-                    vo.setFitnessGoalText("减脂");
-                    break;
-                case 3:
-                    vo.setFitnessGoalText("塑形");
-                    break;
-                case 4:
-                    vo.setFitnessGoalText("维持");
-                    break;
-                default:
-                    vo.setFitnessGoalText("未知");
-            }
-        }
+        return voList;
     }
 } 
\ No newline at end of file
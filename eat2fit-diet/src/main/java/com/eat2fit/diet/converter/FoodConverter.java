@@ -0,0 +1,21 @@
+package com.eat2fit.diet.converter;
+
+import com.eat2fit.diet.entity.Food;
+import com.eat2fit.diet.vo.FoodVO;
+import org.mapstruct.Mapper;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.List;
+
+/**
+ * 食物对象转换器
+ * <p>
+ * 由MapStruct在编译期生成实现，直接调用getter/setter，替代反射的BeanUtils.copyProperties
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface FoodConverter {
+
+    FoodVO toVO(Food food);
+
+    List<FoodVO> toVOList(List<Food> foods);
+}
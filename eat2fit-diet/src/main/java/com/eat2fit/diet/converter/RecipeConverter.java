@@ -0,0 +1,77 @@
+package com.eat2fit.diet.converter;
+
+import com.eat2fit.diet.entity.Recipe;
+import com.eat2fit.diet.entity.RecipeIngredient;
+import com.eat2fit.diet.vo.RecipeDetailVO;
+import com.eat2fit.diet.vo.RecipeIngredientVO;
+import com.eat2fit.diet.vo.RecipeVO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Named;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * 食谱对象转换器
+ * <p>
+ * 拷贝同名字段并填充难度、目标的文本描述，总时长、标签、收藏状态等仍由调用方填充
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface RecipeConverter {
+
+    @Mapping(target = "difficultyText", source = "difficulty", qualifiedByName = "difficultyText")
+    @Mapping(target = "fitnessGoalText", source = "fitnessGoal", qualifiedByName = "fitnessGoalText")
+    RecipeVO toVO(Recipe recipe);
+
+    /**
+     * 烹饪步骤在实体中是JSON字符串，需要调用方解析，这里不拷贝
+     */
+    @Mapping(target = "steps", ignore = true)
+    @Mapping(target = "difficultyText", source = "difficulty", qualifiedByName = "difficultyText")
+    @Mapping(target = "fitnessGoalText", source = "fitnessGoal", qualifiedByName = "fitnessGoalText")
+    RecipeDetailVO toDetailVO(Recipe recipe);
+
+    @Mapping(target = "food", ignore = true)
+    RecipeIngredientVO toIngredientVO(RecipeIngredient ingredient);
+
+    /**
+     * 难度文本
+     */
+    @Named("difficultyText")
+    default String difficultyText(Integer difficulty) {
+        if (difficulty == null) {
+            return null;
+        }
+        switch (difficulty) {
+            case 1:
+                return "简单";
+            case 2:
+                return "中等";
+            case 3:
+                return "复杂";
+            default:
+                return "未知";
+        }
+    }
+
+    /**
+     * 健身目标文本
+     */
+    @Named("fitnessGoalText")
+    default String fitnessGoalText(Integer fitnessGoal) {
+        if (fitnessGoal == null) {
+            return null;
+        }
+        switch (fitnessGoal) {
+            case 1:
+                return "增肌";
+            case 2:
+                return "减脂";
+            case 3:
+                return "塑形";
+            case 4:
+                return "维持";
+            default:
+                return "未知";
+        }
+    }
+}
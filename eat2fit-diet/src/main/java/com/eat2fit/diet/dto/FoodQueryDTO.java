@@ -18,6 +18,16 @@ public class FoodQueryDTO {
      */
     private Integer size = 10;
 
+    /**
+     * 游标分页时上一页返回的游标，第一页不传
+     */
+    private String cursor;
+
+    /**
+     * 游标分页时是否返回总数
+     */
+    private Boolean withTotal = false;
+
     /**
      * 食物类别
      */
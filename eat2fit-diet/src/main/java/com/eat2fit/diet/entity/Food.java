@@ -64,6 +64,16 @@ public class Food implements Serializable {
      */
     private String imageUrl;
 
+    /**
+     * 图片缩略图URL，生成前为原图
+     */
+    private String imageThumb;
+
+    /**
+     * 图片压缩图URL，生成前为原图
+     */
+    private String imageLarge;
+
     /**
      * 计量单位
      */
@@ -39,6 +39,16 @@ public class Recipe implements Serializable {
      */
     private String coverImg;
 
+    /**
+     * 封面缩略图URL，生成前为原图
+     */
+    private String coverThumb;
+
+    /**
+     * 封面压缩图URL，生成前为原图
+     */
+    private String coverLarge;
+
     /**
      * 准备时间(分钟)
      */
@@ -2,9 +2,12 @@ package com.eat2fit.diet.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.eat2fit.common.page.CursorPage;
 import com.eat2fit.diet.entity.Food;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 食物服务接口
@@ -20,6 +23,24 @@ public interface FoodService extends IService<Food> {
      */
     Page<Food> pageList(Page<Food> page, String category, String keyword);
     
+    /**
+     * 游标分页获取食物列表，按创建时间倒序
+     * @param cursor 上一页返回的游标，第一页为空
+     * @param size 每页大小
+     * @param withTotal 是否返回总数
+     * @param category 食物类别
+     * @param keyword 关键词
+     * @return 食物列表
+     */
+    CursorPage<Food> cursorList(String cursor, int size, boolean withTotal, String category, String keyword);
+    
+    /**
+     * 批量获取食物，同一请求内合并为一次查询并复用结果
+     * @param ids 食物ID列表
+     * @return 食物ID到食物的映射，不包含不存在的ID
+     */
+    Map<Long, Food> getFoodMap(Collection<Long> ids);
+    
     /**
      * 获取所有食物分类
      * @return 分类列表
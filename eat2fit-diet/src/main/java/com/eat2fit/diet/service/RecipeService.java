@@ -2,10 +2,13 @@ package com.eat2fit.diet.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.eat2fit.common.page.CursorPage;
 import com.eat2fit.diet.entity.Recipe;
 import com.eat2fit.diet.entity.RecipeIngredient;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 食谱服务接口
@@ -23,6 +26,20 @@ public interface RecipeService extends IService<Recipe> {
      */
     Page<Recipe> pageList(Page<Recipe> page, Integer fitnessGoal, String mealType, Integer difficulty, String keyword);
     
+    /**
+     * 游标分页获取食谱列表，按创建时间倒序
+     * @param cursor 上一页返回的游标，第一页为空
+     * @param size 每页大小
+     * @param withTotal 是否返回总数
+     * @param fitnessGoal 健身目标
+     * @param mealType 餐食类型
+     * @param difficulty 难度
+     * @param keyword 关键词
+     * @return 食谱列表
+     */
+    CursorPage<Recipe> cursorList(String cursor, int size, boolean withTotal,
+                                  Integer fitnessGoal, String mealType, Integer difficulty, String keyword);
+    
     /**
      * 获取食谱详情
      * @param id 食谱ID
@@ -30,6 +47,13 @@ public interface RecipeService extends IService<Recipe> {
      */
     Recipe getRecipeDetail(Long id);
     
+    /**
+     * 批量获取食谱，同一请求内合并为一次查询并复用结果
+     * @param ids 食谱ID列表
+     * @return 食谱ID到食谱的映射，不包含不存在的ID
+     */
+    Map<Long, Recipe> getRecipeMap(Collection<Long> ids);
+    
     /**
      * 获取食谱食材
      * @param recipeId 食谱ID
@@ -2,6 +2,7 @@ package com.eat2fit.diet.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.eat2fit.common.page.CursorPage;
 import com.eat2fit.diet.entity.UserRecipeFavorite;
 
 import java.util.Map;
@@ -42,4 +43,14 @@ public interface UserRecipeFavoriteService extends IService<UserRecipeFavorite>
      * @return 收藏食谱分页列表
      */
     Page<Map<String, Object>> getFavoriteRecipes(Long userId, Page<UserRecipeFavorite> page);
+    
+    /**
+     * 游标分页获取用户收藏的食谱列表，按收藏时间倒序
+     * @param userId 用户ID
+     * @param cursor 上一页返回的游标，第一页为空
+     * @param size 每页大小
+     * @param withTotal 是否返回总数
+     * @return 收藏食谱列表
+     */
+    CursorPage<Map<String, Object>> cursorFavoriteRecipes(Long userId, String cursor, int size, boolean withTotal);
 } 
\ No newline at end of file
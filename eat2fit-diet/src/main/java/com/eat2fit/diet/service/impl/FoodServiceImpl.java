@@ -2,15 +2,34 @@ package com.eat2fit.diet.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.eat2fit.common.cache.TwoLevelCache;
+import com.eat2fit.common.cache.TwoLevelCacheManager;
+import com.eat2fit.common.constant.Constants;
+import com.eat2fit.common.loader.RequestLoaders;
+import com.eat2fit.common.page.CursorPage;
+import com.eat2fit.common.page.KeysetPager;
+import com.eat2fit.common.storage.ContentAddressedUploader;
+import com.eat2fit.common.storage.ImageVariantPipeline;
 import com.eat2fit.diet.entity.Food;
 import com.eat2fit.diet.mapper.FoodMapper;
 import com.eat2fit.diet.service.FoodService;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -19,8 +38,51 @@ import java.util.stream.Collectors;
 @Service
 public class FoodServiceImpl extends ServiceImpl<FoodMapper, Food> implements FoodService {
 
+    private static final KeysetPager<Food, LocalDateTime> PAGER =
+            new KeysetPager<>(Food::getCreateTime, Food::getId, LocalDateTime::parse);
+
+    @Autowired
+    private TwoLevelCacheManager cacheManager;
+
+    @Autowired
+    private ObjectProvider<ContentAddressedUploader> uploader;
+
+    @Autowired
+    private ObjectProvider<ImageVariantPipeline> imageVariants;
+
+    /**
+     * 游标分页的总数缓存
+     */
+    private TwoLevelCache<Long> countCache;
+
+    @PostConstruct
+    public void initCache() {
+        countCache = cacheManager.getCache("diet-page-count", Constants.REDIS_PAGE_COUNT_PREFIX, Long.class);
+    }
+
     @Override
     public Page<Food> pageList(Page<Food> page, String category, String keyword) {
+        LambdaQueryWrapper<Food> queryWrapper = buildListQuery(category, keyword);
+        
+        queryWrapper.orderByDesc(Food::getCreateTime);
+        
+        return baseMapper.selectPage(page, queryWrapper);
+    }
+
+    @Override
+    public CursorPage<Food> cursorList(String cursor, int size, boolean withTotal, String category, String keyword) {
+        LambdaQueryWrapper<Food> queryWrapper = buildListQuery(category, keyword);
+        String countKey = "food:" + category + ":" + keyword;
+        Supplier<Long> total = withTotal
+                ? () -> countCache.get(countKey, () -> baseMapper.selectCount(buildListQuery(category, keyword)))
+                : null;
+        return PAGER.page(queryWrapper, cursor, size, baseMapper, total);
+    }
+
+    /**
+     * 食物列表的过滤条件，不含排序
+     */
+    private LambdaQueryWrapper<Food> buildListQuery(String category, String keyword) {
         LambdaQueryWrapper<Food> queryWrapper = new LambdaQueryWrapper<>();
         
         // 构建查询条件
@@ -38,9 +100,87 @@ public class FoodServiceImpl extends ServiceImpl<FoodMapper, Food> implements Fo
             );
         }
         
-        queryWrapper.orderByDesc(Food::getCreateTime);
-        
-        return baseMapper.selectPage(page, queryWrapper);
+        return queryWrapper;
+    }
+    
+    @Override
+    public Map<Long, Food> getFoodMap(Collection<Long> ids) {
+        return RequestLoaders.get(Food.class, this::listByIds, Food::getId).loadMany(ids);
+    }
+    
+    @Override
+    public boolean save(Food food) {
+        useOriginalImage(food, true);
+        boolean saved = writeWithReferences(List.of(), imageUrls(food), () -> super.save(food));
+        if (saved) {
+            generateImageVariants(food.getId(), food.getImageUrl());
+        }
+        return saved;
+    }
+    
+    @Override
+    public boolean updateById(Food food) {
+        // 没有修改图片时不需要查询旧数据，也不调整引用
+        Food old = food.getImageUrl() != null ? getById(food.getId()) : null;
+        boolean imageReplaced = old != null && !food.getImageUrl().equals(old.getImageUrl());
+        useOriginalImage(food, imageReplaced);
+        boolean updated = old == null
+                ? super.updateById(food)
+                : writeWithReferences(imageUrls(old), imageUrls(food), () -> super.updateById(food));
+        if (updated && imageReplaced) {
+            generateImageVariants(food.getId(), food.getImageUrl());
+        }
+        return updated;
+    }
+    
+    /**
+     * 图片的缩略图、压缩图只由后台生成，新图片在生成前先使用原图；图片没有变化时不修改
+     */
+    private void useOriginalImage(Food food, boolean imageChanged) {
+        String placeholder = imageChanged ? food.getImageUrl() : null;
+        food.setImageThumb(placeholder);
+        food.setImageLarge(placeholder);
+    }
+    
+    /**
+     * 后台生成图片的缩略图和压缩图，图片在此期间又被修改时不覆盖
+     */
+    private void generateImageVariants(Long id, String imageUrl) {
+        imageVariants.ifAvailable(pipeline -> pipeline.submit(imageUrl, variants -> {
+            LambdaUpdateWrapper<Food> updateWrapper = new LambdaUpdateWrapper<>();
+            updateWrapper.eq(Food::getId, id)
+                        .eq(Food::getImageUrl, imageUrl)
+                        .set(Food::getImageThumb, variants.getThumbnailUrl())
+                        .set(Food::getImageLarge, variants.getLargeUrl());
+            update(updateWrapper);
+        }));
+    }
+    
+    @Override
+    public boolean removeById(Serializable id) {
+        Food old = getById(id);
+        if (old == null) {
+            return super.removeById(id);
+        }
+        return writeWithReferences(imageUrls(old), List.of(), () -> super.removeById(id));
+    }
+    
+    /**
+     * 食物引用的上传文件
+     */
+    private static List<String> imageUrls(Food food) {
+        return Collections.singletonList(food.getImageUrl());
+    }
+    
+    /**
+     * 写入食物数据，开启上传去重时同时调整引用的文件的引用次数
+     */
+    private boolean writeWithReferences(List<String> oldUrls, List<String> newUrls, BooleanSupplier write) {
+        ContentAddressedUploader contentAddressedUploader = uploader.getIfAvailable();
+        if (contentAddressedUploader == null) {
+            return write.getAsBoolean();
+        }
+        return contentAddressedUploader.writeReferences(oldUrls, newUrls, write);
     }
     
     @Override
@@ -1,19 +1,43 @@
 package com.eat2fit.diet.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.eat2fit.common.cache.TwoLevelCache;
+import com.eat2fit.common.cache.TwoLevelCacheManager;
+import com.eat2fit.common.constant.Constants;
+import com.eat2fit.common.loader.DataLoader;
+import com.eat2fit.common.loader.RequestLoaders;
+import com.eat2fit.common.page.CursorPage;
+import com.eat2fit.common.page.KeysetPager;
+import com.eat2fit.common.storage.ContentAddressedUploader;
+import com.eat2fit.common.storage.ImageVariantPipeline;
 import com.eat2fit.diet.entity.Recipe;
 import com.eat2fit.diet.entity.RecipeIngredient;
 import com.eat2fit.diet.mapper.RecipeIngredientMapper;
 import com.eat2fit.diet.mapper.RecipeMapper;
 import com.eat2fit.diet.service.RecipeService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * 食谱服务实现类
@@ -22,11 +46,69 @@ import java.util.List;
 @Slf4j
 public class RecipeServiceImpl extends ServiceImpl<RecipeMapper, Recipe> implements RecipeService {
 
+    private static final KeysetPager<Recipe, LocalDateTime> PAGER =
+            new KeysetPager<>(Recipe::getCreateTime, Recipe::getId, LocalDateTime::parse);
+
     @Autowired
     private RecipeIngredientMapper ingredientMapper;
 
+    @Autowired
+    private ObjectProvider<ContentAddressedUploader> uploader;
+
+    @Autowired
+    private ObjectProvider<ImageVariantPipeline> imageVariants;
+
+    @Autowired
+    private TwoLevelCacheManager cacheManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 食谱缓存，浏览数、点赞数在缓存有效期内不实时
+     */
+    private TwoLevelCache<Recipe> recipeCache;
+
+    private TwoLevelCache<List<RecipeIngredient>> ingredientCache;
+
+    /**
+     * 游标分页的总数缓存
+     */
+    private TwoLevelCache<Long> countCache;
+
+    @PostConstruct
+    public void initCache() {
+        recipeCache = cacheManager.getCache("diet-recipe", Constants.REDIS_DIET_RECIPE_PREFIX, Recipe.class);
+        ingredientCache = cacheManager.getCache("diet-recipe-ingredient", Constants.REDIS_DIET_RECIPE_PREFIX + "ingredient:",
+                new TypeReference<List<RecipeIngredient>>() {});
+        countCache = cacheManager.getCache("diet-page-count", Constants.REDIS_PAGE_COUNT_PREFIX, Long.class);
+    }
+
     @Override
     public Page<Recipe> pageList(Page<Recipe> page, Integer fitnessGoal, String mealType, Integer difficulty, String keyword) {
+        LambdaQueryWrapper<Recipe> queryWrapper = buildListQuery(fitnessGoal, mealType, difficulty, keyword);
+        
+        // 排序
+        queryWrapper.orderByDesc(Recipe::getCreateTime);
+        
+        return page(page, queryWrapper);
+    }
+
+    @Override
+    public CursorPage<Recipe> cursorList(String cursor, int size, boolean withTotal,
+                                         Integer fitnessGoal, String mealType, Integer difficulty, String keyword) {
+        LambdaQueryWrapper<Recipe> queryWrapper = buildListQuery(fitnessGoal, mealType, difficulty, keyword);
+        String countKey = "recipe:" + fitnessGoal + ":" + mealType + ":" + difficulty + ":" + keyword;
+        Supplier<Long> total = withTotal
+                ? () -> countCache.get(countKey, () -> baseMapper.selectCount(buildListQuery(fitnessGoal, mealType, difficulty, keyword)))
+                : null;
+        return PAGER.page(queryWrapper, cursor, size, baseMapper, total);
+    }
+
+    /**
+     * 食谱列表的过滤条件，不含排序
+     */
+    private LambdaQueryWrapper<Recipe> buildListQuery(Integer fitnessGoal, String mealType, Integer difficulty, String keyword) {
         LambdaQueryWrapper<Recipe> queryWrapper = new LambdaQueryWrapper<>();
         
         // 设置状态为正常
@@ -58,29 +140,147 @@ public class RecipeServiceImpl extends ServiceImpl<RecipeMapper, Recipe> impleme
             );
         }
         
-        // 排序
-        queryWrapper.orderByDesc(Recipe::getCreateTime);
-        
-        return page(page, queryWrapper);
+        return queryWrapper;
     }
 
     @Override
     public Recipe getRecipeDetail(Long id) {
-        return getById(id);
+        return recipeLoader().load(id);
+    }
+
+    @Override
+    public Map<Long, Recipe> getRecipeMap(Collection<Long> ids) {
+        return recipeLoader().loadMany(ids);
+    }
+
+    private DataLoader<Recipe> recipeLoader() {
+        return RequestLoaders.get(Recipe.class, this::loadRecipes, Recipe::getId);
+    }
+
+    /**
+     * 先查两级缓存，未命中的食谱一次IN查询
+     */
+    private List<Recipe> loadRecipes(Collection<Long> ids) {
+        return new ArrayList<>(recipeCache.getAll(ids, missingIds -> listByIds(missingIds).stream()
+                .collect(Collectors.toMap(Recipe::getId, Function.identity()))).values());
     }
 
     @Override
     public List<RecipeIngredient> getRecipeIngredients(Long recipeId) {
-        LambdaQueryWrapper<RecipeIngredient> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(RecipeIngredient::getRecipeId, recipeId);
-        return ingredientMapper.selectList(queryWrapper);
+        return ingredientCache.get(recipeId, () -> {
+            LambdaQueryWrapper<RecipeIngredient> queryWrapper = new LambdaQueryWrapper<>();
+            queryWrapper.eq(RecipeIngredient::getRecipeId, recipeId);
+            return ingredientMapper.selectList(queryWrapper);
+        });
     }
     
     @Override
     public boolean deleteRecipeIngredients(Long recipeId) {
         LambdaQueryWrapper<RecipeIngredient> queryWrapper = new LambdaQueryWrapper<>();
         queryWrapper.eq(RecipeIngredient::getRecipeId, recipeId);
-        return ingredientMapper.delete(queryWrapper) >= 0;
+        boolean deleted = ingredientMapper.delete(queryWrapper) >= 0;
+        ingredientCache.evictAfterCommit(recipeId);
+        return deleted;
+    }
+
+    @Override
+    public boolean save(Recipe recipe) {
+        useOriginalCover(recipe, true);
+        boolean saved = writeWithReferences(List.of(), fileUrls(recipe, recipe), () -> super.save(recipe));
+        if (saved) {
+            generateCoverVariants(recipe.getId(), recipe.getCoverImg());
+        }
+        return saved;
+    }
+
+    @Override
+    public boolean updateById(Recipe recipe) {
+        // 没有修改封面和步骤时不需要查询旧数据，也不调整引用
+        boolean filesUpdated = recipe.getCoverImg() != null || recipe.getSteps() != null;
+        Recipe old = filesUpdated ? getById(recipe.getId()) : null;
+        boolean coverReplaced = old != null && recipe.getCoverImg() != null && !recipe.getCoverImg().equals(old.getCoverImg());
+        useOriginalCover(recipe, coverReplaced);
+        boolean updated = old == null
+                ? super.updateById(recipe)
+                : writeWithReferences(fileUrls(old, recipe), fileUrls(recipe, recipe), () -> super.updateById(recipe));
+        recipeCache.evictAfterCommit(recipe.getId());
+        RequestLoaders.clear(Recipe.class, recipe.getId());
+        if (updated && coverReplaced) {
+            generateCoverVariants(recipe.getId(), recipe.getCoverImg());
+        }
+        return updated;
+    }
+
+    /**
+     * 封面的缩略图、压缩图只由后台生成，新封面在生成前先使用原图；封面没有变化时不修改
+     */
+    private void useOriginalCover(Recipe recipe, boolean coverChanged) {
+        String placeholder = coverChanged ? recipe.getCoverImg() : null;
+        recipe.setCoverThumb(placeholder);
+        recipe.setCoverLarge(placeholder);
+    }
+
+    /**
+     * 后台生成封面的缩略图和压缩图，封面在此期间又被修改时不覆盖
+     */
+    private void generateCoverVariants(Long id, String coverImg) {
+        imageVariants.ifAvailable(pipeline -> pipeline.submit(coverImg, variants -> {
+            LambdaUpdateWrapper<Recipe> updateWrapper = new LambdaUpdateWrapper<>();
+            updateWrapper.eq(Recipe::getId, id)
+                        .eq(Recipe::getCoverImg, coverImg)
+                        .set(Recipe::getCoverThumb, variants.getThumbnailUrl())
+                        .set(Recipe::getCoverLarge, variants.getLargeUrl());
+            update(updateWrapper);
+            recipeCache.evict(id);
+        }));
+    }
+
+    @Override
+    public boolean removeById(Serializable id) {
+        Recipe old = getById(id);
+        boolean removed = old == null
+                ? super.removeById(id)
+                : writeWithReferences(fileUrls(old, old), List.of(), () -> super.removeById(id));
+        Long recipeId = Long.valueOf(id.toString());
+        recipeCache.evictAfterCommit(recipeId);
+        ingredientCache.evictAfterCommit(recipeId);
+        RequestLoaders.clear(Recipe.class, recipeId);
+        return removed;
+    }
+
+    /**
+     * 食谱引用的上传文件：封面和步骤图片。只取 fields 中不为null的字段，按部分字段更新时旧数据只计算被修改的字段
+     */
+    private List<String> fileUrls(Recipe recipe, Recipe fields) {
+        List<String> urls = new ArrayList<>();
+        if (fields.getCoverImg() != null) {
+            urls.add(recipe.getCoverImg());
+        }
+        if (fields.getSteps() != null && StringUtils.hasText(recipe.getSteps())) {
+            try {
+                List<Map<String, Object>> steps = objectMapper.readValue(recipe.getSteps(),
+                        new TypeReference<List<Map<String, Object>>>() {});
+                for (Map<String, Object> step : steps) {
+                    if (step.get("imageUrl") instanceof String imageUrl) {
+                        urls.add(imageUrl);
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                log.warn("解析烹饪步骤失败，不统计步骤图片的引用，食谱: {}", recipe.getId());
+            }
+        }
+        return urls;
+    }
+
+    /**
+     * 写入食谱数据，开启上传去重时同时调整引用的文件的引用次数
+     */
+    private boolean writeWithReferences(List<String> oldUrls, List<String> newUrls, BooleanSupplier write) {
+        ContentAddressedUploader contentAddressedUploader = uploader.getIfAvailable();
+        if (contentAddressedUploader == null) {
+            return write.getAsBoolean();
+        }
+        return contentAddressedUploader.writeReferences(oldUrls, newUrls, write);
     }
     
     @Override
@@ -92,6 +292,7 @@ public class RecipeServiceImpl extends ServiceImpl<RecipeMapper, Recipe> impleme
         try {
             // 使用批量保存方法
             int count = ingredientMapper.batchSave(recipeId, ingredients);
+            ingredientCache.evictAfterCommit(recipeId);
             return count > 0;
         } catch (Exception e) {
             log.error("保存食谱食材失败: " + e.getMessage(), e);
@@ -3,11 +3,17 @@ package com.eat2fit.diet.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.eat2fit.common.cache.TwoLevelCache;
+import com.eat2fit.common.cache.TwoLevelCacheManager;
+import com.eat2fit.common.constant.Constants;
+import com.eat2fit.common.page.CursorPage;
+import com.eat2fit.common.page.KeysetPager;
 import com.eat2fit.diet.entity.Recipe;
 import com.eat2fit.diet.entity.UserRecipeFavorite;
-import com.eat2fit.diet.mapper.RecipeMapper;
 import com.eat2fit.diet.mapper.UserRecipeFavoriteMapper;
+import com.eat2fit.diet.service.RecipeService;
 import com.eat2fit.diet.service.UserRecipeFavoriteService;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -16,6 +22,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * 用户收藏服务实现类
@@ -23,8 +31,24 @@ import java.util.Map;
 @Service
 public class UserRecipeFavoriteServiceImpl extends ServiceImpl<UserRecipeFavoriteMapper, UserRecipeFavorite> implements UserRecipeFavoriteService {
 
+    private static final KeysetPager<UserRecipeFavorite, LocalDateTime> PAGER =
+            new KeysetPager<>(UserRecipeFavorite::getCreateTime, UserRecipeFavorite::getId, LocalDateTime::parse);
+
+    @Autowired
+    private RecipeService recipeService;
+
     @Autowired
-    private RecipeMapper recipeMapper;
+    private TwoLevelCacheManager cacheManager;
+
+    /**
+     * 游标分页的总数缓存
+     */
+    private TwoLevelCache<Long> countCache;
+
+    @PostConstruct
+    public void initCache() {
+        countCache = cacheManager.getCache("diet-page-count", Constants.REDIS_PAGE_COUNT_PREFIX, Long.class);
+    }
 
     @Override
     public boolean addFavorite(Long userId, Long recipeId) {
@@ -39,7 +63,9 @@ public class UserRecipeFavoriteServiceImpl extends ServiceImpl<UserRecipeFavorit
         favorite.setRecipeId(recipeId);
         favorite.setCreateTime(LocalDateTime.now());
         
-        return save(favorite);
+        boolean saved = save(favorite);
+        countCache.evict("favorite:" + userId);
+        return saved;
     }
 
     @Override
@@ -48,7 +74,9 @@ public class UserRecipeFavoriteServiceImpl extends ServiceImpl<UserRecipeFavorit
         queryWrapper.eq(UserRecipeFavorite::getUserId, userId)
                    .eq(UserRecipeFavorite::getRecipeId, recipeId);
         
-        return remove(queryWrapper);
+        boolean removed = remove(queryWrapper);
+        countCache.evict("favorite:" + userId);
+        return removed;
     }
 
     @Override
@@ -75,9 +103,40 @@ public class UserRecipeFavoriteServiceImpl extends ServiceImpl<UserRecipeFavorit
         resultPage.setSize(favoriteList.getSize());
         resultPage.setTotal(favoriteList.getTotal());
         resultPage.setPages(favoriteList.getPages());
+        resultPage.setRecords(toFavoriteRecords(favoriteList.getRecords()));
+        return resultPage;
+    }
+
+    @Override
+    public CursorPage<Map<String, Object>> cursorFavoriteRecipes(Long userId, String cursor, int size, boolean withTotal) {
+        LambdaQueryWrapper<UserRecipeFavorite> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(UserRecipeFavorite::getUserId, userId);
+        
+        Supplier<Long> total = withTotal
+                ? () -> countCache.get("favorite:" + userId, () -> countFavorites(userId))
+                : null;
+        CursorPage<UserRecipeFavorite> favoritePage = PAGER.page(queryWrapper, cursor, size, baseMapper, total);
+        return favoritePage.convert(this::toFavoriteRecords);
+    }
+
+    private Long countFavorites(Long userId) {
+        LambdaQueryWrapper<UserRecipeFavorite> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(UserRecipeFavorite::getUserId, userId);
+        return baseMapper.selectCount(queryWrapper);
+    }
+
+    /**
+     * 组装收藏信息和食谱信息
+     */
+    private List<Map<String, Object>> toFavoriteRecords(List<UserRecipeFavorite> favorites) {
+        // 一次查询所有收藏的食谱
+        List<Long> recipeIds = favorites.stream()
+                .map(UserRecipeFavorite::getRecipeId)
+                .collect(Collectors.toList());
+        Map<Long, Recipe> recipeMap = recipeService.getRecipeMap(recipeIds);
         
         List<Map<String, Object>> records = new ArrayList<>();
-        for (UserRecipeFavorite favorite : favoriteList.getRecords()) {
+        for (UserRecipeFavorite favorite : favorites) {
             Map<String, Object> map = new HashMap<>();
             
             // 收藏信息
@@ -85,15 +144,13 @@ public class UserRecipeFavoriteServiceImpl extends ServiceImpl<UserRecipeFavorit
             map.put("favoriteTime", favorite.getCreateTime());
             
             // 食谱信息
-            Recipe recipe = recipeMapper.selectById(favorite.getRecipeId());
+            Recipe recipe = recipeMap.get(favorite.getRecipeId());
             if (recipe != null) {
                 map.put("recipe", recipe);
             }
             
             records.add(map);
         }
-        
-        resultPage.setRecords(records);
-        return resultPage;
+        return records;
     }
 } 
\ No newline at end of file
@@ -55,6 +55,16 @@ public class FoodVO {
      */
     private String imageUrl;
 
+    /**
+     * 图片缩略图URL
+     */
+    private String imageThumb;
+
+    /**
+     * 图片压缩图URL
+     */
+    private String imageLarge;
+
     /**
      * 计量单位
      */
@@ -32,6 +32,11 @@ public class RecipeDetailVO {
      */
     private String coverImg;
 
+    /**
+     * 封面压缩图URL
+     */
+    private String coverLarge;
+
     /**
      * 准备时间(分钟)
      */
@@ -30,6 +30,11 @@ public class RecipeVO {
      */
     private String coverImg;
 
+    /**
+     * 封面缩略图URL
+     */
+    private String coverThumb;
+
     /**
      * 准备时间(分钟)
      */
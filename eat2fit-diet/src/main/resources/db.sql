@@ -15,12 +15,15 @@ CREATE TABLE IF NOT EXISTS `food`
     `carbs`         decimal(6, 2)         DEFAULT NULL COMMENT '碳水化合物(克)',
     `fiber`         decimal(6, 2)         DEFAULT NULL COMMENT '纤维素(克)',
     `image_url`     varchar(255)          DEFAULT NULL COMMENT '图片URL',
+    `image_thumb`   varchar(255)          DEFAULT NULL COMMENT '图片缩略图URL',
+    `image_large`   varchar(255)          DEFAULT NULL COMMENT '图片压缩图URL',
     `unit`          varchar(20)           DEFAULT '克' COMMENT '计量单位',
     `status`        tinyint(1)            DEFAULT 1 COMMENT '状态 1:正常 0:禁用',
     `create_time`   datetime     NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     `update_time`   datetime     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     PRIMARY KEY (`id`),
     KEY `idx_category` (`category`),
+    KEY `idx_status_create_time` (`status`, `create_time`),
     FULLTEXT KEY `ft_idx_search` (`name`, `category`)
 ) ENGINE = InnoDB
   DEFAULT CHARSET = utf8mb4 COMMENT ='食物营养素表';
@@ -32,6 +35,8 @@ CREATE TABLE IF NOT EXISTS `recipe`
     `title`         varchar(100) NOT NULL COMMENT '食谱标题',
     `description`   text                  DEFAULT NULL COMMENT '食谱简介',
     `cover_img`     varchar(255)          DEFAULT NULL COMMENT '封面图片URL',
+    `cover_thumb`   varchar(255)          DEFAULT NULL COMMENT '封面缩略图URL',
+    `cover_large`   varchar(255)          DEFAULT NULL COMMENT '封面压缩图URL',
     `prep_time`     int(5)                DEFAULT NULL COMMENT '准备时间(分钟)',
     `cook_time`     int(5)                DEFAULT NULL COMMENT '烹饪时间(分钟)',
     `servings`      int(2)                DEFAULT NULL COMMENT '份量(人份)',
@@ -54,6 +59,7 @@ CREATE TABLE IF NOT EXISTS `recipe`
     PRIMARY KEY (`id`),
     KEY `idx_fitness_goal` (`fitness_goal`),
     KEY `idx_meal_type` (`meal_type`),
+    KEY `idx_status_create_time` (`status`, `create_time`),
     FULLTEXT KEY `ft_idx_search` (`title`, `description`, `tags`)
 ) ENGINE = InnoDB
   DEFAULT CHARSET = utf8mb4 COMMENT ='食谱表';
@@ -83,6 +89,25 @@ CREATE TABLE IF NOT EXISTS `user_recipe_favorite`
     `create_time` datetime   NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     PRIMARY KEY (`id`),
     UNIQUE KEY `uk_user_recipe` (`user_id`, `recipe_id`),
-    KEY `idx_user_id` (`user_id`)
+    KEY `idx_user_create_time` (`user_id`, `create_time`)
 ) ENGINE = InnoDB
-  DEFAULT CHARSET = utf8mb4 COMMENT ='用户食谱收藏表';
\ No newline at end of file
+  DEFAULT CHARSET = utf8mb4 COMMENT ='用户食谱收藏表';
+
+-- 5. 上传文件表（按内容去重）
+CREATE TABLE IF NOT EXISTS `stored_file`
+(
+    `id`           bigint(20)   NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `hash`         char(64)     NOT NULL COMMENT '内容SHA-256',
+    `object_key`   varchar(255) NOT NULL COMMENT '对象路径',
+    `url`          varchar(255) NOT NULL COMMENT '访问地址',
+    `file_size`    bigint(20)   NOT NULL COMMENT '文件大小(字节)',
+    `content_type` varchar(100)          DEFAULT NULL COMMENT '内容类型',
+    `ref_count`    int(11)      NOT NULL DEFAULT 0 COMMENT '业务数据引用次数，上传本身不计数',
+    `create_time`  datetime     NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `update_time`  datetime     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_hash` (`hash`),
+    KEY `idx_url` (`url`),
+    KEY `idx_ref_count_update_time` (`ref_count`, `update_time`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='上传文件表';
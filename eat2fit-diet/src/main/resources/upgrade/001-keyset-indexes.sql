@@ -0,0 +1,16 @@
+-- 已有数据库升级：游标分页按 (过滤列, create_time, id) 查询，补充对应的联合索引
+-- 新建的数据库直接执行 db.sql 即可，不需要执行本脚本
+-- 大表加索引会占用较多IO，建议在低峰期执行
+
+use eat2fit_diet;
+
+ALTER TABLE `food`
+    ADD KEY `idx_status_create_time` (`status`, `create_time`);
+
+ALTER TABLE `recipe`
+    ADD KEY `idx_status_create_time` (`status`, `create_time`);
+
+-- (user_id, create_time) 的最左前缀可以代替原来的 user_id 单列索引
+ALTER TABLE `user_recipe_favorite`
+    ADD KEY `idx_user_create_time` (`user_id`, `create_time`),
+    DROP KEY `idx_user_id`;
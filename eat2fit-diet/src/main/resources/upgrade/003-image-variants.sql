@@ -0,0 +1,13 @@
+-- 已有数据库升级：食物图片和食谱封面的缩略图、压缩图地址
+-- 新建的数据库直接执行 db.sql 即可，不需要执行本脚本
+-- 已有图片不会自动生成派生版本，派生地址为空时继续使用原图
+
+use eat2fit_diet;
+
+ALTER TABLE `food`
+    ADD COLUMN `image_thumb` varchar(255) DEFAULT NULL COMMENT '图片缩略图URL' AFTER `image_url`,
+    ADD COLUMN `image_large` varchar(255) DEFAULT NULL COMMENT '图片压缩图URL' AFTER `image_thumb`;
+
+ALTER TABLE `recipe`
+    ADD COLUMN `cover_thumb` varchar(255) DEFAULT NULL COMMENT '封面缩略图URL' AFTER `cover_img`,
+    ADD COLUMN `cover_large` varchar(255) DEFAULT NULL COMMENT '封面压缩图URL' AFTER `cover_thumb`;
@@ -0,0 +1,124 @@
+package com.eat2fit.diet.service.impl;
+
+import com.baomidou.mybatisplus.extension.spring.MybatisSqlSessionFactoryBean;
+import com.eat2fit.common.cache.TwoLevelCacheManager;
+import com.eat2fit.common.config.CacheProperties;
+import com.eat2fit.common.page.CursorPage;
+import com.eat2fit.common.sql.SqlBudgetExceededException;
+import com.eat2fit.common.sql.SqlRequestStats;
+import com.eat2fit.common.sql.SqlStatsContext;
+import com.eat2fit.common.sql.SqlStatsInterceptor;
+import com.eat2fit.diet.service.UserRecipeFavoriteService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.annotation.MapperScan;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 收藏列表的SQL预算：不论一页有多少条收藏，都只执行固定条数的SQL
+ * <p>
+ * 食谱先查两级缓存，每个测试使用新的上下文，从空缓存开始
+ */
+@SpringJUnitConfig(UserRecipeFavoriteSqlBudgetTest.TestConfig.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class UserRecipeFavoriteSqlBudgetTest {
+
+    private static final long USER_ID = 100L;
+
+    @Autowired
+    private UserRecipeFavoriteService favoriteService;
+
+    @Test
+    void favoriteRecipesDoNotQueryPerRow() {
+        SqlRequestStats stats = SqlStatsContext.measure(() -> {
+            CursorPage<Map<String, Object>> page = favoriteService.cursorFavoriteRecipes(USER_ID, null, 10, false);
+            assertEquals(5, page.getRecords().size());
+            assertTrue(page.getRecords().stream().allMatch(record -> record.get("recipe") != null));
+        });
+
+        // 一条查收藏，一条IN查询食谱
+        assertEquals(2, stats.getStatements());
+        stats.getShapes().values().forEach(shape ->
+                assertEquals(1, shape.getCount(), "重复执行的SQL: " + shape.getStatementId()));
+    }
+
+    @Test
+    void cachedRecipesAreNotQueriedAgain() {
+        favoriteService.cursorFavoriteRecipes(USER_ID, null, 10, false);
+
+        SqlRequestStats stats = SqlStatsContext.measure(() ->
+                assertEquals(5, favoriteService.cursorFavoriteRecipes(USER_ID, null, 10, false).getRecords().size()));
+
+        // 只查收藏，食谱全部来自缓存
+        assertEquals(1, stats.getStatements());
+    }
+
+    @Test
+    void exceedingBudgetFailsTheCall() {
+        SqlStatsContext.begin(new SqlRequestStats("favoriteRecipes", 1, -1, true));
+        try {
+            RuntimeException e = assertThrows(RuntimeException.class,
+                    () -> favoriteService.cursorFavoriteRecipes(USER_ID, null, 10, false));
+            assertTrue(rootCause(e) instanceof SqlBudgetExceededException, e.toString());
+        } finally {
+            SqlStatsContext.end();
+        }
+    }
+
+    private static Throwable rootCause(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    @Configuration
+    @MapperScan("com.eat2fit.diet.mapper")
+    @Import({UserRecipeFavoriteServiceImpl.class, RecipeServiceImpl.class})
+    static class TestConfig {
+
+        @Bean
+        public DataSource dataSource() {
+            return new EmbeddedDatabaseBuilder()
+                    .setType(EmbeddedDatabaseType.H2)
+                    .generateUniqueName(true)
+                    .addScript("classpath:sql/favorite-schema.sql")
+                    .build();
+        }
+
+        @Bean
+        public SqlSessionFactory sqlSessionFactory(DataSource dataSource) throws Exception {
+            MybatisSqlSessionFactoryBean factoryBean = new MybatisSqlSessionFactoryBean();
+            factoryBean.setDataSource(dataSource);
+            factoryBean.setPlugins(new Interceptor[]{new SqlStatsInterceptor()});
+            return factoryBean.getObject();
+        }
+
+        @Bean
+        public ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+
+        @Bean(destroyMethod = "shutdown")
+        public TwoLevelCacheManager twoLevelCacheManager(ObjectMapper objectMapper) {
+            return new TwoLevelCacheManager(new CacheProperties(), null, objectMapper);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+-- SQL预算测试用的表结构，列与 db.sql 一致
+CREATE TABLE recipe
+(
+    id           bigint       NOT NULL AUTO_INCREMENT,
+    title        varchar(100) NOT NULL,
+    description  text,
+    cover_img    varchar(255),
+    cover_thumb  varchar(255),
+    cover_large  varchar(255),
+    prep_time    int,
+    cook_time    int,
+    servings     int,
+    calories     int,
+    protein      decimal(6, 2),
+    fat          decimal(6, 2),
+    carbs        decimal(6, 2),
+    meal_type    varchar(50),
+    tags         varchar(255),
+    fitness_goal int,
+    difficulty   int,
+    steps        text,
+    author_id    bigint,
+    author_name  varchar(50),
+    view_count   bigint       NOT NULL DEFAULT 0,
+    like_count   bigint       NOT NULL DEFAULT 0,
+    status       int          NOT NULL DEFAULT 1,
+    create_time  datetime     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    update_time  datetime     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE user_recipe_favorite
+(
+    id          bigint   NOT NULL AUTO_INCREMENT,
+    user_id     bigint   NOT NULL,
+    recipe_id   bigint   NOT NULL,
+    create_time datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO recipe (id, title, status, create_time) VALUES
+    (1, '鸡胸肉沙拉', 1, '2024-01-01 10:00:00'),
+    (2, '燕麦牛奶', 1, '2024-01-02 10:00:00'),
+    (3, '清蒸鲈鱼', 1, '2024-01-03 10:00:00'),
+    (4, '牛肉西兰花', 1, '2024-01-04 10:00:00'),
+    (5, '虾仁炒蛋', 1, '2024-01-05 10:00:00');
+
+INSERT INTO user_recipe_favorite (user_id, recipe_id, create_time) VALUES
+    (100, 1, '2024-02-01 10:00:00'),
+    (100, 2, '2024-02-02 10:00:00'),
+    (100, 3, '2024-02-03 10:00:00'),
+    (100, 4, '2024-02-04 10:00:00'),
+    (100, 5, '2024-02-05 10:00:00');
@@ -10,7 +10,7 @@ import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
  */
 @SpringBootApplication(scanBasePackages = {"com.eat2fit.fitness", "com.eat2fit.common"})
 @EnableDiscoveryClient
-@MapperScan("com.eat2fit.fitness.mapper")
+@MapperScan({"com.eat2fit.fitness.mapper", "com.eat2fit.common.storage.mapper"})
 
 public class FitnessApplication {
 
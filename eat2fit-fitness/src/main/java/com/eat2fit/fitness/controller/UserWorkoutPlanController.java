@@ -3,7 +3,11 @@ package com.eat2fit.fitness.controller;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.eat2fit.common.exception.BusinessException;
 import com.eat2fit.common.exception.ErrorCode;
+import com.eat2fit.common.page.CursorPage;
 import com.eat2fit.common.response.Result;
+import com.eat2fit.fitness.converter.CourseConverter;
+import com.eat2fit.fitness.converter.PlanConverter;
+import com.eat2fit.fitness.converter.UserPlanConverter;
 import com.eat2fit.fitness.dto.UserPlanDTO;
 import com.eat2fit.fitness.entity.UserWorkoutPlan;
 import com.eat2fit.fitness.entity.WorkoutPlan;
@@ -18,7 +22,6 @@ import com.eat2fit.fitness.vo.UserPlanVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 import com.eat2fit.common.util.UserContext;
@@ -45,6 +48,15 @@ public class UserWorkoutPlanController {
     
     @Autowired
     private WorkoutCourseService courseService;
+    
+    @Autowired
+    private UserPlanConverter userPlanConverter;
+    
+    @Autowired
+    private PlanConverter planConverter;
+    
+    @Autowired
+    private CourseConverter courseConverter;
 
     @GetMapping("/list")
     @Operation(summary = "用户计划列表", description = "获取用户的训练计划列表")
@@ -63,45 +75,28 @@ public class UserWorkoutPlanController {
         Page<Map<String, Object>> originPage = userPlanService.getUserPlanList(userId, status, page);
         
         // 转换为VO
-        Page<UserPlanVO> resultPage = new Page<>();
-        BeanUtils.copyProperties(originPage, resultPage, "records");
+        Page<UserPlanVO> resultPage = new Page<>(originPage.getCurrent(), originPage.getSize(), originPage.getTotal());
+        resultPage.setRecords(toUserPlanVOList(originPage.getRecords()));
         
-        List<UserPlanVO> voList = new ArrayList<>();
-        for (Map<String, Object> item : originPage.getRecords()) {
-            UserWorkoutPlan userPlan = (UserWorkoutPlan) item.get("userPlan");
-            WorkoutPlan plan = (WorkoutPlan) item.get("plan");
-            
-            UserPlanVO vo = new UserPlanVO();
-            BeanUtils.copyProperties(userPlan, vo);
-            
-            // 设置计划信息
-            if (plan != null) {
-                PlanVO planVO = new PlanVO();
-                BeanUtils.copyProperties(plan, planVO);
-                setDifficultyAndGoalText(planVO);
-                
-                // 计算总训练天数
-                if (plan.getDurationWeeks() != null && plan.getSessionsPerWeek() != null) {
-                    planVO.setTotalDays(plan.getDurationWeeks() * plan.getSessionsPerWeek());
-                }
-                
-                vo.setPlan(planVO);
-            }
-            
-            // 设置状态文本
-            setStatusText(vo);
-            
-            // 格式化进度百分比
-            if (vo.getCompletionRate() != null) {
-                vo.setProgressPercent(vo.getCompletionRate().multiply(new BigDecimal(100))
-                        .setScale(0, RoundingMode.DOWN) + "%");
-            }
-            
-            voList.add(vo);
+        return Result.success(resultPage);
+    }
+
+    @GetMapping("/cursor")
+    @Operation(summary = "用户计划列表（游标分页）", description = "按创建时间倒序的游标分页，下一页带上返回的nextCursor")
+    public Result<CursorPage<UserPlanVO>> cursorUserPlanList(
+            @Parameter(description = "计划状态") @RequestParam(required = false) Integer status,
+            @Parameter(description = "上一页返回的游标") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页大小") @RequestParam(defaultValue = "10") Integer size,
+            @Parameter(description = "是否返回总数") @RequestParam(defaultValue = "false") Boolean withTotal) {
+        
+        // 从UserContext获取用户ID
+        Long userId = UserContext.getUser();
+        if (userId == null) {
+            return Result.failed("用户未登录");
         }
-        resultPage.setRecords(voList);
         
-        return Result.success(resultPage);
+        CursorPage<Map<String, Object>> page = userPlanService.cursorUserPlanList(userId, status, cursor, size, withTotal);
+        return Result.success(page.convert(this::toUserPlanVOList));
     }
 
     @PostMapping("/choose")
@@ -138,14 +133,11 @@ public class UserWorkoutPlanController {
         @SuppressWarnings("unchecked")
         List<WorkoutPlanDetail> planDetails = (List<WorkoutPlanDetail>) planInfo.get("planDetails");
         
-        UserPlanVO vo = new UserPlanVO();
-        BeanUtils.copyProperties(userPlan, vo);
+        UserPlanVO vo = userPlanConverter.toVO(userPlan);
         
         // 设置计划信息
         if (plan != null) {
-            PlanVO planVO = new PlanVO();
-            BeanUtils.copyProperties(plan, planVO);
-            setDifficultyAndGoalText(planVO);
+            PlanVO planVO = planConverter.toVO(plan);
             
             // 计算总训练天数
             if (plan.getDurationWeeks() != null && plan.getSessionsPerWeek() != null) {
@@ -179,7 +171,7 @@ public class UserWorkoutPlanController {
         }
         
         // 验证用户计划属于当前登录用户
-        UserWorkoutPlan userPlan = userPlanService.getById(userPlanId);
+        UserWorkoutPlan userPlan = userPlanService.getUserPlan(userPlanId);
         if (userPlan == null || !userPlan.getUserId().equals(userId)) {
             return Result.failed(ErrorCode.FITNESS_PLAN_NO_ACCESS.getCode(), ErrorCode.FITNESS_PLAN_NO_ACCESS.getMessage());
         }
@@ -195,15 +187,13 @@ public class UserWorkoutPlanController {
                 return Result.failed("今日没有训练安排");
             }
             
-            PlanDetailVO vo = new PlanDetailVO();
-            BeanUtils.copyProperties(todayWorkout, vo);
+            PlanDetailVO vo = planConverter.toDetailVO(todayWorkout);
             
             // 如果有关联课程，获取课程信息
             if (todayWorkout.getCourseId() != null) {
                 var course = courseService.getById(todayWorkout.getCourseId());
                 if (course != null) {
-                    CourseVO courseVO = new CourseVO();
-                    BeanUtils.copyProperties(course, courseVO);
+                    CourseVO courseVO = courseConverter.toVO(course);
                     vo.setCourse(courseVO);
                 }
             }
@@ -229,7 +219,7 @@ public class UserWorkoutPlanController {
         }
         
         // 验证用户计划属于当前登录用户
-        UserWorkoutPlan userPlan = userPlanService.getById(userPlanId);
+        UserWorkoutPlan userPlan = userPlanService.getUserPlan(userPlanId);
         if (userPlan == null || !userPlan.getUserId().equals(userId)) {
             return Result.failed(ErrorCode.FITNESS_PLAN_NO_ACCESS.getCode(), ErrorCode.FITNESS_PLAN_NO_ACCESS.getMessage());
         }
@@ -250,7 +240,7 @@ public class UserWorkoutPlanController {
         }
         
         // 验证用户计划属于当前登录用户
-        UserWorkoutPlan userPlan = userPlanService.getById(userPlanId);
+        UserWorkoutPlan userPlan = userPlanService.getUserPlan(userPlanId);
         if (userPlan == null || !userPlan.getUserId().equals(userId)) {
             return Result.failed(ErrorCode.FITNESS_PLAN_NO_ACCESS.getCode(), ErrorCode.FITNESS_PLAN_NO_ACCESS.getMessage());
         }
@@ -271,7 +261,7 @@ public class UserWorkoutPlanController {
         }
         
         // 验证用户计划属于当前登录用户
-        UserWorkoutPlan userPlan = userPlanService.getById(userPlanId);
+        UserWorkoutPlan userPlan = userPlanService.getUserPlan(userPlanId);
         if (userPlan == null || !userPlan.getUserId().equals(userId)) {
             return Result.failed(ErrorCode.FITNESS_PLAN_NO_ACCESS.getCode(), ErrorCode.FITNESS_PLAN_NO_ACCESS.getMessage());
         }
@@ -292,7 +282,7 @@ public class UserWorkoutPlanController {
         }
         
         // 验证用户计划属于当前登录用户
-        UserWorkoutPlan userPlan = userPlanService.getById(userPlanId);
+        UserWorkoutPlan userPlan = userPlanService.getUserPlan(userPlanId);
         if (userPlan == null || !userPlan.getUserId().equals(userId)) {
             return Result.failed(ErrorCode.FITNESS_PLAN_NO_ACCESS.getCode(), ErrorCode.FITNESS_PLAN_NO_ACCESS.getMessage());
         }
@@ -316,47 +306,6 @@ public class UserWorkoutPlanController {
         }
     }
     
-    /**
-     * 设置难度和目标的文本描述
-     */
-    private void setDifficultyAndGoalText(PlanVO vo) {
-        // 设置难度文本
-        if (vo.getDifficulty() != null) {
-            switch (vo.getDifficulty()) {
-                case 1:
-                    vo.setDifficultyText("初级");
-                    break;
-                case 2:
-                    vo.setDifficultyText("中级");
-                    break;
-                case 3:
-                    vo.setDifficultyText("高级");
-                    break;
-                default:
-                    vo.setDifficultyText("未知");
-            }
-        }
-        
-        // 设置目标文本
-        if (vo.getFitnessGoal() != null) {
-            switch (vo.getFitnessGoal()) {
-                case 1:
-                    vo.setFitnessGoalText("增肌");
-                    break;
-                case 2:
-                    vo.setFitnessGoalText("减脂");
-                    break;
-                case 3:
-                    vo.setFitnessGoalText("塑形");
-                    break;
-                case 4:
-                    vo.setFitnessGoalText("维持");
-                    break;
-                default:
-                    vo.setFitnessGoalText("未知");
-            }
-        }
-    }
     
     /**
      * 设置状态文本
@@ -378,4 +327,41 @@ public class UserWorkoutPlanController {
             }
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * 转换用户计划列表VO
+     */
+    private List<UserPlanVO> toUserPlanVOList(List<Map<String, Object>> records) {
+        List<UserPlanVO> voList = new ArrayList<>();
+        for (Map<String, Object> item : records) {
+            UserWorkoutPlan userPlan = (UserWorkoutPlan) item.get("userPlan");
+            WorkoutPlan plan = (WorkoutPlan) item.get("plan");
+            
+            UserPlanVO vo = userPlanConverter.toVO(userPlan);
+            
+            // 设置计划信息
+            if (plan != null) {
+                PlanVO planVO = planConverter.toVO(plan);
+                
+                // 计算总训练天数
+                if (plan.getDurationWeeks() != null && plan.getSessionsPerWeek() != null) {
+                    planVO.setTotalDays(plan.getDurationWeeks() * plan.getSessionsPerWeek());
+                }
+                
+                vo.setPlan(planVO);
+            }
+            
+            // 设置状态文本
+            setStatusText(vo);
+            
+            // 格式化进度百分比
+            if (vo.getCompletionRate() != null) {
+                vo.setProgressPercent(vo.getCompletionRate().multiply(new BigDecimal(100))
+                        .setScale(0, RoundingMode.DOWN) + "%");
+            }
+            
+            voList.add(vo);
+        }
+        return voList;
+    }
+}
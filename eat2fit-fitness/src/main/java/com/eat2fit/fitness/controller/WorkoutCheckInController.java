@@ -2,19 +2,23 @@ package com.eat2fit.fitness.controller;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.eat2fit.common.exception.BusinessException;
+import com.eat2fit.common.page.CursorPage;
 import com.eat2fit.common.response.Result;
+import com.eat2fit.common.storage.ContentAddressedUploader;
+import com.eat2fit.common.storage.ObjectStorage;
 import com.eat2fit.fitness.entity.WorkoutCheckIn;
 import com.eat2fit.fitness.service.WorkoutCheckInService;
 import com.eat2fit.common.util.UserContext;
-import com.eat2fit.common.util.AliyunOSSOperator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -32,7 +36,10 @@ public class WorkoutCheckInController {
     private WorkoutCheckInService checkInService;
     
     @Autowired
-    private AliyunOSSOperator aliyunOSSOperator;
+    private ObjectProvider<ContentAddressedUploader> uploader;
+    
+    @Autowired
+    private ObjectStorage objectStorage;
 
     @PostMapping
     @Operation(summary = "训练打卡", description = "用户训练打卡记录")
@@ -76,8 +83,8 @@ public class WorkoutCheckInController {
                 return Result.failed("只能上传图片文件");
             }
             
-            // 使用AliyunOSSOperator上传图片
-            String imageUrl = aliyunOSSOperator.upload(file.getBytes(), file.getOriginalFilename());
+            // 上传图片到对象存储
+            String imageUrl = upload(file);
             
             return Result.success(imageUrl);
         } catch (Exception e) {
@@ -106,8 +113,8 @@ public class WorkoutCheckInController {
                     // 检查文件类型
                     String contentType = file.getContentType();
                     if (contentType != null && contentType.startsWith("image/")) {
-                        // 使用AliyunOSSOperator上传图片
-                        String imageUrl = aliyunOSSOperator.upload(file.getBytes(), file.getOriginalFilename());
+                        // 上传图片到对象存储
+                        String imageUrl = upload(file);
                         imageUrls.add(imageUrl);
                     }
                 }
@@ -141,6 +148,26 @@ public class WorkoutCheckInController {
         return Result.success(page);
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "打卡记录（游标分页）", description = "按打卡日期倒序的游标分页，下一页带上返回的nextCursor")
+    public Result<CursorPage<WorkoutCheckIn>> cursorCheckInList(
+            @Parameter(description = "开始日期") @RequestParam(required = false) 
+                @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+            @Parameter(description = "结束日期") @RequestParam(required = false) 
+                @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate,
+            @Parameter(description = "上一页返回的游标") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页大小") @RequestParam(defaultValue = "10") Integer size,
+            @Parameter(description = "是否返回总数") @RequestParam(defaultValue = "false") Boolean withTotal) {
+        
+        // 从UserContext获取用户ID
+        Long userId = UserContext.getUser();
+        if (userId == null) {
+            return Result.failed("用户未登录");
+        }
+        
+        return Result.success(checkInService.cursorUserCheckIns(userId, startDate, endDate, cursor, size, withTotal));
+    }
+
     @GetMapping("/stats")
     @Operation(summary = "打卡统计", description = "获取用户的训练打卡统计信息")
     public Result<Map<String, Object>> getCheckInStats() {
@@ -169,4 +196,12 @@ public class WorkoutCheckInController {
         boolean checked = checkInService.hasCheckedInToday(userId, userPlanId);
         return Result.success(checked);
     }
+
+    /**
+     * 上传文件，开启上传去重时相同内容只保存一份
+     */
+    private String upload(MultipartFile file) throws IOException {
+        ContentAddressedUploader contentAddressedUploader = uploader.getIfAvailable();
+        return contentAddressedUploader != null ? contentAddressedUploader.upload(file) : objectStorage.upload(file);
+    }
 } 
\ No newline at end of file
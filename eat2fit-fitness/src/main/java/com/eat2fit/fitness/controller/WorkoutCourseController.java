@@ -1,8 +1,16 @@
 package com.eat2fit.fitness.controller;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.eat2fit.common.exception.BusinessException;
+import com.eat2fit.common.page.CursorPage;
 import com.eat2fit.common.response.Result;
-import com.eat2fit.common.util.AliyunOSSOperator;
+import com.eat2fit.common.storage.ChunkedUpload;
+import com.eat2fit.common.storage.ChunkedUploadStore;
+import com.eat2fit.common.storage.ContentAddressedUploader;
+import com.eat2fit.common.storage.LocalFileStreamer;
+import com.eat2fit.common.storage.LocalObjectStorage;
+import com.eat2fit.common.storage.ObjectStorage;
+import com.eat2fit.fitness.converter.CourseConverter;
 import com.eat2fit.fitness.dto.CourseQueryDTO;
 import com.eat2fit.fitness.entity.WorkoutCourse;
 import com.eat2fit.fitness.service.UserFavoriteService;
@@ -11,13 +19,19 @@ import com.eat2fit.fitness.vo.CourseVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 import com.eat2fit.common.util.UserContext;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -37,7 +51,16 @@ public class WorkoutCourseController {
     private UserFavoriteService favoriteService;
     
     @Autowired
-    private AliyunOSSOperator aliyunOSSOperator;
+    private ObjectProvider<ContentAddressedUploader> uploader;
+    
+    @Autowired
+    private ObjectProvider<ChunkedUploadStore> chunkedUploads;
+    
+    @Autowired
+    private ObjectStorage objectStorage;
+    
+    @Autowired
+    private CourseConverter courseConverter;
 
     @GetMapping("/page")
     @Operation(summary = "分页查询课程", description = "根据条件分页查询课程列表")
@@ -46,15 +69,11 @@ public class WorkoutCourseController {
         page = courseService.pageList(page, queryDTO.getFitnessGoal(), queryDTO.getDifficulty(), queryDTO.getKeyword());
         
         // 转换为VO
-        Page<CourseVO> resultPage = new Page<>();
-        BeanUtils.copyProperties(page, resultPage, "records");
+        Page<CourseVO> resultPage = new Page<>(page.getCurrent(), page.getSize(), page.getTotal());
         
         List<CourseVO> voList = new ArrayList<>();
         for (WorkoutCourse course : page.getRecords()) {
-            CourseVO vo = new CourseVO();
-            BeanUtils.copyProperties(course, vo);
-            // 设置文本描述
-            setDifficultyAndGoalText(vo);
+            CourseVO vo = courseConverter.toVO(course);
             voList.add(vo);
         }
         resultPage.setRecords(voList);
@@ -62,6 +81,15 @@ public class WorkoutCourseController {
         return Result.success(resultPage);
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "游标分页查询课程", description = "按创建时间倒序的游标分页，下一页带上返回的nextCursor")
+    public Result<CursorPage<CourseVO>> cursorList(@Parameter(description = "查询参数") CourseQueryDTO queryDTO) {
+        CursorPage<WorkoutCourse> page = courseService.cursorList(queryDTO.getCursor(), queryDTO.getSize(),
+                Boolean.TRUE.equals(queryDTO.getWithTotal()), queryDTO.getFitnessGoal(),
+                queryDTO.getDifficulty(), queryDTO.getKeyword());
+        return Result.success(page.convert(courseConverter::toVOList));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "获取课程详情", description = "根据ID获取课程详情")
     public Result<CourseVO> getDetail(
@@ -72,22 +100,46 @@ public class WorkoutCourseController {
             return Result.failed("课程不存在");
         }
         
-        // 增加观看次数
-        courseService.increaseViewCount(id);
+        // 转换为VO，观看次数由 /view/{id} 单独记录
+        CourseVO vo = courseConverter.toVO(course);
         
-        // 转换为VO
-        CourseVO vo = new CourseVO();
-        BeanUtils.copyProperties(course, vo);
-        setDifficultyAndGoalText(vo);
+        // 详情在网关按ID合并，不含当前用户的收藏状态，前端通过 /fitness/favorites/check 查询
+        return Result.success(vo);
+    }
+
+    @GetMapping("/{id}/video")
+    @Operation(summary = "播放课程视频", description = "支持Range分段请求，用于拖动播放；使用OSS存储时重定向到视频地址")
+    public void streamVideo(
+            @Parameter(description = "课程ID") @PathVariable Long id,
+            HttpServletRequest request, HttpServletResponse response) throws Exception {
+        // 拖动播放时每个分段请求都会调用，视频地址走缓存
+        String videoUrl = courseService.getVideoUrl(id);
+        if (videoUrl == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
         
-        // 从UserContext获取用户ID并设置是否已收藏
-        Long userId = UserContext.getUser();
-        if (userId != null) {
-            boolean isFavorite = favoriteService.isFavorite(userId, 1, id);
-            vo.setIsFavorite(isFavorite);
+        // OSS本身支持Range，直接重定向；本地存储由本服务零拷贝发送
+        String key = objectStorage.keyOf(videoUrl);
+        if (!(objectStorage instanceof LocalObjectStorage localStorage) || key == null) {
+            response.sendRedirect(videoUrl);
+            return;
+        }
+        Path file = localStorage.resolve(key);
+        if (!Files.isRegularFile(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
+        LocalFileStreamer.stream(request, response, file, null);
+    }
+
+    @PostMapping("/view/{id}")
+    @Operation(summary = "记录观看", description = "打开课程详情时调用，增加观看次数")
+    public Result<Boolean> viewCourse(
+            @Parameter(description = "课程ID") @PathVariable Long id) {
         
-        return Result.success(vo);
+        boolean result = courseService.increaseViewCount(id);
+        return Result.success(result);
     }
 
     @PostMapping("/like/{id}")
@@ -124,9 +176,7 @@ public class WorkoutCourseController {
         // 转换为VO
         List<CourseVO> voList = new ArrayList<>();
         for (WorkoutCourse course : page.getRecords()) {
-            CourseVO vo = new CourseVO();
-            BeanUtils.copyProperties(course, vo);
-            setDifficultyAndGoalText(vo);
+            CourseVO vo = courseConverter.toVO(course);
             
             // 设置是否已收藏
             boolean isFavorite = favoriteService.isFavorite(userId, 1, course.getId());
@@ -170,9 +220,9 @@ public class WorkoutCourseController {
     @Operation(summary = "上传封面图片", description = "上传训练课程封面图片")
     public Result<String> uploadCoverImage(MultipartFile file) throws Exception {
         log.info("上传课程封面图片: {}", file.getOriginalFilename());
-        // 上传文件到阿里云OSS
-        String fileUrl = aliyunOSSOperator.upload(file.getBytes(), file.getOriginalFilename());
-        log.info("上传封面图片成功，OSS URL: {}", fileUrl);
+        // 上传文件到对象存储
+        String fileUrl = upload(file);
+        log.info("上传封面图片成功，URL: {}", fileUrl);
         return Result.success(fileUrl);
     }
 
@@ -183,51 +233,102 @@ public class WorkoutCourseController {
     @Operation(summary = "上传课程视频", description = "上传训练课程视频")
     public Result<String> uploadVideo(MultipartFile file) throws Exception {
         log.info("上传课程视频: {}", file.getOriginalFilename());
-        // 上传文件到阿里云OSS
-        String fileUrl = aliyunOSSOperator.upload(file.getBytes(), file.getOriginalFilename());
-        log.info("上传视频成功，OSS URL: {}", fileUrl);
+        // 上传文件到对象存储
+        String fileUrl = upload(file);
+        log.info("上传视频成功，URL: {}", fileUrl);
         return Result.success(fileUrl);
     }
-    
+
     /**
-     * 设置难度和目标的文本描述
+     * 分片上传课程视频：先调用 init 得到上传ID和分片大小，再逐个上传分片，最后调用 complete 合并。
+     * 连接中断后用状态接口查询已上传的分片，只补传缺少的分片
      */
-    private void setDifficultyAndGoalText(CourseVO vo) {
-        // 设置难度文本
-        if (vo.getDifficulty() != null) {
-            switch (vo.getDifficulty()) {
-                case 1:
-                    vo.setDifficultyText("初级");
-                    break;
-                case 2:
-                    vo.setDifficultyText("中级");
-                    break;
-                case 3:
-                    vo.setDifficultyText("高级");
-                    break;
-                default:
-                    vo.setDifficultyText("未知");
-            }
+    @PostMapping("/upload/video/init")
+    @Operation(summary = "发起分片上传", description = "发起课程视频的分片上传，返回上传ID、分片大小和分片数")
+    public Result<ChunkedUpload> initVideoUpload(
+            @Parameter(description = "文件名") @RequestParam String filename,
+            @Parameter(description = "文件大小(字节)") @RequestParam Long size,
+            @Parameter(description = "内容类型") @RequestParam String contentType) throws Exception {
+        Long userId = UserContext.getUser();
+        if (userId == null) {
+            return Result.failed("用户未登录");
         }
-        
-        // 设置目标文本
-        if (vo.getFitnessGoal() != null) {
-            switch (vo.getFitnessGoal()) {
-                case 1:
-                    vo.setFitnessGoalText("增肌");
-                    break;
-                case 2:
-                    vo.setFitnessGoalText("减脂");
-                    break;
-                case 3:
-                    vo.setFitnessGoalText("塑形");
-                    break;
-                case 4:
-                    vo.setFitnessGoalText("维持");
-                    break;
-                default:
-                    vo.setFitnessGoalText("未知");
-            }
+        if (!contentType.startsWith("video/")) {
+            return Result.failed("只能上传视频文件");
         }
+        return Result.success(chunkedUploads().init(userId, filename, size, contentType));
+    }
+    
+    @PutMapping(value = "/upload/video/{uploadId}/chunks/{index}", consumes = "application/octet-stream")
+    @Operation(summary = "上传分片", description = "请求体为分片的原始内容，checksum为分片内容的SHA-256；重复上传同一分片会覆盖")
+    public Result<Void> uploadVideoChunk(
+            @Parameter(description = "上传ID") @PathVariable String uploadId,
+            @Parameter(description = "分片序号，从0开始") @PathVariable Integer index,
+            @Parameter(description = "分片内容的SHA-256，十六进制") @RequestParam String checksum,
+            InputStream body) throws Exception {
+        Long userId = UserContext.getUser();
+        if (userId == null) {
+            return Result.failed("用户未登录");
+        }
+        chunkedUploads().writeChunk(uploadId, userId, index, body, checksum);
+        return Result.success();
+    }
+    
+    @GetMapping("/upload/video/{uploadId}")
+    @Operation(summary = "分片上传状态", description = "返回已上传的分片序号，合并完成后返回访问地址")
+    public Result<ChunkedUpload> getVideoUploadStatus(
+            @Parameter(description = "上传ID") @PathVariable String uploadId) throws Exception {
+        Long userId = UserContext.getUser();
+        if (userId == null) {
+            return Result.failed("用户未登录");
+        }
+        return Result.success(chunkedUploads().status(uploadId, userId));
+    }
+    
+    @PostMapping("/upload/video/{uploadId}/complete")
+    @Operation(summary = "完成分片上传", description = "所有分片上传后合并并保存到对象存储，返回访问地址")
+    public Result<String> completeVideoUpload(
+            @Parameter(description = "上传ID") @PathVariable String uploadId) throws Exception {
+        Long userId = UserContext.getUser();
+        if (userId == null) {
+            return Result.failed("用户未登录");
+        }
+        ContentAddressedUploader contentAddressedUploader = uploader.getIfAvailable();
+        String fileUrl = chunkedUploads().complete(uploadId, userId, (upload, chunks) -> contentAddressedUploader != null
+                ? contentAddressedUploader.upload(chunks, upload.getFilename(), upload.getContentType())
+                : objectStorage.upload(chunks, upload.getFilename(), upload.getContentType()));
+        log.info("分片上传视频成功，URL: {}", fileUrl);
+        return Result.success(fileUrl);
+    }
+    
+    @DeleteMapping("/upload/video/{uploadId}")
+    @Operation(summary = "取消分片上传", description = "删除已上传的分片")
+    public Result<Void> abortVideoUpload(
+            @Parameter(description = "上传ID") @PathVariable String uploadId) throws Exception {
+        Long userId = UserContext.getUser();
+        if (userId == null) {
+            return Result.failed("用户未登录");
+        }
+        chunkedUploads().abort(uploadId, userId);
+        return Result.success();
+    }
+
+    /**
+     * 分片上传按配置开启，未开启时返回业务错误
+     */
+    private ChunkedUploadStore chunkedUploads() {
+        ChunkedUploadStore store = chunkedUploads.getIfAvailable();
+        if (store == null) {
+            throw new BusinessException("分片上传未开启");
+        }
+        return store;
+    }
+
+    /**
+     * 上传文件，开启上传去重时相同内容只保存一份
+     */
+    private String upload(MultipartFile file) throws IOException {
+        ContentAddressedUploader contentAddressedUploader = uploader.getIfAvailable();
+        return contentAddressedUploader != null ? contentAddressedUploader.upload(file) : objectStorage.upload(file);
     }
 } 
\ No newline at end of file
@@ -2,11 +2,16 @@ package com.eat2fit.fitness.controller;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.eat2fit.common.page.CursorPage;
 import com.eat2fit.common.response.Result;
-import com.eat2fit.common.util.AliyunOSSOperator;
+import com.eat2fit.common.storage.ContentAddressedUploader;
+import com.eat2fit.common.storage.ObjectStorage;
+import com.eat2fit.fitness.converter.CourseConverter;
+import com.eat2fit.fitness.converter.PlanConverter;
 import com.eat2fit.common.util.UserContext;
 import com.eat2fit.fitness.dto.PlanCreateDTO;
 import com.eat2fit.fitness.dto.PlanQueryDTO;
+import com.eat2fit.fitness.entity.WorkoutCourse;
 import com.eat2fit.fitness.entity.WorkoutPlan;
 import com.eat2fit.fitness.entity.WorkoutPlanDetail;
 import com.eat2fit.fitness.service.UserFavoriteService;
@@ -18,16 +23,19 @@ import com.eat2fit.fitness.vo.PlanVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.Objects;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -49,7 +57,16 @@ public class WorkoutPlanController {
     private WorkoutCourseService courseService;
     
     @Autowired
-    private AliyunOSSOperator aliyunOSSOperator;
+    private ObjectProvider<ContentAddressedUploader> uploader;
+    
+    @Autowired
+    private ObjectStorage objectStorage;
+    
+    @Autowired
+    private PlanConverter planConverter;
+    
+    @Autowired
+    private CourseConverter courseConverter;
 
     @GetMapping("/page")
     @Operation(summary = "分页查询计划", description = "根据条件分页查询训练计划列表")
@@ -58,43 +75,33 @@ public class WorkoutPlanController {
         page = planService.pageList(page, queryDTO.getFitnessGoal(), queryDTO.getDifficulty(), queryDTO.getKeyword());
         
         // 转换为VO
-        Page<PlanVO> resultPage = new Page<>();
-        BeanUtils.copyProperties(page, resultPage, "records");
-        
-        List<PlanVO> voList = new ArrayList<>();
-        for (WorkoutPlan plan : page.getRecords()) {
-            PlanVO vo = new PlanVO();
-            BeanUtils.copyProperties(plan, vo);
-            
-            // 设置文本描述
-            setDifficultyAndGoalText(vo);
-            
-            // 计算总训练天数
-            if (plan.getDurationWeeks() != null && plan.getSessionsPerWeek() != null) {
-                vo.setTotalDays(plan.getDurationWeeks() * plan.getSessionsPerWeek());
-            }
-            
-            voList.add(vo);
-        }
-        resultPage.setRecords(voList);
+        Page<PlanVO> resultPage = new Page<>(page.getCurrent(), page.getSize(), page.getTotal());
+        resultPage.setRecords(toVOList(page.getRecords()));
         
         return Result.success(resultPage);
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "游标分页查询计划", description = "按创建时间倒序的游标分页，下一页带上返回的nextCursor")
+    public Result<CursorPage<PlanVO>> cursorList(@Parameter(description = "查询参数") PlanQueryDTO queryDTO) {
+        CursorPage<WorkoutPlan> page = planService.cursorList(queryDTO.getCursor(), queryDTO.getSize(),
+                Boolean.TRUE.equals(queryDTO.getWithTotal()), queryDTO.getFitnessGoal(),
+                queryDTO.getDifficulty(), queryDTO.getKeyword());
+        return Result.success(page.convert(this::toVOList));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "获取计划详情", description = "根据ID获取计划详情")
     public Result<PlanVO> getDetail(
             @Parameter(description = "计划ID") @PathVariable Long id) {
         
-        WorkoutPlan plan = planService.getById(id);
+        WorkoutPlan plan = planService.getPlan(id);
         if (plan == null) {
             return Result.failed("计划不存在");
         }
         
         // 转换为VO
-        PlanVO vo = new PlanVO();
-        BeanUtils.copyProperties(plan, vo);
-        setDifficultyAndGoalText(vo);
+        PlanVO vo = planConverter.toVO(plan);
         
         // 计算总训练天数
         if (plan.getDurationWeeks() != null && plan.getSessionsPerWeek() != null) {
@@ -118,20 +125,23 @@ public class WorkoutPlanController {
         
         List<WorkoutPlanDetail> details = planService.getPlanDetails(id);
         
+        // 一次查询所有关联的课程
+        List<Long> courseIds = details.stream()
+                .map(WorkoutPlanDetail::getCourseId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        Map<Long, WorkoutCourse> courseMap = courseService.getCourseMap(courseIds);
+        
         // 转换为VO
         List<PlanDetailVO> voList = new ArrayList<>();
         for (WorkoutPlanDetail detail : details) {
-            PlanDetailVO vo = new PlanDetailVO();
-            BeanUtils.copyProperties(detail, vo);
+            PlanDetailVO vo = planConverter.toDetailVO(detail);
             
-            // 如果有关联课程，获取课程信息
-            if (detail.getCourseId() != null) {
-                var course = courseService.getById(detail.getCourseId());
-                if (course != null) {
-                    CourseVO courseVO = new CourseVO();
-                    BeanUtils.copyProperties(course, courseVO);
-                    vo.setCourse(courseVO);
-                }
+            // 如果有关联课程，设置课程信息
+            WorkoutCourse course = detail.getCourseId() == null ? null : courseMap.get(detail.getCourseId());
+            if (course != null) {
+                CourseVO courseVO = courseConverter.toVO(course);
+                vo.setCourse(courseVO);
             }
             
             voList.add(vo);
@@ -156,11 +166,7 @@ public class WorkoutPlanController {
         // 转换为VO
         List<PlanVO> voList = new ArrayList<>();
         for (WorkoutPlan plan : plans) {
-            PlanVO vo = new PlanVO();
-            BeanUtils.copyProperties(plan, vo);
-            
-            // 设置文本描述
-            setDifficultyAndGoalText(vo);
+            PlanVO vo = planConverter.toVO(plan);
             
             // 计算总训练天数
             if (plan.getDurationWeeks() != null && plan.getSessionsPerWeek() != null) {
@@ -204,8 +210,7 @@ public class WorkoutPlanController {
     @Operation(summary = "添加计划", description = "添加新的训练计划及其详情")
     public Result<Boolean> addPlan(@RequestBody PlanCreateDTO createDTO) {
         // DTO转实体
-        WorkoutPlan plan = new WorkoutPlan();
-        BeanUtils.copyProperties(createDTO, plan);
+        WorkoutPlan plan = planConverter.toEntity(createDTO);
         
         boolean result = planService.savePlanWithDetails(plan, createDTO.getDetails());
         return Result.success(result);
@@ -217,8 +222,7 @@ public class WorkoutPlanController {
             @Parameter(description = "计划ID") @PathVariable Long id,
             @RequestBody PlanCreateDTO createDTO) {
         
-        WorkoutPlan plan = new WorkoutPlan();
-        BeanUtils.copyProperties(createDTO, plan);
+        WorkoutPlan plan = planConverter.toEntity(createDTO);
         plan.setId(id);
         
         boolean result = planService.updatePlanWithDetails(plan, createDTO.getDetails());
@@ -232,47 +236,6 @@ public class WorkoutPlanController {
         return Result.success(removed);
     }
     
-    /**
-     * 设置难度和目标的文本描述
-     */
-    private void setDifficultyAndGoalText(PlanVO vo) {
-        // 设置难度文本
-        if (vo.getDifficulty() != null) {
-            switch (vo.getDifficulty()) {
-                case 1:
-                    vo.setDifficultyText("初级");
-                    break;
-                case 2:
-                    vo.setDifficultyText("中级");
-                    break;
-                case 3:
-                    vo.setDifficultyText("高级");
-                    break;
-                default:
-                    vo.setDifficultyText("未知");
-            }
-        }
-        
-        // 设置目标文本
-        if (vo.getFitnessGoal() != null) {
-            switch (vo.getFitnessGoal()) {
-                case 1:
-                    vo.setFitnessGoalText("增肌");
-                    break;
-                case 2:
-                    vo.setFitnessGoalText("减脂");
-                    break;
-                case 3:
-                    vo.setFitnessGoalText("塑形");
-                    break;
-                case 4:
-                    vo.setFitnessGoalText("维持");
-                    break;
-                default:
-                    vo.setFitnessGoalText("未知");
-            }
-        }
-    }
 
     /**
      * 上传计划封面图片
@@ -281,9 +244,35 @@ public class WorkoutPlanController {
     @Operation(summary = "上传封面图片", description = "上传训练计划封面图片")
     public Result<String> uploadCoverImage(MultipartFile file) throws Exception {
         log.info("上传计划封面图片: {}", file.getOriginalFilename());
-        // 上传文件到阿里云OSS
-        String fileUrl = aliyunOSSOperator.upload(file.getBytes(), file.getOriginalFilename());
-        log.info("上传封面图片成功，OSS URL: {}", fileUrl);
+        // 上传文件到对象存储
+        String fileUrl = upload(file);
+        log.info("上传封面图片成功，URL: {}", fileUrl);
         return Result.success(fileUrl);
     }
-} 
\ No newline at end of file
+
+    /**
+     * 转换为列表VO并计算总训练天数
+     */
+    private List<PlanVO> toVOList(List<WorkoutPlan> plans) {
+        List<PlanVO> voList = new ArrayList<>();
+        for (WorkoutPlan plan : plans) {
+            PlanVO vo = planConverter.toVO(plan);
+            
+            // 计算总训练天数
+            if (plan.getDurationWeeks() != null && plan.getSessionsPerWeek() != null) {
+                vo.setTotalDays(plan.getDurationWeeks() * plan.getSessionsPerWeek());
+            }
+            
+            voList.add(vo);
+        }
+        return voList;
+    }
+
+    /**
+     * 上传文件，开启上传去重时相同内容只保存一份
+     */
+    private String upload(MultipartFile file) throws IOException {
+        ContentAddressedUploader contentAddressedUploader = uploader.getIfAvailable();
+        return contentAddressedUploader != null ? contentAddressedUploader.upload(file) : objectStorage.upload(file);
+    }
+}
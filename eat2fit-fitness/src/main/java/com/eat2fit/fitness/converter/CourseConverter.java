@@ -0,0 +1,24 @@
+package com.eat2fit.fitness.converter;
+
+import com.eat2fit.fitness.entity.WorkoutCourse;
+import com.eat2fit.fitness.vo.CourseVO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.List;
+
+/**
+ * 课程对象转换器
+ * <p>
+ * 拷贝同名字段并填充难度、目标的文本描述，收藏状态由调用方填充
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface CourseConverter extends TrainingTextMapper {
+
+    @Mapping(target = "difficultyText", source = "difficulty", qualifiedByName = "difficultyText")
+    @Mapping(target = "fitnessGoalText", source = "fitnessGoal", qualifiedByName = "fitnessGoalText")
+    CourseVO toVO(WorkoutCourse course);
+
+    List<CourseVO> toVOList(List<WorkoutCourse> courses);
+}
@@ -0,0 +1,31 @@
+package com.eat2fit.fitness.converter;
+
+import com.eat2fit.fitness.dto.PlanCreateDTO;
+import com.eat2fit.fitness.entity.WorkoutPlan;
+import com.eat2fit.fitness.entity.WorkoutPlanDetail;
+import com.eat2fit.fitness.vo.PlanDetailVO;
+import com.eat2fit.fitness.vo.PlanVO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * 训练计划对象转换器
+ * <p>
+ * 由MapStruct在编译期生成实现，拷贝同名字段并填充难度、目标的文本描述，总天数、收藏状态等由调用方填充
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface PlanConverter extends TrainingTextMapper {
+
+    @Mapping(target = "difficultyText", source = "difficulty", qualifiedByName = "difficultyText")
+    @Mapping(target = "fitnessGoalText", source = "fitnessGoal", qualifiedByName = "fitnessGoalText")
+    PlanVO toVO(WorkoutPlan plan);
+
+    @Mapping(target = "course", ignore = true)
+    PlanDetailVO toDetailVO(WorkoutPlanDetail detail);
+
+    /**
+     * 计划详情单独保存，这里只转换计划本身
+     */
+    WorkoutPlan toEntity(PlanCreateDTO createDTO);
+}
@@ -0,0 +1,53 @@
+package com.eat2fit.fitness.converter;
+
+import org.mapstruct.Named;
+
+/**
+ * 课程和计划共用的难度、目标文本描述
+ * <p>
+ * 由 PlanConverter、CourseConverter 继承，在映射时通过 qualifiedByName 引用
+ */
+public interface TrainingTextMapper {
+
+    /**
+     * 难度文本
+     */
+    @Named("difficultyText")
+    default String difficultyText(Integer difficulty) {
+        if (difficulty == null) {
+            return null;
+        }
+        switch (difficulty) {
+            case 1:
+                return "初级";
+            case 2:
+                return "中级";
+            case 3:
+                return "高级";
+            default:
+                return "未知";
+        }
+    }
+
+    /**
+     * 健身目标文本
+     */
+    @Named("fitnessGoalText")
+    default String fitnessGoalText(Integer fitnessGoal) {
+        if (fitnessGoal == null) {
+            return null;
+        }
+        switch (fitnessGoal) {
+            case 1:
+                return "增肌";
+            case 2:
+                return "减脂";
+            case 3:
+                return "塑形";
+            case 4:
+                return "维持";
+            default:
+                return "未知";
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.eat2fit.fitness.converter;
+
+import com.eat2fit.fitness.entity.UserWorkoutPlan;
+import com.eat2fit.fitness.vo.UserPlanVO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * 用户训练计划对象转换器
+ * <p>
+ * 关联的计划、今日训练、进度和状态文本由调用方填充
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface UserPlanConverter {
+
+    @Mapping(target = "plan", ignore = true)
+    @Mapping(target = "todayWorkout", ignore = true)
+    UserPlanVO toVO(UserWorkoutPlan userPlan);
+}
@@ -16,6 +16,12 @@ public class CourseQueryDTO {
     @Schema(description = "每页大小", defaultValue = "10")
     private Integer size = 10;
 
+    @Schema(description = "游标分页时上一页返回的游标，第一页不传")
+    private String cursor;
+
+    @Schema(description = "游标分页时是否返回总数", defaultValue = "false")
+    private Boolean withTotal = false;
+
     @Schema(description = "健身目标 1:增肌 2:减脂 3:塑形 4:维持")
     private Integer fitnessGoal;
 
@@ -69,6 +69,16 @@ public class WorkoutCheckIn implements Serializable {
      */
     private String images;
 
+    /**
+     * 图片缩略图URL，与images一一对应，生成前为原图
+     */
+    private String thumbImages;
+
+    /**
+     * 图片压缩图URL，与images一一对应，生成前为原图
+     */
+    private String largeImages;
+
     /**
      * 创建时间
      */
@@ -2,6 +2,7 @@ package com.eat2fit.fitness.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.eat2fit.common.page.CursorPage;
 import com.eat2fit.fitness.entity.UserWorkoutPlan;
 import com.eat2fit.fitness.entity.WorkoutPlan;
 import com.eat2fit.fitness.entity.WorkoutPlanDetail;
@@ -23,6 +24,25 @@ public interface UserWorkoutPlanService extends IService<UserWorkoutPlan> {
      */
     Page<Map<String, Object>> getUserPlanList(Long userId, Integer status, Page<UserWorkoutPlan> page);
 
+    /**
+     * 游标分页获取用户计划列表，按创建时间倒序
+     * @param userId 用户ID
+     * @param status 状态
+     * @param cursor 上一页返回的游标，第一页为空
+     * @param size 每页大小
+     * @param withTotal 是否返回总数
+     * @return 分页结果
+     */
+    CursorPage<Map<String, Object>> cursorUserPlanList(Long userId, Integer status,
+                                                       String cursor, int size, boolean withTotal);
+
+    /**
+     * 获取用户计划，同一请求内多次获取只查询一次
+     * @param userPlanId 用户计划ID
+     * @return 用户计划，不存在时返回null
+     */
+    UserWorkoutPlan getUserPlan(Long userPlanId);
+
     /**
      * 用户选择一个计划
      * @param userId 用户ID
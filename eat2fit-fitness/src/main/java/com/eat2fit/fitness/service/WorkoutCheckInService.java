@@ -2,6 +2,7 @@ package com.eat2fit.fitness.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.eat2fit.common.page.CursorPage;
 import com.eat2fit.fitness.entity.WorkoutCheckIn;
 
 import java.time.LocalDate;
@@ -29,6 +30,19 @@ public interface WorkoutCheckInService extends IService<WorkoutCheckIn> {
      */
     Page<WorkoutCheckIn> getUserCheckIns(Long userId, LocalDate startDate, LocalDate endDate, Page<WorkoutCheckIn> page);
 
+    /**
+     * 游标分页获取用户打卡记录，按打卡日期倒序
+     * @param userId 用户ID
+     * @param startDate 开始日期
+     * @param endDate 结束日期
+     * @param cursor 上一页返回的游标，第一页为空
+     * @param size 每页大小
+     * @param withTotal 是否返回总数
+     * @return 分页结果
+     */
+    CursorPage<WorkoutCheckIn> cursorUserCheckIns(Long userId, LocalDate startDate, LocalDate endDate,
+                                                  String cursor, int size, boolean withTotal);
+
     /**
      * 获取用户打卡统计
      * @param userId 用户ID
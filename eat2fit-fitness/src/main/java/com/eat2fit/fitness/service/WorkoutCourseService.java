@@ -2,8 +2,12 @@ package com.eat2fit.fitness.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.eat2fit.common.page.CursorPage;
 import com.eat2fit.fitness.entity.WorkoutCourse;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * 训练课程服务接口
  */
@@ -19,6 +23,33 @@ public interface WorkoutCourseService extends IService<WorkoutCourse> {
      */
     Page<WorkoutCourse> pageList(Page<WorkoutCourse> page, Integer fitnessGoal, Integer difficulty, String keyword);
 
+    /**
+     * 游标分页查询课程列表，按创建时间倒序
+     * @param cursor 上一页返回的游标，第一页为空
+     * @param size 每页大小
+     * @param withTotal 是否返回总数
+     * @param fitnessGoal 健身目标
+     * @param difficulty 难度
+     * @param keyword 关键词
+     * @return 分页结果
+     */
+    CursorPage<WorkoutCourse> cursorList(String cursor, int size, boolean withTotal,
+                                         Integer fitnessGoal, Integer difficulty, String keyword);
+
+    /**
+     * 批量获取课程，同一请求内合并为一次查询并复用结果
+     * @param ids 课程ID列表
+     * @return 课程ID到课程的映射，不包含不存在的ID
+     */
+    Map<Long, WorkoutCourse> getCourseMap(Collection<Long> ids);
+
+    /**
+     * 获取课程视频地址，带缓存，用于播放时的分段请求
+     * @param courseId 课程ID
+     * @return 视频地址，课程不存在或没有视频时返回null
+     */
+    String getVideoUrl(Long courseId);
+
     /**
      * 增加课程观看次数
      * @param courseId 课程ID
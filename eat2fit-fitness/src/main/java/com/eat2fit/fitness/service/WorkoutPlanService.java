@@ -2,10 +2,13 @@ package com.eat2fit.fitness.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.eat2fit.common.page.CursorPage;
 import com.eat2fit.fitness.entity.WorkoutPlan;
 import com.eat2fit.fitness.entity.WorkoutPlanDetail;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 训练计划服务接口
@@ -22,6 +25,33 @@ public interface WorkoutPlanService extends IService<WorkoutPlan> {
      */
     Page<WorkoutPlan> pageList(Page<WorkoutPlan> page, Integer fitnessGoal, Integer difficulty, String keyword);
 
+    /**
+     * 游标分页查询计划列表，按创建时间倒序
+     * @param cursor 上一页返回的游标，第一页为空
+     * @param size 每页大小
+     * @param withTotal 是否返回总数
+     * @param fitnessGoal 健身目标
+     * @param difficulty 难度
+     * @param keyword 关键词
+     * @return 分页结果
+     */
+    CursorPage<WorkoutPlan> cursorList(String cursor, int size, boolean withTotal,
+                                       Integer fitnessGoal, Integer difficulty, String keyword);
+
+    /**
+     * 获取计划，优先读缓存
+     * @param id 计划ID
+     * @return 计划，不存在时返回null
+     */
+    WorkoutPlan getPlan(Long id);
+
+    /**
+     * 批量获取计划，同一请求内合并为一次查询并复用结果
+     * @param ids 计划ID列表
+     * @return 计划ID到计划的映射，不包含不存在的ID
+     */
+    Map<Long, WorkoutPlan> getPlanMap(Collection<Long> ids);
+
     /**
      * 获取计划详情
      * @param planId 计划ID
@@ -0,0 +1,88 @@
+package com.eat2fit.fitness.service.impl;
+
+import com.eat2fit.fitness.entity.WorkoutCheckIn;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 打卡统计计算
+ * <p>
+ * 基于用户全部打卡记录（只需打卡日期、时长、卡路里三列）在内存中一次遍历算出全部统计项，
+ * 替代原来每个统计项一次 count、连续天数每天一次 count 的查询方式。
+ */
+public final class CheckInStatsCalculator {
+
+    private CheckInStatsCalculator() {
+    }
+
+    /**
+     * 计算打卡统计
+     * @param checkIns 用户的全部打卡记录
+     * @param today 统计基准日期
+     * @return 统计结果，字段与 /fitness/checkin/stats 接口一致
+     */
+    public static Map<String, Object> calculate(List<WorkoutCheckIn> checkIns, LocalDate today) {
+        // 本周（周一到周日）、本月、最近30天的范围
+        LocalDate startOfWeek = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate endOfWeek = today.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+        YearMonth yearMonth = YearMonth.from(today);
+        LocalDate startOfMonth = yearMonth.atDay(1);
+        LocalDate endOfMonth = yearMonth.atEndOfMonth();
+        LocalDate recentFrom = today.minusDays(30);
+
+        long thisWeekCount = 0;
+        long thisMonthCount = 0;
+        long recentCheckIns = 0;
+        long totalDuration = 0;
+        long totalCalories = 0;
+        Set<LocalDate> checkInDates = new HashSet<>();
+
+        for (WorkoutCheckIn checkIn : checkIns) {
+            LocalDate date = checkIn.getCheckInDate();
+            if (date != null) {
+                checkInDates.add(date);
+                if (!date.isBefore(startOfWeek) && !date.isAfter(endOfWeek)) {
+                    thisWeekCount++;
+                }
+                if (!date.isBefore(startOfMonth) && !date.isAfter(endOfMonth)) {
+                    thisMonthCount++;
+                }
+                if (!date.isBefore(recentFrom)) {
+                    recentCheckIns++;
+                }
+            }
+            if (checkIn.getDuration() != null) {
+                totalDuration += checkIn.getDuration();
+            }
+            if (checkIn.getCalorieConsumption() != null) {
+                totalCalories += checkIn.getCalorieConsumption();
+            }
+        }
+
+        // 连续打卡天数：从今天往前数，直到某天没有打卡
+        int consecutiveDays = 0;
+        LocalDate checkDate = today;
+        while (checkInDates.contains(checkDate)) {
+            consecutiveDays++;
+            checkDate = checkDate.minusDays(1);
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalCount", (long) checkIns.size());
+        stats.put("thisWeekCount", thisWeekCount);
+        stats.put("thisMonthCount", thisMonthCount);
+        stats.put("recentCheckIns", recentCheckIns);
+        stats.put("continuousCount", consecutiveDays);
+        stats.put("totalDuration", totalDuration);
+        stats.put("totalCalories", totalCalories);
+        return stats;
+    }
+}
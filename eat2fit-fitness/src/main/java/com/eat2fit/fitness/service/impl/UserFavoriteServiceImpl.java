@@ -81,9 +81,7 @@ public class UserFavoriteServiceImpl extends ServiceImpl<UserFavoriteMapper, Use
                                           .collect(Collectors.toList());
         
         // 查询课程信息
-        List<WorkoutCourse> courses = courseIds.isEmpty() ? 
-                                     List.of() : 
-                                     courseService.listByIds(courseIds);
+        Map<Long, WorkoutCourse> courseMap = courseService.getCourseMap(courseIds);
         
         // 组装结果
         Page<Map<String, Object>> resultPage = new Page<>();
@@ -96,10 +94,10 @@ public class UserFavoriteServiceImpl extends ServiceImpl<UserFavoriteMapper, Use
             result.put("favorite", favorite);
             
             // 关联课程信息
-            courses.stream()
-                  .filter(course -> course.getId().equals(favorite.getTargetId()))
-                  .findFirst()
-                  .ifPresent(course -> result.put("course", course));
+            WorkoutCourse course = courseMap.get(favorite.getTargetId());
+            if (course != null) {
+                result.put("course", course);
+            }
             
             return result;
         }).collect(Collectors.toList());
@@ -123,9 +121,7 @@ public class UserFavoriteServiceImpl extends ServiceImpl<UserFavoriteMapper, Use
                                        .collect(Collectors.toList());
         
         // 查询计划信息
-        List<WorkoutPlan> plans = planIds.isEmpty() ? 
-                                List.of() : 
-                                planService.listByIds(planIds);
+        Map<Long, WorkoutPlan> planMap = planService.getPlanMap(planIds);
         
         // 组装结果
         Page<Map<String, Object>> resultPage = new Page<>();
@@ -138,10 +134,10 @@ public class UserFavoriteServiceImpl extends ServiceImpl<UserFavoriteMapper, Use
             result.put("favorite", favorite);
             
             // 关联计划信息
-            plans.stream()
-                .filter(plan -> plan.getId().equals(favorite.getTargetId()))
-                .findFirst()
-                .ifPresent(plan -> result.put("plan", plan));
+            WorkoutPlan plan = planMap.get(favorite.getTargetId());
+            if (plan != null) {
+                result.put("plan", plan);
+            }
             
             return result;
         }).collect(Collectors.toList());
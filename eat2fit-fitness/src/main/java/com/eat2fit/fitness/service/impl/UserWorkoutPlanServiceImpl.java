@@ -4,8 +4,14 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.eat2fit.common.cache.TwoLevelCache;
+import com.eat2fit.common.cache.TwoLevelCacheManager;
+import com.eat2fit.common.constant.Constants;
 import com.eat2fit.common.exception.BusinessException;
 import com.eat2fit.common.exception.ErrorCode;
+import com.eat2fit.common.loader.RequestLoaders;
+import com.eat2fit.common.page.CursorPage;
+import com.eat2fit.common.page.KeysetPager;
 import com.eat2fit.fitness.entity.UserWorkoutPlan;
 import com.eat2fit.fitness.entity.WorkoutPlan;
 import com.eat2fit.fitness.entity.WorkoutPlanDetail;
@@ -13,6 +19,7 @@ import com.eat2fit.fitness.mapper.UserWorkoutPlanMapper;
 import com.eat2fit.fitness.service.UserWorkoutPlanService;
 import com.eat2fit.fitness.service.WorkoutPlanDetailService;
 import com.eat2fit.fitness.service.WorkoutPlanService;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,10 +27,12 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -32,20 +41,31 @@ import java.util.stream.Collectors;
 @Service
 public class UserWorkoutPlanServiceImpl extends ServiceImpl<UserWorkoutPlanMapper, UserWorkoutPlan> implements UserWorkoutPlanService {
 
+    private static final KeysetPager<UserWorkoutPlan, LocalDateTime> PAGER =
+            new KeysetPager<>(UserWorkoutPlan::getCreateTime, UserWorkoutPlan::getId, LocalDateTime::parse);
+
     @Autowired
     private WorkoutPlanService planService;
 
     @Autowired
     private WorkoutPlanDetailService planDetailService;
 
+    @Autowired
+    private TwoLevelCacheManager cacheManager;
+
+    /**
+     * 游标分页的总数缓存
+     */
+    private TwoLevelCache<Long> countCache;
+
+    @PostConstruct
+    public void initCache() {
+        countCache = cacheManager.getCache("fitness-page-count", Constants.REDIS_PAGE_COUNT_PREFIX, Long.class);
+    }
+
     @Override
     public Page<Map<String, Object>> getUserPlanList(Long userId, Integer status, Page<UserWorkoutPlan> page) {
-        LambdaQueryWrapper<UserWorkoutPlan> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(UserWorkoutPlan::getUserId, userId);
-        
-        if (status != null) {
-            queryWrapper.eq(UserWorkoutPlan::getStatus, status);
-        }
+        LambdaQueryWrapper<UserWorkoutPlan> queryWrapper = buildUserPlanQuery(userId, status);
         
         queryWrapper.orderByDesc(UserWorkoutPlan::getCreateTime);
         
@@ -56,20 +76,61 @@ public class UserWorkoutPlanServiceImpl extends ServiceImpl<UserWorkoutPlanMappe
         resultPage.setTotal(userPlansPage.getTotal());
         resultPage.setCurrent(userPlansPage.getCurrent());
         resultPage.setSize(userPlansPage.getSize());
+        resultPage.setRecords(toUserPlanRecords(userPlansPage.getRecords()));
+        return resultPage;
+    }
+
+    @Override
+    public CursorPage<Map<String, Object>> cursorUserPlanList(Long userId, Integer status,
+                                                             String cursor, int size, boolean withTotal) {
+        LambdaQueryWrapper<UserWorkoutPlan> queryWrapper = buildUserPlanQuery(userId, status);
+        String countKey = "user-plan:" + userId + ":" + status;
+        Supplier<Long> total = withTotal
+                ? () -> countCache.get(countKey, () -> baseMapper.selectCount(buildUserPlanQuery(userId, status)))
+                : null;
+        CursorPage<UserWorkoutPlan> userPlanPage = PAGER.page(queryWrapper, cursor, size, baseMapper, total);
+        return userPlanPage.convert(this::toUserPlanRecords);
+    }
+
+    /**
+     * 用户计划列表的过滤条件，不含排序
+     */
+    private LambdaQueryWrapper<UserWorkoutPlan> buildUserPlanQuery(Long userId, Integer status) {
+        LambdaQueryWrapper<UserWorkoutPlan> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(UserWorkoutPlan::getUserId, userId);
+        
+        if (status != null) {
+            queryWrapper.eq(UserWorkoutPlan::getStatus, status);
+        }
         
-        List<Map<String, Object>> records = userPlansPage.getRecords().stream().map(userPlan -> {
+        return queryWrapper;
+    }
+
+    /**
+     * 组装用户计划和关联的计划信息
+     */
+    private List<Map<String, Object>> toUserPlanRecords(List<UserWorkoutPlan> userPlans) {
+        // 一次查询所有关联的计划
+        List<Long> planIds = userPlans.stream()
+                .map(UserWorkoutPlan::getPlanId)
+                .collect(Collectors.toList());
+        Map<Long, WorkoutPlan> planMap = planService.getPlanMap(planIds);
+        
+        return userPlans.stream().map(userPlan -> {
             Map<String, Object> result = new HashMap<>();
             result.put("userPlan", userPlan);
             
-            // 获取关联的计划信息
-            WorkoutPlan plan = planService.getById(userPlan.getPlanId());
+            // 关联的计划信息
+            WorkoutPlan plan = planMap.get(userPlan.getPlanId());
             result.put("plan", plan);
             
             return result;
         }).collect(Collectors.toList());
-        
-        resultPage.setRecords(records);
-        return resultPage;
+    }
+
+    @Override
+    public UserWorkoutPlan getUserPlan(Long userPlanId) {
+        return RequestLoaders.get(UserWorkoutPlan.class, this::listByIds, UserWorkoutPlan::getId).load(userPlanId);
     }
 
     @Override
@@ -85,7 +146,7 @@ public class UserWorkoutPlanServiceImpl extends ServiceImpl<UserWorkoutPlanMappe
         }
         
         // 获取计划信息
-        WorkoutPlan plan = planService.getById(planId);
+        WorkoutPlan plan = planService.getPlan(planId);
         if (plan == null) {
             throw new BusinessException(ErrorCode.FITNESS_PLAN_NOT_FOUND);
         }
@@ -125,7 +186,7 @@ public class UserWorkoutPlanServiceImpl extends ServiceImpl<UserWorkoutPlanMappe
         result.put("userPlan", userPlan);
         
         // 获取计划基本信息
-        WorkoutPlan plan = planService.getById(userPlan.getPlanId());
+        WorkoutPlan plan = planService.getPlan(userPlan.getPlanId());
         result.put("plan", plan);
         
         // 获取计划详情
@@ -137,13 +198,13 @@ public class UserWorkoutPlanServiceImpl extends ServiceImpl<UserWorkoutPlanMappe
 
     @Override
     public Map<String, Object> getTodayWorkout(Long userPlanId) {
-        UserWorkoutPlan userPlan = getById(userPlanId);
+        UserWorkoutPlan userPlan = getUserPlan(userPlanId);
         if (userPlan == null || userPlan.getStatus() != 1) {
             throw new BusinessException(ErrorCode.FITNESS_PLAN_INVALID_OPERATION);
         }
         
         // 获取计划信息
-        WorkoutPlan plan = planService.getById(userPlan.getPlanId());
+        WorkoutPlan plan = planService.getPlan(userPlan.getPlanId());
         if (plan == null) {
             throw new BusinessException(ErrorCode.FITNESS_PLAN_NOT_FOUND);
         }
@@ -188,13 +249,13 @@ public class UserWorkoutPlanServiceImpl extends ServiceImpl<UserWorkoutPlanMappe
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean updatePlanProgress(Long userPlanId, boolean completed) {
-        UserWorkoutPlan userPlan = getById(userPlanId);
+        UserWorkoutPlan userPlan = getUserPlan(userPlanId);
         if (userPlan == null || userPlan.getStatus() != 1) {
             throw new BusinessException(ErrorCode.FITNESS_PLAN_INVALID_OPERATION);
         }
         
         // 获取计划信息，计算总训练天数
-        WorkoutPlan plan = planService.getById(userPlan.getPlanId());
+        WorkoutPlan plan = planService.getPlan(userPlan.getPlanId());
         int totalDays = plan.getDurationWeeks() * plan.getSessionsPerWeek();
         
         // 计算当前是第几天
@@ -231,7 +292,7 @@ public class UserWorkoutPlanServiceImpl extends ServiceImpl<UserWorkoutPlanMappe
                          .set(UserWorkoutPlan::getCompletionRate, BigDecimal.ONE);
         }
         
-        return update(updateWrapper);
+        return updateUserPlan(userPlanId, updateWrapper);
     }
 
     @Override
@@ -241,7 +302,7 @@ public class UserWorkoutPlanServiceImpl extends ServiceImpl<UserWorkoutPlanMappe
                     .eq(UserWorkoutPlan::getStatus, 1) // 只能放弃进行中的计划
                     .set(UserWorkoutPlan::getStatus, 3); // 已放弃
         
-        return update(updateWrapper);
+        return updateUserPlan(userPlanId, updateWrapper);
     }
 
     @Override
@@ -252,6 +313,15 @@ public class UserWorkoutPlanServiceImpl extends ServiceImpl<UserWorkoutPlanMappe
                     .set(UserWorkoutPlan::getStatus, 2) // 已完成
                     .set(UserWorkoutPlan::getCompletionRate, BigDecimal.ONE);
         
-        return update(updateWrapper);
+        return updateUserPlan(userPlanId, updateWrapper);
+    }
+
+    /**
+     * 更新用户计划，并移除本次请求内已加载的旧数据
+     */
+    private boolean updateUserPlan(Long userPlanId, LambdaUpdateWrapper<UserWorkoutPlan> updateWrapper) {
+        boolean updated = update(updateWrapper);
+        RequestLoaders.clear(UserWorkoutPlan.class, userPlanId);
+        return updated;
     }
 } 
\ No newline at end of file
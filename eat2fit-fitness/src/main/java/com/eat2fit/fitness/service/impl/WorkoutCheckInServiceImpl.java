@@ -1,25 +1,37 @@
 package com.eat2fit.fitness.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.eat2fit.common.cache.TwoLevelCache;
+import com.eat2fit.common.cache.TwoLevelCacheManager;
+import com.eat2fit.common.constant.Constants;
 import com.eat2fit.common.exception.BusinessException;
 import com.eat2fit.common.exception.ErrorCode;
+import com.eat2fit.common.page.CursorPage;
+import com.eat2fit.common.page.KeysetPager;
+import com.eat2fit.common.storage.ContentAddressedUploader;
+import com.eat2fit.common.storage.ImageVariantPipeline;
+import com.eat2fit.common.storage.ImageVariants;
 import com.eat2fit.fitness.entity.WorkoutCheckIn;
 import com.eat2fit.fitness.mapper.WorkoutCheckInMapper;
 import com.eat2fit.fitness.service.UserWorkoutPlanService;
 import com.eat2fit.fitness.service.WorkoutCheckInService;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.time.LocalDate;
-import java.time.DayOfWeek;
-import java.time.YearMonth;
-import java.time.temporal.TemporalAdjusters;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * 训练打卡记录服务实现类
@@ -27,9 +39,31 @@ import java.util.Map;
 @Service
 public class WorkoutCheckInServiceImpl extends ServiceImpl<WorkoutCheckInMapper, WorkoutCheckIn> implements WorkoutCheckInService {
 
+    private static final KeysetPager<WorkoutCheckIn, LocalDate> PAGER =
+            new KeysetPager<>(WorkoutCheckIn::getCheckInDate, WorkoutCheckIn::getId, LocalDate::parse);
+
     @Autowired
     private UserWorkoutPlanService userPlanService;
 
+    @Autowired
+    private TwoLevelCacheManager cacheManager;
+
+    @Autowired
+    private ObjectProvider<ContentAddressedUploader> uploader;
+
+    @Autowired
+    private ObjectProvider<ImageVariantPipeline> imageVariants;
+
+    /**
+     * 游标分页的总数缓存，新打卡在缓存过期前不计入总数
+     */
+    private TwoLevelCache<Long> countCache;
+
+    @PostConstruct
+    public void initCache() {
+        countCache = cacheManager.getCache("fitness-page-count", Constants.REDIS_PAGE_COUNT_PREFIX, Long.class);
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Long checkIn(WorkoutCheckIn checkIn) {
@@ -43,8 +77,11 @@ public class WorkoutCheckInServiceImpl extends ServiceImpl<WorkoutCheckInMapper,
             throw new BusinessException(ErrorCode.FITNESS_CHECK_IN_DUPLICATE);
         }
         
-        // 保存打卡记录
-        save(checkIn);
+        // 保存打卡记录，缩略图和压缩图在生成前先使用原图
+        checkIn.setThumbImages(checkIn.getImages());
+        checkIn.setLargeImages(checkIn.getImages());
+        writeWithReferences(imageUrls(checkIn.getImages()), () -> save(checkIn));
+        generateImageVariants(checkIn.getId(), checkIn.getImages());
         
         // 如果关联了用户计划，更新计划进度
         if (checkIn.getUserPlanId() != null) {
@@ -56,6 +93,28 @@ public class WorkoutCheckInServiceImpl extends ServiceImpl<WorkoutCheckInMapper,
 
     @Override
     public Page<WorkoutCheckIn> getUserCheckIns(Long userId, LocalDate startDate, LocalDate endDate, Page<WorkoutCheckIn> page) {
+        LambdaQueryWrapper<WorkoutCheckIn> queryWrapper = buildCheckInQuery(userId, startDate, endDate);
+        
+        queryWrapper.orderByDesc(WorkoutCheckIn::getCheckInDate);
+        
+        return baseMapper.selectPage(page, queryWrapper);
+    }
+
+    @Override
+    public CursorPage<WorkoutCheckIn> cursorUserCheckIns(Long userId, LocalDate startDate, LocalDate endDate,
+                                                         String cursor, int size, boolean withTotal) {
+        LambdaQueryWrapper<WorkoutCheckIn> queryWrapper = buildCheckInQuery(userId, startDate, endDate);
+        String countKey = "check-in:" + userId + ":" + startDate + ":" + endDate;
+        Supplier<Long> total = withTotal
+                ? () -> countCache.get(countKey, () -> baseMapper.selectCount(buildCheckInQuery(userId, startDate, endDate)))
+                : null;
+        return PAGER.page(queryWrapper, cursor, size, baseMapper, total);
+    }
+
+    /**
+     * 用户打卡记录的过滤条件，不含排序
+     */
+    private LambdaQueryWrapper<WorkoutCheckIn> buildCheckInQuery(Long userId, LocalDate startDate, LocalDate endDate) {
         LambdaQueryWrapper<WorkoutCheckIn> queryWrapper = new LambdaQueryWrapper<>();
         queryWrapper.eq(WorkoutCheckIn::getUserId, userId);
         
@@ -67,97 +126,20 @@ public class WorkoutCheckInServiceImpl extends ServiceImpl<WorkoutCheckInMapper,
             queryWrapper.le(WorkoutCheckIn::getCheckInDate, endDate);
         }
         
-        queryWrapper.orderByDesc(WorkoutCheckIn::getCheckInDate);
-        
-        return baseMapper.selectPage(page, queryWrapper);
+        return queryWrapper;
     }
 
     @Override
     public Map<String, Object> getUserCheckInStats(Long userId) {
-        Map<String, Object> stats = new HashMap<>();
-        
-        // 获取当前日期
-        LocalDate today = LocalDate.now();
-        
-        // 查询用户总打卡次数
-        LambdaQueryWrapper<WorkoutCheckIn> totalQueryWrapper = new LambdaQueryWrapper<>();
-        totalQueryWrapper.eq(WorkoutCheckIn::getUserId, userId);
-        long totalCheckIns = baseMapper.selectCount(totalQueryWrapper);
-        stats.put("totalCount", totalCheckIns);
-        
-        // 查询本周打卡次数（周一到周日）
-        LocalDate startOfWeek = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
-        LocalDate endOfWeek = today.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
-        
-        LambdaQueryWrapper<WorkoutCheckIn> weekQueryWrapper = new LambdaQueryWrapper<>();
-        weekQueryWrapper.eq(WorkoutCheckIn::getUserId, userId)
-                       .ge(WorkoutCheckIn::getCheckInDate, startOfWeek)
-                       .le(WorkoutCheckIn::getCheckInDate, endOfWeek);
-        long thisWeekCount = baseMapper.selectCount(weekQueryWrapper);
-        stats.put("thisWeekCount", thisWeekCount);
-        
-        // 查询本月打卡次数
-        YearMonth yearMonth = YearMonth.from(today);
-        LocalDate startOfMonth = yearMonth.atDay(1);
-        LocalDate endOfMonth = yearMonth.atEndOfMonth();
-        
-        LambdaQueryWrapper<WorkoutCheckIn> monthQueryWrapper = new LambdaQueryWrapper<>();
-        monthQueryWrapper.eq(WorkoutCheckIn::getUserId, userId)
-                        .ge(WorkoutCheckIn::getCheckInDate, startOfMonth)
-                        .le(WorkoutCheckIn::getCheckInDate, endOfMonth);
-        long thisMonthCount = baseMapper.selectCount(monthQueryWrapper);
-        stats.put("thisMonthCount", thisMonthCount);
-        
-        // 查询最近30天打卡次数
-        LambdaQueryWrapper<WorkoutCheckIn> recentQueryWrapper = new LambdaQueryWrapper<>();
-        recentQueryWrapper.eq(WorkoutCheckIn::getUserId, userId)
-                         .ge(WorkoutCheckIn::getCheckInDate, today.minusDays(30));
-        long recentCheckIns = baseMapper.selectCount(recentQueryWrapper);
-        stats.put("recentCheckIns", recentCheckIns);
-        
-        // 查询连续打卡天数
-        int consecutiveDays = 0;
-        LocalDate checkDate = today;
-        
-        while (true) {
-            LambdaQueryWrapper<WorkoutCheckIn> dayQueryWrapper = new LambdaQueryWrapper<>();
-            dayQueryWrapper.eq(WorkoutCheckIn::getUserId, userId)
-                          .eq(WorkoutCheckIn::getCheckInDate, checkDate);
-            
-            if (baseMapper.selectCount(dayQueryWrapper) > 0) {
-                consecutiveDays++;
-                checkDate = checkDate.minusDays(1);
-            } else {
-                break;
-            }
-        }
-        
-        stats.put("continuousCount", consecutiveDays);
-        
-        // 计算累计训练时长和消耗卡路里
+        // 一次查出用户全部打卡的日期、时长和卡路里，统计项在内存中计算
         LambdaQueryWrapper<WorkoutCheckIn> statsQueryWrapper = new LambdaQueryWrapper<>();
         statsQueryWrapper.eq(WorkoutCheckIn::getUserId, userId)
-                        .select(WorkoutCheckIn::getDuration, WorkoutCheckIn::getCalorieConsumption);
+                        .select(WorkoutCheckIn::getCheckInDate, WorkoutCheckIn::getDuration,
+                                WorkoutCheckIn::getCalorieConsumption);
         
         List<WorkoutCheckIn> checkIns = baseMapper.selectList(statsQueryWrapper);
         
-        long totalDuration = 0;
-        long totalCalories = 0;
-        
-        for (WorkoutCheckIn checkIn : checkIns) {
-            if (checkIn.getDuration() != null) {
-                totalDuration += checkIn.getDuration();
-            }
-            
-            if (checkIn.getCalorieConsumption() != null) {
-                totalCalories += checkIn.getCalorieConsumption();
-            }
-        }
-        
-        stats.put("totalDuration", totalDuration);
-        stats.put("totalCalories", totalCalories);
-        
-        return stats;
+        return CheckInStatsCalculator.calculate(checkIns, LocalDate.now());
     }
 
     @Override
@@ -172,4 +154,49 @@ public class WorkoutCheckInServiceImpl extends ServiceImpl<WorkoutCheckInMapper,
 
             return false;
     }
-} 
\ No newline at end of file
+
+    /**
+     * 后台生成打卡图片的缩略图和压缩图，全部完成后按原顺序写回
+     */
+    private void generateImageVariants(Long id, String images) {
+        List<String> urls = imageUrls(images);
+        if (urls.isEmpty()) {
+            return;
+        }
+        imageVariants.ifAvailable(pipeline -> pipeline.submitAll(urls, variants -> {
+            LambdaUpdateWrapper<WorkoutCheckIn> updateWrapper = new LambdaUpdateWrapper<>();
+            updateWrapper.eq(WorkoutCheckIn::getId, id)
+                        .eq(WorkoutCheckIn::getImages, images)
+                        .set(WorkoutCheckIn::getThumbImages, variants.stream()
+                                .map(ImageVariants::getThumbnailUrl).collect(Collectors.joining(",")))
+                        .set(WorkoutCheckIn::getLargeImages, variants.stream()
+                                .map(ImageVariants::getLargeUrl).collect(Collectors.joining(",")));
+            update(updateWrapper);
+        }));
+    }
+
+    /**
+     * 打卡图片的地址，多张以逗号分隔
+     */
+    private static List<String> imageUrls(String images) {
+        if (!StringUtils.hasText(images)) {
+            return List.of();
+        }
+        return Arrays.stream(images.split(","))
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 保存打卡记录，开启上传去重时同时增加图片的引用次数；打卡记录不能删除，图片引用不会释放
+     */
+    private void writeWithReferences(List<String> imageUrls, BooleanSupplier write) {
+        ContentAddressedUploader contentAddressedUploader = uploader.getIfAvailable();
+        if (contentAddressedUploader == null) {
+            write.getAsBoolean();
+            return;
+        }
+        contentAddressedUploader.writeReferences(List.of(), imageUrls, write);
+    }
+}
@@ -4,20 +4,91 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.eat2fit.common.cache.TwoLevelCache;
+import com.eat2fit.common.cache.TwoLevelCacheManager;
+import com.eat2fit.common.constant.Constants;
+import com.eat2fit.common.loader.RequestLoaders;
+import com.eat2fit.common.page.CursorPage;
+import com.eat2fit.common.page.KeysetPager;
+import com.eat2fit.common.storage.ContentAddressedUploader;
+import com.eat2fit.common.storage.ImageVariantPipeline;
 import com.eat2fit.fitness.entity.WorkoutCourse;
 import com.eat2fit.fitness.mapper.WorkoutCourseMapper;
 import com.eat2fit.fitness.service.WorkoutCourseService;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
 /**
  * 训练课程服务实现类
  */
 @Service
 public class WorkoutCourseServiceImpl extends ServiceImpl<WorkoutCourseMapper, WorkoutCourse> implements WorkoutCourseService {
 
+    private static final KeysetPager<WorkoutCourse, LocalDateTime> PAGER =
+            new KeysetPager<>(WorkoutCourse::getCreateTime, WorkoutCourse::getId, LocalDateTime::parse);
+
+    @Autowired
+    private TwoLevelCacheManager cacheManager;
+
+    @Autowired
+    private ObjectProvider<ContentAddressedUploader> uploader;
+
+    @Autowired
+    private ObjectProvider<ImageVariantPipeline> imageVariants;
+
+    /**
+     * 游标分页的总数缓存
+     */
+    private TwoLevelCache<Long> countCache;
+
+    /**
+     * 课程视频地址缓存，拖动播放时每个分段请求都要查询
+     */
+    private TwoLevelCache<String> videoUrlCache;
+
+    @PostConstruct
+    public void initCache() {
+        countCache = cacheManager.getCache("fitness-page-count", Constants.REDIS_PAGE_COUNT_PREFIX, Long.class);
+        videoUrlCache = cacheManager.getCache("fitness-course-video", Constants.REDIS_FITNESS_COURSE_PREFIX + "video:",
+                String.class);
+    }
+
     @Override
     public Page<WorkoutCourse> pageList(Page<WorkoutCourse> page, Integer fitnessGoal, Integer difficulty, String keyword) {
+        LambdaQueryWrapper<WorkoutCourse> queryWrapper = buildListQuery(fitnessGoal, difficulty, keyword);
+        
+        queryWrapper.orderByDesc(WorkoutCourse::getCreateTime);
+        
+        return baseMapper.selectPage(page, queryWrapper);
+    }
+
+    @Override
+    public CursorPage<WorkoutCourse> cursorList(String cursor, int size, boolean withTotal,
+                                                Integer fitnessGoal, Integer difficulty, String keyword) {
+        LambdaQueryWrapper<WorkoutCourse> queryWrapper = buildListQuery(fitnessGoal, difficulty, keyword);
+        String countKey = "course:" + fitnessGoal + ":" + difficulty + ":" + keyword;
+        Supplier<Long> total = withTotal
+                ? () -> countCache.get(countKey, () -> baseMapper.selectCount(buildListQuery(fitnessGoal, difficulty, keyword)))
+                : null;
+        return PAGER.page(queryWrapper, cursor, size, baseMapper, total);
+    }
+
+    /**
+     * 列表的过滤条件，不含排序
+     */
+    private LambdaQueryWrapper<WorkoutCourse> buildListQuery(Integer fitnessGoal, Integer difficulty, String keyword) {
         LambdaQueryWrapper<WorkoutCourse> queryWrapper = new LambdaQueryWrapper<>();
         
         // 构建查询条件
@@ -41,9 +112,108 @@ public class WorkoutCourseServiceImpl extends ServiceImpl<WorkoutCourseMapper, W
             );
         }
         
-        queryWrapper.orderByDesc(WorkoutCourse::getCreateTime);
-        
-        return baseMapper.selectPage(page, queryWrapper);
+        return queryWrapper;
+    }
+
+    @Override
+    public Map<Long, WorkoutCourse> getCourseMap(Collection<Long> ids) {
+        return RequestLoaders.get(WorkoutCourse.class, this::listByIds, WorkoutCourse::getId).loadMany(ids);
+    }
+
+    @Override
+    public String getVideoUrl(Long courseId) {
+        return videoUrlCache.get(courseId, () -> {
+            WorkoutCourse course = getById(courseId);
+            return course != null && StringUtils.hasText(course.getVideoUrl()) ? course.getVideoUrl() : null;
+        });
+    }
+
+    @Override
+    public boolean save(WorkoutCourse course) {
+        useOriginalCover(course, true);
+        boolean saved = writeWithReferences(List.of(), fileUrls(course, course), () -> super.save(course));
+        if (saved) {
+            generateCoverVariants(course.getId(), course.getCoverImg());
+        }
+        return saved;
+    }
+
+    @Override
+    public boolean updateById(WorkoutCourse course) {
+        // 没有修改封面和视频时不需要查询旧数据，也不调整引用
+        boolean filesUpdated = course.getCoverImg() != null || course.getVideoUrl() != null;
+        WorkoutCourse old = filesUpdated ? getById(course.getId()) : null;
+        boolean coverReplaced = old != null && course.getCoverImg() != null
+                && !course.getCoverImg().equals(old.getCoverImg());
+        useOriginalCover(course, coverReplaced);
+        boolean updated = old == null
+                ? super.updateById(course)
+                : writeWithReferences(fileUrls(old, course), fileUrls(course, course), () -> super.updateById(course));
+        if (updated && coverReplaced) {
+            generateCoverVariants(course.getId(), course.getCoverImg());
+        }
+        if (course.getVideoUrl() != null) {
+            videoUrlCache.evictAfterCommit(course.getId());
+        }
+        return updated;
+    }
+
+    /**
+     * 封面的缩略图、压缩图只由后台生成，新封面在生成前先使用原图；封面没有变化时不修改
+     */
+    private void useOriginalCover(WorkoutCourse course, boolean coverChanged) {
+        String placeholder = coverChanged ? course.getCoverImg() : null;
+        course.setCoverThumb(placeholder);
+        course.setCoverLarge(placeholder);
+    }
+
+    /**
+     * 后台生成封面的缩略图和压缩图，封面在此期间又被修改时不覆盖
+     */
+    private void generateCoverVariants(Long id, String coverImg) {
+        imageVariants.ifAvailable(pipeline -> pipeline.submit(coverImg, variants -> {
+            LambdaUpdateWrapper<WorkoutCourse> updateWrapper = new LambdaUpdateWrapper<>();
+            updateWrapper.eq(WorkoutCourse::getId, id)
+                        .eq(WorkoutCourse::getCoverImg, coverImg)
+                        .set(WorkoutCourse::getCoverThumb, variants.getThumbnailUrl())
+                        .set(WorkoutCourse::getCoverLarge, variants.getLargeUrl());
+            update(updateWrapper);
+        }));
+    }
+
+    @Override
+    public boolean removeById(Serializable id) {
+        WorkoutCourse old = getById(id);
+        boolean removed = old == null
+                ? super.removeById(id)
+                : writeWithReferences(fileUrls(old, old), List.of(), () -> super.removeById(id));
+        videoUrlCache.evictAfterCommit(Long.valueOf(id.toString()));
+        return removed;
+    }
+
+    /**
+     * 课程引用的上传文件：封面和视频。只取 fields 中不为null的字段，按部分字段更新时旧数据只计算被修改的字段
+     */
+    private static List<String> fileUrls(WorkoutCourse course, WorkoutCourse fields) {
+        List<String> urls = new ArrayList<>();
+        if (fields.getCoverImg() != null) {
+            urls.add(course.getCoverImg());
+        }
+        if (fields.getVideoUrl() != null) {
+            urls.add(course.getVideoUrl());
+        }
+        return urls;
+    }
+
+    /**
+     * 写入课程数据，开启上传去重时同时调整引用的文件的引用次数
+     */
+    private boolean writeWithReferences(List<String> oldUrls, List<String> newUrls, BooleanSupplier write) {
+        ContentAddressedUploader contentAddressedUploader = uploader.getIfAvailable();
+        if (contentAddressedUploader == null) {
+            return write.getAsBoolean();
+        }
+        return contentAddressedUploader.writeReferences(oldUrls, newUrls, write);
     }
 
     @Override
@@ -76,9 +246,9 @@ public class WorkoutCourseServiceImpl extends ServiceImpl<WorkoutCourseMapper, W
         
         Page<WorkoutCourse> page = new Page<>(1, limit);
         LambdaQueryWrapper<WorkoutCourse> queryWrapper = new LambdaQueryWrapper<>();
+        // 综合排序公式，lambda不能表示表达式列，直接拼接到SQL末尾
         queryWrapper.eq(WorkoutCourse::getStatus, 1)
-                   .orderByDesc(course -> 
-                        "view_count * 0.3 + like_count * 0.7"); // 综合排序公式
+                   .last("ORDER BY view_count * 0.3 + like_count * 0.7 DESC");
         
         return baseMapper.selectPage(page, queryWrapper);
     }
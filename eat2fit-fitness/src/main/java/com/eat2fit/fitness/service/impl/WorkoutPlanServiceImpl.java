@@ -3,17 +3,38 @@ package com.eat2fit.fitness.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.eat2fit.common.cache.TwoLevelCache;
+import com.eat2fit.common.cache.TwoLevelCacheManager;
+import com.eat2fit.common.constant.Constants;
+import com.eat2fit.common.loader.DataLoader;
+import com.eat2fit.common.loader.RequestLoaders;
+import com.eat2fit.common.page.CursorPage;
+import com.eat2fit.common.page.KeysetPager;
+import com.eat2fit.common.storage.ContentAddressedUploader;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.eat2fit.fitness.entity.WorkoutPlan;
 import com.eat2fit.fitness.entity.WorkoutPlanDetail;
 import com.eat2fit.fitness.mapper.WorkoutPlanMapper;
 import com.eat2fit.fitness.service.WorkoutPlanDetailService;
 import com.eat2fit.fitness.service.WorkoutPlanService;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * 训练计划服务实现类
@@ -21,11 +42,59 @@ import java.util.List;
 @Service
 public class WorkoutPlanServiceImpl extends ServiceImpl<WorkoutPlanMapper, WorkoutPlan> implements WorkoutPlanService {
 
+    private static final KeysetPager<WorkoutPlan, LocalDateTime> PAGER =
+            new KeysetPager<>(WorkoutPlan::getCreateTime, WorkoutPlan::getId, LocalDateTime::parse);
+
     @Autowired
     private WorkoutPlanDetailService planDetailService;
 
+    @Autowired
+    private ObjectProvider<ContentAddressedUploader> uploader;
+
+    @Autowired
+    private TwoLevelCacheManager cacheManager;
+
+    private TwoLevelCache<WorkoutPlan> planCache;
+
+    private TwoLevelCache<List<WorkoutPlanDetail>> planDetailCache;
+
+    /**
+     * 游标分页的总数缓存
+     */
+    private TwoLevelCache<Long> countCache;
+
+    @PostConstruct
+    public void initCache() {
+        planCache = cacheManager.getCache("fitness-plan", Constants.REDIS_FITNESS_PLAN_PREFIX, WorkoutPlan.class);
+        planDetailCache = cacheManager.getCache("fitness-plan-detail", Constants.REDIS_FITNESS_PLAN_PREFIX + "detail:",
+                new TypeReference<List<WorkoutPlanDetail>>() {});
+        countCache = cacheManager.getCache("fitness-page-count", Constants.REDIS_PAGE_COUNT_PREFIX, Long.class);
+    }
+
     @Override
     public Page<WorkoutPlan> pageList(Page<WorkoutPlan> page, Integer fitnessGoal, Integer difficulty, String keyword) {
+        LambdaQueryWrapper<WorkoutPlan> queryWrapper = buildListQuery(fitnessGoal, difficulty, keyword);
+        
+        queryWrapper.orderByDesc(WorkoutPlan::getCreateTime);
+        
+        return baseMapper.selectPage(page, queryWrapper);
+    }
+
+    @Override
+    public CursorPage<WorkoutPlan> cursorList(String cursor, int size, boolean withTotal,
+                                              Integer fitnessGoal, Integer difficulty, String keyword) {
+        LambdaQueryWrapper<WorkoutPlan> queryWrapper = buildListQuery(fitnessGoal, difficulty, keyword);
+        String countKey = "plan:" + fitnessGoal + ":" + difficulty + ":" + keyword;
+        Supplier<Long> total = withTotal
+                ? () -> countCache.get(countKey, () -> baseMapper.selectCount(buildListQuery(fitnessGoal, difficulty, keyword)))
+                : null;
+        return PAGER.page(queryWrapper, cursor, size, baseMapper, total);
+    }
+
+    /**
+     * 列表的过滤条件，不含排序
+     */
+    private LambdaQueryWrapper<WorkoutPlan> buildListQuery(Integer fitnessGoal, Integer difficulty, String keyword) {
         LambdaQueryWrapper<WorkoutPlan> queryWrapper = new LambdaQueryWrapper<>();
         
         // 构建查询条件
@@ -49,19 +118,85 @@ public class WorkoutPlanServiceImpl extends ServiceImpl<WorkoutPlanMapper, Worko
             );
         }
         
-        queryWrapper.orderByDesc(WorkoutPlan::getCreateTime);
-        
-        return baseMapper.selectPage(page, queryWrapper);
+        return queryWrapper;
+    }
+
+    @Override
+    public WorkoutPlan getPlan(Long id) {
+        return planLoader().load(id);
+    }
+
+    @Override
+    public Map<Long, WorkoutPlan> getPlanMap(Collection<Long> ids) {
+        return planLoader().loadMany(ids);
+    }
+
+    private DataLoader<WorkoutPlan> planLoader() {
+        return RequestLoaders.get(WorkoutPlan.class, this::loadPlans, WorkoutPlan::getId);
+    }
+
+    /**
+     * 先查两级缓存，未命中的计划一次IN查询
+     */
+    private List<WorkoutPlan> loadPlans(Collection<Long> ids) {
+        return new ArrayList<>(planCache.getAll(ids, missingIds -> listByIds(missingIds).stream()
+                .collect(Collectors.toMap(WorkoutPlan::getId, Function.identity()))).values());
     }
 
     @Override
     public List<WorkoutPlanDetail> getPlanDetails(Long planId) {
-        LambdaQueryWrapper<WorkoutPlanDetail> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(WorkoutPlanDetail::getPlanId, planId)
-                   .orderByAsc(WorkoutPlanDetail::getWeekNum)
-                   .orderByAsc(WorkoutPlanDetail::getDayNum);
-                   
-        return planDetailService.list(queryWrapper);
+        return planDetailCache.get(planId, () -> {
+            LambdaQueryWrapper<WorkoutPlanDetail> queryWrapper = new LambdaQueryWrapper<>();
+            queryWrapper.eq(WorkoutPlanDetail::getPlanId, planId)
+                       .orderByAsc(WorkoutPlanDetail::getWeekNum)
+                       .orderByAsc(WorkoutPlanDetail::getDayNum);
+
+            return planDetailService.list(queryWrapper);
+        });
+    }
+
+    @Override
+    public boolean save(WorkoutPlan plan) {
+        return writeWithReferences(List.of(), coverUrls(plan), () -> super.save(plan));
+    }
+
+    @Override
+    public boolean updateById(WorkoutPlan plan) {
+        // 没有修改封面时不需要查询旧数据，也不调整引用
+        WorkoutPlan old = plan.getCoverImg() != null ? getById(plan.getId()) : null;
+        boolean updated = old == null
+                ? super.updateById(plan)
+                : writeWithReferences(coverUrls(old), coverUrls(plan), () -> super.updateById(plan));
+        evictPlan(plan.getId());
+        return updated;
+    }
+
+    @Override
+    public boolean removeById(Serializable id) {
+        WorkoutPlan old = getById(id);
+        boolean removed = old == null
+                ? super.removeById(id)
+                : writeWithReferences(coverUrls(old), List.of(), () -> super.removeById(id));
+        evictPlan(Long.valueOf(id.toString()));
+        return removed;
+    }
+
+    /**
+     * 计划引用的上传文件
+     */
+    private static List<String> coverUrls(WorkoutPlan plan) {
+        return Collections.singletonList(plan.getCoverImg());
+    }
+
+    /**
+     * 写入计划数据，开启上传去重时同时调整引用的文件的引用次数
+     */
+    private boolean writeWithReferences(List<String> oldUrls, List<String> newUrls, BooleanSupplier write) {
+        ContentAddressedUploader contentAddressedUploader = uploader.getIfAvailable();
+        if (contentAddressedUploader == null) {
+            return write.getAsBoolean();
+        }
+        return contentAddressedUploader.writeReferences(oldUrls, newUrls, write);
     }
 
     @Override
@@ -106,6 +241,15 @@ public class WorkoutPlanServiceImpl extends ServiceImpl<WorkoutPlanMapper, Worko
         return updated;
     }
 
+    /**
+     * 计划或详情变更后删除缓存
+     */
+    private void evictPlan(Long planId) {
+        planCache.evictAfterCommit(planId);
+        planDetailCache.evictAfterCommit(planId);
+        RequestLoaders.clear(WorkoutPlan.class, planId);
+    }
+
     @Override
     public List<WorkoutPlan> getRecommendPlans(Long userId, int limit) {
         // 简单实现：先返回与用户目标匹配的热门计划
@@ -24,6 +24,12 @@ public class CourseVO {
     @Schema(description = "封面图片URL")
     private String coverImg;
 
+    @Schema(description = "封面缩略图URL")
+    private String coverThumb;
+
+    @Schema(description = "封面压缩图URL")
+    private String coverLarge;
+
     @Schema(description = "课程视频URL")
     private String videoUrl;
 
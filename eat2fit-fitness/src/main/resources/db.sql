@@ -10,6 +10,8 @@ CREATE TABLE IF NOT EXISTS `workout_course`
     `title`        varchar(100) NOT NULL COMMENT '课程标题',
     `description`  text                  DEFAULT NULL COMMENT '课程描述',
     `cover_img`    varchar(255)          DEFAULT NULL COMMENT '封面图片URL',
+    `cover_thumb`  varchar(255)          DEFAULT NULL COMMENT '封面缩略图URL',
+    `cover_large`  varchar(255)          DEFAULT NULL COMMENT '封面压缩图URL',
     `video_url`    varchar(255)          DEFAULT NULL COMMENT '课程视频URL',
     `duration`     int(5)                DEFAULT NULL COMMENT '时长(分钟)',
     `difficulty`   tinyint(1)   NOT NULL DEFAULT 2 COMMENT '难度 1:初级 2:中级 3:高级',
@@ -26,6 +28,7 @@ CREATE TABLE IF NOT EXISTS `workout_course`
     PRIMARY KEY (`id`),
     KEY `idx_fitness_goal` (`fitness_goal`),
     KEY `idx_difficulty` (`difficulty`),
+    KEY `idx_status_create_time` (`status`, `create_time`),
     FULLTEXT KEY `ft_idx_search` (`title`, `description`, `body_parts`)
 ) ENGINE = InnoDB
   DEFAULT CHARSET = utf8mb4 COMMENT ='训练课程表';
@@ -51,6 +54,7 @@ CREATE TABLE IF NOT EXISTS `workout_plan`
     PRIMARY KEY (`id`),
     KEY `idx_fitness_goal` (`fitness_goal`),
     KEY `idx_difficulty` (`difficulty`),
+    KEY `idx_status_create_time` (`status`, `create_time`),
     FULLTEXT KEY `ft_idx_search` (`name`, `description`, `body_focus`)
 ) ENGINE = InnoDB
   DEFAULT CHARSET = utf8mb4 COMMENT ='训练计划表';
@@ -88,7 +92,7 @@ CREATE TABLE IF NOT EXISTS `user_workout_plan`
     `create_time`     datetime   NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     `update_time`     datetime   NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     PRIMARY KEY (`id`),
-    KEY `idx_user_id` (`user_id`),
+    KEY `idx_user_create_time` (`user_id`, `create_time`),
     KEY `idx_plan_id` (`plan_id`),
     KEY `idx_status` (`status`)
 ) ENGINE = InnoDB
@@ -107,10 +111,12 @@ CREATE TABLE IF NOT EXISTS `workout_check_in`
     `feeling`             tinyint(1)          DEFAULT NULL COMMENT '感受 1:轻松 2:适中 3:疲惫',
     `content`             varchar(255)        DEFAULT NULL COMMENT '打卡内容',
     `images`              varchar(1000)       DEFAULT NULL COMMENT '图片URL，多个用逗号分隔',
+    `thumb_images`        varchar(1000)       DEFAULT NULL COMMENT '图片缩略图URL，与images一一对应',
+    `large_images`        varchar(1000)       DEFAULT NULL COMMENT '图片压缩图URL，与images一一对应',
     `create_time`         datetime   NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     `update_time`         datetime   NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     PRIMARY KEY (`id`),
-    KEY `idx_user_id` (`user_id`),
+    KEY `idx_user_check_in_date` (`user_id`, `check_in_date`),
     KEY `idx_check_in_date` (`check_in_date`),
     KEY `idx_user_plan_id` (`user_plan_id`)
 ) ENGINE = InnoDB
@@ -129,4 +135,23 @@ CREATE TABLE IF NOT EXISTS `user_favorite`
     KEY `idx_user_id` (`user_id`),
     KEY `idx_type` (`type`)
 ) ENGINE = InnoDB
-  DEFAULT CHARSET = utf8mb4 COMMENT ='用户收藏表';
\ No newline at end of file
+  DEFAULT CHARSET = utf8mb4 COMMENT ='用户收藏表';
+
+-- 7. 上传文件表（按内容去重）
+CREATE TABLE IF NOT EXISTS `stored_file`
+(
+    `id`           bigint(20)   NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `hash`         char(64)     NOT NULL COMMENT '内容SHA-256',
+    `object_key`   varchar(255) NOT NULL COMMENT '对象路径',
+    `url`          varchar(255) NOT NULL COMMENT '访问地址',
+    `file_size`    bigint(20)   NOT NULL COMMENT '文件大小(字节)',
+    `content_type` varchar(100)          DEFAULT NULL COMMENT '内容类型',
+    `ref_count`    int(11)      NOT NULL DEFAULT 0 COMMENT '业务数据引用次数，上传本身不计数',
+    `create_time`  datetime     NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `update_time`  datetime     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_hash` (`hash`),
+    KEY `idx_url` (`url`),
+    KEY `idx_ref_count_update_time` (`ref_count`, `update_time`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='上传文件表';
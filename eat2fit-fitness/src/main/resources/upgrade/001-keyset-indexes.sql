@@ -0,0 +1,20 @@
+-- 已有数据库升级：游标分页按 (过滤列, 排序列, id) 查询，补充对应的联合索引
+-- 新建的数据库直接执行 db.sql 即可，不需要执行本脚本
+-- 大表加索引会占用较多IO，建议在低峰期执行
+
+use eat2fit_fitness;
+
+ALTER TABLE `workout_course`
+    ADD KEY `idx_status_create_time` (`status`, `create_time`);
+
+ALTER TABLE `workout_plan`
+    ADD KEY `idx_status_create_time` (`status`, `create_time`);
+
+-- 新的联合索引以 user_id 开头，可以代替原来的 user_id 单列索引
+ALTER TABLE `user_workout_plan`
+    ADD KEY `idx_user_create_time` (`user_id`, `create_time`),
+    DROP KEY `idx_user_id`;
+
+ALTER TABLE `workout_check_in`
+    ADD KEY `idx_user_check_in_date` (`user_id`, `check_in_date`),
+    DROP KEY `idx_user_id`;
@@ -0,0 +1,34 @@
+-- 已有数据库升级：上传去重的文件表，引用次数改为按业务数据引用计数
+-- 新建的数据库直接执行 db.sql 即可，不需要执行本脚本
+-- 执行期间不要修改课程、计划和打卡，否则需要重新执行最后的重新计数
+
+use eat2fit_fitness;
+
+CREATE TABLE IF NOT EXISTS `stored_file`
+(
+    `id`           bigint(20)   NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `hash`         char(64)     NOT NULL COMMENT '内容SHA-256',
+    `object_key`   varchar(255) NOT NULL COMMENT '对象路径',
+    `url`          varchar(255) NOT NULL COMMENT '访问地址',
+    `file_size`    bigint(20)   NOT NULL COMMENT '文件大小(字节)',
+    `content_type` varchar(100)          DEFAULT NULL COMMENT '内容类型',
+    `ref_count`    int(11)      NOT NULL DEFAULT 0 COMMENT '业务数据引用次数，上传本身不计数',
+    `create_time`  datetime     NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `update_time`  datetime     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_hash` (`hash`),
+    KEY `idx_url` (`url`),
+    KEY `idx_ref_count_update_time` (`ref_count`, `update_time`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='上传文件表';
+
+-- 之前按上传次数计数，默认值改为0
+ALTER TABLE `stored_file`
+    ALTER COLUMN `ref_count` SET DEFAULT 0;
+
+-- 按课程封面和视频、计划封面、打卡图片重新计数
+UPDATE `stored_file` f
+SET f.`ref_count` = (SELECT COUNT(*) FROM `workout_course` WHERE `cover_img` = f.`url`)
+    + (SELECT COUNT(*) FROM `workout_course` WHERE `video_url` = f.`url`)
+    + (SELECT COUNT(*) FROM `workout_plan` WHERE `cover_img` = f.`url`)
+    + (SELECT COUNT(*) FROM `workout_check_in` WHERE FIND_IN_SET(f.`url`, `images`) > 0);
@@ -0,0 +1,13 @@
+-- 已有数据库升级：课程封面和打卡图片的缩略图、压缩图地址
+-- 新建的数据库直接执行 db.sql 即可，不需要执行本脚本
+-- 已有图片不会自动生成派生版本，派生地址为空时继续使用原图
+
+use eat2fit_fitness;
+
+ALTER TABLE `workout_course`
+    ADD COLUMN `cover_thumb` varchar(255) DEFAULT NULL COMMENT '封面缩略图URL' AFTER `cover_img`,
+    ADD COLUMN `cover_large` varchar(255) DEFAULT NULL COMMENT '封面压缩图URL' AFTER `cover_thumb`;
+
+ALTER TABLE `workout_check_in`
+    ADD COLUMN `thumb_images` varchar(1000) DEFAULT NULL COMMENT '图片缩略图URL，与images一一对应' AFTER `images`,
+    ADD COLUMN `large_images` varchar(1000) DEFAULT NULL COMMENT '图片压缩图URL，与images一一对应' AFTER `thumb_images`;
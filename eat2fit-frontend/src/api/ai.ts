@@ -65,6 +65,8 @@ export const healthQA = (prompt: string, chatId: string): Promise<Response> => {
     'Accept': 'text/event-stream',
     'Cache-Control': 'no-cache',
     'Content-Type': 'application/json',
+    // 网关按会话ID把同一会话路由到同一个AI实例
+    'X-Chat-Id': chatId,
   };
   
   if (getToken()) {
@@ -134,6 +134,16 @@ export const getRecommendRecipes = (limit: number = 6, cancelToken?: CancelToken
   });
 };
 
+/**
+ * 记录一次食谱观看
+ * 详情接口在网关合并并发请求，不再顺带增加观看次数
+ * @param recipeId 食谱ID
+ * @returns 操作结果
+ */
+export const increaseRecipeView = (recipeId: number): Promise<ApiResponse<boolean>> => {
+  return request.post(`/diet/recipes/view/${recipeId}`);
+};
+
 /**
  * 点赞食谱
  * @param recipeId 食谱ID
@@ -126,7 +126,7 @@ export const getCourses = (params: QueryParams, cancelToken?: CancelTokenSource)
 /**
  * 获取课程详情
  * 调用后端 /fitness/courses/{id} 接口获取课程详情
- * 后端会自动增加课程的观看次数
+ * 观看次数需要另外调用 increaseCourseView 记录
  * @param id 课程ID
  * @param cancelToken 可选的取消请求令牌
  * @returns 课程详情数据
@@ -139,10 +139,12 @@ export const getRecommendCourses = (limit: number = 6): Promise<ApiResponse<Cour
   return request.get('/fitness/courses/recommend', { params: { limit } });
 };
 
+/**
+ * 记录一次课程观看
+ * 详情接口在网关合并并发请求，不再顺带增加观看次数
+ */
 export const increaseCourseView = (courseId: number): Promise<ApiResponse<boolean>> => {
-  // 由于后端没有直接提供增加浏览量的接口，所以这里调整为模拟实现
-  // 实际上浏览量是在获取详情时自动增加的
-  return Promise.resolve({ success: true, code: 200, message: '操作成功', data: true });
+  return request.post(`/fitness/courses/view/${courseId}`);
 };
 
 export const likeCourse = (courseId: number): Promise<ApiResponse<boolean>> => {
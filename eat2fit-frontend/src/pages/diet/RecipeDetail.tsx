@@ -29,6 +29,7 @@ import {
 } from '@ant-design/icons';
 import { 
   getRecipeDetail, 
+  increaseRecipeView,
   likeRecipe, 
   unlikeRecipe, 
   addRecipeFavorite, 
@@ -71,6 +72,8 @@ const RecipeDetail: React.FC = () => {
         setRecipe(res.data);
         setLikeCount(res.data.likeCount || 0);
         setIsFavorite(res.data.isFavorite || false);
+        // 观看次数单独记录，失败不影响浏览
+        increaseRecipeView(recipeId).catch(() => undefined);
         
         // 单独确认收藏状态
         checkFavoriteStatus(recipeId);
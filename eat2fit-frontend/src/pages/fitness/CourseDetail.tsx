@@ -24,7 +24,7 @@ import {
   DashboardOutlined,
   LikeOutlined
 } from '@ant-design/icons';
-import { getCourseDetail, likeCourse, unlikeCourse, addFavorite, removeFavorite, checkFavorite, Course } from '@/api/fitness';
+import { getCourseDetail, increaseCourseView, likeCourse, unlikeCourse, addFavorite, removeFavorite, checkFavorite, Course } from '@/api/fitness';
 
 const { Title, Paragraph } = Typography;
 
@@ -62,6 +62,8 @@ const CourseDetail: React.FC = () => {
         
         if (response.success) {
           setCourseData(response.data);
+          // 观看次数单独记录，失败不影响浏览
+          increaseCourseView(Number(id)).catch(() => undefined);
         } else {
           message.error(response.message || '获取课程详情失败');
         }
@@ -82,12 +84,9 @@ const CourseDetail: React.FC = () => {
   const checkFavoriteStatus = async (courseId: number) => {
     try {
       const response = await checkFavorite(1, courseId);
-      if (response.success && courseData) {
-        // 更新课程收藏状态
-        setCourseData({
-          ...courseData,
-          isFavorite: response.data
-        });
+      if (response.success) {
+        // 更新课程收藏状态，课程详情不含收藏状态
+        setCourseData(prev => prev ? { ...prev, isFavorite: response.data } : prev);
       }
     } catch (error) {
       console.error('检查收藏状态失败', error);
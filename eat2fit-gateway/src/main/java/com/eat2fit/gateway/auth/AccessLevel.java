@@ -0,0 +1,22 @@
+package com.eat2fit.gateway.auth;
+
+/**
+ * 路由访问级别
+ */
+public enum AccessLevel {
+
+    /**
+     * 无需登录
+     */
+    PUBLIC,
+
+    /**
+     * 需要登录
+     */
+    AUTHENTICATED,
+
+    /**
+     * 需要管理员角色
+     */
+    ADMIN
+}
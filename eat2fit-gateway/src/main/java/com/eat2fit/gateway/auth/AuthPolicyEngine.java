@@ -0,0 +1,174 @@
+package com.eat2fit.gateway.auth;
+
+import com.eat2fit.gateway.config.AuthProperties;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 路由鉴权策略
+ * <p>
+ * 启动时把 ef.auth 下的规则按路径段编译成前缀树，匹配时只沿请求路径走一遍，
+ * 耗时与路径深度有关，与规则数量无关。
+ * 支持的路径段：字面量、{@code *}、{@code {var}}（均匹配单段）以及结尾的 {@code **}（匹配剩余任意段）。
+ * 多条规则同时命中时，字面量优先于单段通配，单段通配优先于 {@code **}；同一位置上限定了请求方法的规则优先。
+ * 没有规则命中时使用默认级别。
+ */
+@Slf4j
+@Component
+public class AuthPolicyEngine {
+
+    private static final String CATCH_ALL = "**";
+
+    private final Node root = new Node();
+
+    private final AccessLevel defaultLevel;
+
+    public AuthPolicyEngine(AuthProperties authProperties) {
+        this.defaultLevel = authProperties.getDefaultLevel();
+        // 兼容旧配置：excludePaths 等价于 PUBLIC 规则
+        if (authProperties.getExcludePaths() != null) {
+            for (String path : authProperties.getExcludePaths()) {
+                addRule(path, null, AccessLevel.PUBLIC);
+            }
+        }
+        if (authProperties.getRules() != null) {
+            for (AuthProperties.Rule rule : authProperties.getRules()) {
+                addRule(rule.getPattern(), rule.getMethods(), rule.getLevel());
+            }
+        }
+        root.sort();
+        log.info("网关鉴权规则编译完成，默认级别: {}", defaultLevel);
+    }
+
+    /**
+     * 获取请求需要的访问级别
+     * @param method 请求方法
+     * @param path 请求路径
+     * @return 访问级别
+     */
+    public AccessLevel resolve(HttpMethod method, String path) {
+        String[] segments = StringUtils.tokenizeToStringArray(path, "/");
+        Rule rule = match(root, segments, 0, method);
+        return rule == null ? defaultLevel : rule.level;
+    }
+
+    private Rule match(Node node, String[] segments, int index, HttpMethod method) {
+        if (index == segments.length) {
+            Rule rule = node.find(node.exactRules, method);
+            // /a/** 也匹配 /a 本身
+            return rule != null ? rule : node.find(node.catchAllRules, method);
+        }
+        Node literal = node.literals.get(segments[index]);
+        if (literal != null) {
+            Rule rule = match(literal, segments, index + 1, method);
+            if (rule != null) {
+                return rule;
+            }
+        }
+        if (node.wildcard != null) {
+            Rule rule = match(node.wildcard, segments, index + 1, method);
+            if (rule != null) {
+                return rule;
+            }
+        }
+        return node.find(node.catchAllRules, method);
+    }
+
+    private void addRule(String pattern, List<String> methods, AccessLevel level) {
+        if (!StringUtils.hasText(pattern) || level == null) {
+            throw new IllegalArgumentException("鉴权规则缺少pattern或level: " + pattern);
+        }
+        String[] segments = StringUtils.tokenizeToStringArray(pattern, "/");
+        Node node = root;
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (CATCH_ALL.equals(segment)) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("** 只能出现在规则末尾: " + pattern);
+                }
+                node.catchAllRules.add(new Rule(pattern, toMethodSet(methods), level));
+                return;
+            }
+            if ("*".equals(segment) || (segment.startsWith("{") && segment.endsWith("}"))) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+            } else if (segment.contains("*") || segment.contains("{")) {
+                throw new IllegalArgumentException("不支持段内通配: " + pattern);
+            } else {
+                node = node.literals.computeIfAbsent(segment, k -> new Node());
+            }
+        }
+        node.exactRules.add(new Rule(pattern, toMethodSet(methods), level));
+    }
+
+    private static Set<HttpMethod> toMethodSet(List<String> methods) {
+        if (CollectionUtils.isEmpty(methods)) {
+            return null;
+        }
+        Set<HttpMethod> set = new HashSet<>();
+        for (String method : methods) {
+            set.add(HttpMethod.valueOf(method.trim().toUpperCase()));
+        }
+        return set;
+    }
+
+    private static class Node {
+
+        private final Map<String, Node> literals = new HashMap<>();
+
+        private Node wildcard;
+
+        private final List<Rule> exactRules = new ArrayList<>();
+
+        private final List<Rule> catchAllRules = new ArrayList<>();
+
+        private Rule find(List<Rule> rules, HttpMethod method) {
+            for (Rule rule : rules) {
+                if (rule.methods == null || rule.methods.contains(method)) {
+                    return rule;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * 限定了请求方法的规则排在前面
+         */
+        private void sort() {
+            Comparator<Rule> comparator = Comparator.comparing(rule -> rule.methods == null);
+            exactRules.sort(comparator);
+            catchAllRules.sort(comparator);
+            literals.values().forEach(Node::sort);
+            if (wildcard != null) {
+                wildcard.sort();
+            }
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Rule {
+
+        private final String pattern;
+
+        /**
+         * 为null表示不限请求方法
+         */
+        private final Set<HttpMethod> methods;
+
+        private final AccessLevel level;
+    }
+}
@@ -0,0 +1,67 @@
+package com.eat2fit.gateway.auth;
+
+import com.eat2fit.common.dto.RevocationDTO;
+import com.eat2fit.common.util.HmacUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 吊销名单端点，只暴露在管理端口上
+ * <p>
+ * GET /actuator/revocation 查看名单大小；
+ * POST /actuator/revocation，请求体 {"payload": "RevocationDTO的JSON", "signature": "payload的HMAC-SHA256"}，
+ * 由用户服务推送增量。签名使用双方共享的 ef.revocation.secret，签名不对或数据生成时间超过 max-age 的推送被拒绝，
+ * 管理端口即使被内网其他服务访问到，也不能伪造或重放禁用、解禁。未配置密钥时启动失败。
+ */
+@Slf4j
+@Component
+@Endpoint(id = "revocation")
+public class RevocationEndpoint {
+
+    private final RevocationList revocationList;
+
+    private final ObjectMapper objectMapper;
+
+    private final String secret;
+
+    private final long maxAgeMillis;
+
+    public RevocationEndpoint(RevocationList revocationList, ObjectMapper objectMapper,
+                              @Value("${ef.revocation.secret:}") String secret,
+                              @Value("${ef.revocation.max-age:5m}") Duration maxAge) {
+        this.revocationList = revocationList;
+        this.objectMapper = objectMapper;
+        this.secret = HmacUtil.requireSecret(secret, "ef.revocation.secret");
+        this.maxAgeMillis = maxAge.toMillis();
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return revocationList.stats();
+    }
+
+    @WriteOperation
+    public Map<String, Object> apply(String payload, String signature) throws JsonProcessingException {
+        if (!HmacUtil.verify(secret, payload, signature)) {
+            log.warn("token吊销推送签名错误，已忽略");
+            throw new InvalidEndpointRequestException("签名错误", "invalid signature");
+        }
+        RevocationDTO revocation = objectMapper.readValue(payload, RevocationDTO.class);
+        if (Math.abs(System.currentTimeMillis() - revocation.getTimestamp()) > maxAgeMillis) {
+            log.warn("token吊销推送已过期，生成时间: {}", revocation.getTimestamp());
+            throw new InvalidEndpointRequestException("推送已过期", "expired payload");
+        }
+        revocationList.apply(revocation);
+        return revocationList.stats();
+    }
+}
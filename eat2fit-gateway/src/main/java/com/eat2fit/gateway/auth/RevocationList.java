@@ -0,0 +1,143 @@
+package com.eat2fit.gateway.auth;
+
+import com.eat2fit.common.dto.RevocationDTO;
+import com.eat2fit.gateway.utils.BloomFilter;
+import com.eat2fit.gateway.utils.TokenInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 已吊销token和被禁用用户
+ * <p>
+ * 精确数据放在两个 ConcurrentHashMap 中：用户ID -> notBefore，token ID -> 过期时间。
+ * 前面各加一个布隆过滤器，绝大多数请求的用户和token都不在名单里，判断一次位图即可返回，
+ * 命中时再查精确集合。布隆过滤器不支持删除，解除限制只删精确数据，清理过期数据时整体重建。
+ * 数据由用户服务推送，并定期拉取全量快照校准，请求路径上不访问数据库。
+ * 快照与已有数据合并而不是替换：被禁用的用户以快照为准（快照来自数据库的用户状态），
+ * 快照生成之后才推送过来的禁用保留；其余记录取较晚的 notBefore，过期后由 {@link #purgeExpired()} 清理。
+ */
+@Slf4j
+@Component
+public class RevocationList {
+
+    private static final int MIN_BLOOM_CAPACITY = 10_000;
+
+    private static final double BLOOM_FALSE_POSITIVE_RATE = 0.001;
+
+    /**
+     * token有效期，notBefore 超过这个时间后之前签发的token都已过期，可以清理
+     */
+    private static final long TOKEN_TTL_MILLIS = 12 * 60 * 60 * 1000L;
+
+    private final Map<Long, Long> userNotBefore = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    /**
+     * 被禁用用户的禁用时间（用户服务生成数据的时间），用于判断快照是否比禁用更新
+     */
+    private final Map<Long, Long> disabledAt = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter userBloom = new BloomFilter(MIN_BLOOM_CAPACITY, BLOOM_FALSE_POSITIVE_RATE);
+
+    private volatile BloomFilter tokenBloom = new BloomFilter(MIN_BLOOM_CAPACITY, BLOOM_FALSE_POSITIVE_RATE);
+
+    /**
+     * 判断token是否已失效
+     */
+    public boolean isRevoked(TokenInfo tokenInfo) {
+        Long userId = tokenInfo.getUserId();
+        if (userBloom.mightContain(userId)) {
+            Long notBefore = userNotBefore.get(userId);
+            if (notBefore != null && (notBefore == RevocationDTO.DISABLED || tokenInfo.getIssuedAt() < notBefore)) {
+                return true;
+            }
+        }
+        String tokenId = tokenInfo.getTokenId();
+        return tokenId != null && tokenBloom.mightContain(tokenId) && revokedTokens.containsKey(tokenId);
+    }
+
+    /**
+     * 应用用户服务推送或拉取的数据
+     */
+    public synchronized void apply(RevocationDTO revocation) {
+        Map<Long, Long> users = revocation.getUsers() == null ? Map.of() : revocation.getUsers();
+        long timestamp = revocation.getTimestamp();
+        if (revocation.isSnapshot()) {
+            // 快照中不再禁用的用户解除禁用，快照生成后才推送的禁用除外
+            userNotBefore.entrySet().removeIf(e -> e.getValue() == RevocationDTO.DISABLED
+                    && !users.containsKey(e.getKey())
+                    && disabledAt.getOrDefault(e.getKey(), 0L) <= timestamp);
+        }
+        users.forEach((userId, notBefore) -> {
+            if (notBefore == null || notBefore == RevocationDTO.CLEARED) {
+                userNotBefore.remove(userId);
+                disabledAt.remove(userId);
+            } else if (notBefore == RevocationDTO.DISABLED) {
+                userNotBefore.put(userId, notBefore);
+                disabledAt.merge(userId, timestamp, Math::max);
+                userBloom.put(userId);
+            } else if (!revocation.isSnapshot() || isNewer(userId, notBefore, timestamp)) {
+                userNotBefore.put(userId, notBefore);
+                disabledAt.remove(userId);
+                userBloom.put(userId);
+            }
+        });
+        if (revocation.getTokens() != null) {
+            revocation.getTokens().forEach((tokenId, expiresAt) -> {
+                revokedTokens.put(tokenId, expiresAt == null ? Long.MAX_VALUE : expiresAt);
+                tokenBloom.put(tokenId);
+            });
+        }
+        if (revocation.isSnapshot()) {
+            rebuild();
+        }
+        log.info("更新token吊销名单，快照: {}，用户: {}，token: {}",
+                revocation.isSnapshot(), userNotBefore.size(), revokedTokens.size());
+    }
+
+    /**
+     * 快照中的 notBefore 是否应该覆盖已有记录：已有的禁用比快照新时保留禁用，已有的 notBefore 更晚时保留已有的
+     */
+    private boolean isNewer(Long userId, long notBefore, long timestamp) {
+        Long existing = userNotBefore.get(userId);
+        if (existing == null) {
+            return true;
+        }
+        if (existing == RevocationDTO.DISABLED) {
+            return disabledAt.getOrDefault(userId, 0L) <= timestamp;
+        }
+        return notBefore > existing;
+    }
+
+    /**
+     * 清理已过期的数据，重建布隆过滤器
+     */
+    public synchronized void purgeExpired() {
+        long now = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt < now);
+        userNotBefore.values().removeIf(notBefore -> notBefore != RevocationDTO.DISABLED && notBefore + TOKEN_TTL_MILLIS < now);
+        disabledAt.keySet().retainAll(userNotBefore.keySet());
+        rebuild();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("users", userNotBefore.size());
+        stats.put("tokens", revokedTokens.size());
+        return stats;
+    }
+
+    private void rebuild() {
+        BloomFilter users = new BloomFilter(Math.max(MIN_BLOOM_CAPACITY, userNotBefore.size() * 2), BLOOM_FALSE_POSITIVE_RATE);
+        userNotBefore.keySet().forEach(users::put);
+        BloomFilter tokens = new BloomFilter(Math.max(MIN_BLOOM_CAPACITY, revokedTokens.size() * 2), BLOOM_FALSE_POSITIVE_RATE);
+        revokedTokens.keySet().forEach(tokens::put);
+        userBloom = users;
+        tokenBloom = tokens;
+    }
+}
@@ -0,0 +1,84 @@
+package com.eat2fit.gateway.auth;
+
+import com.eat2fit.common.dto.RevocationDTO;
+import com.eat2fit.common.response.Result;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+
+/**
+ * 定期从用户服务拉取吊销名单全量快照
+ * <p>
+ * 用户服务在禁用用户、修改角色、重置密码、退出登录时会主动推送增量（见 RevocationEndpoint），
+ * 这里负责启动时加载和推送丢失后的校准，同时清理过期的token。
+ */
+@Slf4j
+@Component
+public class RevocationSync {
+
+    private static final ParameterizedTypeReference<Result<RevocationDTO>> RESULT_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    private final RevocationList revocationList;
+
+    private final WebClient webClient;
+
+    private final Duration interval;
+
+    private Disposable task;
+
+    public RevocationSync(RevocationList revocationList, WebClient.Builder webClientBuilder,
+                          ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction,
+                          @Value("${ef.revocation.sync-interval:5m}") Duration interval) {
+        this.revocationList = revocationList;
+        this.webClient = webClientBuilder.clone().filter(loadBalancerFunction).build();
+        this.interval = interval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        task = Flux.interval(Duration.ZERO, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> pull())
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (task != null) {
+            task.dispose();
+        }
+    }
+
+    private Mono<Void> pull() {
+        return webClient.get()
+                .uri("http://eat2fit-user/internal/revocations")
+                .retrieve()
+                .bodyToMono(RESULT_TYPE)
+                .timeout(Duration.ofSeconds(10))
+                .doOnNext(result -> {
+                    if (result.getData() != null) {
+                        RevocationDTO snapshot = result.getData();
+                        snapshot.setSnapshot(true);
+                        revocationList.apply(snapshot);
+                    }
+                    revocationList.purgeExpired();
+                })
+                .onErrorResume(e -> {
+                    log.warn("拉取token吊销名单失败: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+}
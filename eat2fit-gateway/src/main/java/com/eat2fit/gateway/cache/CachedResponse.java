@@ -0,0 +1,33 @@
+package com.eat2fit.gateway.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.http.MediaType;
+
+/**
+ * 缓存的下游响应
+ */
+@Data
+@AllArgsConstructor
+public class CachedResponse {
+
+    /**
+     * 响应类型
+     */
+    private MediaType contentType;
+
+    /**
+     * 响应体
+     */
+    private byte[] body;
+
+    /**
+     * 强ETag，带双引号
+     */
+    private String etag;
+
+    /**
+     * 存活时间（纳秒）
+     */
+    private long ttlNanos;
+}
@@ -0,0 +1,117 @@
+package com.eat2fit.gateway.cache;
+
+import com.eat2fit.gateway.config.ResponseCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * 网关响应缓存
+ * <p>
+ * 只保存在本实例内存中，按响应体字节数限制总容量，每个条目按路由配置的TTL过期。
+ * key 以分组名开头，管理接口修改数据后按分组清除。
+ */
+@Slf4j
+@Component
+public class ResponseCache {
+
+    private static final String GROUP_SEPARATOR = "|";
+
+    private final boolean enabled;
+
+    private final Cache<String, CachedResponse> cache;
+
+    public ResponseCache(ResponseCacheProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumWeight())
+                .weigher((String key, CachedResponse value) -> key.length() + value.getBody().length)
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+                        return value.getTtlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+                        return value.getTtlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, "gateway.response"));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 生成缓存key
+     * @param group 分组
+     * @param requestKey 路径、参数等组成的请求标识
+     */
+    public static String key(String group, String requestKey) {
+        return group + GROUP_SEPARATOR + requestKey;
+    }
+
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(String key, CachedResponse response) {
+        cache.put(key, response);
+    }
+
+    /**
+     * 清除某个分组的全部缓存，供管理接口写操作后调用
+     * @param group 分组，为空时清除全部
+     */
+    public void purge(String group) {
+        if (group == null || group.isEmpty()) {
+            cache.invalidateAll();
+            log.info("清除全部网关响应缓存");
+            return;
+        }
+        String prefix = group + GROUP_SEPARATOR;
+        cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+        log.info("清除网关响应缓存，分组: {}", group);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * 根据响应体计算强ETag
+     */
+    public static String etag(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            // 取前16字节已足够区分同一个key下的不同版本
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.eat2fit.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 响应缓存管理端点：GET /actuator/responsecache 查看统计，
+ * DELETE /actuator/responsecache?group=xxx 清除分组缓存（不传group清除全部）。
+ * 端点只暴露在管理端口上，不经过网关路由。
+ */
+@Component
+@Endpoint(id = "responsecache")
+@RequiredArgsConstructor
+public class ResponseCacheEndpoint {
+
+    private final ResponseCache responseCache;
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        CacheStats stats = responseCache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", responseCache.size());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+
+    @DeleteOperation
+    public void purge(@Nullable String group) {
+        responseCache.purge(group);
+    }
+}
@@ -0,0 +1,151 @@
+package com.eat2fit.gateway.cache;
+
+import com.eat2fit.gateway.config.AuthProperties;
+import com.eat2fit.gateway.utils.JwtTokenUtil;
+import com.eat2fit.gateway.utils.TokenInfo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已校验token缓存
+ * <p>
+ * 同一个客户端在12小时会话内会反复携带同一个token，缓存校验结果后，
+ * 命中时无需再做HS256验签和claims解析。缓存key为token的SHA-256摘要，不保存token原文；
+ * 每个条目在token的exp时刻过期，超过容量时按Caffeine的策略淘汰。
+ */
+@Slf4j
+@Component
+public class TokenCache {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtTokenUtil jwtTokenUtil;
+
+    private final boolean enabled;
+
+    private final Cache<String, TokenInfo> cache;
+
+    public TokenCache(JwtTokenUtil jwtTokenUtil, AuthProperties authProperties,
+                      ObjectProvider<MeterRegistry> meterRegistry) {
+        this.jwtTokenUtil = jwtTokenUtil;
+        AuthProperties.TokenCache config = authProperties.getTokenCache();
+        this.enabled = config.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, "gateway.token"));
+    }
+
+    /**
+     * 校验并解析token，优先从缓存读取
+     * @param token authorization请求头，可带Bearer前缀
+     * @return token信息
+     */
+    public TokenInfo verify(String token) {
+        if (!enabled || token == null) {
+            return jwtTokenUtil.parseTokenInfo(token);
+        }
+        String raw = token.startsWith(BEARER_PREFIX) ? token.substring(BEARER_PREFIX.length()) : token;
+        if (raw.isEmpty()) {
+            return jwtTokenUtil.parseTokenInfo(token);
+        }
+        String key = digest(raw);
+        TokenInfo cached = cache.getIfPresent(key);
+        if (cached != null) {
+            // Caffeine按过期时间惰性清理，这里再判断一次，避免返回刚好过期的条目
+            if (cached.getExpiresAt() == 0 || cached.getExpiresAt() > System.currentTimeMillis()) {
+                return cached;
+            }
+            cache.invalidate(key);
+        }
+        // 未命中时完整验签，解析失败的token不缓存
+        TokenInfo info = jwtTokenUtil.parseTokenInfo(raw);
+        cache.put(key, info);
+        return info;
+    }
+
+    /**
+     * 移除某个token的缓存
+     */
+    public void invalidate(String token) {
+        if (token == null) {
+            return;
+        }
+        String raw = token.startsWith(BEARER_PREFIX) ? token.substring(BEARER_PREFIX.length()) : token;
+        cache.invalidate(digest(raw));
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * 命中率等统计信息
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private static String digest(String raw) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] hash = md.digest(raw.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // JDK必须支持SHA-256，不会走到这里
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 条目存活到token的exp为止
+     */
+    private static class TokenExpiry implements Expiry<String, TokenInfo> {
+
+        /**
+         * 没有exp的token最多缓存12小时，与签发有效期一致
+         */
+        private static final long MAX_TTL_NANOS = TimeUnit.HOURS.toNanos(12);
+
+        @Override
+        public long expireAfterCreate(String key, TokenInfo value, long currentTime) {
+            if (value.getExpiresAt() == 0) {
+                return MAX_TTL_NANOS;
+            }
+            long remainingMillis = value.getExpiresAt() - System.currentTimeMillis();
+            return Math.max(0, Math.min(TimeUnit.MILLISECONDS.toNanos(remainingMillis), MAX_TTL_NANOS));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, TokenInfo value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, TokenInfo value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.eat2fit.gateway.concurrency;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * 自适应并发限制（AIMD）
+ * <p>
+ * 以观察到的最小延迟为基线：延迟不超过基线的 rttTolerance 倍且并发已用到一半以上时，并发上限加一；
+ * 请求失败或延迟超过阈值时，上限乘以 backoffRatio，每个基线周期最多减一次，避免瞬间压到最低。
+ * 基线缓慢向上衰减，下游整体变慢后能重新校准。
+ * 超过上限的请求最多排队 maxWait，仍拿不到许可则返回空，由调用方拒绝。
+ * <p>
+ * 不依赖 Spring，便于在压测中单独使用。
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double backoffRatio;
+
+    private final double rttTolerance;
+
+    private final int maxQueue;
+
+    /**
+     * 当前并发上限，按 Double.doubleToLongBits 保存，增减都用CAS，避免并发的加一覆盖刚执行的乘性减少
+     */
+    private final AtomicLong limitBits = new AtomicLong();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /**
+     * 基线延迟（纳秒），0表示还没有样本
+     */
+    private final AtomicLong baselineRtt = new AtomicLong();
+
+    private final AtomicLong lastDecrease = new AtomicLong();
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      double backoffRatio, double rttTolerance, int maxQueue) {
+        this.limitBits.set(Double.doubleToLongBits(initialLimit));
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.rttTolerance = rttTolerance;
+        this.maxQueue = maxQueue;
+    }
+
+    /**
+     * 获取许可，需要时排队等待
+     * @param maxWait 最长排队时间，为0时不排队
+     * @return 许可；超过上限且排队超时或队列已满时为空
+     */
+    public Mono<Permit> acquire(Duration maxWait) {
+        Permit permit = tryAcquire();
+        if (permit != null) {
+            return Mono.just(permit);
+        }
+        if (maxWait.isZero() || queued.get() >= maxQueue) {
+            return Mono.empty();
+        }
+        return Mono.<Permit>create(sink -> {
+                    Waiter waiter = new Waiter(sink);
+                    sink.onCancel(waiter::cancel);
+                    queued.incrementAndGet();
+                    waiters.offer(waiter);
+                    // 入队前可能刚好有请求释放，这里补一次分配
+                    drain();
+                })
+                .timeout(maxWait)
+                .onErrorResume(TimeoutException.class, e -> Mono.empty());
+    }
+
+    /**
+     * 不排队，立即尝试获取许可
+     * @return 许可，超过上限时为null
+     */
+    public Permit tryAcquire() {
+        if (!waiters.isEmpty() || !tryIncrement()) {
+            return null;
+        }
+        return new Permit(inFlight.get());
+    }
+
+    public int getLimit() {
+        return (int) limit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    private boolean tryIncrement() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void drain() {
+        while (!waiters.isEmpty()) {
+            if (!tryIncrement()) {
+                return;
+            }
+            Waiter waiter = pollWaiting();
+            if (waiter == null) {
+                inFlight.decrementAndGet();
+                return;
+            }
+            waiter.grant(new Permit(inFlight.get()));
+        }
+    }
+
+    private Waiter pollWaiting() {
+        Waiter waiter;
+        while ((waiter = waiters.poll()) != null) {
+            queued.decrementAndGet();
+            if (waiter.state.compareAndSet(Waiter.WAITING, Waiter.GRANTED)) {
+                return waiter;
+            }
+        }
+        return null;
+    }
+
+    private void onSample(long rttNanos, int inFlightAtStart, boolean dropped) {
+        long baseline = updateBaseline(rttNanos);
+        boolean overloaded = dropped || rttNanos > baseline * rttTolerance;
+        if (overloaded) {
+            long now = System.nanoTime();
+            long last = lastDecrease.get();
+            if (now - last >= baseline && lastDecrease.compareAndSet(last, now)) {
+                updateLimit(current -> Math.max(minLimit, current * backoffRatio));
+            }
+        } else {
+            updateLimit(current -> inFlightAtStart * 2 >= current ? Math.min(maxLimit, current + 1) : current);
+        }
+    }
+
+    private double limit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    /**
+     * 基于最新的上限计算新值并CAS写回，失败时重新读取后重试
+     */
+    private void updateLimit(DoubleUnaryOperator update) {
+        while (true) {
+            long bits = limitBits.get();
+            double current = Double.longBitsToDouble(bits);
+            double next = update.applyAsDouble(current);
+            if (next == current || limitBits.compareAndSet(bits, Double.doubleToLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 取最小延迟作为基线，每个样本向上衰减1%
+     */
+    private long updateBaseline(long rttNanos) {
+        while (true) {
+            long baseline = baselineRtt.get();
+            long next = baseline == 0 ? rttNanos : Math.min(rttNanos, baseline + baseline / 100 + 1);
+            if (baselineRtt.compareAndSet(baseline, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * 并发许可，请求结束时必须调用一次 release
+     */
+    public class Permit {
+
+        private final long startNanos = System.nanoTime();
+
+        private final int inFlightAtStart;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * 释放许可并记录样本
+         * @param dropped 请求是否失败（5xx、超时等）
+         */
+        public void release(boolean dropped) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            onSample(System.nanoTime() - startNanos, inFlightAtStart, dropped);
+            inFlight.decrementAndGet();
+            drain();
+        }
+
+        /**
+         * 释放许可，不记录样本（客户端取消等）
+         */
+        public void ignore() {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            inFlight.decrementAndGet();
+            drain();
+        }
+    }
+
+    private class Waiter {
+
+        private static final int WAITING = 0;
+
+        private static final int GRANTED = 1;
+
+        private static final int CANCELLED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        private final MonoSink<Permit> sink;
+
+        private volatile Permit permit;
+
+        private volatile boolean cancelledAfterGrant;
+
+        private Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+
+        private void grant(Permit permit) {
+            this.permit = permit;
+            if (cancelledAfterGrant) {
+                permit.ignore();
+                return;
+            }
+            sink.success(permit);
+        }
+
+        private void cancel() {
+            if (state.compareAndSet(WAITING, CANCELLED)) {
+                return;
+            }
+            // 已分配但下游已取消，许可不会再被使用，直接归还
+            cancelledAfterGrant = true;
+            Permit granted = permit;
+            if (granted != null) {
+                granted.ignore();
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.eat2fit.gateway.config;
 
+import com.eat2fit.gateway.auth.AccessLevel;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
@@ -17,4 +18,52 @@ public class AuthProperties {
     private List<String> includePaths;
 
     private List<String> excludePaths;
+
+    /**
+     * 没有规则命中时的访问级别
+     */
+    private AccessLevel defaultLevel = AccessLevel.AUTHENTICATED;
+
+    /**
+     * 路由鉴权规则，见 AuthPolicyEngine
+     */
+    private List<Rule> rules;
+
+    /**
+     * 已校验token缓存配置
+     */
+    private TokenCache tokenCache = new TokenCache();
+
+    @Data
+    public static class Rule {
+
+        /**
+         * 路径规则，如 /admin/**、/fitness/plans/{id}
+         */
+        private String pattern;
+
+        /**
+         * 限定的请求方法，为空表示全部
+         */
+        private List<String> methods;
+
+        /**
+         * 访问级别
+         */
+        private AccessLevel level;
+    }
+
+    @Data
+    public static class TokenCache {
+
+        /**
+         * 是否启用
+         */
+        private boolean enabled = true;
+
+        /**
+         * 最多缓存的token数量
+         */
+        private long maximumSize = 100_000;
+    }
 }
@@ -0,0 +1,47 @@
+package com.eat2fit.gateway.config;
+
+import com.eat2fit.gateway.ratelimit.LocalTokenBucketRateLimiter;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ef.batch")
+public class BatchProperties {
+
+    /**
+     * 单次批量请求最多包含的子请求数
+     */
+    private int maxRequests = 20;
+
+    /**
+     * 单次批量请求内的最大并发
+     */
+    private int maxConcurrency = 6;
+
+    /**
+     * 单个子请求超时时间
+     */
+    private Duration timeout = Duration.ofSeconds(10);
+
+    /**
+     * 单个子请求响应体上限
+     */
+    private int maxResponseBytes = 1024 * 1024;
+
+    /**
+     * 子请求的限流，按用户（未登录按IP）计算，每个子请求消耗一个令牌；默认每分钟120个，最多连续40个
+     */
+    private LocalTokenBucketRateLimiter.Config rateLimit = defaultRateLimit();
+
+    private static LocalTokenBucketRateLimiter.Config defaultRateLimit() {
+        LocalTokenBucketRateLimiter.Config config = new LocalTokenBucketRateLimiter.Config();
+        config.setReplenishRate(120);
+        config.setPeriod(Duration.ofMinutes(1));
+        config.setBurstCapacity(40);
+        return config;
+    }
+}
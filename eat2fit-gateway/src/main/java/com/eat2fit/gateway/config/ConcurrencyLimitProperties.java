@@ -0,0 +1,60 @@
+package com.eat2fit.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ef.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    /**
+     * 是否启用
+     */
+    private boolean enabled = true;
+
+    /**
+     * 初始并发上限
+     */
+    private int initialLimit = 20;
+
+    /**
+     * 并发上限的下限
+     */
+    private int minLimit = 4;
+
+    /**
+     * 并发上限的上限
+     */
+    private int maxLimit = 500;
+
+    /**
+     * 过载时上限的收缩比例
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * 延迟超过基线多少倍视为过载
+     */
+    private double rttTolerance = 2.0;
+
+    /**
+     * 排队请求数上限
+     */
+    private int maxQueue = 100;
+
+    /**
+     * 最长排队时间，超时返回503
+     */
+    private Duration maxWait = Duration.ofMillis(200);
+
+    /**
+     * 不做限制的路由ID，流式响应的延迟不能反映下游负载
+     */
+    private List<String> excludeRoutes = new ArrayList<>();
+}
@@ -0,0 +1,30 @@
+package com.eat2fit.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ef.loadbalancer")
+public class HashLoadBalancerProperties {
+
+    /**
+     * 是否按一致性哈希选择实例，关闭后轮询
+     */
+    private boolean enabled = true;
+
+    /**
+     * 每个实例的虚拟节点数（权重为1时）
+     */
+    private int virtualNodes = 160;
+
+    /**
+     * 按会话ID路由的服务：服务名 -> 会话ID参数名，
+     * 依次从查询参数、X-Chat-Id 请求头和路径最后一段取值，取不到时按用户ID
+     */
+    private Map<String, String> sessionParams = new HashMap<>();
+}
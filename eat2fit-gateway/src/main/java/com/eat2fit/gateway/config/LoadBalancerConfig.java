@@ -0,0 +1,13 @@
+package com.eat2fit.gateway.config;
+
+import com.eat2fit.gateway.loadbalancer.ConsistentHashLoadBalancerConfiguration;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 所有 lb:// 服务默认使用一致性哈希负载均衡
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = ConsistentHashLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
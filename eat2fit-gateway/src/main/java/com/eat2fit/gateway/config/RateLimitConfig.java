@@ -0,0 +1,54 @@
+package com.eat2fit.gateway.config;
+
+import com.eat2fit.common.constant.Constants;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * 限流配置
+ */
+@Configuration
+public class RateLimitConfig {
+
+    /**
+     * 批量请求的子请求经本机回环进入网关时携带的原始客户端IP
+     */
+    public static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+    /**
+     * 按用户限流：使用 AuthGlobalFilter 写入的用户ID，未登录的请求按客户端IP
+     */
+    @Bean
+    public KeyResolver userKeyResolver() {
+        return exchange -> {
+            String userId = exchange.getRequest().getHeaders().getFirst(Constants.USER_INFO_HEADER);
+            if (StringUtils.hasText(userId)) {
+                return Mono.just("user:" + userId);
+            }
+            return Mono.just("ip:" + clientIp(exchange.getRequest()));
+        };
+    }
+
+    /**
+     * 客户端IP；只有本机回环的请求（批量子请求）才使用 X-Forwarded-For，外部请求的该头不可信
+     */
+    public static String clientIp(ServerHttpRequest request) {
+        InetSocketAddress address = request.getRemoteAddress();
+        if (address == null || address.getAddress() == null) {
+            return "unknown";
+        }
+        if (address.getAddress().isLoopbackAddress()) {
+            String forwarded = request.getHeaders().getFirst(FORWARDED_FOR_HEADER);
+            if (StringUtils.hasText(forwarded)) {
+                return forwarded.split(",")[0].trim();
+            }
+        }
+        return address.getAddress().getHostAddress();
+    }
+}
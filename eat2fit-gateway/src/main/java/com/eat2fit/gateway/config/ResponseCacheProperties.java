@@ -0,0 +1,21 @@
+package com.eat2fit.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ef.response-cache")
+public class ResponseCacheProperties {
+
+    /**
+     * 是否启用，关闭后所有路由的ResponseCache过滤器直接放行
+     */
+    private boolean enabled = true;
+
+    /**
+     * 缓存响应体的总字节数上限
+     */
+    private long maximumWeight = 64 * 1024 * 1024;
+}
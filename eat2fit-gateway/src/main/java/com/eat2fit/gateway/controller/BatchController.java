@@ -0,0 +1,194 @@
+package com.eat2fit.gateway.controller;
+
+import com.eat2fit.common.response.Result;
+import com.eat2fit.gateway.cache.TokenCache;
+import com.eat2fit.gateway.config.BatchProperties;
+import com.eat2fit.gateway.config.RateLimitConfig;
+import com.eat2fit.gateway.dto.BatchRequestDTO;
+import com.eat2fit.gateway.ratelimit.LocalTokenBucketRateLimiter;
+import com.eat2fit.gateway.vo.BatchItemVO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 批量请求控制器
+ * <p>
+ * 前端首页等页面一次提交多个子请求，网关并发转发后合并返回。
+ * 子请求通过本机回环再次进入网关，走同样的路由、鉴权、限流和缓存，并携带调用方的 Authorization
+ * 和客户端IP（X-Forwarded-For）。批量接口本身不经过路由过滤器，转发前每个子请求还要从调用方的
+ * 批量限流桶（ef.batch.rate-limit）取一个令牌，避免用一次批量请求绕过限流。
+ */
+@Slf4j
+@RestController
+public class BatchController {
+
+    private static final String RATE_LIMIT_ROUTE = "batch";
+
+    private static final Set<HttpMethod> ALLOWED_METHODS = Set.of(HttpMethod.GET, HttpMethod.POST, HttpMethod.PUT, HttpMethod.DELETE);
+
+    private final BatchProperties properties;
+
+    private final ObjectMapper objectMapper;
+
+    private final TokenCache tokenCache;
+
+    private final LocalTokenBucketRateLimiter rateLimiter;
+
+    private final String baseUrl;
+
+    private final WebClient webClient;
+
+    public BatchController(BatchProperties properties, ObjectMapper objectMapper, TokenCache tokenCache,
+                           LocalTokenBucketRateLimiter rateLimiter, WebClient.Builder webClientBuilder,
+                           @Value("${server.port:8080}") int serverPort) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.tokenCache = tokenCache;
+        this.rateLimiter = rateLimiter;
+        this.baseUrl = "http://127.0.0.1:" + serverPort;
+        this.webClient = webClientBuilder
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(properties.getMaxResponseBytes()))
+                .build();
+    }
+
+    @PostMapping("/batch")
+    public Mono<Result<List<BatchItemVO>>> batch(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestBody BatchRequestDTO batchRequest, ServerHttpRequest httpRequest) {
+        //1.校验请求数量
+        List<BatchRequestDTO.Item> items = batchRequest.getRequests();
+        if (items == null || items.isEmpty()) {
+            return Mono.just(Result.validateFailed("子请求不能为空"));
+        }
+        if (items.size() > properties.getMaxRequests()) {
+            return Mono.just(Result.validateFailed("子请求数量不能超过" + properties.getMaxRequests()));
+        }
+        //2.并发执行，结果保持提交顺序
+        String clientIp = RateLimitConfig.clientIp(httpRequest);
+        String rateLimitKey = rateLimitKey(authorization, clientIp);
+        return Flux.fromIterable(items)
+                .flatMapSequential(item -> execute(item, authorization, clientIp, rateLimitKey), properties.getMaxConcurrency())
+                .collectList()
+                .map(Result::success);
+    }
+
+    private Mono<BatchItemVO> execute(BatchRequestDTO.Item item, String authorization, String clientIp, String rateLimitKey) {
+        //1.只允许网关内的相对路径，不能嵌套批量请求
+        String path = item.getPath();
+        if (!StringUtils.hasText(path) || !path.startsWith("/") || path.startsWith("//") || path.startsWith("/batch")) {
+            return Mono.just(new BatchItemVO(item.getId(), HttpStatus.BAD_REQUEST.value(), "非法的请求路径"));
+        }
+        HttpMethod method = StringUtils.hasText(item.getMethod())
+                ? HttpMethod.valueOf(item.getMethod().trim().toUpperCase()) : HttpMethod.GET;
+        if (!ALLOWED_METHODS.contains(method)) {
+            return Mono.just(new BatchItemVO(item.getId(), HttpStatus.METHOD_NOT_ALLOWED.value(), "不支持的请求方法"));
+        }
+
+        URI uri;
+        try {
+            // 子请求路径是已编码的原始路径，不作为URI模板展开，也不再编码
+            uri = UriComponentsBuilder.fromUriString(baseUrl + path).build(true).toUri();
+        } catch (IllegalArgumentException e) {
+            return Mono.just(new BatchItemVO(item.getId(), HttpStatus.BAD_REQUEST.value(), "非法的请求路径"));
+        }
+
+        //2.每个子请求消耗一个令牌
+        LocalTokenBucketRateLimiter.Response allowed =
+                rateLimiter.tryAcquire(RATE_LIMIT_ROUTE, rateLimitKey, properties.getRateLimit());
+        if (!allowed.isAllowed()) {
+            return Mono.just(new BatchItemVO(item.getId(), HttpStatus.TOO_MANY_REQUESTS.value(), "请求过于频繁，请稍后重试"));
+        }
+
+        //3.转发到网关自身
+        WebClient.RequestBodySpec spec = webClient.method(method)
+                .uri(uri)
+                .headers(headers -> {
+                    if (authorization != null) {
+                        headers.set(HttpHeaders.AUTHORIZATION, authorization);
+                    }
+                    headers.set(RateLimitConfig.FORWARDED_FOR_HEADER, clientIp);
+                });
+        WebClient.RequestHeadersSpec<?> request = item.getBody() == null
+                ? spec
+                : spec.contentType(MediaType.APPLICATION_JSON).bodyValue(item.getBody());
+        return request.exchangeToMono(response -> response.bodyToMono(byte[].class)
+                        .defaultIfEmpty(new byte[0])
+                        .map(bytes -> new BatchItemVO(item.getId(), response.statusCode().value(),
+                                parseBody(bytes, response.headers().contentType().orElse(null)))))
+                .timeout(properties.getTimeout())
+                .onErrorResume(e -> {
+                    log.warn("批量子请求失败，path: {}，原因: {}", path, e.getMessage());
+                    return Mono.just(new BatchItemVO(item.getId(), errorStatus(e), e.getMessage()));
+                });
+    }
+
+    /**
+     * 超时返回504，连接失败等下游错误返回502，请求本身无法构造时返回400
+     */
+    private static int errorStatus(Throwable e) {
+        if (e instanceof WebClientResponseException ex) {
+            return ex.getStatusCode().value();
+        }
+        if (e instanceof TimeoutException) {
+            return HttpStatus.GATEWAY_TIMEOUT.value();
+        }
+        if (e instanceof WebClientRequestException) {
+            return HttpStatus.BAD_GATEWAY.value();
+        }
+        if (e instanceof IllegalArgumentException) {
+            return HttpStatus.BAD_REQUEST.value();
+        }
+        return HttpStatus.BAD_GATEWAY.value();
+    }
+
+    /**
+     * 批量限流key：已登录按用户ID，与路由限流一致；token无效或未登录按客户端IP
+     */
+    private String rateLimitKey(String authorization, String clientIp) {
+        if (authorization != null) {
+            try {
+                return "user:" + tokenCache.verify(authorization).getUserId();
+            } catch (Exception e) {
+                // token无效时子请求会被鉴权拒绝，这里按IP计数
+            }
+        }
+        return "ip:" + clientIp;
+    }
+
+    private Object parseBody(byte[] bytes, MediaType contentType) {
+        if (bytes.length == 0) {
+            return null;
+        }
+        if (contentType != null && MediaType.APPLICATION_JSON.isCompatibleWith(contentType)) {
+            try {
+                return objectMapper.readTree(bytes);
+            } catch (Exception e) {
+                log.warn("批量子请求响应不是合法JSON: {}", e.getMessage());
+            }
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,42 @@
+package com.eat2fit.gateway.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量请求
+ */
+@Data
+public class BatchRequestDTO {
+
+    /**
+     * 子请求列表，按顺序返回结果
+     */
+    private List<Item> requests;
+
+    @Data
+    public static class Item {
+
+        /**
+         * 调用方自定义的标识，原样返回
+         */
+        private String id;
+
+        /**
+         * 请求方法，默认GET
+         */
+        private String method;
+
+        /**
+         * 网关路径，含查询参数，如 /diet/recipes/recommend?limit=4
+         */
+        private String path;
+
+        /**
+         * 请求体（JSON）
+         */
+        private JsonNode body;
+    }
+}
@@ -0,0 +1,108 @@
+package com.eat2fit.gateway.filters;
+
+import com.eat2fit.gateway.concurrency.AdaptiveConcurrencyLimiter;
+import com.eat2fit.gateway.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 按路由的自适应并发限制
+ * <p>
+ * 对 lb:// 路由各维护一个 AdaptiveConcurrencyLimiter，在负载均衡之前获取许可，
+ * 超过上限的请求短暂排队，仍拿不到许可时返回 503，避免下游变慢时请求无限堆积。
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyGlobalFilter implements GlobalFilter, Ordered {
+
+    private final ConcurrencyLimitProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> shedCounters = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyGlobalFilter(ConcurrencyLimitProperties properties,
+                                           ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry.getIfAvailable();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || route == null || !"lb".equals(route.getUri().getScheme())
+                || properties.getExcludeRoutes().contains(route.getId())) {
+            return chain.filter(exchange);
+        }
+        AdaptiveConcurrencyLimiter limiter = limiters.computeIfAbsent(route.getId(), this::createLimiter);
+        return limiter.acquire(properties.getMaxWait())
+                .map(permit -> chain.filter(exchange).doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        permit.ignore();
+                        return;
+                    }
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    boolean dropped = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+                    permit.release(dropped);
+                }))
+                .switchIfEmpty(Mono.fromSupplier(() -> shed(exchange, route.getId())))
+                .flatMap(mono -> mono);
+    }
+
+    private Mono<Void> shed(ServerWebExchange exchange, String routeId) {
+        Counter counter = shedCounters.get(routeId);
+        if (counter != null) {
+            counter.increment();
+        }
+        log.warn("路由 {} 并发已满，拒绝请求: {}", routeId, exchange.getRequest().getPath());
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set("Retry-After", "1");
+        return response.setComplete();
+    }
+
+    private AdaptiveConcurrencyLimiter createLimiter(String routeId) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                properties.getInitialLimit(), properties.getMinLimit(), properties.getMaxLimit(),
+                properties.getBackoffRatio(), properties.getRttTolerance(), properties.getMaxQueue());
+        if (meterRegistry != null) {
+            Gauge.builder("gateway.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("route", routeId).register(meterRegistry);
+            Gauge.builder("gateway.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("route", routeId).register(meterRegistry);
+            Gauge.builder("gateway.concurrency.queued", limiter, AdaptiveConcurrencyLimiter::getQueued)
+                    .tag("route", routeId).register(meterRegistry);
+            shedCounters.put(routeId, Counter.builder("gateway.concurrency.shed")
+                    .tag("route", routeId).register(meterRegistry));
+        }
+        return limiter;
+    }
+
+    @Override
+    public int getOrder() {
+        // 在负载均衡选实例之前
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+    }
+}
@@ -1,7 +1,11 @@
 package com.eat2fit.gateway.filters;
 
-import com.eat2fit.gateway.config.AuthProperties;
-import com.eat2fit.gateway.utils.JwtTokenUtil;
+import com.eat2fit.common.constant.Constants;
+import com.eat2fit.gateway.auth.AccessLevel;
+import com.eat2fit.gateway.auth.AuthPolicyEngine;
+import com.eat2fit.gateway.auth.RevocationList;
+import com.eat2fit.gateway.cache.TokenCache;
+import com.eat2fit.gateway.utils.TokenInfo;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
@@ -10,7 +14,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
-import org.springframework.util.AntPathMatcher;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
@@ -20,20 +23,27 @@ import java.util.List;
 @RequiredArgsConstructor
 public class AuthGlobalFilter implements GlobalFilter,Ordered{
 
-    private final AuthProperties authProperties;
+    private final AuthPolicyEngine authPolicyEngine;
 
-    private final JwtTokenUtil jwtTool;
+    private final TokenCache tokenCache;
 
-    private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+    private final RevocationList revocationList;
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         //1.获取 request
         ServerHttpRequest request = exchange.getRequest();
-        //2.判断是否需要做登录拦截
-        if(isExclude(request.getPath().toString())){
-            //放行
-            return chain.filter(exchange);
+        //2.判断路由的访问级别
+        AccessLevel level = authPolicyEngine.resolve(request.getMethod(), request.getPath().value());
+        if(level == AccessLevel.PUBLIC){
+            //放行，客户端自带的用户头一律去掉，下游只信任网关写入的值
+            ServerWebExchange serverWebExchange = exchange.mutate()
+                    .request(builder -> builder.headers(headers -> {
+                        headers.remove(Constants.USER_INFO_HEADER);
+                        headers.remove(Constants.USER_ROLE_HEADER);
+                    }))
+                    .build();
+            return chain.filter(serverWebExchange);
         }
         //3.获取token
         String token = null;
@@ -41,32 +51,39 @@ public class AuthGlobalFilter implements GlobalFilter,Ordered{
         if(headers != null && !headers.isEmpty()){
             token = headers.get(0);
         }
-        //4.校验并解析token
-        Long userId = null;
+        //4.校验并解析token，命中缓存时不再验签
+        TokenInfo tokenInfo;
         try {
-            userId = jwtTool.parseToken(token);
+            tokenInfo = tokenCache.verify(token);
         }catch (Exception e){
             // 拦截，设置响应状态码为401
-            ServerHttpResponse response = exchange.getResponse();
-            response.setStatusCode(HttpStatus.UNAUTHORIZED);
-            return response.setComplete();
+            return reject(exchange, HttpStatus.UNAUTHORIZED);
         }
-        // 5.传递用户信息
-        String userInfo = userId.toString();
+        //5.已吊销的token或被禁用的用户
+        if(revocationList.isRevoked(tokenInfo)){
+            return reject(exchange, HttpStatus.UNAUTHORIZED);
+        }
+        //6.校验角色
+        Integer role = tokenInfo.getRole();
+        if(level == AccessLevel.ADMIN && (role == null || role != Constants.ROLE_ADMIN)){
+            return reject(exchange, HttpStatus.FORBIDDEN);
+        }
+        //7.传递用户信息
+        String userInfo = tokenInfo.getUserId().toString();
+        String userRole = role == null ? "0" : role.toString();
         ServerWebExchange serverWebExchange = exchange.mutate()
-                .request(builder -> builder.header("user-info", userInfo))
+                .request(builder -> builder
+                        .header(Constants.USER_INFO_HEADER, userInfo)
+                        .header(Constants.USER_ROLE_HEADER, userRole))
                 .build();
-        //6.放行
+        //8.放行
         return chain.filter(serverWebExchange);
     }
 
-    private boolean isExclude(String path) {
-        for (String pathPattern : authProperties.getExcludePaths()) {
-            if (antPathMatcher.match(pathPattern,path)) {
-                return true;
-            }
-        }
-        return false;
+    private Mono<Void> reject(ServerWebExchange exchange, HttpStatus status) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        return response.setComplete();
     }
 
     @Override
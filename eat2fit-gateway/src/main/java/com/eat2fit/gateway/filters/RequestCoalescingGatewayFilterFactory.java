@@ -0,0 +1,183 @@
+package com.eat2fit.gateway.filters;
+
+import com.eat2fit.gateway.utils.PathPatterns;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 相同GET请求合并（single-flight）
+ * <p>
+ * 同一个key的请求在下游返回之前只转发一次，其余请求等待并复制这次的响应。
+ * key由路由ID、路径、查询参数和 varyHeaders 组成；响应含当前用户信息（如 isFavorite）时，
+ * 必须把 user-info 加入 varyHeaders，避免不同用户之间共享响应。
+ * 领头请求失败、响应体过大或等待超时时，跟随的请求各自转发。
+ */
+@Slf4j
+@Component
+public class RequestCoalescingGatewayFilterFactory extends AbstractGatewayFilterFactory<RequestCoalescingGatewayFilterFactory.Config> {
+
+    private final Map<String, Sinks.One<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter sharedCounter;
+
+    public RequestCoalescingGatewayFilterFactory(ObjectProvider<MeterRegistry> meterRegistry) {
+        super(Config.class);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        this.sharedCounter = registry == null ? null : Counter.builder("gateway.coalescing.shared")
+                .description("复用进行中请求响应的次数")
+                .register(registry);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        List<PathPattern> patterns = PathPatterns.compile(config.getPaths());
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET
+                    || !PathPatterns.matches(patterns, request.getPath().pathWithinApplication())) {
+                return chain.filter(exchange);
+            }
+            String key = config.getName() + "|" + PathPatterns.requestKey(request, config.getVaryHeaders());
+            Sinks.One<SharedResponse> sink = Sinks.one();
+            Sinks.One<SharedResponse> existing = inFlight.putIfAbsent(key, sink);
+            if (existing != null) {
+                return follow(existing, config, exchange, chain);
+            }
+            return lead(key, sink, config, exchange, chain);
+        };
+    }
+
+    /**
+     * 领头请求：转发到下游，写回时把响应体发布给等待的请求
+     */
+    private Mono<Void> lead(String key, Sinks.One<SharedResponse> sink, Config config,
+                            ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpResponseDecorator decorator = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                return DataBufferUtils.join(Flux.from(body))
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(joined -> {
+                            byte[] bytes = new byte[0];
+                            if (joined.isPresent()) {
+                                DataBuffer buffer = joined.get();
+                                bytes = new byte[buffer.readableByteCount()];
+                                buffer.read(bytes);
+                                DataBufferUtils.release(buffer);
+                            }
+                            // 先从等待表中移除，之后到达的请求重新转发，拿到的是新数据
+                            inFlight.remove(key, sink);
+                            if (bytes.length <= config.getMaxBodySize()) {
+                                sink.tryEmitValue(new SharedResponse(getStatusCode(), getHeaders().getContentType(), bytes));
+                            }
+                            return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                        });
+            }
+        };
+        return chain.filter(exchange.mutate().response(decorator).build())
+                .doFinally(signal -> {
+                    // 出错、取消或没有写响应体时，通知等待的请求各自转发
+                    inFlight.remove(key, sink);
+                    sink.tryEmitEmpty();
+                });
+    }
+
+    /**
+     * 跟随请求：等待领头请求的响应并复制
+     */
+    private Mono<Void> follow(Sinks.One<SharedResponse> sink, Config config,
+                              ServerWebExchange exchange, GatewayFilterChain chain) {
+        return sink.asMono()
+                .timeout(config.getTimeout())
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .onErrorReturn(Optional.empty())
+                .flatMap(shared -> {
+                    if (shared.isEmpty()) {
+                        return chain.filter(exchange);
+                    }
+                    if (sharedCounter != null) {
+                        sharedCounter.increment();
+                    }
+                    return write(exchange.getResponse(), shared.get());
+                });
+    }
+
+    private Mono<Void> write(ServerHttpResponse response, SharedResponse shared) {
+        response.setStatusCode(shared.getStatus());
+        if (shared.getContentType() != null) {
+            response.getHeaders().setContentType(shared.getContentType());
+        }
+        response.getHeaders().setContentLength(shared.getBody().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.getBody())));
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class SharedResponse {
+
+        private HttpStatusCode status;
+
+        private MediaType contentType;
+
+        private byte[] body;
+    }
+
+    @Data
+    public static class Config {
+
+        /**
+         * 合并范围，不同路由使用不同的名称
+         */
+        private String name = "default";
+
+        /**
+         * 需要合并的GET路径
+         */
+        private List<String> paths;
+
+        /**
+         * 参与key的请求头，响应因用户而异时加上 user-info
+         */
+        private List<String> varyHeaders;
+
+        /**
+         * 跟随请求最长等待时间，超时后自行转发
+         */
+        private Duration timeout = Duration.ofSeconds(5);
+
+        /**
+         * 超过该大小的响应体不共享
+         */
+        private int maxBodySize = 1024 * 1024;
+    }
+}
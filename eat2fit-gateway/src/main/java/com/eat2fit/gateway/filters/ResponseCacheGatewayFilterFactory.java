@@ -0,0 +1,226 @@
+package com.eat2fit.gateway.filters;
+
+import com.eat2fit.gateway.cache.CachedResponse;
+import com.eat2fit.gateway.cache.ResponseCache;
+import com.eat2fit.gateway.utils.PathPatterns;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 响应缓存过滤器，按路由显式开启
+ * <p>
+ * 只缓存命中 paths 的 GET 请求，且只缓存 HTTP 200 且 Result.code 为 200 的响应。
+ * 缓存key由路径、查询参数和 varyHeaders 指定的请求头组成；响应带强ETag，
+ * 客户端携带匹配的 If-None-Match 时返回 304。
+ * 经过该路由且命中 purgePaths 的写请求成功后，清除本分组的缓存。
+ */
+@Slf4j
+@Component
+public class ResponseCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    /**
+     * 判断业务是否成功时流式读取 Result 的 code 字段，不构造整棵JSON树
+     */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final ResponseCache responseCache;
+
+    public ResponseCacheGatewayFilterFactory(ResponseCache responseCache) {
+        super(Config.class);
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        List<PathPattern> cachePatterns = PathPatterns.compile(config.getPaths());
+        List<PathPattern> purgePatterns = PathPatterns.compile(config.getPurgePaths());
+        long ttlNanos = config.getTtl().toNanos();
+        return (exchange, chain) -> {
+            if (!responseCache.isEnabled()) {
+                return chain.filter(exchange);
+            }
+            ServerHttpRequest request = exchange.getRequest();
+            PathContainer path = request.getPath().pathWithinApplication();
+            if (request.getMethod() == HttpMethod.GET) {
+                if (PathPatterns.matches(cachePatterns, path)) {
+                    return cachedFilter(config, ttlNanos, exchange, chain);
+                }
+                return chain.filter(exchange);
+            }
+            if (PathPatterns.matches(purgePatterns, path)) {
+                // 写请求完成后清除本分组缓存
+                return chain.filter(exchange).then(Mono.fromRunnable(() -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (status == null || status.is2xxSuccessful()) {
+                        responseCache.purge(config.getGroup());
+                    }
+                }));
+            }
+            return chain.filter(exchange);
+        };
+    }
+
+    private Mono<Void> cachedFilter(Config config, long ttlNanos, ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        ServerHttpResponse response = exchange.getResponse();
+        String key = ResponseCache.key(config.getGroup(), PathPatterns.requestKey(request, config.getVaryHeaders()));
+
+        //1.命中缓存，直接返回
+        CachedResponse cached = responseCache.get(key);
+        if (cached != null) {
+            HttpHeaders headers = response.getHeaders();
+            headers.setETag(cached.getEtag());
+            headers.set(CACHE_STATUS_HEADER, "HIT");
+            if (etagMatches(request, cached.getEtag())) {
+                response.setStatusCode(HttpStatus.NOT_MODIFIED);
+                return response.setComplete();
+            }
+            response.setStatusCode(HttpStatus.OK);
+            if (cached.getContentType() != null) {
+                headers.setContentType(cached.getContentType());
+            }
+            headers.setContentLength(cached.getBody().length);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.getBody())));
+        }
+
+        //2.未命中，转发并在写回时保存响应体
+        ServerHttpResponseDecorator decorator = new ServerHttpResponseDecorator(response) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                HttpStatusCode status = getStatusCode();
+                if (status != null && status.value() != HttpStatus.OK.value()) {
+                    return super.writeWith(body);
+                }
+                return DataBufferUtils.join(Flux.from(body))
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(joined -> {
+                            if (joined.isEmpty()) {
+                                return super.writeWith(Flux.empty());
+                            }
+                            DataBuffer buffer = joined.get();
+                            byte[] bytes = new byte[buffer.readableByteCount()];
+                            buffer.read(bytes);
+                            DataBufferUtils.release(buffer);
+                            if (bytes.length > config.getMaxBodySize() || !isSuccessResult(bytes)) {
+                                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                            }
+                            String etag = ResponseCache.etag(bytes);
+                            responseCache.put(key, new CachedResponse(getHeaders().getContentType(), bytes, etag, ttlNanos));
+                            getHeaders().setETag(etag);
+                            getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+                            if (etagMatches(request, etag)) {
+                                setStatusCode(HttpStatus.NOT_MODIFIED);
+                                getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+                                getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+                                return setComplete();
+                            }
+                            return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                        });
+            }
+        };
+        return chain.filter(exchange.mutate().response(decorator).build());
+    }
+
+    private static boolean etagMatches(ServerHttpRequest request, String etag) {
+        List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+        for (String candidate : ifNoneMatch) {
+            if ("*".equals(candidate)) {
+                return true;
+            }
+            // If-None-Match 使用弱比较
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 响应体是 Result 且 code 为 200，字段顺序不影响判断
+     */
+    static boolean isSuccessResult(byte[] bytes) {
+        try (JsonParser parser = JSON_FACTORY.createParser(bytes)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("code".equals(field)) {
+                    return value == JsonToken.VALUE_NUMBER_INT && parser.getIntValue() == HttpStatus.OK.value();
+                }
+                parser.skipChildren();
+            }
+            return false;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Data
+    public static class Config {
+
+        /**
+         * 缓存分组，清除缓存时以分组为单位
+         */
+        private String group = "default";
+
+        /**
+         * 需要缓存的GET路径
+         */
+        private List<String> paths;
+
+        /**
+         * 写请求命中这些路径时清除本分组缓存
+         */
+        private List<String> purgePaths;
+
+        /**
+         * 参与缓存key的请求头，响应因用户而异时加上 user-info
+         */
+        private List<String> varyHeaders;
+
+        /**
+         * 缓存时间
+         */
+        private Duration ttl = Duration.ofMinutes(5);
+
+        /**
+         * 超过该大小的响应体不缓存
+         */
+        private int maxBodySize = 512 * 1024;
+    }
+}
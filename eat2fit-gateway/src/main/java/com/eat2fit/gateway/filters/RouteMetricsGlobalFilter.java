@@ -0,0 +1,78 @@
+package com.eat2fit.gateway.filters;
+
+import com.eat2fit.gateway.metrics.RouteMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.URI;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 记录每个路由的延迟和在途请求数，见 RouteMetrics
+ * <p>
+ * 排在所有过滤器之前，耗时包含鉴权、限流、排队和下游处理。
+ * 首字节时间在响应提交（写出响应头）时记录，只统计 text/event-stream 响应。
+ */
+@Component
+@RequiredArgsConstructor
+public class RouteMetricsGlobalFilter implements GlobalFilter, Ordered {
+
+    private static final String NO_INSTANCE = "none";
+
+    private final RouteMetrics routeMetrics;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+        RouteMetrics.RouteStats stats = routeMetrics.route(route.getId());
+        long start = System.nanoTime();
+        stats.requestStarted();
+        exchange.getResponse().beforeCommit(() -> {
+            MediaType contentType = exchange.getResponse().getHeaders().getContentType();
+            if (contentType != null && MediaType.TEXT_EVENT_STREAM.isCompatibleWith(contentType)) {
+                stats.firstByte(instance(exchange), System.nanoTime() - start);
+            }
+            return Mono.empty();
+        });
+        return chain.filter(exchange).doFinally(signal -> {
+            int statusClass;
+            if (signal == SignalType.ON_COMPLETE) {
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                statusClass = RouteMetrics.statusClass(status == null ? 200 : status.value());
+            } else {
+                statusClass = RouteMetrics.statusClass(null);
+            }
+            stats.requestFinished(statusClass, instance(exchange), System.nanoTime() - start);
+        });
+    }
+
+    /**
+     * 负载均衡后的请求地址 host:port
+     */
+    private static String instance(ServerWebExchange exchange) {
+        URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        if (url == null || url.getRawAuthority() == null || "lb".equals(url.getScheme())) {
+            return NO_INSTANCE;
+        }
+        return url.getRawAuthority();
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
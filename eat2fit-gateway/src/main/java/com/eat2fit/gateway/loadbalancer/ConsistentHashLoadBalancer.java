@@ -0,0 +1,129 @@
+package com.eat2fit.gateway.loadbalancer;
+
+import com.eat2fit.common.constant.Constants;
+import com.eat2fit.gateway.config.HashLoadBalancerProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 一致性哈希负载均衡
+ * <p>
+ * AI 服务把会话记忆保存在实例内存中，同一个会话需要落到同一个实例，按会话ID哈希；
+ * 其余服务按用户ID哈希，让同一用户的请求集中到同一实例，提高实例本地缓存命中率。
+ * 取不到key的请求轮询。Nacos 实例变化时重建哈希环，只有少量key会迁移。
+ */
+@Slf4j
+public class ConsistentHashLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private static final String CHAT_ID_HEADER = "X-Chat-Id";
+
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+
+    private final String serviceId;
+
+    private final HashLoadBalancerProperties properties;
+
+    private final AtomicInteger roundRobin = new AtomicInteger();
+
+    private volatile ConsistentHashRing ring;
+
+    public ConsistentHashLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+                                      String serviceId, HashLoadBalancerProperties properties) {
+        this.supplierProvider = supplierProvider;
+        this.serviceId = serviceId;
+        this.properties = properties;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instances -> select(instances, request));
+    }
+
+    @SuppressWarnings("rawtypes")
+    private Response<ServiceInstance> select(List<ServiceInstance> instances, Request request) {
+        if (instances.isEmpty()) {
+            log.warn("服务 {} 没有可用实例", serviceId);
+            return new EmptyResponse();
+        }
+        String key = properties.isEnabled() ? resolveKey(request) : null;
+        if (key == null) {
+            int index = Math.abs(roundRobin.getAndIncrement() % instances.size());
+            return new DefaultResponse(instances.get(index));
+        }
+        return new DefaultResponse(ring(instances).select(key));
+    }
+
+    private ConsistentHashRing ring(List<ServiceInstance> instances) {
+        ConsistentHashRing current = ring;
+        if (current != null && current.getSignature().equals(ConsistentHashRing.signature(instances))) {
+            return current;
+        }
+        ConsistentHashRing rebuilt = new ConsistentHashRing(instances, properties.getVirtualNodes());
+        log.info("服务 {} 实例变化，重建哈希环: {}", serviceId, rebuilt.getSignature());
+        ring = rebuilt;
+        return rebuilt;
+    }
+
+    /**
+     * 会话ID优先，其次用户ID
+     */
+    @SuppressWarnings("rawtypes")
+    private String resolveKey(Request request) {
+        if (!(request.getContext() instanceof RequestDataContext context) || context.getClientRequest() == null) {
+            return null;
+        }
+        RequestData data = context.getClientRequest();
+        String sessionParam = properties.getSessionParams().get(serviceId);
+        if (sessionParam != null) {
+            String sessionId = sessionId(data, sessionParam);
+            if (StringUtils.hasText(sessionId)) {
+                return "session:" + sessionId;
+            }
+        }
+        String userId = data.getHeaders().getFirst(Constants.USER_INFO_HEADER);
+        return StringUtils.hasText(userId) ? "user:" + userId : null;
+    }
+
+    private static String sessionId(RequestData data, String param) {
+        URI url = data.getUrl();
+        // 1.查询参数，如 /ai/chat?chatId=xxx
+        if (url != null && url.getRawQuery() != null) {
+            String value = UriComponentsBuilder.fromUri(url).build().getQueryParams().getFirst(param);
+            if (StringUtils.hasText(value)) {
+                return value;
+            }
+        }
+        // 2.请求头，请求体中带会话ID的接口（如 /ai/health/qa）由前端同时放在请求头里
+        String header = data.getHeaders().getFirst(CHAT_ID_HEADER);
+        if (StringUtils.hasText(header)) {
+            return header;
+        }
+        // 3.路径，如 /ai/history/{type}/{chatId}
+        if (url != null && url.getPath() != null && url.getPath().startsWith("/ai/history/")) {
+            String[] segments = StringUtils.tokenizeToStringArray(url.getPath(), "/");
+            if (segments.length == 4) {
+                return segments[3];
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,24 @@
+package com.eat2fit.gateway.loadbalancer;
+
+import com.eat2fit.gateway.config.HashLoadBalancerProperties;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * 负载均衡子容器配置，由 @LoadBalancerClients 引用，不能被组件扫描到，因此不加 @Configuration
+ */
+public class ConsistentHashLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> consistentHashLoadBalancer(Environment environment,
+                                                                          LoadBalancerClientFactory clientFactory,
+                                                                          HashLoadBalancerProperties properties) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new ConsistentHashLoadBalancer(
+                clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class), serviceId, properties);
+    }
+}
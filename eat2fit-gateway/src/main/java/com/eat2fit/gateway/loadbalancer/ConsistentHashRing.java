@@ -0,0 +1,114 @@
+package com.eat2fit.gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 带虚拟节点的一致性哈希环，创建后不可变
+ * <p>
+ * 每个实例按权重映射为若干虚拟节点，请求key顺时针找到第一个虚拟节点。
+ * 实例增减时只有相邻区间的key会换实例，其余key保持不变。
+ */
+public class ConsistentHashRing {
+
+    /**
+     * Nacos 实例权重在元数据中的key
+     */
+    private static final String WEIGHT_METADATA = "nacos.weight";
+
+    private final String signature;
+
+    private final long[] hashes;
+
+    private final ServiceInstance[] owners;
+
+    public ConsistentHashRing(List<ServiceInstance> instances, int virtualNodes) {
+        List<ServiceInstance> sorted = new ArrayList<>(instances);
+        sorted.sort(Comparator.comparing(ConsistentHashRing::nodeId));
+        this.signature = signature(sorted);
+
+        List<long[]> points = new ArrayList<>();
+        List<ServiceInstance> pointOwners = new ArrayList<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            ServiceInstance instance = sorted.get(i);
+            int replicas = Math.max(1, (int) Math.round(virtualNodes * weight(instance)));
+            String nodeId = nodeId(instance);
+            for (int r = 0; r < replicas; r++) {
+                points.add(new long[]{hash(nodeId + "#" + r), i});
+            }
+        }
+        points.sort(Comparator.comparingLong(p -> p[0]));
+        this.hashes = new long[points.size()];
+        this.owners = new ServiceInstance[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            hashes[i] = points.get(i)[0];
+            owners[i] = sorted.get((int) points.get(i)[1]);
+        }
+    }
+
+    /**
+     * 按key选择实例
+     */
+    public ServiceInstance select(String key) {
+        if (hashes.length == 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(hashes, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        // 超过最后一个节点时回到环的起点
+        return owners[index == hashes.length ? 0 : index];
+    }
+
+    /**
+     * 实例列表的标识，列表不变时复用同一个环
+     */
+    public String getSignature() {
+        return signature;
+    }
+
+    public static String signature(List<ServiceInstance> instances) {
+        StringBuilder builder = new StringBuilder();
+        instances.stream().map(ConsistentHashRing::nodeId).sorted().forEach(id -> builder.append(id).append(','));
+        return builder.toString();
+    }
+
+    private static String nodeId(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+
+    private static double weight(ServiceInstance instance) {
+        Map<String, String> metadata = instance.getMetadata();
+        if (metadata == null || !metadata.containsKey(WEIGHT_METADATA)) {
+            return 1.0;
+        }
+        try {
+            return Math.max(0.01, Double.parseDouble(metadata.get(WEIGHT_METADATA)));
+        } catch (NumberFormatException e) {
+            return 1.0;
+        }
+    }
+
+    /**
+     * FNV-1a 加 MurmurHash3 的 fmix64，分布足够均匀且不分配对象
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
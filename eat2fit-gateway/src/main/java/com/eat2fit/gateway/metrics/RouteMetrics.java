@@ -0,0 +1,238 @@
+package com.eat2fit.gateway.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 网关路由的延迟直方图和在途请求数
+ * <p>
+ * 按 路由 / 状态码类别 / 下游实例 分别记录总耗时，流式响应（SSE）另外记录首字节时间。
+ * 直方图使用 HdrHistogram 的 Recorder，记录时无锁、不分配对象，单位为微秒。
+ * 分位数按时间窗口统计：读取时（actuator 端点、Micrometer 抓取）如果距上次切换已超过 {@link #WINDOW_NANOS}，
+ * 取出这段时间的区间直方图并开始新窗口，分位数反映最近一个窗口的延迟，而不是进程启动以来的累计值。
+ * 请求数是累计值，作为计数器上报。
+ */
+@Component
+public class RouteMetrics {
+
+    /**
+     * 1xx ~ 5xx，以及出错/取消
+     */
+    public static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx", "error"};
+
+    private static final int STATUS_ERROR = 5;
+
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+    /**
+     * 分位数的统计窗口，大于 Prometheus 的抓取间隔，每次抓取都能读到完整的窗口
+     */
+    private static final long WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Map<String, RouteStats> routes = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+
+    public RouteMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry.getIfAvailable();
+    }
+
+    public RouteStats route(String routeId) {
+        RouteStats stats = routes.get(routeId);
+        return stats != null ? stats : routes.computeIfAbsent(routeId, this::createRoute);
+    }
+
+    /**
+     * 状态码转类别下标
+     */
+    public static int statusClass(Integer status) {
+        if (status == null || status < 100 || status >= 600) {
+            return STATUS_ERROR;
+        }
+        return status / 100 - 1;
+    }
+
+    /**
+     * 所有路由的统计快照，毫秒
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        routes.forEach((routeId, stats) -> result.put(routeId, stats.snapshot()));
+        return result;
+    }
+
+    private RouteStats createRoute(String routeId) {
+        RouteStats stats = new RouteStats(routeId);
+        if (meterRegistry != null) {
+            Gauge.builder("gateway.route.inflight", stats.inFlight, AtomicInteger::get)
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+        }
+        return stats;
+    }
+
+    private WindowedHistogram createHistogram(String name, String routeId, String statusClass, String instance) {
+        WindowedHistogram histogram = new WindowedHistogram();
+        if (meterRegistry != null) {
+            FunctionCounter.builder(name + ".count", histogram, WindowedHistogram::totalCount)
+                    .tags("route", routeId, "status", statusClass, "instance", instance)
+                    .register(meterRegistry);
+            for (double quantile : QUANTILES) {
+                Gauge.builder(name, histogram, h -> h.window().getValueAtPercentile(quantile * 100) / 1000.0)
+                        .tags("route", routeId, "status", statusClass, "instance", instance,
+                                "quantile", String.valueOf(quantile))
+                        .baseUnit("milliseconds")
+                        .register(meterRegistry);
+            }
+        }
+        return histogram;
+    }
+
+    private static Map<String, Object> describe(WindowedHistogram windowed) {
+        Histogram histogram = windowed.window();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("count", windowed.totalCount());
+        result.put("windowCount", histogram.getTotalCount());
+        result.put("p50Ms", histogram.getValueAtPercentile(50) / 1000.0);
+        result.put("p90Ms", histogram.getValueAtPercentile(90) / 1000.0);
+        result.put("p99Ms", histogram.getValueAtPercentile(99) / 1000.0);
+        result.put("p999Ms", histogram.getValueAtPercentile(99.9) / 1000.0);
+        result.put("maxMs", histogram.getMaxValue() / 1000.0);
+        return result;
+    }
+
+    /**
+     * 按窗口滚动的直方图：记录写入 Recorder，读取时切换窗口
+     */
+    private static class WindowedHistogram {
+
+        private final Recorder recorder = new Recorder(MAX_TRACKABLE_MICROS, 2);
+
+        private final LongAdder totalCount = new LongAdder();
+
+        /**
+         * 上一个完整窗口的直方图，读取方共享，不再修改
+         */
+        private Histogram window = new Histogram(MAX_TRACKABLE_MICROS, 2);
+
+        private long windowEndsAt = System.nanoTime() + WINDOW_NANOS;
+
+        void record(long micros) {
+            recorder.recordValue(micros);
+            totalCount.increment();
+        }
+
+        long totalCount() {
+            return totalCount.sum();
+        }
+
+        /**
+         * 最近一个窗口的直方图；长时间没有读取时，区间从上次切换算起
+         */
+        synchronized Histogram window() {
+            long now = System.nanoTime();
+            if (now - windowEndsAt >= 0) {
+                window = recorder.getIntervalHistogram();
+                windowEndsAt = now + WINDOW_NANOS;
+            }
+            return window;
+        }
+    }
+
+    /**
+     * 单个路由的统计
+     */
+    public class RouteStats {
+
+        private final String routeId;
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        /**
+         * 下标为状态码类别，key 为下游实例 host:port
+         */
+        @SuppressWarnings("unchecked")
+        private final Map<String, WindowedHistogram>[] latency = new Map[STATUS_CLASSES.length];
+
+        private final Map<String, WindowedHistogram> firstByte = new ConcurrentHashMap<>();
+
+        private RouteStats(String routeId) {
+            this.routeId = routeId;
+            for (int i = 0; i < latency.length; i++) {
+                latency[i] = new ConcurrentHashMap<>();
+            }
+        }
+
+        public void requestStarted() {
+            inFlight.incrementAndGet();
+        }
+
+        /**
+         * 请求结束
+         * @param statusClass 状态码类别下标
+         * @param instance 下游实例，未选到实例时为 none
+         * @param nanos 总耗时
+         */
+        public void requestFinished(int statusClass, String instance, long nanos) {
+            inFlight.decrementAndGet();
+            Map<String, WindowedHistogram> byInstance = latency[statusClass];
+            WindowedHistogram histogram = byInstance.get(instance);
+            if (histogram == null) {
+                histogram = byInstance.computeIfAbsent(instance,
+                        i -> createHistogram("gateway.route.latency", routeId, STATUS_CLASSES[statusClass], i));
+            }
+            record(histogram, nanos);
+        }
+
+        /**
+         * 流式响应的首字节时间
+         */
+        public void firstByte(String instance, long nanos) {
+            WindowedHistogram histogram = firstByte.get(instance);
+            if (histogram == null) {
+                histogram = firstByte.computeIfAbsent(instance,
+                        i -> createHistogram("gateway.route.ttfb", routeId, "stream", i));
+            }
+            record(histogram, nanos);
+        }
+
+        private void record(WindowedHistogram histogram, long nanos) {
+            histogram.record(Math.min(MAX_TRACKABLE_MICROS, Math.max(0, nanos / 1000)));
+        }
+
+        private Map<String, Object> snapshot() {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("inFlight", inFlight.get());
+            Map<String, Object> byStatus = new LinkedHashMap<>();
+            for (int i = 0; i < latency.length; i++) {
+                if (latency[i].isEmpty()) {
+                    continue;
+                }
+                Map<String, Object> byInstance = new LinkedHashMap<>();
+                latency[i].forEach((instance, histogram) -> byInstance.put(instance, describe(histogram)));
+                byStatus.put(STATUS_CLASSES[i], byInstance);
+            }
+            result.put("latency", byStatus);
+            if (!firstByte.isEmpty()) {
+                Map<String, Object> ttfb = new LinkedHashMap<>();
+                firstByte.forEach((instance, histogram) -> ttfb.put(instance, describe(histogram)));
+                result.put("firstByte", ttfb);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.eat2fit.gateway.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 路由延迟端点：GET /actuator/routemetrics
+ */
+@Component
+@Endpoint(id = "routemetrics")
+@RequiredArgsConstructor
+public class RouteMetricsEndpoint {
+
+    private final RouteMetrics routeMetrics;
+
+    @ReadOperation
+    public Map<String, Object> metrics() {
+        return routeMetrics.snapshot();
+    }
+}
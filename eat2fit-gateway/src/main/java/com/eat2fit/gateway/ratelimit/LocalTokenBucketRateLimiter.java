@@ -0,0 +1,181 @@
+package com.eat2fit.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 进程内令牌桶限流器，不依赖Redis
+ * <p>
+ * 配合 RequestRateLimiter 过滤器使用，按路由配置速率，每个 key（通常是用户ID）一个桶。
+ * 桶使用 GCRA 算法实现：只保存一个"理论到达时间"，CAS 更新，无锁；
+ * 桶存放在有容量上限的 Caffeine 中，空闲一段时间后自动淘汰，空闲淘汰等价于桶已填满。
+ * 被拒绝的请求返回 429 并带 Retry-After（秒）。
+ */
+@Slf4j
+@Component
+public class LocalTokenBucketRateLimiter extends AbstractRateLimiter<LocalTokenBucketRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "local-rate-limiter";
+
+    private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    private static final long NANOS_PER_SECOND = Duration.ofSeconds(1).toNanos();
+
+    private final Config defaultConfig = new Config();
+
+    /**
+     * key 为 路由ID:限流key
+     */
+    private final Cache<String, Bucket> buckets = Caffeine.newBuilder()
+            .maximumSize(200_000)
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .build();
+
+    /**
+     * 各限流key被拒绝的次数，只保留最近活跃的一部分，用于查看谁在被限流
+     */
+    private final Cache<String, LongAdder> rejectedByKey = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Counter[]> routeCounters = new ConcurrentHashMap<>();
+
+    public LocalTokenBucketRateLimiter(ConfigurationService configurationService,
+                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.meterRegistry = meterRegistry.getIfAvailable();
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        return Mono.just(tryAcquire(routeId, id, getConfig().getOrDefault(routeId, defaultConfig)));
+    }
+
+    /**
+     * 按指定配置取令牌，供不经过路由过滤器的调用方使用（如批量请求）
+     * @param routeId 桶的命名空间
+     * @param id 限流key
+     */
+    public Response tryAcquire(String routeId, String id, Config config) {
+        Bucket bucket = buckets.get(routeId + ":" + id, k -> new Bucket());
+        long now = System.nanoTime();
+        long emissionInterval = Math.max(1, config.getPeriod().toNanos() / config.getReplenishRate());
+        long tolerance = emissionInterval * config.getBurstCapacity();
+        long cost = emissionInterval * config.getRequestedTokens();
+
+        while (true) {
+            long tat = bucket.tat.get();
+            long start = Math.max(tat, now);
+            long newTat = start + cost;
+            long used = newTat - now;
+            if (used > tolerance) {
+                // 令牌不足，计算还需等待多久
+                long waitNanos = used - tolerance;
+                long retryAfterSeconds = Math.max(1, (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+                record(routeId, id, false);
+                Map<String, String> headers = new LinkedHashMap<>();
+                headers.put(REMAINING_HEADER, "0");
+                headers.put(RETRY_AFTER_HEADER, String.valueOf(retryAfterSeconds));
+                return new Response(false, headers);
+            }
+            if (bucket.tat.compareAndSet(tat, newTat)) {
+                record(routeId, id, true);
+                long remaining = (tolerance - used) / emissionInterval;
+                return new Response(true, Map.of(REMAINING_HEADER, String.valueOf(remaining)));
+            }
+        }
+    }
+
+    /**
+     * 被限流最多的key
+     * @param limit 返回数量
+     */
+    public Map<String, Long> topRejected(int limit) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        rejectedByKey.asMap().entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), e.getValue().sum()))
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .forEach(e -> result.put(e.getKey(), e.getValue()));
+        return result;
+    }
+
+    public long bucketCount() {
+        return buckets.estimatedSize();
+    }
+
+    private void record(String routeId, String id, boolean allowed) {
+        if (!allowed) {
+            rejectedByKey.get(routeId + ":" + id, k -> new LongAdder()).increment();
+            log.debug("请求被限流，路由: {}，key: {}", routeId, id);
+        }
+        if (meterRegistry == null) {
+            return;
+        }
+        Counter[] counters = routeCounters.computeIfAbsent(routeId, r -> new Counter[]{
+                Counter.builder("gateway.ratelimit.requests").tag("route", r).tag("result", "allowed").register(meterRegistry),
+                Counter.builder("gateway.ratelimit.requests").tag("route", r).tag("result", "rejected").register(meterRegistry)
+        });
+        counters[allowed ? 0 : 1].increment();
+    }
+
+    /**
+     * 令牌桶，tat 为下一个令牌的理论到达时间（System.nanoTime）
+     */
+    private static class Bucket {
+
+        private final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+    }
+
+    @Data
+    @Validated
+    public static class Config {
+
+        /**
+         * 每个周期补充的令牌数
+         */
+        @Min(1)
+        private int replenishRate = 1;
+
+        /**
+         * 补充周期，默认1秒
+         */
+        private Duration period = Duration.ofSeconds(1);
+
+        /**
+         * 桶容量，即允许的突发请求数
+         */
+        @Min(1)
+        private int burstCapacity = 5;
+
+        /**
+         * 每个请求消耗的令牌数
+         */
+        @Min(1)
+        private int requestedTokens = 1;
+    }
+}
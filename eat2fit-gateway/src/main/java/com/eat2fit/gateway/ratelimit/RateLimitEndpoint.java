@@ -0,0 +1,28 @@
+package com.eat2fit.gateway.ratelimit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 限流状态端点：GET /actuator/ratelimit 查看被限流最多的用户
+ */
+@Component
+@Endpoint(id = "ratelimit")
+@RequiredArgsConstructor
+public class RateLimitEndpoint {
+
+    private final LocalTokenBucketRateLimiter rateLimiter;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("buckets", rateLimiter.bucketCount());
+        result.put("topRejected", rateLimiter.topRejected(20));
+        return result;
+    }
+}
@@ -26,6 +26,11 @@ public class JwtTokenUtil {
 
     private static final long EXPIRATION_TIME = 12 * 60 * 60 * 1000; // 12 hours in milliseconds
 
+    /**
+     * 用户服务写入的毫秒精度签发时间，旧token中没有时使用只精确到秒的 iat
+     */
+    private static final String ISSUED_AT_MILLIS = "iatMs";
+
     /**
      * 根据用户信息生成token
      */
@@ -46,6 +51,15 @@ public class JwtTokenUtil {
      * @return 用户ID
      */
     public Long parseToken(String token){
+        return parseTokenInfo(token).getUserId();
+    }
+
+    /**
+     * 解析token，返回用户ID、角色与过期时间
+     * @param token JWT令牌
+     * @return token信息
+     */
+    public TokenInfo parseTokenInfo(String token){
         //1.校验token是否为空
         if(!StringUtils.hasText(token)){
             log.warn("token为空");
@@ -59,7 +73,7 @@ public class JwtTokenUtil {
         
         //3.校验并解析token
         try {
-            log.info("开始解析token");
+            log.debug("开始解析token");
             Claims claims = Jwts.parser()
                     .setSigningKey(JWT_KEY)
                     .parseClaimsJws(token)
@@ -79,9 +93,27 @@ public class JwtTokenUtil {
                 log.error("token中id字段不是有效的数字: {}", claims.get("id"));
                 throw new BusinessException("无效的用户ID");
             }
+
+            // 角色，旧token中可能没有该字段
+            Integer role = null;
+            Object roleClaim = claims.get("role");
+            if (roleClaim != null) {
+                try {
+                    role = Integer.parseInt(roleClaim.toString());
+                } catch (NumberFormatException e) {
+                    log.warn("token中role字段不是有效的数字: {}", roleClaim);
+                }
+            }
+
+            long expiresAt = claims.getExpiration() == null ? 0L : claims.getExpiration().getTime();
+            long issuedAt = claims.getIssuedAt() == null ? 0L : claims.getIssuedAt().getTime();
+            Object issuedAtMillis = claims.get(ISSUED_AT_MILLIS);
+            if (issuedAtMillis instanceof Number number) {
+                issuedAt = number.longValue();
+            }
             
-            log.info("token解析成功，用户ID: {}", userId);
-            return userId;
+            log.debug("token解析成功，用户ID: {}", userId);
+            return new TokenInfo(userId, role, expiresAt, claims.getId(), issuedAt);
         } catch (ExpiredJwtException e) {
             log.error("token已过期", e);
             throw new BusinessException("token已过期");
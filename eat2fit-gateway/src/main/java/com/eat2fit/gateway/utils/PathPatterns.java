@@ -0,0 +1,59 @@
+package com.eat2fit.gateway.utils;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 路由过滤器共用的路径匹配和请求key工具
+ */
+public class PathPatterns {
+
+    private PathPatterns() {
+    }
+
+    /**
+     * 预编译路径规则
+     */
+    public static List<PathPattern> compile(List<String> patterns) {
+        List<PathPattern> compiled = new ArrayList<>();
+        if (patterns != null) {
+            for (String pattern : patterns) {
+                compiled.add(PathPatternParser.defaultInstance.parse(pattern));
+            }
+        }
+        return compiled;
+    }
+
+    public static boolean matches(List<PathPattern> patterns, PathContainer path) {
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 请求标识：路径 + 查询参数 + 指定请求头
+     * @param request 请求
+     * @param varyHeaders 参与标识的请求头，如 user-info
+     */
+    public static String requestKey(ServerHttpRequest request, List<String> varyHeaders) {
+        StringBuilder key = new StringBuilder(request.getPath().value());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        if (varyHeaders != null) {
+            for (String header : varyHeaders) {
+                key.append('|').append(header).append('=').append(request.getHeaders().getFirst(header));
+            }
+        }
+        return key.toString();
+    }
+}
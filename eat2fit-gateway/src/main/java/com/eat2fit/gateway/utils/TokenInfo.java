@@ -0,0 +1,37 @@
+package com.eat2fit.gateway.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 已校验token中的用户信息
+ */
+@Data
+@AllArgsConstructor
+public class TokenInfo {
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 角色：0-普通用户，1-管理员
+     */
+    private Integer role;
+
+    /**
+     * 过期时间（毫秒时间戳），0表示未设置
+     */
+    private long expiresAt;
+
+    /**
+     * token ID（jti），旧token中可能没有
+     */
+    private String tokenId;
+
+    /**
+     * 签发时间（毫秒时间戳），0表示未设置
+     */
+    private long issuedAt;
+}
@@ -0,0 +1,29 @@
+package com.eat2fit.gateway.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 单个子请求的结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemVO {
+
+    /**
+     * 子请求标识
+     */
+    private String id;
+
+    /**
+     * HTTP状态码
+     */
+    private Integer status;
+
+    /**
+     * 响应体，JSON响应解析后返回，其余为字符串
+     */
+    private Object body;
+}
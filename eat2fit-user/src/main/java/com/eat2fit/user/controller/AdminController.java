@@ -1,11 +1,14 @@
 package com.eat2fit.user.controller;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.eat2fit.common.page.CursorPage;
 import com.eat2fit.common.response.Result;
 import com.eat2fit.user.annotation.RequiresAdmin;
+import com.eat2fit.user.converter.UserConverter;
 import com.eat2fit.user.dto.StatusUpdateDTO;
 import com.eat2fit.user.dto.RoleUpdateDTO;
 import com.eat2fit.user.entity.User;
+import com.eat2fit.user.service.RevocationService;
 import com.eat2fit.user.service.UserService;
 import com.eat2fit.user.vo.UserVO;
 import com.github.pagehelper.PageHelper;
@@ -20,7 +23,6 @@ import java.time.LocalTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * 管理员控制器
@@ -33,6 +35,12 @@ public class AdminController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private RevocationService revocationService;
+
+    @Autowired
+    private UserConverter userConverter;
+
     /**
      * 获取用户统计数据
      */
@@ -71,21 +79,7 @@ public class AdminController {
             @RequestParam(required = false) String sort) {
         
         // 创建查询条件
-        LambdaQueryWrapper<User> queryWrapper = new LambdaQueryWrapper<>();
-        
-        // 添加搜索条件
-        if (StringUtils.hasText(username)) {
-            queryWrapper.like(User::getUsername, username);
-        }
-        if (StringUtils.hasText(nickname)) {
-            queryWrapper.like(User::getNickname, nickname);
-        }
-        if (status != null) {
-            queryWrapper.eq(User::getStatus, status);
-        }
-        if (role != null) {
-            queryWrapper.eq(User::getRole, role);
-        }
+        LambdaQueryWrapper<User> queryWrapper = buildUserQuery(username, nickname, status, role);
         
         // 添加排序条件
         if (StringUtils.hasText(sort)) {
@@ -126,24 +120,7 @@ public class AdminController {
         PageInfo<User> pageInfo = new PageInfo<>(userList);
         
         // 转换为VO
-        List<UserVO> userVOList = userList.stream().map(user -> {
-            UserVO userVO = new UserVO();
-            userVO.setId(user.getId());
-            userVO.setUsername(user.getUsername());
-            userVO.setNickname(user.getNickname());
-            userVO.setEmail(user.getEmail());
-            userVO.setPhone(user.getPhone());
-            userVO.setGender(user.getGender());
-            userVO.setAge(user.getAge());
-            userVO.setHeight(user.getHeight());
-            userVO.setWeight(user.getWeight());
-            userVO.setFitnessGoal(user.getFitnessGoal());
-            userVO.setStatus(user.getStatus());
-            userVO.setRole(user.getRole());
-            userVO.setCreateTime(user.getCreateTime());
-            userVO.setAvatar(user.getAvatar());
-            return userVO;
-        }).collect(Collectors.toList());
+        List<UserVO> userVOList = userConverter.toVOList(userList);
         
         // 构建返回结果
         Map<String, Object> result = new HashMap<>();
@@ -156,6 +133,26 @@ public class AdminController {
         return Result.success(result);
     }
 
+    /**
+     * 游标分页获取用户列表，按注册时间倒序，不支持自定义排序
+     */
+    @GetMapping("/users/cursor")
+    public Result<CursorPage<UserVO>> cursorUserList(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "false") Boolean withTotal,
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String nickname,
+            @RequestParam(required = false) Integer status,
+            @RequestParam(required = false) Integer role) {
+        
+        String countKey = "user:" + username + ":" + nickname + ":" + status + ":" + role;
+        CursorPage<User> page = userService.cursorList(() -> buildUserQuery(username, nickname, status, role),
+                countKey, cursor, size, withTotal);
+        
+        return Result.success(page.convert(userConverter::toVOList));
+    }
+
     /**
      * 禁用/启用用户
      */
@@ -169,6 +166,15 @@ public class AdminController {
         user.setStatus(statusUpdateDTO.getStatus());
         boolean result = userService.updateById(user);
         
+        // 通知网关，禁用后已登录的token立即失效
+        if (result && statusUpdateDTO.getStatus() != null) {
+            if (statusUpdateDTO.getStatus() == 0) {
+                revocationService.disableUser(userId);
+            } else {
+                revocationService.enableUser(userId);
+            }
+        }
+        
         return Result.success(result);
     }
 
@@ -185,6 +191,11 @@ public class AdminController {
         user.setRole(roleUpdateDTO.getRole());
         boolean result = userService.updateById(user);
         
+        // token中带有角色，旧token作废，重新登录后生效
+        if (result) {
+            revocationService.revokeUserTokens(userId);
+        }
+        
         return Result.success(result);
     }
     
@@ -195,6 +206,30 @@ public class AdminController {
     public Result<String> resetUserPassword(@PathVariable Long userId) {
         // 调用服务重置密码
         String newPassword = userService.resetPassword(userId);
+        // 重置密码后已登录的token作废
+        revocationService.revokeUserTokens(userId);
         return Result.success(newPassword);
     }
-} 
\ No newline at end of file
+
+    /**
+     * 用户列表的搜索和过滤条件
+     */
+    private LambdaQueryWrapper<User> buildUserQuery(String username, String nickname, Integer status, Integer role) {
+        LambdaQueryWrapper<User> queryWrapper = new LambdaQueryWrapper<>();
+        
+        // 添加搜索条件
+        if (StringUtils.hasText(username)) {
+            queryWrapper.like(User::getUsername, username);
+        }
+        if (StringUtils.hasText(nickname)) {
+            queryWrapper.like(User::getNickname, nickname);
+        }
+        if (status != null) {
+            queryWrapper.eq(User::getStatus, status);
+        }
+        if (role != null) {
+            queryWrapper.eq(User::getRole, role);
+        }
+        return queryWrapper;
+    }
+}
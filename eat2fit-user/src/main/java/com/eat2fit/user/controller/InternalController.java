@@ -0,0 +1,28 @@
+package com.eat2fit.user.controller;
+
+import com.eat2fit.common.dto.RevocationDTO;
+import com.eat2fit.common.response.Result;
+import com.eat2fit.user.service.RevocationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 内部接口控制器，只供其他服务调用，网关没有配置 /internal 的路由
+ */
+@RestController
+@RequestMapping("/internal")
+public class InternalController {
+
+    @Autowired
+    private RevocationService revocationService;
+
+    /**
+     * 获取token吊销名单全量快照
+     */
+    @GetMapping("/revocations")
+    public Result<RevocationDTO> getRevocations() {
+        return Result.success(revocationService.snapshot());
+    }
+}
@@ -1,12 +1,15 @@
 package com.eat2fit.user.controller;
 
 import com.eat2fit.common.response.Result;
-import com.eat2fit.common.util.AliyunOSSOperator;
+import com.eat2fit.common.storage.ObjectStorage;
 import com.eat2fit.user.dto.UserLoginDTO;
 import com.eat2fit.user.dto.UserRegisterDTO;
+import com.eat2fit.user.service.RevocationService;
 import com.eat2fit.user.service.UserService;
+import com.eat2fit.user.utils.JwtTokenUtil;
 import com.eat2fit.user.vo.LoginVO;
 import com.eat2fit.user.vo.UserVO;
+import io.jsonwebtoken.Claims;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.validation.annotation.Validated;
@@ -27,7 +30,13 @@ public class UserController {
     private UserService userService;
 
     @Autowired
-    private AliyunOSSOperator aliyunOSSOperator;
+    private ObjectStorage objectStorage;
+
+    @Autowired
+    private RevocationService revocationService;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
 
     /**
      * 注册
@@ -47,6 +56,18 @@ public class UserController {
         return Result.success(loginVO);
     }
 
+    /**
+     * 退出登录，当前token在网关失效
+     */
+    @PostMapping("/logout")
+    public Result<Void> logout(@RequestHeader("authorization") String token) {
+        Claims claims = jwtTokenUtil.getAllClaimsFromToken(token);
+        if (claims.getId() != null) {
+            revocationService.revokeToken(claims.getId(), claims.getExpiration().getTime());
+        }
+        return Result.success();
+    }
+
     /**
      * 获取用户信息
      */
@@ -100,10 +121,9 @@ public class UserController {
     @PostMapping("/profile")
     public Result<String> uploadProfile(MultipartFile file) throws Exception {
         log.info("上传文件: {}", file.getOriginalFilename());
-        //  上传文件交给阿里云OSS
-        aliyunOSSOperator.upload(file.getBytes(), file.getOriginalFilename());
-        String fileUrl = aliyunOSSOperator.upload(file.getBytes(), file.getOriginalFilename());
-        log.info("上传文件成功OSS,url: {}", fileUrl);
+        // 上传文件到对象存储
+        String fileUrl = objectStorage.upload(file);
+        log.info("上传文件成功，URL: {}", fileUrl);
         return Result.success(fileUrl);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.eat2fit.user.converter;
+
+import com.eat2fit.user.dto.UserBodyRecordDTO;
+import com.eat2fit.user.entity.UserBodyRecord;
+import com.eat2fit.user.vo.UserBodyRecordVO;
+import org.mapstruct.Mapper;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.List;
+
+/**
+ * 身体数据记录对象转换器
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface UserBodyRecordConverter {
+
+    UserBodyRecordVO toVO(UserBodyRecord record);
+
+    List<UserBodyRecordVO> toVOList(List<UserBodyRecord> records);
+
+    UserBodyRecord toEntity(UserBodyRecordDTO recordDTO);
+}
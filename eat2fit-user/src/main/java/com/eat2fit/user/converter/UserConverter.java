@@ -0,0 +1,29 @@
+package com.eat2fit.user.converter;
+
+import com.eat2fit.user.dto.UserRegisterDTO;
+import com.eat2fit.user.entity.User;
+import com.eat2fit.user.vo.UserVO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.List;
+
+/**
+ * 用户对象转换器
+ * <p>
+ * 由MapStruct在编译期生成实现，直接调用getter/setter，替代反射的BeanUtils.copyProperties
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface UserConverter {
+
+    UserVO toVO(User user);
+
+    List<UserVO> toVOList(List<User> users);
+
+    /**
+     * 密码需要加密后再设置，这里不拷贝明文
+     */
+    @Mapping(target = "password", ignore = true)
+    User toEntity(UserRegisterDTO registerDTO);
+}
@@ -0,0 +1,53 @@
+package com.eat2fit.user.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * token吊销记录实体类
+ * <p>
+ * 用户级记录（token_id 为空）表示该用户在 not_before 之前签发的token全部失效；
+ * token级记录表示单个token失效。记录在 expires_at 之后不再有意义，生成快照时清理。
+ */
+@Data
+@TableName("token_revocation")
+public class TokenRevocation implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * ID
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 用户ID，单个token的记录为空
+     */
+    private Long userId;
+
+    /**
+     * token ID（jti），用户级记录为空
+     */
+    private String tokenId;
+
+    /**
+     * 签发时间早于它的token失效（毫秒时间戳），只用于用户级记录
+     */
+    private Long notBefore;
+
+    /**
+     * 记录失效时间（毫秒时间戳）
+     */
+    private Long expiresAt;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createTime;
+}
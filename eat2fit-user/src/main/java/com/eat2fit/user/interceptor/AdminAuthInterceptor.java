@@ -1,29 +1,25 @@
 package com.eat2fit.user.interceptor;
 
+import com.eat2fit.common.constant.Constants;
 import com.eat2fit.common.exception.BusinessException;
 import com.eat2fit.common.exception.ErrorCode;
 import com.eat2fit.user.annotation.RequiresAdmin;
-import com.eat2fit.user.utils.JwtTokenUtil;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import java.util.Map;
-
-import io.jsonwebtoken.Claims;
 
 /**
  * 管理员权限拦截器
+ * <p>
+ * token已在网关校验，角色通过 user-role 请求头传入，这里不再解析token
  */
 @Component
 public class AdminAuthInterceptor implements HandlerInterceptor {
 
-    @Autowired
-    private JwtTokenUtil jwtTokenUtil;
-
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
         // 如果不是映射到方法，直接通过
@@ -44,26 +40,17 @@ public class AdminAuthInterceptor implements HandlerInterceptor {
             return true;
         }
 
-        // 从请求头中获取token
-        String token = request.getHeader("Authorization");
-        if (token != null && token.startsWith("Bearer ")) {
-            token = token.substring(7);
-        } else {
+        // 从网关传递的请求头中获取用户和角色
+        String userInfo = request.getHeader(Constants.USER_INFO_HEADER);
+        String userRole = request.getHeader(Constants.USER_ROLE_HEADER);
+        if (!StringUtils.hasText(userInfo) || !StringUtils.hasText(userRole)) {
             throw new BusinessException(ErrorCode.UNAUTHORIZED);
         }
 
-        try {
-            // 验证token
-            Claims claims = jwtTokenUtil.getAllClaimsFromToken(token);
-            // 验证是否是管理员
-            Integer role = claims.get("role", Integer.class);
-            if (role == null || role != 1) {
-                throw new BusinessException(ErrorCode.FORBIDDEN.getCode(), requiresAdmin.message());
-            }
-            
-            return true;
-        } catch (Exception e) {
-            throw new BusinessException(ErrorCode.UNAUTHORIZED);
+        // 验证是否是管理员
+        if (!String.valueOf(Constants.ROLE_ADMIN).equals(userRole.trim())) {
+            throw new BusinessException(ErrorCode.FORBIDDEN.getCode(), requiresAdmin.message());
         }
+        return true;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,10 @@
+package com.eat2fit.user.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.eat2fit.user.entity.TokenRevocation;
+
+/**
+ * token吊销记录Mapper接口
+ */
+public interface TokenRevocationMapper extends BaseMapper<TokenRevocation> {
+}
@@ -0,0 +1,52 @@
+package com.eat2fit.user.service;
+
+import com.eat2fit.common.dto.RevocationDTO;
+
+/**
+ * token吊销服务接口
+ */
+public interface RevocationService {
+
+    /**
+     * 禁用用户，该用户的所有token立即失效
+     *
+     * @param userId 用户ID
+     */
+    void disableUser(Long userId);
+
+    /**
+     * 启用用户，启用前签发的token仍然无效
+     *
+     * @param userId 用户ID
+     */
+    void enableUser(Long userId);
+
+    /**
+     * 吊销用户当前的所有token，用于修改角色、重置密码
+     *
+     * @param userId 用户ID
+     */
+    void revokeUserTokens(Long userId);
+
+    /**
+     * 吊销单个token，用于退出登录
+     *
+     * @param tokenId   token ID（jti）
+     * @param expiresAt token过期时间（毫秒时间戳）
+     */
+    void revokeToken(String tokenId, long expiresAt);
+
+    /**
+     * 获取全量吊销名单，只读，不包含已过期的记录
+     *
+     * @return 吊销名单快照
+     */
+    RevocationDTO snapshot();
+
+    /**
+     * 删除对应token已经自然过期的吊销记录
+     *
+     * @return 删除的记录数
+     */
+    int purgeExpired();
+}
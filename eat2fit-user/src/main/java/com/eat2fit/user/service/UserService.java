@@ -3,6 +3,7 @@ package com.eat2fit.user.service;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.eat2fit.common.page.CursorPage;
 import com.eat2fit.user.dto.UserLoginDTO;
 import com.eat2fit.user.dto.UserRegisterDTO;
 import com.eat2fit.user.entity.User;
@@ -10,6 +11,7 @@ import com.eat2fit.user.vo.LoginVO;
 import com.eat2fit.user.vo.UserVO;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * 用户服务接口
@@ -88,6 +90,19 @@ public interface UserService {
      */
     List<User> list(LambdaQueryWrapper<User> queryWrapper);
 
+    /**
+     * 根据条件游标分页获取用户列表，按创建时间倒序
+     * 
+     * @param queryBuilder 创建查询条件，不带排序；总数缓存异步刷新时会再次调用
+     * @param countKey 总数缓存的key，与查询条件一一对应
+     * @param cursor 上一页返回的游标，第一页为空
+     * @param size 每页大小
+     * @param withTotal 是否返回总数
+     * @return 用户列表
+     */
+    CursorPage<User> cursorList(Supplier<LambdaQueryWrapper<User>> queryBuilder, String countKey,
+                                String cursor, int size, boolean withTotal);
+
     /**
      * 根据ID更新用户信息
      * 
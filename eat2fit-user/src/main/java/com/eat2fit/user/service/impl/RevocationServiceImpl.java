@@ -0,0 +1,202 @@
+package com.eat2fit.user.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.eat2fit.common.dto.RevocationDTO;
+import com.eat2fit.common.util.HmacUtil;
+import com.eat2fit.user.entity.TokenRevocation;
+import com.eat2fit.user.entity.User;
+import com.eat2fit.user.mapper.TokenRevocationMapper;
+import com.eat2fit.user.mapper.UserMapper;
+import com.eat2fit.user.service.RevocationService;
+import com.eat2fit.user.utils.JwtTokenUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * token吊销服务实现类
+ * <p>
+ * 被禁用的用户以数据库中的 status 为准；修改角色、重置密码、退出登录产生的吊销记录保存在 token_revocation 表，
+ * 保留到对应的token自然过期，服务重启或多实例部署时快照内容一致。
+ * 每次变更都带签名推送给所有网关实例（管理端口的 /actuator/revocation），网关另外会定期拉取 {@link #snapshot()} 校准。
+ * 过期记录由定时任务 {@link #purgeExpired()} 清理，快照只读。
+ */
+@Slf4j
+@Service
+public class RevocationServiceImpl implements RevocationService {
+
+    private static final String GATEWAY_SERVICE = "eat2fit-gateway";
+
+    private static final String MANAGEMENT_PORT = "management-port";
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private TokenRevocationMapper revocationMapper;
+
+    @Autowired
+    private DiscoveryClient discoveryClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 推送签名的密钥，与网关的 ef.revocation.secret 一致，未配置时启动失败
+     */
+    @Value("${ef.revocation.secret:}")
+    private String secret;
+
+    /**
+     * 单线程推送，保证同一用户的禁用、启用按顺序到达网关
+     */
+    private final ExecutorService pushExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "revocation-push");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final RestTemplate restTemplate = createRestTemplate();
+
+    @Override
+    public void disableUser(Long userId) {
+        // 禁用期间以用户状态为准，之前的用户级记录不再需要
+        revocationMapper.delete(new LambdaQueryWrapper<TokenRevocation>()
+                .eq(TokenRevocation::getUserId, userId)
+                .isNull(TokenRevocation::getTokenId));
+        push(Collections.singletonMap(userId, RevocationDTO.DISABLED), Collections.emptyMap());
+    }
+
+    @Override
+    public void enableUser(Long userId) {
+        revokeUserTokens(userId);
+    }
+
+    @Override
+    public void revokeUserTokens(Long userId) {
+        // 网关按毫秒比较签发时间，之后重新登录拿到的token不受影响
+        long notBefore = System.currentTimeMillis();
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setUserId(userId);
+        revocation.setNotBefore(notBefore);
+        revocation.setExpiresAt(notBefore + JwtTokenUtil.EXPIRATION_TIME);
+        revocation.setCreateTime(LocalDateTime.now());
+        revocationMapper.insert(revocation);
+        push(Collections.singletonMap(userId, notBefore), Collections.emptyMap());
+    }
+
+    @Override
+    public void revokeToken(String tokenId, long expiresAt) {
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setTokenId(tokenId);
+        revocation.setExpiresAt(expiresAt);
+        revocation.setCreateTime(LocalDateTime.now());
+        revocationMapper.insert(revocation);
+        push(Collections.emptyMap(), Collections.singletonMap(tokenId, expiresAt));
+    }
+
+    @Override
+    public RevocationDTO snapshot() {
+        long now = System.currentTimeMillis();
+        RevocationDTO revocation = new RevocationDTO();
+        revocation.setSnapshot(true);
+        revocation.setTimestamp(now);
+        // 过期但还没清理的记录不再下发
+        LambdaQueryWrapper<TokenRevocation> revocationQuery = new LambdaQueryWrapper<>();
+        revocationQuery.ge(TokenRevocation::getExpiresAt, now);
+        for (TokenRevocation record : revocationMapper.selectList(revocationQuery)) {
+            if (record.getTokenId() != null) {
+                revocation.getTokens().put(record.getTokenId(), record.getExpiresAt());
+            } else if (record.getUserId() != null && record.getNotBefore() != null) {
+                // 同一用户多次吊销时取最晚的一次
+                revocation.getUsers().merge(record.getUserId(), record.getNotBefore(), Math::max);
+            }
+        }
+
+        // 被禁用的用户
+        LambdaQueryWrapper<User> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.select(User::getId).eq(User::getStatus, 0);
+        for (User user : userMapper.selectList(queryWrapper)) {
+            revocation.getUsers().put(user.getId(), RevocationDTO.DISABLED);
+        }
+        return revocation;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${ef.revocation.purge-interval:PT1H}")
+    public int purgeExpired() {
+        int purged = revocationMapper.delete(new LambdaQueryWrapper<TokenRevocation>()
+                .lt(TokenRevocation::getExpiresAt, System.currentTimeMillis()));
+        if (purged > 0) {
+            log.info("清理过期的token吊销记录 {} 条", purged);
+        }
+        return purged;
+    }
+
+    @PostConstruct
+    public void checkSecret() {
+        HmacUtil.requireSecret(secret, "ef.revocation.secret");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pushExecutor.shutdown();
+    }
+
+    private void push(Map<Long, Long> users, Map<String, Long> tokens) {
+        RevocationDTO revocation = new RevocationDTO();
+        revocation.getUsers().putAll(users);
+        revocation.getTokens().putAll(tokens);
+        revocation.setTimestamp(System.currentTimeMillis());
+        pushExecutor.execute(() -> {
+            Map<String, String> body = new HashMap<>();
+            try {
+                String payload = objectMapper.writeValueAsString(revocation);
+                body.put("payload", payload);
+                body.put("signature", HmacUtil.sign(secret, payload));
+            } catch (Exception e) {
+                log.error("序列化token吊销信息失败", e);
+                return;
+            }
+            List<ServiceInstance> instances = discoveryClient.getInstances(GATEWAY_SERVICE);
+            for (ServiceInstance instance : instances) {
+                String port = instance.getMetadata().get(MANAGEMENT_PORT);
+                if (port == null) {
+                    log.warn("网关实例 {} 未配置管理端口，跳过推送", instance.getInstanceId());
+                    continue;
+                }
+                String url = "http://" + instance.getHost() + ":" + port + "/actuator/revocation";
+                try {
+                    restTemplate.postForObject(url, body, String.class);
+                } catch (Exception e) {
+                    // 推送失败的实例等下次全量拉取时补上
+                    log.warn("推送token吊销信息到 {} 失败: {}", url, e.getMessage());
+                }
+            }
+        });
+    }
+
+    private static RestTemplate createRestTemplate() {
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(2000);
+        factory.setReadTimeout(2000);
+        return new RestTemplate(factory);
+    }
+}
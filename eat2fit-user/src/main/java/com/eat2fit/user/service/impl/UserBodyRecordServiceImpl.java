@@ -2,12 +2,13 @@ package com.eat2fit.user.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.eat2fit.user.converter.UserBodyRecordConverter;
 import com.eat2fit.user.dto.UserBodyRecordDTO;
 import com.eat2fit.user.entity.UserBodyRecord;
 import com.eat2fit.user.mapper.UserBodyRecordMapper;
 import com.eat2fit.user.service.UserBodyRecordService;
 import com.eat2fit.user.vo.UserBodyRecordVO;
-import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,7 +16,6 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * 用户身体数据记录服务实现类
@@ -23,6 +23,9 @@ import java.util.stream.Collectors;
 @Service
 public class UserBodyRecordServiceImpl extends ServiceImpl<UserBodyRecordMapper, UserBodyRecord> implements UserBodyRecordService {
 
+    @Autowired
+    private UserBodyRecordConverter recordConverter;
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Long addRecord(UserBodyRecordDTO userBodyRecordDTO) {
@@ -41,8 +44,7 @@ public class UserBodyRecordServiceImpl extends ServiceImpl<UserBodyRecordMapper,
             updateById(record);
         } else {
             // 创建新记录
-            record = new UserBodyRecord();
-            BeanUtils.copyProperties(userBodyRecordDTO, record);
+            record = recordConverter.toEntity(userBodyRecordDTO);
             
             // 计算BMI
             record.setBmi(calculateBMI(userBodyRecordDTO.getWeight(), userBodyRecordDTO.getUserId()));
@@ -56,13 +58,13 @@ public class UserBodyRecordServiceImpl extends ServiceImpl<UserBodyRecordMapper,
     @Override
     public List<UserBodyRecordVO> getLatestRecords(Long userId, int limit) {
         List<UserBodyRecord> records = baseMapper.getLatestRecords(userId, limit);
-        return convertToVOList(records);
+        return recordConverter.toVOList(records);
     }
 
     @Override
     public List<UserBodyRecordVO> getRecordsByDateRange(Long userId, LocalDate startDate, LocalDate endDate) {
         List<UserBodyRecord> records = baseMapper.getRecordsByDateRange(userId, startDate, endDate);
-        return convertToVOList(records);
+        return recordConverter.toVOList(records);
     }
 
     @Override
@@ -72,7 +74,7 @@ public class UserBodyRecordServiceImpl extends ServiceImpl<UserBodyRecordMapper,
             return null;
         }
         
-        return convertToVO(record);
+        return recordConverter.toVO(record);
     }
 
     @Override
@@ -109,20 +111,4 @@ public class UserBodyRecordServiceImpl extends ServiceImpl<UserBodyRecordMapper,
         
         return null;
     }
-    
-    /**
-     * 将实体转换为VO
-     */
-    private UserBodyRecordVO convertToVO(UserBodyRecord record) {
-        UserBodyRecordVO vo = new UserBodyRecordVO();
-        BeanUtils.copyProperties(record, vo);
-        return vo;
-    }
-    
-    /**
-     * 将实体列表转换为VO列表
-     */
-    private List<UserBodyRecordVO> convertToVOList(List<UserBodyRecord> records) {
-        return records.stream().map(this::convertToVO).collect(Collectors.toList());
-    }
 } 
\ No newline at end of file
@@ -4,8 +4,14 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.eat2fit.common.cache.TwoLevelCache;
+import com.eat2fit.common.cache.TwoLevelCacheManager;
+import com.eat2fit.common.constant.Constants;
 import com.eat2fit.common.exception.BusinessException;
 import com.eat2fit.common.exception.ErrorCode;
+import com.eat2fit.common.page.CursorPage;
+import com.eat2fit.common.page.KeysetPager;
+import com.eat2fit.user.converter.UserConverter;
 import com.eat2fit.user.dto.UserLoginDTO;
 import com.eat2fit.user.dto.UserRegisterDTO;
 import com.eat2fit.user.entity.User;
@@ -15,15 +21,17 @@ import com.eat2fit.user.utils.JwtTokenUtil;
 import com.eat2fit.user.utils.PasswordUtil;
 import com.eat2fit.user.vo.LoginVO;
 import com.eat2fit.user.vo.UserVO;
-import org.springframework.beans.BeanUtils;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * 用户服务实现类
@@ -31,12 +39,34 @@ import java.util.Map;
 @Service
 public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements UserService {
 
+    private static final KeysetPager<User, LocalDateTime> PAGER =
+            new KeysetPager<>(User::getCreateTime, User::getId, LocalDateTime::parse);
+
     @Autowired
     private BCryptPasswordEncoder passwordEncoder;
     
     @Autowired
     private JwtTokenUtil jwtTokenUtil;
 
+    @Autowired
+    private TwoLevelCacheManager cacheManager;
+
+    @Autowired
+    private UserConverter userConverter;
+
+    private TwoLevelCache<UserVO> userCache;
+
+    /**
+     * 游标分页的总数缓存
+     */
+    private TwoLevelCache<Long> countCache;
+
+    @PostConstruct
+    public void initCache() {
+        userCache = cacheManager.getCache("user", Constants.REDIS_USER_PREFIX, UserVO.class);
+        countCache = cacheManager.getCache("user-page-count", Constants.REDIS_PAGE_COUNT_PREFIX, Long.class);
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Long register(UserRegisterDTO userRegisterDTO) {
@@ -44,8 +74,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         checkUserInfoExists(userRegisterDTO.getUsername(), userRegisterDTO.getPhone(), userRegisterDTO.getEmail());
         
         // 创建用户实体
-        User user = new User();
-        BeanUtils.copyProperties(userRegisterDTO, user);
+        User user = userConverter.toEntity(userRegisterDTO);
         
         // 密码加密
         user.setPassword(passwordEncoder.encode(userRegisterDTO.getPassword()));
@@ -102,14 +131,17 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
 
     @Override
     public UserVO getUserInfo(Long userId) {
-        User user = getById(userId);
-        if (user == null) {
+        UserVO userVO = userCache.get(userId, () -> {
+            User user = getById(userId);
+            if (user == null) {
+                return null;
+            }
+            return userConverter.toVO(user);
+        });
+        if (userVO == null) {
             throw new BusinessException(ErrorCode.USER_NOT_FOUND);
         }
         
-        UserVO userVO = new UserVO();
-        BeanUtils.copyProperties(user, userVO);
-        
         return userVO;
     }
 
@@ -162,9 +194,20 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         return baseMapper.selectList(queryWrapper);
     }
     
+    @Override
+    public CursorPage<User> cursorList(Supplier<LambdaQueryWrapper<User>> queryBuilder, String countKey,
+                                       String cursor, int size, boolean withTotal) {
+        Supplier<Long> total = withTotal
+                ? () -> countCache.get(countKey, () -> baseMapper.selectCount(queryBuilder.get()))
+                : null;
+        return PAGER.page(queryBuilder.get(), cursor, size, baseMapper, total);
+    }
+    
     @Override
     public boolean updateById(User user) {
-        return super.updateById(user);
+        boolean updated = super.updateById(user);
+        userCache.evictAfterCommit(user.getId());
+        return updated;
     }
     
     @Override
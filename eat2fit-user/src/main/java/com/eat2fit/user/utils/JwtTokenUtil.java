@@ -11,6 +11,7 @@ import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * JWT工具类
@@ -24,17 +25,25 @@ public class JwtTokenUtil {
     // 使用固定密钥而不是动态生成
     private static final SecretKey JWT_KEY = Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
 
-    private static final long EXPIRATION_TIME = 12 * 60 * 60 * 1000; // 12 hours in milliseconds
+    public static final long EXPIRATION_TIME = 12 * 60 * 60 * 1000; // 12 hours in milliseconds
+
+    /**
+     * 毫秒精度签发时间的claim名，标准的 iat 只精确到秒
+     */
+    public static final String ISSUED_AT_MILLIS = "iatMs";
 
     /**
      * 根据用户信息生成token
      */
     public String generateToken(Map<String,Object> claims) {
+        long now = System.currentTimeMillis();
         String jwt =  Jwts.builder()
                 .signWith(JWT_KEY, SignatureAlgorithm.HS256) // 使用安全的密钥和算法
                 .setClaims(claims)
-                .setIssuedAt(new Date())  // 设置签发时间
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME)) // 设置过期时间
+                .claim(ISSUED_AT_MILLIS, now) // 毫秒精度的签发时间，网关据此与吊销时间比较
+                .setId(UUID.randomUUID().toString()) // 设置token ID，用于退出登录时吊销单个token
+                .setIssuedAt(new Date(now))  // 设置签发时间
+                .setExpiration(new Date(now + EXPIRATION_TIME)) // 设置过期时间
                 .compact(); // 生成令牌
         log.info("生成JWT令牌，包含用户ID: {}", claims.get("id"));
         return jwt;
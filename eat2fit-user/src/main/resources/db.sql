@@ -24,7 +24,8 @@ CREATE TABLE IF NOT EXISTS `user`
     PRIMARY KEY (`id`),
     UNIQUE KEY `uk_username` (`username`),
     UNIQUE KEY `uk_phone` (`phone`),
-    UNIQUE KEY `uk_email` (`email`)
+    UNIQUE KEY `uk_email` (`email`),
+    KEY `idx_create_time` (`create_time`)
 ) ENGINE = InnoDB
   AUTO_INCREMENT = 1
   DEFAULT CHARSET = utf8mb4 COMMENT ='用户表';
@@ -45,3 +46,18 @@ CREATE TABLE IF NOT EXISTS `user_body_record`
     KEY `idx_record_date` (`record_date`)
 ) ENGINE = InnoDB
   DEFAULT CHARSET = utf8mb4 COMMENT ='用户身体数据记录表';
+
+-- token吊销记录表，用户级记录 token_id 为空，token级记录 user_id 可为空
+CREATE TABLE IF NOT EXISTS `token_revocation`
+(
+    `id`          bigint(20)  NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `user_id`     bigint(20)           DEFAULT NULL COMMENT '用户ID',
+    `token_id`    varchar(64)          DEFAULT NULL COMMENT 'token ID（jti）',
+    `not_before`  bigint(20)           DEFAULT NULL COMMENT '签发时间早于它的token失效（毫秒时间戳）',
+    `expires_at`  bigint(20)  NOT NULL COMMENT '记录失效时间（毫秒时间戳）',
+    `create_time` datetime    NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    PRIMARY KEY (`id`),
+    KEY `idx_user_id` (`user_id`),
+    KEY `idx_expires_at` (`expires_at`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='token吊销记录表';
@@ -0,0 +1,18 @@
+-- 已有数据库升级：token吊销记录持久化
+-- 新建的数据库直接执行 db.sql 即可，不需要执行本脚本
+
+use eat2fit_user;
+
+CREATE TABLE IF NOT EXISTS `token_revocation`
+(
+    `id`          bigint(20)  NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `user_id`     bigint(20)           DEFAULT NULL COMMENT '用户ID',
+    `token_id`    varchar(64)          DEFAULT NULL COMMENT 'token ID（jti）',
+    `not_before`  bigint(20)           DEFAULT NULL COMMENT '签发时间早于它的token失效（毫秒时间戳）',
+    `expires_at`  bigint(20)  NOT NULL COMMENT '记录失效时间（毫秒时间戳）',
+    `create_time` datetime    NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    PRIMARY KEY (`id`),
+    KEY `idx_user_id` (`user_id`),
+    KEY `idx_expires_at` (`expires_at`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='token吊销记录表';
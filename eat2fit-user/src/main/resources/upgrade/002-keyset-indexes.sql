@@ -0,0 +1,7 @@
+-- 已有数据库升级：后台用户列表的游标分页按 (create_time, id) 查询，补充对应的索引
+-- 新建的数据库直接执行 db.sql 即可，不需要执行本脚本
+
+use eat2fit_user;
+
+ALTER TABLE `user`
+    ADD KEY `idx_create_time` (`create_time`);